@@ -0,0 +1,64 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A book of trades, used as the binding of benchmarks navigating a deeper object graph of collections.
+ */
+public class Book {
+    private List<Trade> trades = new ArrayList<>();
+
+    /**
+     * Creates a representative book of trades, with a mix of quantities and counterparties.
+     *
+     * @param numberOfTrades the number of trades to create.
+     * @param numberOfLines the number of lines to create on each trade.
+     * @return a fully populated book.
+     */
+    public static Book sampleBook(int numberOfTrades, int numberOfLines) {
+        Book book = new Book();
+        for (int n = 0; n < numberOfTrades; n++) {
+            Trade trade = Trade.sampleTrade(numberOfLines);
+            trade.setQuantity(500 * (n % 4));
+            trade.setCounterparty(new Party("Counterparty " + (n % 5)));
+            book.getTrades().add(trade);
+        }
+        return book;
+    }
+
+    public List<Trade> getTrades() {
+        return trades;
+    }
+
+    public void setTrades(List<Trade> trades) {
+        this.trades = trades;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.orthodox.universel.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.orthodox.universel.compiler.CompiledUnit;
+import org.orthodox.universel.compiler.CompiledUnitCache;
+import org.orthodox.universel.compiler.UniversalCompiler;
+import org.orthodox.universel.exec.navigation.PackageScanNavigatorLoader;
+import org.orthodox.universel.exec.navigation.SharedNavigatorRegistry;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of compiling scripts end to end, both with and without the compiled unit cache, and with and
+ * without the one-off cost of constructing the compiler.
+ *
+ * <p>Compiler construction is measured over navigator package scans of increasing size, both against the shared
+ * navigator registry snapshot and with the navigators rescanned for every compiler, as they were before the snapshot
+ * was shared. The former should remain flat as the scan grows, while the latter grows with it.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompilationBenchmark {
+    @Param
+    public ScriptCorpus script;
+
+    private UniversalCompiler uncachedCompiler;
+    private UniversalCompiler cachingCompiler;
+
+    @Setup
+    public void setup() {
+        uncachedCompiler = new UniversalCompiler(CompiledUnitCache.disabled());
+        cachingCompiler = new UniversalCompiler();
+    }
+
+    @Benchmark
+    public CompiledUnit<Trade> compileUncached() {
+        return uncachedCompiler.compile(script.getSource(), Trade.class);
+    }
+
+    @Benchmark
+    public CompiledUnit<Trade> compileCached() {
+        return cachingCompiler.compile(script.getSource(), Trade.class);
+    }
+
+    @Benchmark
+    public CompiledUnit<Trade> constructCompilerAndCompile(final NavigatorScan navigatorScan) {
+        return new UniversalCompiler(CompiledUnitCache.disabled()).compile(script.getSource(), Trade.class);
+    }
+
+    @Benchmark
+    public CompiledUnit<Trade> rescanNavigatorsConstructCompilerAndCompile(final NavigatorScan navigatorScan) {
+        SharedNavigatorRegistry.reload();
+        return new UniversalCompiler(CompiledUnitCache.disabled()).compile(script.getSource(), Trade.class);
+    }
+
+    /**
+     * The navigator package scan, widened by a number of additional packages from the benchmark classpath. None of
+     * the additional packages contain navigators, so only the cost of scanning them changes.
+     */
+    @State(Scope.Benchmark)
+    public static class NavigatorScan {
+        private static final String[] ADDITIONAL_PACKAGES = {
+            "org.objectweb.asm",
+            "org.objectweb.asm.tree",
+            "org.objectweb.asm.util",
+            "org.objectweb.asm.commons",
+            "org.beanplanet.core.lang",
+            "org.beanplanet.core.util",
+            "org.beanplanet.core.io",
+            "org.beanplanet.core.beans",
+            "org.beanplanet.core.models",
+            "org.beanplanet.core.logging",
+            "org.beanplanet.core.streams",
+            "org.orthodox.universel.ast",
+            "org.orthodox.universel.ast.navigation",
+            "org.orthodox.universel.compiler",
+            "org.orthodox.universel.symanticanalysis",
+            "org.orthodox.universel.exec.operators"
+        };
+
+        @Param({"0", "4", "16"})
+        public int additionalScannedPackages;
+
+        @Setup
+        public void setup() {
+            SharedNavigatorRegistry.setNavigatorLoader(new PackageScanNavigatorLoader() {
+                @Override
+                protected String[] findPackageNames() {
+                    final Set<String> packageNames = new LinkedHashSet<>(Arrays.asList(super.findPackageNames()));
+                    packageNames.addAll(Arrays.asList(ADDITIONAL_PACKAGES).subList(0, additionalScannedPackages));
+                    return packageNames.toArray(new String[packageNames.size()]);
+                }
+            });
+            SharedNavigatorRegistry.reload();
+        }
+
+        @TearDown
+        public void tearDown() {
+            SharedNavigatorRegistry.setNavigatorLoader(new PackageScanNavigatorLoader());
+            SharedNavigatorRegistry.reload();
+        }
+    }
+}
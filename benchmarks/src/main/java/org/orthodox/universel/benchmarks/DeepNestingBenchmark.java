@@ -0,0 +1,77 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.orthodox.universel.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.orthodox.universel.ast.Node;
+import org.orthodox.universel.ast.Script;
+import org.orthodox.universel.compiler.CompiledUnitCache;
+import org.orthodox.universel.compiler.UniversalCompiler;
+import org.orthodox.universel.exec.navigation.SharedNavigatorRegistry;
+import org.orthodox.universel.symanticanalysis.SemanticAnalyser;
+import org.orthodox.universel.symanticanalysis.SemanticAnalysisContext;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.nCopies;
+import static org.beanplanet.messages.domain.MessagesImpl.messages;
+
+/**
+ * Measures semantic analysis of deeply nested expressions, where the cost of deciding whether each rewrite changed
+ * the tree dominates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeepNestingBenchmark {
+    @Param({"10", "100", "500"})
+    public int depth;
+
+    private Script parsedScript;
+    private SemanticAnalyser semanticAnalyser;
+
+    @Setup
+    public void setup() {
+        UniversalCompiler compiler = new UniversalCompiler(CompiledUnitCache.disabled());
+        parsedScript = compiler.parse(String.join(" + ", nCopies(depth, "quantity")));
+        semanticAnalyser = compiler.getSemanticAnalyser();
+    }
+
+    @Benchmark
+    public Node analyse() {
+        SemanticAnalysisContext context = new SemanticAnalysisContext(Phases.DEFAULT_IMPORTS,
+                                                                      Trade.class,
+                                                                      messages(),
+                                                                      SharedNavigatorRegistry.getInstance());
+        return semanticAnalyser.performAnalysis(context, parsedScript);
+    }
+}
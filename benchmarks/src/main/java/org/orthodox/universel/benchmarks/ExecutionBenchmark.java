@@ -0,0 +1,67 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.orthodox.universel.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.orthodox.universel.compiler.CompiledUnitCache;
+import org.orthodox.universel.compiler.UniversalCompiler;
+import org.orthodox.universel.exec.CompiledScript;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the steady-state execution of pre-compiled and pre-linked scripts against a {@link Trade} binding.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExecutionBenchmark {
+    @Param
+    public ScriptCorpus script;
+
+    @Param({"10"})
+    public int numberOfTradeLines;
+
+    private Trade binding;
+    private CompiledScript<Trade, Object> compiledScript;
+
+    @Setup
+    public void setup() {
+        binding = Trade.sampleTrade(numberOfTradeLines);
+        compiledScript = new UniversalCompiler(CompiledUnitCache.disabled()).compile(script.getSource(), Trade.class).getScript();
+    }
+
+    @Benchmark
+    public Object evaluate() {
+        return compiledScript.evaluate(binding);
+    }
+}
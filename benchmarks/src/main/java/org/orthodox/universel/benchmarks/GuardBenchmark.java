@@ -0,0 +1,87 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.orthodox.universel.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.orthodox.universel.compiler.CompiledUnitCache;
+import org.orthodox.universel.compiler.UniversalCompiler;
+import org.orthodox.universel.exec.CompiledScript;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures guard-heavy rules, where a cheap test decides whether an expensive collection navigation need be evaluated
+ * at all. With short-circuit evaluation, the cost of these rules should not grow with the number of trade lines.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GuardBenchmark {
+    public enum GuardRule {
+        FAILED_AND_GUARD("quantity < 0 && lines.amount.[] != null"),
+        PASSED_OR_GUARD("quantity > 0 || lines.amount.[] != null"),
+        NON_NULL_ELVIS("counterparty ?: lines.amount.[]"),
+        RULE_SET("quantity < 0 && lines.amount.[] != null"
+                 + " || tradeDate > settlementDate && lines.amount.[] != null"
+                 + " || quantity > 0 || lines.amount.[] != null");
+
+        private final String source;
+
+        GuardRule(String source) {
+            this.source = source;
+        }
+
+        public String getSource() {
+            return source;
+        }
+    }
+
+    @Param
+    public GuardRule rule;
+
+    @Param({"10", "1000"})
+    public int numberOfTradeLines;
+
+    private Trade binding;
+    private CompiledScript<Trade, Object> compiledScript;
+
+    @Setup
+    public void setup() {
+        binding = Trade.sampleTrade(numberOfTradeLines);
+        compiledScript = new UniversalCompiler(CompiledUnitCache.disabled()).compile(rule.getSource(), Trade.class).getScript();
+    }
+
+    @Benchmark
+    public Object evaluate() {
+        return compiledScript.evaluate(binding);
+    }
+}
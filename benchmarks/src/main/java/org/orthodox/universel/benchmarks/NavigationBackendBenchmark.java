@@ -0,0 +1,103 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.orthodox.universel.compiler.CompiledUnitCache;
+import org.orthodox.universel.compiler.CompilerOptions;
+import org.orthodox.universel.compiler.PersistentCompiledUnitStore;
+import org.orthodox.universel.compiler.UniversalCompiler;
+import org.orthodox.universel.exec.CompiledScript;
+import org.orthodox.universel.symanticanalysis.navigation.NavigationBackend;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the execution of multi-step navigations lowered to stream operations with the same navigations fused into
+ * imperative loops, over a {@link Book} of trades.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NavigationBackendBenchmark {
+    public enum Navigation {
+        MAP_REDUCE("trades.counterparty.name.[]"),
+        FLAT_MAP_REDUCE("trades.lines.amount.[]"),
+        FILTER_FLAT_MAP_REDUCE("trades[quantity > 500].lines.amount.[]"),
+        MAP_REDUCE_TO_SET("trades.counterparty.name.{}"),
+        MAP_REDUCE_TO_INT_ARRAY("trades.quantity.[[]]"),
+        FILTER_MAP_REDUCE_TO_INT_ARRAY("trades[quantity > 500].quantity.[[]]"),
+        SUM_INT("trades.quantity.[sum]"),
+        SUM_BIG_DECIMAL("trades.lines.amount.[sum]"),
+        AVERAGE_INT("trades[quantity > 500].quantity.[average]"),
+        FIRST("trades[quantity > 500].counterparty.name.[first]");
+
+        private final String source;
+
+        Navigation(String source) {
+            this.source = source;
+        }
+
+        public String getSource() {
+            return source;
+        }
+    }
+
+    @Param
+    public NavigationBackend backend;
+
+    @Param
+    public Navigation navigation;
+
+    @Param({"100"})
+    public int numberOfTrades;
+
+    @Param({"10"})
+    public int numberOfTradeLines;
+
+    private Book binding;
+    private CompiledScript<Book, Object> compiledScript;
+
+    @Setup
+    public void setup() {
+        binding = Book.sampleBook(numberOfTrades, numberOfTradeLines);
+        compiledScript = new UniversalCompiler(CompiledUnitCache.disabled(),
+                                               PersistentCompiledUnitStore.disabled(),
+                                               CompilerOptions.defaultOptions().withNavigationBackend(backend))
+            .compile(navigation.getSource(), Book.class)
+            .getScript();
+    }
+
+    @Benchmark
+    public Object evaluate() {
+        return compiledScript.evaluate(binding);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.orthodox.universel.ast.navigation.NameTest;
+import org.orthodox.universel.ast.navigation.NavigationAxisAndNodeTest;
+import org.orthodox.universel.exec.navigation.ConcurrentNavigatorRegistry;
+import org.orthodox.universel.exec.navigation.NavigatorFunction;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.singletonList;
+
+/**
+ * Measures navigator lookups from types deep in a class hierarchy, where every supertype and interface is a candidate
+ * declarer of the navigators for a step. Repeat lookups should cost no more than a lookup from a shallow type.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NavigatorLookupBenchmark {
+    public interface Named {}
+    public interface Identified extends Serializable {}
+    public static class Level0 implements Named {}
+    public static class Level1 extends Level0 implements Identified {}
+    public static class Level2 extends Level1 {}
+    public static class Level3 extends Level2 implements Comparable<Level3> {
+        public int compareTo(Level3 other) { return 0; }
+    }
+    public static class Level4 extends Level3 {}
+    public static class Level5 extends Level4 implements Cloneable {}
+    public static class Level6 extends Level5 {}
+    public static class Level7 extends Level6 {}
+    public static class Level8 extends Level7 implements Runnable {
+        public void run() {}
+    }
+    public static class Level9 extends Level8 {}
+
+    public enum FromType {
+        SHALLOW(Level0.class),
+        DEEP(Level9.class);
+
+        private final Class<?> type;
+
+        FromType(Class<?> type) {
+            this.type = type;
+        }
+
+        public Class<?> getType() {
+            return type;
+        }
+    }
+
+    @Param
+    public FromType fromType;
+
+    private ConcurrentNavigatorRegistry registry;
+    private NavigationAxisAndNodeTest<NameTest> step;
+
+    @Setup
+    public void setup() {
+        NavigatorFunction navigator = (fromType, instanceReadAccessor, step) -> instanceReadAccessor;
+        registry = new ConcurrentNavigatorRegistry();
+        registry.addMappingNavigator(Named.class, singletonList("default"), singletonList("name"), navigator);
+        registry.addMappingNavigator(Level0.class, singletonList("default"), singletonList("*"), navigator);
+        registry.addMappingNavigator(Object.class, singletonList("default"), singletonList("*"), navigator);
+        step = new NavigationAxisAndNodeTest<>(null, "default", new NameTest("name"));
+    }
+
+    @Benchmark
+    public List<NavigatorFunction> lookup() {
+        return registry.lookup(fromType.getType(), step);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.orthodox.universel.compiler.CompiledUnitCache;
+import org.orthodox.universel.compiler.CompilerOptions;
+import org.orthodox.universel.compiler.PersistentCompiledUnitStore;
+import org.orthodox.universel.compiler.UniversalCompiler;
+import org.orthodox.universel.exec.CompiledScript;
+import org.orthodox.universel.symanticanalysis.navigation.NavigationParallelism;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the scaling of navigations compiled for parallel evaluation over large {@link Book}s of trades, evaluated
+ * within fork/join pools of increasing parallelism. A parallelism of zero evaluates the same navigation compiled for
+ * sequential evaluation, as the baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelNavigationBenchmark {
+    public enum Navigation {
+        MAP_REDUCE("trades.counterparty.name.[]"),
+        FILTER_FLAT_MAP_REDUCE("trades[quantity > 500].lines.amount.[]"),
+        MAP_REDUCE_TO_SET("trades.counterparty.name.{}");
+
+        private final String source;
+
+        Navigation(String source) {
+            this.source = source;
+        }
+
+        public String getSource() {
+            return source;
+        }
+    }
+
+    @Param
+    public Navigation navigation;
+
+    @Param({"0", "1", "2", "4", "8"})
+    public int parallelism;
+
+    @Param({"10000", "100000"})
+    public int numberOfTrades;
+
+    @Param({"4"})
+    public int numberOfTradeLines;
+
+    private Book binding;
+    private CompiledScript<Book, Object> compiledScript;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setup() {
+        binding = Book.sampleBook(numberOfTrades, numberOfTradeLines);
+        pool = new ForkJoinPool(Math.max(1, parallelism));
+        CompilerOptions compilerOptions = CompilerOptions.defaultOptions()
+                                                         .withNavigationParallelism(parallelism > 0 ? NavigationParallelism.parallel(1000) : NavigationParallelism.SEQUENTIAL);
+        compiledScript = new UniversalCompiler(CompiledUnitCache.disabled(), PersistentCompiledUnitStore.disabled(), compilerOptions)
+                             .compile(navigation.getSource(), Book.class)
+                             .getScript();
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Object evaluate() {
+        return compiledScript.evaluate(binding, pool);
+    }
+}
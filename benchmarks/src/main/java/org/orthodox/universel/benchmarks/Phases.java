@@ -0,0 +1,73 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.orthodox.universel.benchmarks;
+
+import org.beanplanet.core.io.resource.Resource;
+import org.beanplanet.core.models.NameValue;
+import org.beanplanet.messages.domain.Messages;
+import org.orthodox.universel.ast.ImportStmt;
+import org.orthodox.universel.ast.Node;
+import org.orthodox.universel.compiler.BytecodeHelper;
+import org.orthodox.universel.compiler.CompilationContext;
+import org.orthodox.universel.compiler.CompilingAstVisitor;
+import org.orthodox.universel.compiler.VirtualMachine;
+
+import java.util.List;
+
+import static org.beanplanet.messages.domain.MessagesImpl.messages;
+
+/**
+ * Shared phase helpers, allowing each compiler phase to be driven in isolation from the others.
+ */
+final class Phases {
+    /**
+     * The default imports of a compilation, as used by the compiler for every compilation unit.
+     */
+    static final List<ImportStmt> DEFAULT_IMPORTS = new CompilationContext(Trade.class,
+                                                                           new VirtualMachine(new BytecodeHelper()),
+                                                                           messages()).getDefaultImports();
+
+    private Phases() {
+    }
+
+    /**
+     * Generates the bytecode for an analysed script, returning the generated class resources.
+     *
+     * @param analysedScript the script, post semantic analysis.
+     * @return the generated class resources.
+     */
+    static List<NameValue<Resource>> generateCode(Node analysedScript) {
+        Messages messages = messages();
+        CompilationContext compilationContext = new CompilationContext(Trade.class,
+                                                                       new VirtualMachine(new BytecodeHelper()),
+                                                                       messages);
+        analysedScript.accept(new CompilingAstVisitor(compilationContext));
+        return compilationContext.getCompiledClassResources();
+    }
+}
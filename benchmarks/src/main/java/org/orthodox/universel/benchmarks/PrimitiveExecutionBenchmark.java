@@ -0,0 +1,92 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.orthodox.universel.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.orthodox.universel.compiler.CompiledUnit;
+import org.orthodox.universel.compiler.CompiledUnitCache;
+import org.orthodox.universel.compiler.UniversalCompiler;
+import org.orthodox.universel.exec.CompiledScript;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Compares boxed evaluation of primitive-typed scripts with the primitive-specialised entry points of a compiled unit.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrimitiveExecutionBenchmark {
+    private Trade binding;
+
+    private CompiledScript<Trade, Integer> intScript;
+    private ToIntFunction<Trade> intFunction;
+
+    private CompiledScript<Trade, Boolean> booleanScript;
+    private Predicate<Trade> predicate;
+
+    @Setup
+    public void setup() {
+        UniversalCompiler compiler = new UniversalCompiler(CompiledUnitCache.disabled());
+        binding = Trade.sampleTrade(0);
+
+        CompiledUnit<Trade> intUnit = compiler.compile("quantity * 2", Trade.class);
+        intScript = intUnit.getScript();
+        intFunction = intUnit.asIntFunction();
+
+        CompiledUnit<Trade> booleanUnit = compiler.compile("quantity > 1000", Trade.class);
+        booleanScript = booleanUnit.getScript();
+        predicate = booleanUnit.asPredicate();
+    }
+
+    @Benchmark
+    public Integer evaluateBoxedInt() {
+        return intScript.evaluate(binding);
+    }
+
+    @Benchmark
+    public int applyAsInt() {
+        return intFunction.applyAsInt(binding);
+    }
+
+    @Benchmark
+    public Boolean evaluateBoxedBoolean() {
+        return booleanScript.evaluate(binding);
+    }
+
+    @Benchmark
+    public boolean test() {
+        return predicate.test(binding);
+    }
+}
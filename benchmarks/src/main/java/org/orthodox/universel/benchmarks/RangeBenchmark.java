@@ -0,0 +1,111 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.orthodox.universel.ast.Operator;
+import org.orthodox.universel.exec.operators.range.BigIntegerRange;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures size, indexed access and sub-list views of a wide range, in closed form, against the iterating
+ * implementations previously required: counting the range to size it and materialising its elements to take a
+ * sub-list.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RangeBenchmark {
+    @Param({"1000", "1000000"})
+    public int rangeSize;
+
+    private BigIntegerRange range;
+
+    @Setup
+    public void setup() {
+        range = new BigIntegerRange(Operator.RANGE_INCLUSIVE, BigInteger.ONE, BigInteger.valueOf(rangeSize));
+    }
+
+    @Benchmark
+    public Number closedFormSize() {
+        return new BigIntegerRange(Operator.RANGE_INCLUSIVE, BigInteger.ONE, BigInteger.valueOf(rangeSize)).getRangeSize();
+    }
+
+    @Benchmark
+    public int iteratedSize() {
+        int size = 0;
+        for (Iterator<BigInteger> iterator = range.iterator(); iterator.hasNext(); iterator.next()) {
+            size++;
+        }
+        return size;
+    }
+
+    @Benchmark
+    public BigInteger indexedGet() {
+        return range.get(rangeSize / 2);
+    }
+
+    @Benchmark
+    public BigInteger iteratedGet() {
+        Iterator<BigInteger> iterator = range.iterator();
+        for (int n = 0; n < rangeSize / 2; n++) {
+            iterator.next();
+        }
+        return iterator.next();
+    }
+
+    @Benchmark
+    public BigInteger subListView() {
+        List<BigInteger> tail = range.subList(rangeSize - 10, rangeSize);
+        return tail.get(tail.size() - 1);
+    }
+
+    @Benchmark
+    public BigInteger materialisedSubList() {
+        List<BigInteger> tail = new ArrayList<>(rangeSize);
+        for (BigInteger value : range) {
+            tail.add(value);
+        }
+        tail = tail.subList(rangeSize - 10, rangeSize);
+        return tail.get(tail.size() - 1);
+    }
+
+    @Benchmark
+    public BigInteger steppedView() {
+        List<BigInteger> stepped = range.step(7);
+        return stepped.get(stepped.size() - 1);
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.orthodox.universel.benchmarks;
+
+/**
+ * The representative corpus of scripts measured by the benchmarks, each evaluated against a {@link Trade} binding.
+ * Benchmarks are parameterised by the name of a corpus entry so results can be compared across phases.
+ */
+public enum ScriptCorpus {
+    INT_LITERAL("1234567"),
+    STRING_LITERAL("\"Hello World!\""),
+    INTERPOLATED_STRING("\"Trade of ${quantity} at ${price}\""),
+    ARITHMETIC("60 * 60 * 24"),
+    PRIMITIVE_ARITHMETIC("quantity * 3 + (quantity % 7) * -quantity > 100 && quantity << 2 != 0"),
+    BIG_DECIMAL_ARITHMETIC("price * 1.175D"),
+    BEAN_NAVIGATION("counterparty.name"),
+    COLLECTION_NAVIGATION("lines.amount.[]"),
+    RANGE("'a'..'z' contains 'q'"),
+    DATE_COMPARISON("tradeDate < settlementDate");
+
+    private final String source;
+
+    ScriptCorpus(String source) {
+        this.source = source;
+    }
+
+    public String getSource() {
+        return source;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.orthodox.universel.benchmarks;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The binding type of the benchmark corpus: a simple trade with scalar, date, reference and collection properties.
+ */
+public class Trade {
+    private BigDecimal price;
+    private int quantity;
+    private LocalDate tradeDate;
+    private LocalDate settlementDate;
+    private Party counterparty;
+    private List<TradeLine> lines = new ArrayList<>();
+
+    /**
+     * Creates a representative trade with a number of lines, for use as a benchmark binding.
+     *
+     * @param numberOfLines the number of trade lines to create.
+     * @return a fully populated trade.
+     */
+    public static Trade sampleTrade(int numberOfLines) {
+        Trade trade = new Trade();
+        trade.setPrice(new BigDecimal("101.25"));
+        trade.setQuantity(1500);
+        trade.setTradeDate(LocalDate.of(2020, 6, 1));
+        trade.setSettlementDate(LocalDate.of(2020, 6, 3));
+        trade.setCounterparty(new Party("Orthodox Engineering Ltd"));
+        for (int n = 0; n < numberOfLines; n++) {
+            trade.getLines().add(new TradeLine(BigDecimal.valueOf(n, 2)));
+        }
+        return trade;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public LocalDate getTradeDate() {
+        return tradeDate;
+    }
+
+    public void setTradeDate(LocalDate tradeDate) {
+        this.tradeDate = tradeDate;
+    }
+
+    public LocalDate getSettlementDate() {
+        return settlementDate;
+    }
+
+    public void setSettlementDate(LocalDate settlementDate) {
+        this.settlementDate = settlementDate;
+    }
+
+    public Party getCounterparty() {
+        return counterparty;
+    }
+
+    public void setCounterparty(Party counterparty) {
+        this.counterparty = counterparty;
+    }
+
+    public List<TradeLine> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<TradeLine> lines) {
+        this.lines = lines;
+    }
+}
@@ -2,11 +2,9 @@ package org.orthodox.universel;
 
 import org.beanplanet.core.io.resource.Resource;
 import org.beanplanet.core.io.resource.StringResource;
-import org.beanplanet.core.lang.TypeUtil;
 import org.beanplanet.core.lang.conversion.SystemTypeConverter;
 import org.beanplanet.core.logging.Logger;
 import org.orthodox.universel.ast.*;
-import org.orthodox.universel.compiler.CompilationErrorsException;
 import org.orthodox.universel.compiler.CompiledUnit;
 import org.orthodox.universel.compiler.UniversalCompiler;
 import org.orthodox.universel.exec.Result;
@@ -14,7 +12,6 @@ import org.orthodox.universel.exec.TypedValue;
 import org.orthodox.universel.tools.BytecodeOutput;
 
 import java.util.Collections;
-import java.util.List;
 import java.util.Map;
 
 import static java.lang.String.format;
@@ -398,18 +395,8 @@ public class Universal implements Logger {
      */
     @SuppressWarnings("unchecked")
     public static <B, T> T execute(Class<T> resultType, CompiledUnit<B> script, B binding) {
-        if (script.getMessages().hasErrors()) {
-            throw new CompilationErrorsException(script.getMessages());
-        }
-
-        List<Class<?>> compiledClasses = script.getCompiledClasses();
-        if (compiledClasses.size() != 1) {
-            throw new IllegalStateException("It looks like the script compiled is not executable? Were there excecutable statements specified?");
-        }
-
 //        BytecodeOutput.printClass(script.getCompiledClassResources().get(0).getValue().readFullyAsBytes());
-        Object result = TypeUtil.invokeStaticMethod(compiledClasses.get(0), "main", script.getBindingType() != null ? new Object[] { binding } : null);
-        return (T) result;
+        return script.<T>getScript().evaluate(binding);
     }
 
     /**
@@ -423,16 +410,7 @@ public class Universal implements Logger {
      */
     @SuppressWarnings("unchecked")
     public static <B> TypedValue executeWithResult(Class<?> resultType, CompiledUnit<B> script, B binding) {
-        if (script.getMessages().hasErrors()) {
-            throw new CompilationErrorsException(script.getMessages());
-        }
-
-        List<Class<?>> compiledClasses = script.getCompiledClasses();
-        if (compiledClasses.size() != 1) {
-            throw new IllegalStateException("It looks like the script compiled is not executable? Were there executable statements specified?");
-        }
-
-        Object result = TypeUtil.invokeStaticMethod(compiledClasses.get(0), "main", script.getBindingType() != null ? new Object[] { binding } : null);
+        Object result = script.getScript().evaluate(binding);
         return new Result(SystemTypeConverter.getInstance(), script.getResultType(), result);
     }
 
@@ -444,8 +422,7 @@ public class Universal implements Logger {
      * reference to the compiled bytecode if compilation succeeded.
      */
     public static CompiledUnit<?> compile(String script) {
-        UniversalCompiler compiler = new UniversalCompiler();
-        return compiler.compile(script);
+        return COMPILER.compile(script);
     }
 
     /**
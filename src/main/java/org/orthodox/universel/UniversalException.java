@@ -35,10 +35,19 @@ import org.beanplanet.core.UncheckedException;
  */
 public class UniversalException extends UncheckedException {
     /**
-     * Construcs a new Universel exception with the given error message.
+     * Constructs a new Universel exception with the given error message.
      * @param message the message associated with the exception.
      */
     public UniversalException(String message) {
         super(message);
     }
+
+    /**
+     * Constructs a new Universel exception with the given error message and cause.
+     * @param message the message associated with the exception.
+     * @param cause the underlying cause of the exception.
+     */
+    public UniversalException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
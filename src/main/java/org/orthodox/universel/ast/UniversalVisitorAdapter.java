@@ -61,14 +61,16 @@ import org.orthodox.universel.symanticanalysis.conversion.TypeConversion;
 import org.orthodox.universel.symanticanalysis.name.InternalNodeSequence;
 import org.orthodox.universel.symanticanalysis.navigation.NavigationStage;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
 import java.util.stream.Collectors;
 
+import static java.util.Collections.newSetFromMap;
 import static org.beanplanet.core.util.CollectionUtil.nullSafe;
 
 public class UniversalVisitorAdapter implements UniversalCodeVisitor {
+    /** Nodes created by this visitor to replace originals whose children were changed, compared by identity. */
+    private final Set<Node> rewrites = newSetFromMap(new IdentityHashMap<>());
+
     @Override
     public Node visitAnnotation(final Annotation node) {
         return node;
@@ -79,9 +81,9 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
         Node transformedRhs = node.getRhsExpression().accept(this);
         Node transformedLhs = node.getLhsExpression().accept(this);
 
-        boolean noTransformationChanges = Objects.equals(transformedLhs, node.getLhsExpression())
-                                          && Objects.equals(transformedRhs, node.getRhsExpression());
-        return noTransformationChanges ? node : new AssignmentExpression(transformedLhs, node.getOperator(), transformedRhs);
+        boolean noTransformationChanges = unchanged(node.getLhsExpression(), transformedLhs)
+                                          && unchanged(node.getRhsExpression(), transformedRhs);
+        return noTransformationChanges ? node : rewritten(new AssignmentExpression(transformedLhs, node.getOperator(), transformedRhs));
     }
 
     @Override
@@ -92,12 +94,12 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
                                                          .map(n -> n.accept(this))
                                                          .collect(Collectors.toList());
 
-        boolean noTransformationChanges = Objects.equals(transformedType, node.getComponentType())
-                                          && Objects.equals(transformedDimensionExpressions, node.getDimensionExpressions());
-        return noTransformationChanges ? node : new ArrayCreationExpression(node.getTokenImage(),
+        boolean noTransformationChanges = unchanged(node.getComponentType(), transformedType)
+                                          && unchanged(node.getDimensionExpressions(), transformedDimensionExpressions);
+        return noTransformationChanges ? node : rewritten(new ArrayCreationExpression(node.getTokenImage(),
                                                                             transformedType,
                                                                             transformedDimensionExpressions,
-                                                                            node.getInitialiserExpression());
+                                                                            node.getInitialiserExpression()));
     }
 
     @Override
@@ -110,23 +112,23 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
         Node transformedLhs = node.getLhsExpression().accept(this);
         Node transformedRhs = node.getRhsExpression().accept(this);
 
-        boolean noTransformationChanges = Objects.equals(transformedLhs, node.getLhsExpression()) &&
-                                          Objects.equals(transformedRhs, node.getRhsExpression());
-        return noTransformationChanges ? node : new BinaryExpression(node.getOperator(), transformedLhs, transformedRhs);
+        boolean noTransformationChanges = unchanged(node.getLhsExpression(), transformedLhs) &&
+                                          unchanged(node.getRhsExpression(), transformedRhs);
+        return noTransformationChanges ? node : rewritten(new BinaryExpression(node.getOperator(), transformedLhs, transformedRhs));
     }
 
     @Override
     public Node visitBoxConversion(final BoxConversion node) {
         Node transformedSource = node.getSource().accept(this);
-        return Objects.equals(transformedSource, node.getSource()) ? node : new BoxConversion(transformedSource);
+        return unchanged(node.getSource(), transformedSource) ? node : rewritten(new BoxConversion(transformedSource));
     }
 
     @Override
     public Node visitBoxExpression(Box node) {
         final Node transformedSource = node.getSource().accept(this);
 
-        boolean noTransformationChanges = Objects.equals(node.getSource(), transformedSource);
-        return noTransformationChanges ? node : new Box(transformedSource);
+        boolean noTransformationChanges = unchanged(node.getSource(), transformedSource);
+        return noTransformationChanges ? node : rewritten(new Box(transformedSource));
     }
 
 
@@ -134,11 +136,11 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
     public Node visitBinaryExpression(final BinaryExpressionOperatorMethodCall node) {
         List<Node> transformedParameters = transformNodeList(node.getParameters());
 
-        boolean noTransformationChanges = Objects.equals(node.getParameters(), transformedParameters);
-        return noTransformationChanges ? node : new BinaryExpressionOperatorMethodCall(node.getTokenImage(),
+        boolean noTransformationChanges = unchanged(node.getParameters(), transformedParameters);
+        return noTransformationChanges ? node : rewritten(new BinaryExpressionOperatorMethodCall(node.getTokenImage(),
                                                                                        node.getOperator(),
                                                                                        node.getOperatorMethod(),
-                                                                                       transformedParameters);
+                                                                                       transformedParameters));
     }
 
     @Override
@@ -150,13 +152,13 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
     public Node visitFieldAccess(final FieldWrite node) {
         Node transformedRhs = (node.getFieldValue() == null ? null : node.getFieldValue().accept(this));
 
-        boolean noTransformationChanges = Objects.equals(transformedRhs, node.getFieldValue());
-        return noTransformationChanges ? node : new FieldWrite(node.getTokenImage(),
+        boolean noTransformationChanges = unchanged(node.getFieldValue(), transformedRhs);
+        return noTransformationChanges ? node : rewritten(new FieldWrite(node.getTokenImage(),
                                                                node.isStatic(),
                                                                node.getDeclaringType(),
                                                                node.getFieldType(),
                                                                node.getFieldName(),
-                                                               transformedRhs);
+                                                               transformedRhs));
     }
 
     @Override
@@ -164,12 +166,13 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
         TypeReference transformedDeclarationType = node.getDeclarationType().accept(this);
         List<VariableDeclaration> transformedVariableDeclarations = new ArrayList<>(node.getVariableDeclarations().size());
         for (VariableDeclaration vd : node.getVariableDeclarations()) {
-            transformedVariableDeclarations.add(new VariableDeclaration(vd.getId(), vd.getInitialiser() == null ? null : vd.getInitialiser().accept(this)));
+            Node transformedInitialiser = vd.getInitialiser() == null ? null : vd.getInitialiser().accept(this);
+            transformedVariableDeclarations.add(unchanged(vd.getInitialiser(), transformedInitialiser) ? vd : rewritten(new VariableDeclaration(vd.getId(), transformedInitialiser)));
         }
 
-        boolean noTransformationChanges = Objects.equals(node.getDeclarationType(), transformedDeclarationType)
-            && Objects.equals(node.getVariableDeclarations(), transformedVariableDeclarations);
-        return noTransformationChanges ? node : new FieldDeclaration(node.getModifiers(), transformedDeclarationType, transformedVariableDeclarations);
+        boolean noTransformationChanges = unchanged(node.getDeclarationType(), transformedDeclarationType)
+            && unchanged(node.getVariableDeclarations(), transformedVariableDeclarations);
+        return noTransformationChanges ? node : rewritten(new FieldDeclaration(node.getModifiers(), transformedDeclarationType, transformedVariableDeclarations));
     }
 
     @Override
@@ -185,7 +188,7 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
 
         PackageDeclaration transformedPackageDeclaration = node.getPackageDeclaration() == null ? null : node.getPackageDeclaration().accept(this);
 
-        NodeSequenceBuilder<Node> transformedMembers = NodeSequence.builder();
+        List<Node> transformedMembers = new ArrayList<>(node.getMembers().size());
         for (Node member : node.getMembers()) {
             transformedMembers.add(member.accept(this));
         }
@@ -200,26 +203,34 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
             transformedImplementsList.add(cit.accept(this));
         }
 
+        boolean noTransformationChanges = unchanged(node.getModifiers(), transformedModifiers)
+                                          && unchanged(node.getName(), transformedName)
+                                          && unchanged(node.getPackageDeclaration(), transformedPackageDeclaration)
+                                          && unchanged(nodesOf(node.getMembers()), transformedMembers)
+                                          && unchanged(node.getExtendsList(), transformedExtendsList)
+                                          && unchanged(node.getImplementsList(), transformedImplementsList);
+        if ( noTransformationChanges ) return node;
+
         ClassDeclaration transformedClassDeclaration = new ClassDeclaration(transformedModifiers,
                                                                             transformedPackageDeclaration,
                                                                             transformedName,
                                                                             node.getTypeParameters(),
-                                                                            transformedMembers.build(),
+                                                                            NodeSequence.<Node>builder().addAll(transformedMembers).build(),
                                                                             transformedExtendsList,
                                                                             transformedImplementsList);
-        return Objects.equals(node, transformedClassDeclaration) ? node : transformedClassDeclaration;
+        return rewritten(transformedClassDeclaration);
     }
 
     @Override
     public Node visitFunctionalInterfaceObject(final FunctionalInterfaceObject node) {
         Node transformedMethodPrototype = node.getTargetMethodPrototype() == null ? null : node.getTargetMethodPrototype().accept(this);
 
-        return Objects.equals(node.getTargetMethodPrototype(), transformedMethodPrototype) ? node : new FunctionalInterfaceObject(node.getTokenImage(),
+        return unchanged(node.getTargetMethodPrototype(), transformedMethodPrototype) ? node : rewritten(new FunctionalInterfaceObject(node.getTokenImage(),
                                                                                                                                   node.getSourceFunctionType(),
                                                                                                                                   node.getSourceFunctionReturnType(),
                                                                                                                                   node.getSourceFunctionParameters(),
                                                                                                                                   node.getSourceFunctionName(),
-                                                                                                                                  (LambdaFunction)transformedMethodPrototype);
+                                                                                                                                  (LambdaFunction)transformedMethodPrototype));
     }
 
     @Override
@@ -229,8 +240,8 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
             transformedNodes.add(child.accept(this));
         }
 
-        boolean noTransformationChanges = Objects.equals(node.getNodes(), transformedNodes);
-        return noTransformationChanges ? node : new InternalNodeSequence(node.getResultType(), transformedNodes);
+        boolean noTransformationChanges = unchanged(node.getNodes(), transformedNodes);
+        return noTransformationChanges ? node : rewritten(new InternalNodeSequence(node.getResultType(), transformedNodes));
     }
 
     @Override
@@ -251,7 +262,7 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
 
         PackageDeclaration transformedPackageDeclaration = node.getPackageDeclaration() == null ? null : node.getPackageDeclaration().accept(this);
 
-        NodeSequenceBuilder<Node> transformedMembers = NodeSequence.builder();
+        List<Node> transformedMembers = new ArrayList<>(node.getMembers().size());
         for (Node member : node.getMembers()) {
             transformedMembers.add(member.accept(this));
         }
@@ -261,13 +272,20 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
             transformedExtendsList.add(cit.accept(this));
         }
 
+        boolean noTransformationChanges = unchanged(node.getModifiers(), transformedModifiers)
+                                          && unchanged(node.getName(), transformedName)
+                                          && unchanged(node.getPackageDeclaration(), transformedPackageDeclaration)
+                                          && unchanged(nodesOf(node.getMembers()), transformedMembers)
+                                          && unchanged(node.getExtendsList(), transformedExtendsList);
+        if ( noTransformationChanges ) return node;
+
         InterfaceDeclaration transformedInterfaceDeclaration = new InterfaceDeclaration(transformedModifiers,
                                                                             transformedPackageDeclaration,
                                                                             transformedName,
                                                                             node.getTypeParameters(),
-                                                                            transformedMembers.build(),
+                                                                            NodeSequence.<Node>builder().addAll(transformedMembers).build(),
                                                                             transformedExtendsList);
-        return Objects.equals(node, transformedInterfaceDeclaration) ? node : transformedInterfaceDeclaration;
+        return rewritten(transformedInterfaceDeclaration);
     }
 
     @Override
@@ -280,9 +298,9 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
         Node transformedLhs = node.getLhsExpression().accept(this);
         TypeReference transformedRhs = (TypeReference)node.getRhsExpression().accept(this);
 
-        boolean noTransformationChanges = Objects.equals(node.getLhsExpression(), transformedLhs)
-            && Objects.equals(node.getRhsExpression(), transformedRhs);
-        return noTransformationChanges ? node : new InstanceofExpression(node.getOperator(), transformedLhs, transformedRhs);
+        boolean noTransformationChanges = unchanged(node.getLhsExpression(), transformedLhs)
+            && unchanged(node.getRhsExpression(), transformedRhs);
+        return noTransformationChanges ? node : rewritten(new InstanceofExpression(node.getOperator(), transformedLhs, transformedRhs));
     }
 
     @Override
@@ -299,20 +317,20 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
                 Node elseIfTransformedBody = elseIf.getBody().accept(this);
 
                 transformedIfElseExpressions.add(
-                    Objects.equals(elseIfTransformedTestExpression, elseIf.getTestExpression())
-                    && Objects.equals(elseIfTransformedBody, elseIf.getBody()) ?
-                    elseIf : new ElseIf(elseIf.getTokenImage(), elseIfTransformedTestExpression, elseIfTransformedBody)
+                    unchanged(elseIf.getTestExpression(), elseIfTransformedTestExpression)
+                    && unchanged(elseIf.getBody(), elseIfTransformedBody) ?
+                    elseIf : rewritten(new ElseIf(elseIf.getTokenImage(), elseIfTransformedTestExpression, elseIfTransformedBody))
                 );
             }
         }
 
         Node transformedElse = node.getElseExpression() == null ? null : node.getElseExpression().accept(this);
 
-        return Objects.equals(transformedTestExpression, node.getTestExpression())
-               && Objects.equals(transformedThen, node.getThenExpression())
-               && Objects.equals(transformedIfElseExpressions, node.getElseIfExpressions())
-               && Objects.equals(transformedElse, node.getElseExpression())
-               ? node : new IfStatement(node.getTokenImage(), transformedTestExpression, transformedThen, transformedIfElseExpressions, transformedElse);
+        return unchanged(node.getTestExpression(), transformedTestExpression)
+               && unchanged(node.getThenExpression(), transformedThen)
+               && unchanged(node.getElseIfExpressions(), transformedIfElseExpressions)
+               && unchanged(node.getElseExpression(), transformedElse)
+               ? node : rewritten(new IfStatement(node.getTokenImage(), transformedTestExpression, transformedThen, transformedIfElseExpressions, transformedElse));
     }
 
     @Override
@@ -324,8 +342,8 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
             }
         }
 
-        boolean noTransformationChanges = Objects.equals(node.getParts(), transformedParts);
-        return noTransformationChanges ? node : new InterpolatedStringLiteralExpr(node.getTokenImage(), transformedParts, node.getDelimeter());
+        boolean noTransformationChanges = unchanged(node.getParts(), transformedParts);
+        return noTransformationChanges ? node : rewritten(new InterpolatedStringLiteralExpr(node.getTokenImage(), transformedParts, node.getDelimeter()));
     }
 
     @Override
@@ -348,10 +366,10 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
         }
         NodeSequence<Node> transformedBody = new NodeSequence<>(node.getBody().getTokenImage(), transformedBodyNodes);
 
-        boolean noTransformationChanges = Objects.equals(node.getReturnType(), transformedReturnType) &&
-                                          Objects.equals(node.getParameters(), transformedParameters) &&
-                                          Objects.equals(node.getBody(), transformedBody);
-        return noTransformationChanges ? node : new LambdaFunction(node.getModifiers(), node.getTypeParameters(), transformedReturnType, node.getNameHints(), transformedParameters, transformedBody);
+        boolean noTransformationChanges = unchanged(node.getReturnType(), transformedReturnType) &&
+                                          unchanged(nodesOf(node.getParameters()), transformedParameterList) &&
+                                          unchanged(nodesOf(node.getBody()), transformedBodyNodes);
+        return noTransformationChanges ? node : rewritten(new LambdaFunction(node.getModifiers(), node.getTypeParameters(), transformedReturnType, node.getNameHints(), transformedParameters, transformedBody));
     }
 
     @Override
@@ -360,8 +378,8 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
         for (Node child : node.getElements()) {
             transformedElements.add(child.accept(this));
         }
-        boolean noTransformationChanges = Objects.equals(node.getElements(), transformedElements);
-        return noTransformationChanges ? node : new ListExpr(node.getTokenImage(), transformedElements);
+        boolean noTransformationChanges = unchanged(node.getElements(), transformedElements);
+        return noTransformationChanges ? node : rewritten(new ListExpr(node.getTokenImage(), transformedElements));
     }
 
     @Override
@@ -378,8 +396,8 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
     public Node visitLogicalNot(final LogicalNotExpression node) {
         Node transformedOperand = node.getOperand() == null ? null : node.getOperand().accept(this);
 
-        boolean noTransformationChanges = Objects.equals(node.getOperand(), transformedOperand);
-        return noTransformationChanges ? node : new LogicalNotExpression(node.getTokenImage(), transformedOperand);
+        boolean noTransformationChanges = unchanged(node.getOperand(), transformedOperand);
+        return noTransformationChanges ? node : rewritten(new LogicalNotExpression(node.getTokenImage(), transformedOperand));
     }
 
 
@@ -387,9 +405,9 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
         Node transformedKey = node.getKeyExpression() == null ? null : node.getKeyExpression().accept(this);
         Node transformedVal = node.getValueExpression() == null ? null : node.getValueExpression().accept(this);
 
-        boolean noTransformationChanges = Objects.equals(node.getKeyExpression(), transformedKey) &&
-                                          Objects.equals(node.getValueExpression(), transformedVal);
-        return noTransformationChanges ? node : new MapEntryExpr(node.getTokenImage(), transformedKey, transformedVal);
+        boolean noTransformationChanges = unchanged(node.getKeyExpression(), transformedKey) &&
+                                          unchanged(node.getValueExpression(), transformedVal);
+        return noTransformationChanges ? node : rewritten(new MapEntryExpr(node.getTokenImage(), transformedKey, transformedVal));
     }
 
     @Override
@@ -399,8 +417,8 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
             transformedEntries.add(child.accept(this));
         }
 
-        boolean noTransformationChanges = Objects.equals(node.getEntries(), transformedEntries);
-        return noTransformationChanges ? node : new MapExpr(node.getTokenImage(), transformedEntries);
+        boolean noTransformationChanges = unchanged(node.getEntries(), transformedEntries);
+        return noTransformationChanges ? node : rewritten(new MapExpr(node.getTokenImage(), transformedEntries));
     }
 
     @Override
@@ -423,10 +441,10 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
         }
         NodeSequence<Node> transformedBody = new NodeSequence<>(node.getBody().getTokenImage(), transformedBodyNodes);
 
-        boolean noTransformationChanges = Objects.equals(node.getReturnType(), transformedReturnType) &&
-                                          Objects.equals(node.getParameters(), transformedParameters) &&
-                                          Objects.equals(node.getBody(), transformedBody);
-        return noTransformationChanges ? node : new MethodDeclaration(node.getModifiers(), node.getTypeParameters(), transformedReturnType, node.getName(), transformedParameters, transformedBody);
+        boolean noTransformationChanges = unchanged(node.getReturnType(), transformedReturnType) &&
+                                          unchanged(nodesOf(node.getParameters()), transformedParameterList) &&
+                                          unchanged(nodesOf(node.getBody()), transformedBodyNodes);
+        return noTransformationChanges ? node : rewritten(new MethodDeclaration(node.getModifiers(), node.getTypeParameters(), transformedReturnType, node.getName(), transformedParameters, transformedBody));
     }
 
     @Override
@@ -438,8 +456,8 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
             }
         }
 
-        boolean noTransformationChanges = Objects.equals(node.getParameters(), transformedParameters);
-        return noTransformationChanges ? node : new MethodCall(node.getTokenImage(), node.getName(), transformedParameters);
+        boolean noTransformationChanges = unchanged(node.getParameters(), transformedParameters);
+        return noTransformationChanges ? node : rewritten(new MethodCall(node.getTokenImage(), node.getName(), transformedParameters));
     }
 
     @Override
@@ -449,8 +467,8 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
             transformedParameters.add(child.accept(this));
         }
 
-        boolean noTransformationChanges = Objects.equals(node.getParameters(), transformedParameters);
-        return noTransformationChanges ? node : new InstanceMethodCall(node.getTypeDescriptor(), node.getTokenImage(), node.getDeclaringClass(), node.getName(), transformedParameters);
+        boolean noTransformationChanges = unchanged(node.getParameters(), transformedParameters);
+        return noTransformationChanges ? node : rewritten(new InstanceMethodCall(node.getTypeDescriptor(), node.getTokenImage(), node.getDeclaringClass(), node.getName(), transformedParameters));
     }
 
     @Override
@@ -460,8 +478,8 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
             transformedParameters.add(child.accept(this));
         }
 
-        boolean noTransformationChanges = Objects.equals(node.getParameters(), transformedParameters);
-        return noTransformationChanges ? node : new StaticMethodCall(node.getTypeDescriptor(), node.getTokenImage(), node.getDeclaringClass(), node.getName(), transformedParameters);
+        boolean noTransformationChanges = unchanged(node.getParameters(), transformedParameters);
+        return noTransformationChanges ? node : rewritten(new StaticMethodCall(node.getTypeDescriptor(), node.getTokenImage(), node.getDeclaringClass(), node.getName(), transformedParameters));
     }
 
     @Override
@@ -491,8 +509,8 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
             transformedNodes.add(child.accept(this));
         }
 
-        boolean noTransformationChanges = Objects.equals(node.getNodes(), transformedNodes);
-        return noTransformationChanges ? node : new NodeSequence<>(transformedNodes);
+        boolean noTransformationChanges = unchanged(node.getNodes(), transformedNodes);
+        return noTransformationChanges ? node : rewritten(new NodeSequence<>(transformedNodes));
     }
 
     @Override
@@ -525,8 +543,8 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
     public <T extends NodeTest> NavigationAxisAndNodeTest<T> visitNavigationAxisAndNodeTest(final NavigationAxisAndNodeTest<T> node) {
         T transformedNodeTest = (T)node.getNodeTest().accept(this);
 
-        boolean noTransformationChanges = Objects.equals(node.getNodeTest(), transformedNodeTest);
-        return noTransformationChanges ? node : new NavigationAxisAndNodeTest(node.getTokenImage(), node.getAxis(), transformedNodeTest);
+        boolean noTransformationChanges = unchanged(node.getNodeTest(), transformedNodeTest);
+        return noTransformationChanges ? node : rewritten(new NavigationAxisAndNodeTest(node.getTokenImage(), node.getAxis(), transformedNodeTest));
     }
 
     @Override
@@ -545,8 +563,8 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
     public NavigationFilterStep visitNavigationFilterStep(NavigationFilterStep node) {
         Node transformedFilterExpression = node.getFilterExpression() == null ? null : node.getFilterExpression().accept(this);
 
-        boolean noTransformationChanges = Objects.equals(node.getFilterExpression(), transformedFilterExpression);
-        return noTransformationChanges ? node : new NavigationFilterStep(node.getTokenImage(), transformedFilterExpression);
+        boolean noTransformationChanges = unchanged(node.getFilterExpression(), transformedFilterExpression);
+        return noTransformationChanges ? node : rewritten(new NavigationFilterStep(node.getTokenImage(), transformedFilterExpression));
     }
 
     @SuppressWarnings("unchecked")
@@ -555,9 +573,9 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
         List<Node> transformedInputSteps = transformNodeList(node.getInputSteps());
         List<NavigationStage> transformedTargetStages = (List)transformNodeList(node.getTargetStages());
 
-        boolean noTransformationChanges = Objects.equals(node.getInputSteps(), transformedInputSteps) &&
-                                          Objects.equals(node.getTargetStages(), transformedTargetStages);
-        return noTransformationChanges ? node : new NavigationStream(transformedInputSteps, transformedTargetStages);
+        boolean noTransformationChanges = unchanged(node.getInputSteps(), transformedInputSteps) &&
+                                          unchanged(node.getTargetStages(), transformedTargetStages);
+        return noTransformationChanges ? node : rewritten(new NavigationStream(transformedInputSteps, transformedTargetStages));
     }
 
     @Override
@@ -571,9 +589,9 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
             }
         }
 
-        boolean noTransformationChanges = Objects.equals(node.getType(), transformedType) &&
-                                          Objects.equals(node.getParameters(), transformedParameters);
-        return noTransformationChanges ? node : new ObjectCreationExpression(node.getTokenImage(), transformedType, transformedParameters);
+        boolean noTransformationChanges = unchanged(node.getType(), transformedType) &&
+                                          unchanged(node.getParameters(), transformedParameters);
+        return noTransformationChanges ? node : rewritten(new ObjectCreationExpression(node.getTokenImage(), transformedType, transformedParameters));
     }
 
     @Override
@@ -585,8 +603,8 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
     public Parameter visitParameter(final Parameter node) {
         TypeReference transformedType = node.getType() == null ? null : node.getType().accept(this);
 
-        boolean noTransformationChanges = Objects.equals(node.getType(), transformedType);
-        return noTransformationChanges ? node : new Parameter(node.getModifiers(), transformedType, node.isVarArgs(), node.getName());
+        boolean noTransformationChanges = unchanged(node.getType(), transformedType);
+        return noTransformationChanges ? node : rewritten(new Parameter(node.getModifiers(), transformedType, node.isVarArgs(), node.getName()));
     }
 
     @Override
@@ -595,7 +613,7 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
 
         Node transformedExpression = node.getExpression().accept(this);
 
-        return Objects.equals(transformedExpression, node.getExpression()) ? node : new ReturnStatement(node.getTokenImage(), transformedExpression);
+        return unchanged(node.getExpression(), transformedExpression) ? node : rewritten(new ReturnStatement(node.getTokenImage(), transformedExpression));
     }
 
     @Override
@@ -605,15 +623,18 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
             transformedImport = (ImportDecl)node.getImportDeclaration().accept(this);
         }
 
-        NodeSequenceBuilder<Node> transformedBodyBuilder = NodeSequence.builder();
+        List<Node> transformedBody = new ArrayList<>(node.getBody().size());
         for (Node bodyElement : node.getBody()) {
-            transformedBodyBuilder.add(bodyElement.accept(this));
+            transformedBody.add(bodyElement.accept(this));
         }
-        transformedBodyBuilder.resultType(node.getBody().getResultType());
 
-        boolean noTransformationChanges = Objects.equals(node.getImportDeclaration(), transformedImport)
-                                          && Objects.equals(node.getBody(), transformedBodyBuilder);
-        return noTransformationChanges ? node : new Script(node.getType(), node.getPackageDeclaration(), transformedImport, transformedBodyBuilder.build());
+        boolean noTransformationChanges = unchanged(node.getImportDeclaration(), transformedImport)
+                                          && unchanged(nodesOf(node.getBody()), transformedBody);
+        if ( noTransformationChanges ) return node;
+
+        NodeSequenceBuilder<Node> transformedBodyBuilder = NodeSequence.<Node>builder().addAll(transformedBody);
+        transformedBodyBuilder.resultType(node.getBody().getResultType());
+        return rewritten(new Script(node.getType(), node.getPackageDeclaration(), transformedImport, transformedBodyBuilder.build()));
     }
 
     @Override
@@ -623,8 +644,8 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
             transformedElements.add(child.accept(this));
         }
 
-        boolean noTransformationChanges = Objects.equals(node.getElements(), transformedElements);
-        return noTransformationChanges ? node : new SetExpr(node.getTokenImage(), transformedElements);
+        boolean noTransformationChanges = unchanged(node.getElements(), transformedElements);
+        return noTransformationChanges ? node : rewritten(new SetExpr(node.getTokenImage(), transformedElements));
     }
 
     @Override
@@ -636,8 +657,8 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
     public Node visitStoreLocal(final StoreLocal node) {
         Node transformedValue = node.getValue() == null ? null : node.getValue().accept(this);
 
-        boolean noTransformationChanges = Objects.equals(node.getValue(), transformedValue);
-        return noTransformationChanges ? node : new StoreLocal(node.getTokenImage(), node.getType(), transformedValue, node.isStaticMethod(), node.getLocalIndex());
+        boolean noTransformationChanges = unchanged(node.getValue(), transformedValue);
+        return noTransformationChanges ? node : rewritten(new StoreLocal(node.getTokenImage(), node.getType(), transformedValue, node.isStaticMethod(), node.getLocalIndex()));
     }
 
     @Override
@@ -650,9 +671,9 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
         if (node.getLhsExpression() != null) transformedLhs = node.getLhsExpression().accept(this);
         if (node.getRhsExpression() != null) transformedRhs = node.getRhsExpression().accept(this);
 
-        return Objects.equals(node.getTestExpression(), transformedTest)
-                && Objects.equals(node.getLhsExpression(), transformedLhs)
-                && Objects.equals(node.getLhsExpression(), transformedLhs) ? node : new TernaryExpression(transformedTest, transformedLhs, transformedRhs);
+        return unchanged(node.getTestExpression(), transformedTest)
+                && unchanged(node.getLhsExpression(), transformedLhs)
+                && unchanged(node.getRhsExpression(), transformedRhs) ? node : rewritten(new TernaryExpression(transformedTest, transformedLhs, transformedRhs));
     }
 
     @Override
@@ -667,23 +688,23 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
             transformedSource = node.getSource().accept(this);
         }
 
-        return Objects.equals(node.getSource(), transformedSource) ? node : new TypeConversion(transformedSource, node.getTargetType());
+        return unchanged(node.getSource(), transformedSource) ? node : rewritten(new TypeConversion(transformedSource, node.getTargetType()));
     }
 
     @Override
     public Node visitUnaryExpression(final UnaryExpression node) {
         Node transformedOperand = node.getOperand().accept(this);
 
-        boolean noTransformationChanges = Objects.equals(node.getOperand(), transformedOperand);
-        return noTransformationChanges ? node : new UnaryExpression(node.getTokenImage(), node.getOperator(), transformedOperand);
+        boolean noTransformationChanges = unchanged(node.getOperand(), transformedOperand);
+        return noTransformationChanges ? node : rewritten(new UnaryExpression(node.getTokenImage(), node.getOperator(), transformedOperand));
     }
 
     @Override
     public Node visitUnboxExpression(Unbox node) {
         final Node transformedSource = node.getSource().accept(this);
 
-        boolean noTransformationChanges = Objects.equals(node.getSource(), transformedSource);
-        return noTransformationChanges ? node : new Unbox(transformedSource);
+        boolean noTransformationChanges = unchanged(node.getSource(), transformedSource);
+        return noTransformationChanges ? node : rewritten(new Unbox(transformedSource));
     }
 
     @Override
@@ -692,7 +713,7 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
         if ( node.getDelegate() != null ) {
             transformedNode = node.getDelegate().accept(this);
         }
-        return Objects.equals(node.getDelegate(), transformedNode) ? node : new ValueConsumingNode(transformedNode);
+        return unchanged(node.getDelegate(), transformedNode) ? node : rewritten(new ValueConsumingNode(transformedNode));
     }
 
     @Override
@@ -713,4 +734,71 @@ public class UniversalVisitorAdapter implements UniversalCodeVisitor {
     protected List<Node> transformNodeList(final List<? extends Node> nodeList) {
         return nodeList == null ? null : nodeList.stream().map(n -> n.accept(this)).collect(Collectors.toList());
     }
+
+    private static List<? extends Node> nodesOf(final NodeSequence<? extends Node> nodeSequence) {
+        return nodeSequence.getNodes() == null ? Collections.emptyList() : nodeSequence.getNodes();
+    }
+
+    /**
+     * Whether the given node was created by this visitor to replace an original node, one or more of whose children
+     * were changed. Such a node is known to differ from the original it replaced, without need of a deep comparison.
+     *
+     * @param node the node to test, which may be null.
+     * @return true if the node is a rewrite created by this visitor, false otherwise.
+     */
+    public boolean isRewrite(final Node node) {
+        return node != null && rewrites.contains(node);
+    }
+
+    /**
+     * Forgets the rewrites made by this visitor, typically called before each new traversal of a tree.
+     */
+    protected void clearRewrites() {
+        rewrites.clear();
+    }
+
+    /**
+     * Records the given node as a rewrite of an original node, one or more of whose children were changed.
+     *
+     * @param node the newly created node.
+     * @param <T> the type of the node.
+     * @return the given node.
+     */
+    protected <T extends Node> T rewritten(final T node) {
+        rewrites.add(node);
+        return node;
+    }
+
+    /**
+     * Determines whether a transformed node is unchanged from its original. Identical nodes are unchanged and rewrites
+     * made by this visitor are changed, both decided in constant time. Only a node newly created by a subclass is
+     * compared structurally.
+     *
+     * @param original the original node, which may be null.
+     * @param transformed the result of transforming the original, which may be null.
+     * @return true if the transformed node is equivalent to the original, false otherwise.
+     */
+    protected boolean unchanged(final Object original, final Object transformed) {
+        if ( original == transformed ) return true;
+        if ( transformed instanceof Node && isRewrite((Node)transformed) ) return false;
+        return Objects.equals(original, transformed);
+    }
+
+    /**
+     * Determines whether a list of transformed nodes is unchanged from the original list, element by element.
+     *
+     * @param original the original nodes, which may be null.
+     * @param transformed the result of transforming each of the original nodes, which may be null.
+     * @return true if every transformed node is unchanged from its original, false otherwise.
+     * @see #unchanged(Object, Object)
+     */
+    protected boolean unchanged(final List<? extends Node> original, final List<? extends Node> transformed) {
+        if ( original == transformed ) return true;
+        if ( original == null || transformed == null || original.size() != transformed.size() ) return false;
+
+        for (int n=0; n < original.size(); n++) {
+            if ( !unchanged(original.get(n), transformed.get(n)) ) return false;
+        }
+        return true;
+    }
 }
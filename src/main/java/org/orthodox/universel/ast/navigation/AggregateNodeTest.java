@@ -0,0 +1,120 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.ast.navigation;
+
+import org.orthodox.universel.ast.Expression;
+import org.orthodox.universel.ast.TokenImage;
+
+/**
+ * A node test which reduces a sequence to a single aggregate value, such as its sum, its count or its first element,
+ * without collecting the sequence. Aggregates are written as the final step of a navigation, for example
+ * <code>trades.quantity.[sum]</code>.
+ */
+public abstract class AggregateNodeTest extends Expression implements ReductionNodeTest {
+    /** The name of the sum aggregate. */
+    public static final String SUM = "sum";
+    /** The name of the count aggregate. */
+    public static final String COUNT = "count";
+    /** The name of the minimum aggregate. */
+    public static final String MIN = "min";
+    /** The name of the maximum aggregate. */
+    public static final String MAX = "max";
+    /** The name of the average aggregate. */
+    public static final String AVERAGE = "average";
+    /** The name of the first element aggregate, which stops at the first element. */
+    public static final String FIRST = "first";
+    /** The name of the any element aggregate, which stops at the first element found. */
+    public static final String ANY = "any";
+
+    private final String name;
+
+    protected AggregateNodeTest(final TokenImage tokenImage, final Class<?> reductionType, final String name) {
+        super(tokenImage, reductionType);
+        this.name = name;
+    }
+
+    /**
+     * Determines whether the given name is that of an aggregate.
+     *
+     * @param name the name to be tested.
+     * @return true if the name is that of an aggregate, false otherwise.
+     */
+    public static boolean isAggregateName(final String name) {
+        return SUM.equals(name) || COUNT.equals(name) || MIN.equals(name) || MAX.equals(name) || AVERAGE.equals(name)
+               || FIRST.equals(name) || ANY.equals(name);
+    }
+
+    /**
+     * Creates the aggregate node test of the given name.
+     *
+     * @param tokenImage the token image of the aggregate.
+     * @param name the name of the aggregate.
+     * @return the aggregate node test of the given name.
+     * @throws IllegalArgumentException if the name is not that of an aggregate.
+     */
+    public static AggregateNodeTest forName(final TokenImage tokenImage, final String name) {
+        switch (name) {
+            case SUM: return new SumNodeTest(tokenImage);
+            case COUNT: return new CountNodeTest(tokenImage);
+            case MIN: return new MinNodeTest(tokenImage);
+            case MAX: return new MaxNodeTest(tokenImage);
+            case AVERAGE: return new AverageNodeTest(tokenImage);
+            case FIRST: return new FirstNodeTest(tokenImage);
+            case ANY: return new AnyNodeTest(tokenImage);
+            default: throw new IllegalArgumentException("Unknown aggregate [" + name + "]");
+        }
+    }
+
+    /**
+     * Gets the name of the aggregate, as written in a navigation.
+     *
+     * @return the name of the aggregate.
+     */
+    public String getName() {
+        return name;
+    }
+
+    public final Class<?> getReductionType() {
+        return getTypeDescriptor();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.ast.navigation;
+
+import org.orthodox.universel.ast.Expression;
+import org.orthodox.universel.ast.TokenImage;
+
+/**
+ * A node test which, rather than collecting a sequence, yields a lazily evaluated view of it. Elements are navigated
+ * only as the view is consumed, so a caller taking a prefix of a large sequence navigates no more than that prefix.
+ * Lazy views are written as the final step of a navigation, for example <code>trades.counterparty.[stream]</code>, and
+ * may be consumed only once.
+ *
+ * <p>Laziness is per element of the outermost sequence. Where a navigation flattens nested sequences, for example
+ * <code>books.chapters.[first]</code>, each inner sequence is flattened with {@link java.util.stream.Stream#flatMap},
+ * which on Java 8 consumes an inner sequence fully once any of it is consumed. Later inner sequences are then navigated
+ * only as needed, but all elements of the inner sequence containing the last consumed element will have been
+ * navigated.</p>
+ */
+public abstract class LazyNodeTest extends Expression implements ReductionNodeTest {
+    /** The name of the lazy {@link java.util.stream.Stream} view. */
+    public static final String STREAM = "stream";
+    /** The name of the lazy {@link java.util.Iterator} view. */
+    public static final String ITERATOR = "iterator";
+    /** The name of the lazy, single-use, {@link Iterable} view. */
+    public static final String ITERABLE = "iterable";
+
+    private final String name;
+
+    protected LazyNodeTest(final TokenImage tokenImage, final Class<?> reductionType, final String name) {
+        super(tokenImage, reductionType);
+        this.name = name;
+    }
+
+    /**
+     * Determines whether the given name is that of a lazy view.
+     *
+     * @param name the name to be tested.
+     * @return true if the name is that of a lazy view, false otherwise.
+     */
+    public static boolean isLazyName(final String name) {
+        return STREAM.equals(name) || ITERATOR.equals(name) || ITERABLE.equals(name);
+    }
+
+    /**
+     * Creates the lazy view node test of the given name.
+     *
+     * @param tokenImage the token image of the lazy view.
+     * @param name the name of the lazy view.
+     * @return the lazy view node test of the given name.
+     * @throws IllegalArgumentException if the name is not that of a lazy view.
+     */
+    public static LazyNodeTest forName(final TokenImage tokenImage, final String name) {
+        switch (name) {
+            case STREAM: return new StreamNodeTest(tokenImage);
+            case ITERATOR: return new IteratorNodeTest(tokenImage);
+            case ITERABLE: return new IterableNodeTest(tokenImage);
+            default: throw new IllegalArgumentException("Unknown lazy view [" + name + "]");
+        }
+    }
+
+    /**
+     * Gets the name of the lazy view, as written in a navigation.
+     *
+     * @return the name of the lazy view.
+     */
+    public String getName() {
+        return name;
+    }
+
+    public final Class<?> getReductionType() {
+        return getTypeDescriptor();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+}
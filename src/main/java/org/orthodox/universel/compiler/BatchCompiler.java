@@ -0,0 +1,239 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.orthodox.universel.compiler;
+
+import org.beanplanet.core.io.resource.Resource;
+import org.beanplanet.core.models.NameValue;
+import org.orthodox.universel.UniversalException;
+import org.orthodox.universel.ast.Type;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Compiles a directory of scripts ahead of time, writing the generated classes to a jar which may be loaded at runtime
+ * by a {@link CompiledUnitArchive} without any further compilation.
+ *
+ * <p>Each script is named by its path relative to the script directory, using forward slashes and without the script
+ * file extension. Scripts are compiled in parallel.</p>
+ */
+public class BatchCompiler {
+    /**
+     * The default file extension of scripts to be compiled.
+     */
+    public static final String DEFAULT_SCRIPT_FILE_EXTENSION = ".uel";
+
+    private final UniversalCompiler compiler;
+    private final int parallelism;
+
+    /**
+     * Constructs a batch compiler using as many threads as there are available processors.
+     */
+    public BatchCompiler() {
+        this(new UniversalCompiler(CompiledUnitCache.disabled(), PersistentCompiledUnitStore.disabled()), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a batch compiler.
+     *
+     * @param compiler the compiler used to compile each script.
+     * @param parallelism the maximum number of scripts compiled concurrently.
+     */
+    public BatchCompiler(final UniversalCompiler compiler, final int parallelism) {
+        this.compiler = compiler;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Compiles the scripts in the given directory, and its sub-directories, having the given file extension.
+     *
+     * @param scriptDirectory the directory of scripts to be compiled.
+     * @param scriptFileExtension the file extension of the scripts to be compiled, such as <code>.uel</code>.
+     * @param bindingTypes a function returning the binding type of a script, given the name of the script. The function
+     *                     may return null for scripts without a binding.
+     * @return the compiled scripts, in script name order, which may include scripts with compilation errors.
+     */
+    public List<CompiledScriptEntry> compile(final Path scriptDirectory, final String scriptFileExtension, final Function<String, Class<?>> bindingTypes) {
+        final List<Path> scriptFiles;
+        try (Stream<Path> files = Files.walk(scriptDirectory)) {
+            scriptFiles = files.filter(Files::isRegularFile)
+                               .filter(f -> f.getFileName().toString().endsWith(scriptFileExtension))
+                               .sorted()
+                               .collect(Collectors.toList());
+        } catch (IOException ioEx) {
+            throw new UniversalException("Unable to list scripts in directory [" + scriptDirectory + "]", ioEx);
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, Math.max(1, scriptFiles.size())));
+        try {
+            List<Future<CompiledScriptEntry>> compilations = new ArrayList<>(scriptFiles.size());
+            for (Path scriptFile : scriptFiles) {
+                String scriptName = scriptNameOf(scriptDirectory, scriptFile, scriptFileExtension);
+                compilations.add(executor.submit(() -> compile(scriptName, scriptFile, bindingTypes.apply(scriptName))));
+            }
+
+            List<CompiledScriptEntry> entries = new ArrayList<>(compilations.size());
+            for (Future<CompiledScriptEntry> compilation : compilations) {
+                entries.add(compilation.get());
+            }
+            return entries;
+        } catch (InterruptedException interruptedEx) {
+            Thread.currentThread().interrupt();
+            throw new UniversalException("Batch compilation was interrupted", interruptedEx);
+        } catch (ExecutionException executionEx) {
+            throw executionEx.getCause() instanceof RuntimeException ? (RuntimeException)executionEx.getCause()
+                                                                     : new UniversalException("Batch compilation failed", executionEx.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private CompiledScriptEntry compile(final String scriptName, final Path scriptFile, final Class<?> bindingType) throws IOException {
+        final String source = new String(Files.readAllBytes(scriptFile), StandardCharsets.UTF_8);
+        return new CompiledScriptEntry(scriptName, source, compiler.compile(source, bindingType));
+    }
+
+    private static String scriptNameOf(final Path scriptDirectory, final Path scriptFile, final String scriptFileExtension) {
+        String relativePath = scriptDirectory.relativize(scriptFile).toString().replace(scriptFile.getFileSystem().getSeparator(), "/");
+        return relativePath.substring(0, relativePath.length() - scriptFileExtension.length());
+    }
+
+    /**
+     * Writes the generated classes of the given compiled scripts, and an index of the scripts, to a jar.
+     *
+     * @param compiledScripts the compiled scripts to be written, none of which may have compilation errors.
+     * @param jarFile the jar file to be written, which is replaced if it already exists.
+     * @throws CompilationErrorsException if any of the compiled scripts has compilation errors.
+     */
+    public void writeJar(final List<CompiledScriptEntry> compiledScripts, final Path jarFile) {
+        for (CompiledScriptEntry compiledScript : compiledScripts) {
+            if ( compiledScript.getCompiledUnit().hasErrors() ) {
+                throw new CompilationErrorsException(compiledScript.getCompiledUnit().getMessages());
+            }
+        }
+
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+
+        Properties index = new Properties();
+        index.setProperty(CompiledUnitArchive.FORMAT_VERSION_KEY, String.valueOf(CompiledUnitArchive.FORMAT_VERSION));
+        index.setProperty(CompiledUnitArchive.UNIT_COUNT_KEY, String.valueOf(compiledScripts.size()));
+
+        try {
+            if ( jarFile.toAbsolutePath().getParent() != null ) Files.createDirectories(jarFile.toAbsolutePath().getParent());
+            try (JarOutputStream jar = new JarOutputStream(Files.newOutputStream(jarFile), manifest)) {
+                for (int unitNo = 0; unitNo < compiledScripts.size(); unitNo++) {
+                    CompiledScriptEntry compiledScript = compiledScripts.get(unitNo);
+                    CompiledUnit<?> compiledUnit = compiledScript.getCompiledUnit();
+                    Class<?> bindingType = compiledUnit.getBindingType();
+                    Type resultType = compiledUnit.getResultType();
+
+                    String unitPrefix = CompiledUnitArchive.UNIT_KEY_PREFIX + unitNo + ".";
+                    index.setProperty(unitPrefix + CompiledUnitArchive.NAME_KEY, compiledScript.getScriptName());
+                    index.setProperty(unitPrefix + CompiledUnitArchive.SOURCE_DIGEST_KEY, PersistentCompiledUnitStore.digestOf(compiledScript.getSource()));
+                    index.setProperty(unitPrefix + CompiledUnitArchive.BINDING_TYPE_KEY, bindingType == null ? "" : bindingType.getName());
+                    index.setProperty(unitPrefix + CompiledUnitArchive.RESULT_TYPE_KEY, resultType == null || resultType.getTypeClass() == null ? "" : resultType.getTypeClass().getName());
+                    index.setProperty(unitPrefix + CompiledUnitArchive.CLASSES_KEY, compiledUnit.getCompiledClassResources()
+                                                                                                .stream()
+                                                                                                .map(NameValue::getName)
+                                                                                                .collect(joining(",")));
+
+                    for (NameValue<Resource> compiledClassResource : compiledUnit.getCompiledClassResources()) {
+                        jar.putNextEntry(new JarEntry(CompiledUnitArchive.classEntryName(unitNo, compiledClassResource.getName())));
+                        jar.write(compiledClassResource.getValue().readFullyAsBytes());
+                        jar.closeEntry();
+                    }
+                }
+
+                jar.putNextEntry(new JarEntry(CompiledUnitArchive.INDEX_ENTRY_NAME));
+                index.store(jar, "Universel compiled unit index");
+                jar.closeEntry();
+            }
+        } catch (IOException ioEx) {
+            throw new UniversalException("Unable to write compiled scripts to jar [" + jarFile + "]", ioEx);
+        }
+    }
+
+    /**
+     * A script compiled by the batch compiler.
+     */
+    public static final class CompiledScriptEntry {
+        private final String scriptName;
+        private final String source;
+        private final CompiledUnit<?> compiledUnit;
+
+        CompiledScriptEntry(final String scriptName, final String source, final CompiledUnit<?> compiledUnit) {
+            this.scriptName = scriptName;
+            this.source = source;
+            this.compiledUnit = compiledUnit;
+        }
+
+        /**
+         * Gets the name of the script, being its path relative to the script directory without the file extension.
+         *
+         * @return the script name.
+         */
+        public String getScriptName() {
+            return scriptName;
+        }
+
+        /**
+         * Gets the source of the script.
+         *
+         * @return the script source.
+         */
+        public String getSource() {
+            return source;
+        }
+
+        /**
+         * Gets the result of compiling the script, which may have compilation errors.
+         *
+         * @return the compiled unit of the script.
+         */
+        public CompiledUnit<?> getCompiledUnit() {
+            return compiledUnit;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.compiler;
+
+import org.beanplanet.core.lang.TypeUtil;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A shared cache of class resolutions by fully qualified name, per class loader. Absent classes are cached also, so the
+ * repeated probing of on-demand imports for a simple name does not repeatedly throw, and catch, a
+ * {@link ClassNotFoundException} within the class loader.
+ *
+ * <p>Resolutions are held against the context class loader of the resolving thread, in effect at the time of
+ * resolution. Class loaders are weakly referenced, as are the resolved classes, so the cache does not prevent a class
+ * loader, or its classes, from being unloaded.</p>
+ */
+public final class ClassResolutionCache {
+    private static final Reference<Class<?>> ABSENT = new WeakReference<>(null);
+
+    private static final Map<ClassLoader, Map<String, Reference<Class<?>>>> resolutionsByClassLoader = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+
+    private ClassResolutionCache() {}
+
+    /**
+     * Loads the class of the given fully qualified name, or returns a prior resolution of the name.
+     *
+     * @param fullyQualifiedName the fully qualified name of the class to load.
+     * @return the class of the given name, or null if no class of the name could be loaded.
+     */
+    public static Class<?> loadClassOrNull(final String fullyQualifiedName) {
+        Map<String, Reference<Class<?>>> resolutions = resolutionsByClassLoader.computeIfAbsent(Thread.currentThread().getContextClassLoader(),
+                                                                                                 k -> new ConcurrentHashMap<>());
+        Reference<Class<?>> resolution = resolutions.get(fullyQualifiedName);
+        if ( resolution == ABSENT ) {
+            hits.incrementAndGet();
+            return null;
+        }
+
+        Class<?> resolvedClass = resolution == null ? null : resolution.get();
+        if ( resolvedClass != null ) {
+            hits.incrementAndGet();
+            return resolvedClass;
+        }
+
+        misses.incrementAndGet();
+        resolvedClass = TypeUtil.loadClassOrNull(fullyQualifiedName);
+        resolutions.put(fullyQualifiedName, resolvedClass == null ? ABSENT : new WeakReference<>(resolvedClass));
+        return resolvedClass;
+    }
+
+    /**
+     * Discards all resolutions, such as when classes may have been newly defined under a previously resolved name.
+     */
+    public static void clear() {
+        resolutionsByClassLoader.clear();
+    }
+
+    /**
+     * @return the number of resolutions answered from the cache, including resolutions of absent classes.
+     */
+    public static long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of resolutions requiring the class to be loaded.
+     */
+    public static long getMissCount() {
+        return misses.get();
+    }
+}
@@ -28,7 +28,7 @@ public class CompilationContext implements NameScope {
 
     private final Messages messages;
 
-    private static final List<ImportStmt> DEFAULT_IMPORTS = asList(
+    static final List<ImportStmt> DEFAULT_IMPORTS = asList(
         new ImportStmt(true, "java", "lang"),
         new ImportStmt(true, "java", "util"),
         new ImportStmt(false, "java", "lang", "Math"),
@@ -117,6 +117,7 @@ public class CompilationContext implements NameScope {
 
     public static class CompilingTypeInfo {
         private Map<Object, AtomicInteger> generatedMethodNameSequences = new HashMap<>();
+        private Map<Object, HoistedConstant> hoistedConstants = new LinkedHashMap<>();
         private NamePath fqTypeName;
 
         public CompilingTypeInfo(NamePath fqTypeName) {
@@ -131,5 +132,49 @@ public class CompilationContext implements NameScope {
             AtomicInteger sequenceGenerator = generatedMethodNameSequences.computeIfAbsent(nameHints, k -> new AtomicInteger());
             return nameHints.joinSingleton(valueOf(sequenceGenerator.incrementAndGet())).join("$");
         }
+
+        /**
+         * Registers a constant value to be held in a static final field of the type being compiled, initialised once
+         * in the class initialiser. Constants registered under an equal key share the same field.
+         *
+         * @param key the key identifying the constant value, such as the value itself or the node defining it.
+         * @param node the node whose evaluation initialises the constant.
+         * @param fieldType the declared type of the field holding the constant.
+         * @return the hoisted constant, which may have been registered previously under the same key.
+         */
+        public HoistedConstant hoistConstant(Object key, Node node, Class<?> fieldType) {
+            return hoistedConstants.computeIfAbsent(key, k -> new HoistedConstant("$const" + (hoistedConstants.size() + 1), fieldType, node));
+        }
+
+        public List<HoistedConstant> getHoistedConstants() {
+            return new ArrayList<>(hoistedConstants.values());
+        }
+    }
+
+    /**
+     * A constant value held in a synthetic static final field of a compiled type.
+     */
+    public static class HoistedConstant {
+        private final String fieldName;
+        private final Class<?> fieldType;
+        private final Node node;
+
+        public HoistedConstant(String fieldName, Class<?> fieldType, Node node) {
+            this.fieldName = fieldName;
+            this.fieldType = fieldType;
+            this.node = node;
+        }
+
+        public String getFieldName() {
+            return fieldName;
+        }
+
+        public Class<?> getFieldType() {
+            return fieldType;
+        }
+
+        public Node getNode() {
+            return node;
+        }
     }
 }
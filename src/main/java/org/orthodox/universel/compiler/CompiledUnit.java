@@ -7,9 +7,15 @@ import org.orthodox.universel.UniversalException;
 import org.orthodox.universel.ast.Node;
 import org.orthodox.universel.ast.ParseTree;
 import org.orthodox.universel.ast.Type;
+import org.orthodox.universel.exec.CompiledScript;
 
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.List;
 import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
 
 import static java.lang.String.format;
@@ -17,6 +23,7 @@ import static java.lang.String.format;
 public class CompiledUnit<B> {
     private Class<B> bindingType;
     private Node astNode;
+    private Type resultType;
     private List<NameValue<Resource>> compiledClassResources;
     private long compilationTimeMillis;
 
@@ -24,7 +31,7 @@ public class CompiledUnit<B> {
 
     private List<Class<?>> loadedClasses = null;
 
-    private static final SimpleUniversalClassloader DEFAULT_CLASSLOADER = new SimpleUniversalClassloader();
+    private volatile MethodHandleCompiledScript<B, ?> script;
 
     public CompiledUnit(Class<B> bindingType, Node astNode, Messages messages, List<NameValue<Resource>> compiledClassResources, long compilationTimeMillis) {
         this.bindingType = bindingType;
@@ -34,13 +41,34 @@ public class CompiledUnit<B> {
         this.compilationTimeMillis = compilationTimeMillis;
     }
 
+    /**
+     * Constructs a compiled unit restored from previously generated classes, for which no AST is available.
+     *
+     * @param bindingType the binding type against which the unit was compiled, which may be null.
+     * @param resultType the type of the result of the unit, which may be null if unknown.
+     * @param messages the messages associated with the unit.
+     * @param compiledClassResources the previously generated classes of the unit.
+     * @param compilationTimeMillis the time taken to restore the unit.
+     * @see PersistentCompiledUnitStore
+     */
+    CompiledUnit(Class<B> bindingType, Type resultType, Messages messages, List<NameValue<Resource>> compiledClassResources, long compilationTimeMillis) {
+        this(bindingType, (Node)null, messages, compiledClassResources, compilationTimeMillis);
+        this.resultType = resultType;
+    }
+
     public Class<B> getBindingType() {
         return bindingType;
     }
 
+    /**
+     * Gets the AST of this compiled unit.
+     *
+     * @return the AST of this unit, or null if this unit was restored from a {@link PersistentCompiledUnitStore}.
+     */
     public Node getAstNode() { return astNode; }
 
     public <T> T getAstNode(Class<T> astNodeType) {
+        checkAstAvailable();
         return new ParseTree(astNode).preorderStream()
                                         .filter(n -> astNodeType.isAssignableFrom(n.getClass()))
                                         .map(n -> (T)n)
@@ -53,6 +81,7 @@ public class CompiledUnit<B> {
 
     @SuppressWarnings({"unchecked", "rawtypes"})
     public <T extends Node> T getAstNode(final Predicate<Node> filter) {
+        checkAstAvailable();
         return (T)new ParseTree(astNode).preorderParentUnawareStream()
                                      .filter(filter)
                                      .findFirst()
@@ -60,6 +89,12 @@ public class CompiledUnit<B> {
 
     }
 
+    private void checkAstAvailable() {
+        if (astNode == null) {
+            throw new UniversalException("The AST of this compiled unit is not available");
+        }
+    }
+
     public Messages getMessages() {
         return messages;
     }
@@ -76,23 +111,124 @@ public class CompiledUnit<B> {
         return getMessages().hasErrors();
     }
 
-    public List<Class<?>> getCompiledClasses() {
+    /**
+     * Gets the classes generated for this compiled unit, defining them on first request. The classes are defined in a
+     * class loader exclusive to this unit, so they may be unloaded once this unit is no longer referenced.
+     *
+     * @return the classes generated for this compiled unit.
+     * @see CompiledUnitClassLoader#getLiveClassCount()
+     */
+    public synchronized List<Class<?>> getCompiledClasses() {
         if (loadedClasses == null) {
+            final CompiledUnitClassLoader classLoader = new CompiledUnitClassLoader();
             loadedClasses = compiledClassResources
                                 .stream()
-                                .map(nv -> DEFAULT_CLASSLOADER.defineClass(nv.getName(), nv.getValue().readFullyAsBytes()))
+                                .map(nv -> classLoader.defineClass(nv.getName(), nv.getValue().readFullyAsBytes()))
                                 .collect(Collectors.toList());
         }
         return loadedClasses;
     }
 
-    private static class SimpleUniversalClassloader extends ClassLoader {
-        public Class<?> defineClass(String name, byte[] b) {
-            return defineClass(name, b, 0, b.length);
+    /**
+     * Gets the pre-linked entry point of this compiled unit, which may be evaluated repeatedly without reflection.
+     *
+     * @return the compiled script entry point, linked on first request.
+     * @throws CompilationErrorsException if this compiled unit has compilation errors.
+     * @throws IllegalStateException if this compiled unit does not contain an executable script.
+     */
+    @SuppressWarnings("unchecked")
+    public <R> CompiledScript<B, R> getScript() {
+        return (CompiledScript<B, R>)getMethodHandleScript();
+    }
+
+    /**
+     * Gets this compiled unit as a predicate, for scripts yielding a <code>boolean</code> result. The result is not boxed
+     * where the script body is of primitive boolean type.
+     *
+     * @return a predicate evaluating this compiled unit.
+     * @throws org.orthodox.universel.UniversalException if the script result cannot be evaluated as a boolean.
+     */
+    public Predicate<B> asPredicate() {
+        MethodHandleCompiledScript<B, ?> linkedScript = getMethodHandleScript();
+        linkedScript.adaptEntryPoint(boolean.class);
+        return linkedScript::evaluateBoolean;
+    }
+
+    /**
+     * Gets this compiled unit as an int-valued function, for scripts yielding an <code>int</code> result. The result is
+     * not boxed where the script body is of primitive int type.
+     *
+     * @return an int-valued function evaluating this compiled unit.
+     * @throws org.orthodox.universel.UniversalException if the script result cannot be evaluated as an int.
+     */
+    public ToIntFunction<B> asIntFunction() {
+        MethodHandleCompiledScript<B, ?> linkedScript = getMethodHandleScript();
+        linkedScript.adaptEntryPoint(int.class);
+        return linkedScript::evaluateInt;
+    }
+
+    /**
+     * Gets this compiled unit as a long-valued function, for scripts yielding a <code>long</code> result or a result
+     * which widens to long. The result is not boxed where the script body is of primitive type.
+     *
+     * @return a long-valued function evaluating this compiled unit.
+     * @throws org.orthodox.universel.UniversalException if the script result cannot be evaluated as a long.
+     */
+    public ToLongFunction<B> asLongFunction() {
+        MethodHandleCompiledScript<B, ?> linkedScript = getMethodHandleScript();
+        linkedScript.adaptEntryPoint(long.class);
+        return linkedScript::evaluateLong;
+    }
+
+    /**
+     * Gets this compiled unit as a double-valued function, for scripts yielding a <code>double</code> result or a result
+     * which widens to double. The result is not boxed where the script body is of primitive type.
+     *
+     * @return a double-valued function evaluating this compiled unit.
+     * @throws org.orthodox.universel.UniversalException if the script result cannot be evaluated as a double.
+     */
+    public ToDoubleFunction<B> asDoubleFunction() {
+        MethodHandleCompiledScript<B, ?> linkedScript = getMethodHandleScript();
+        linkedScript.adaptEntryPoint(double.class);
+        return linkedScript::evaluateDouble;
+    }
+
+    MethodHandleCompiledScript<B, ?> getMethodHandleScript() {
+        MethodHandleCompiledScript<B, ?> linkedScript = script;
+        if ( linkedScript == null ) {
+            synchronized (this) {
+                if ( script == null ) {
+                    script = new MethodHandleCompiledScript<>(findMainMethod());
+                }
+                linkedScript = script;
+            }
+        }
+        return linkedScript;
+    }
+
+    private Method findMainMethod() {
+        if ( hasErrors() ) {
+            throw new CompilationErrorsException(getMessages());
         }
+
+        List<Class<?>> compiledClasses = getCompiledClasses();
+        if (compiledClasses.size() != 1) {
+            throw new IllegalStateException("It looks like the script compiled is not executable? Were there executable statements specified?");
+        }
+
+        for (Method method : compiledClasses.get(0).getDeclaredMethods()) {
+            if ( CompilationDefaults.SCRIPT_MAIN_METHOD_NAME.equals(method.getName())
+                 && Modifier.isStatic(method.getModifiers())
+                 && Modifier.isPublic(method.getModifiers())
+                 && method.getParameterCount() == (bindingType == null ? 0 : 1) ) {
+                return method;
+            }
+        }
+
+        throw new IllegalStateException("The compiled script has no executable main method");
     }
 
     public Type getResultType() {
-        return getAstNode().getType();
+        return astNode == null ? resultType : astNode.getType();
     }
 }
@@ -0,0 +1,228 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.orthodox.universel.compiler;
+
+import org.beanplanet.core.io.resource.ByteArrayResource;
+import org.beanplanet.core.io.resource.Resource;
+import org.beanplanet.core.models.NameValue;
+import org.beanplanet.core.models.SimpleNameValue;
+import org.orthodox.universel.UniversalException;
+import org.orthodox.universel.ast.Type;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import static org.beanplanet.messages.domain.MessagesImpl.messages;
+
+/**
+ * The runtime counterpart of the {@link BatchCompiler}, resolving compiled units from a jar of scripts compiled ahead of
+ * time. No parsing, analysis or code generation takes place: restoring a compiled unit costs only the loading of its
+ * classes, which are defined in a class loader exclusive to the unit as for any other compiled unit.
+ *
+ * <p>Compiled units may be resolved by script name or by source. Restored units have no AST, and each is restored at
+ * most once per archive.</p>
+ */
+public class CompiledUnitArchive {
+    static final String INDEX_ENTRY_NAME = "META-INF/universel/compiled-units.properties";
+    static final String UNITS_ENTRY_PREFIX = "META-INF/universel/units/";
+
+    static final int FORMAT_VERSION = 1;
+    static final String FORMAT_VERSION_KEY = "format.version";
+    static final String UNIT_COUNT_KEY = "unit.count";
+    static final String UNIT_KEY_PREFIX = "unit.";
+    static final String NAME_KEY = "name";
+    static final String SOURCE_DIGEST_KEY = "source.digest";
+    static final String BINDING_TYPE_KEY = "binding.type";
+    static final String RESULT_TYPE_KEY = "result.type";
+    static final String CLASSES_KEY = "classes";
+
+    private final Path jarFile;
+    private final Map<String, UnitEntry> unitsByName;
+    private final Map<String, UnitEntry> unitsBySourceDigest;
+    private final Map<String, CompiledUnit<?>> restoredUnits = new ConcurrentHashMap<>();
+
+    private CompiledUnitArchive(final Path jarFile, final List<UnitEntry> units) {
+        this.jarFile = jarFile;
+        this.unitsByName = new LinkedHashMap<>();
+        this.unitsBySourceDigest = new HashMap<>();
+        for (UnitEntry unit : units) {
+            unitsByName.put(unit.name, unit);
+            unitsBySourceDigest.put(unit.sourceDigest + "|" + unit.bindingTypeName, unit);
+        }
+    }
+
+    /**
+     * Opens an archive of compiled units, written by the {@link BatchCompiler}. The generated classes of all units are
+     * read eagerly, so the jar file is not held open.
+     *
+     * @param jarFile the jar file of compiled units.
+     * @return the archive of compiled units.
+     * @throws UniversalException if the jar file could not be read or is not an archive of compiled units.
+     */
+    public static CompiledUnitArchive open(final Path jarFile) {
+        try (JarFile jar = new JarFile(jarFile.toFile())) {
+            JarEntry indexEntry = jar.getJarEntry(INDEX_ENTRY_NAME);
+            if ( indexEntry == null ) {
+                throw new UniversalException("The jar [" + jarFile + "] is not an archive of compiled units");
+            }
+
+            Properties index = new Properties();
+            try (InputStream in = jar.getInputStream(indexEntry)) {
+                index.load(in);
+            }
+            if ( !String.valueOf(FORMAT_VERSION).equals(index.getProperty(FORMAT_VERSION_KEY)) ) {
+                throw new UniversalException("The archive of compiled units [" + jarFile + "] has unsupported format version [" + index.getProperty(FORMAT_VERSION_KEY) + "]");
+            }
+
+            int unitCount = Integer.parseInt(index.getProperty(UNIT_COUNT_KEY, "0"));
+            List<UnitEntry> units = new ArrayList<>(unitCount);
+            for (int unitNo = 0; unitNo < unitCount; unitNo++) {
+                String unitPrefix = UNIT_KEY_PREFIX + unitNo + ".";
+                String classNames = index.getProperty(unitPrefix + CLASSES_KEY, "");
+
+                List<NameValue<Resource>> compiledClassResources = new ArrayList<>();
+                for (String className : classNames.isEmpty() ? new String[0] : classNames.split(",")) {
+                    JarEntry classEntry = jar.getJarEntry(classEntryName(unitNo, className));
+                    if ( classEntry == null ) {
+                        throw new UniversalException("The class [" + className + "] is missing from the archive of compiled units [" + jarFile + "]");
+                    }
+                    try (InputStream in = jar.getInputStream(classEntry)) {
+                        compiledClassResources.add(new SimpleNameValue<Resource>(className, new ByteArrayResource(readFully(in))));
+                    }
+                }
+
+                units.add(new UnitEntry(index.getProperty(unitPrefix + NAME_KEY),
+                                        index.getProperty(unitPrefix + SOURCE_DIGEST_KEY),
+                                        index.getProperty(unitPrefix + BINDING_TYPE_KEY, ""),
+                                        index.getProperty(unitPrefix + RESULT_TYPE_KEY, ""),
+                                        compiledClassResources));
+            }
+            return new CompiledUnitArchive(jarFile, units);
+        } catch (IOException | NumberFormatException ex) {
+            throw new UniversalException("Unable to read archive of compiled units [" + jarFile + "]", ex);
+        }
+    }
+
+    /**
+     * Gets the names of the scripts in this archive.
+     *
+     * @return the script names, in the order compiled.
+     */
+    public Set<String> getScriptNames() {
+        return Collections.unmodifiableSet(unitsByName.keySet());
+    }
+
+    /**
+     * Gets the compiled unit of the script of the given name.
+     *
+     * @param scriptName the name of the script, being its path relative to the compiled script directory without its
+     *                   file extension.
+     * @param bindingType the binding type with which the script was compiled, which may be null.
+     * @return the compiled unit of the named script, or empty if there is no such script in this archive.
+     * @throws UniversalException if the script was compiled with a different binding type.
+     */
+    public <B> Optional<CompiledUnit<B>> getCompiledUnit(final String scriptName, final Class<B> bindingType) {
+        UnitEntry unit = unitsByName.get(scriptName);
+        return unit == null ? Optional.empty() : Optional.of(restore(unit, bindingType));
+    }
+
+    /**
+     * Finds the compiled unit of a script with the given source.
+     *
+     * @param source the source of the script.
+     * @param bindingType the binding type with which the script was compiled, which may be null.
+     * @return the compiled unit of the script, or empty if no script in this archive has the given source and binding
+     * type.
+     */
+    public <B> Optional<CompiledUnit<B>> findCompiledUnit(final String source, final Class<B> bindingType) {
+        UnitEntry unit = unitsBySourceDigest.get(PersistentCompiledUnitStore.digestOf(source) + "|" + (bindingType == null ? "" : bindingType.getName()));
+        return unit == null ? Optional.empty() : Optional.of(restore(unit, bindingType));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <B> CompiledUnit<B> restore(final UnitEntry unit, final Class<B> bindingType) {
+        if ( !unit.bindingTypeName.equals(bindingType == null ? "" : bindingType.getName()) ) {
+            throw new UniversalException("The script [" + unit.name + "] in archive [" + jarFile + "] was compiled with binding type [" + unit.bindingTypeName + "] not [" + (bindingType == null ? "" : bindingType.getName()) + "]");
+        }
+
+        return (CompiledUnit<B>)restoredUnits.computeIfAbsent(unit.name, name -> {
+            long startTime = System.currentTimeMillis();
+            try {
+                Type resultType = unit.resultTypeName.isEmpty() ? null : Type.forClass(PersistentCompiledUnitStore.resolveClass(unit.resultTypeName, bindingType));
+                return new CompiledUnit<>(bindingType, resultType, messages(), unit.compiledClassResources, System.currentTimeMillis() - startTime);
+            } catch (ClassNotFoundException classNotFoundEx) {
+                throw new UniversalException("Unable to resolve the result type of script [" + unit.name + "] in archive [" + jarFile + "]", classNotFoundEx);
+            }
+        });
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledUnitArchive[jarFile=" + jarFile + ", units=" + unitsByName.size() + "]";
+    }
+
+    static String classEntryName(final int unitNo, final String className) {
+        return UNITS_ENTRY_PREFIX + unitNo + "/" + className.replace('.', '/') + ".class";
+    }
+
+    private static byte[] readFully(final InputStream in) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buf = new byte[4096];
+        for (int bytesRead; (bytesRead = in.read(buf)) >= 0; ) {
+            bytes.write(buf, 0, bytesRead);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static final class UnitEntry {
+        private final String name;
+        private final String sourceDigest;
+        private final String bindingTypeName;
+        private final String resultTypeName;
+        private final List<NameValue<Resource>> compiledClassResources;
+
+        private UnitEntry(final String name,
+                          final String sourceDigest,
+                          final String bindingTypeName,
+                          final String resultTypeName,
+                          final List<NameValue<Resource>> compiledClassResources) {
+            this.name = name;
+            this.sourceDigest = sourceDigest;
+            this.bindingTypeName = bindingTypeName;
+            this.resultTypeName = resultTypeName;
+            this.compiledClassResources = compiledClassResources;
+        }
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.compiler;
+
+import org.orthodox.universel.ast.FieldDeclaration;
+import org.orthodox.universel.ast.ImportStmt;
+import org.orthodox.universel.ast.Name;
+import org.orthodox.universel.ast.ParseTree;
+import org.orthodox.universel.exec.navigation.NavigatorRegistry;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * A bounded, least-recently-used cache of {@link CompiledUnit}s, keyed on the source of the compilation unit, the binding
+ * type, the default imports, the navigator registry and the compiler options in effect at compilation time.
+ *
+ * <p>Compiled units declaring non-final static fields are never cached, as sharing such a unit would share the mutable
+ * state of those fields between otherwise independent executions.</p>
+ */
+public class CompiledUnitCache {
+    /**
+     * The system property which may be used to override the maximum number of compiled units held by the default cache.
+     */
+    public static final String MAX_SIZE_PROPERTY = "universel.compiler.cache.maxSize";
+
+    /**
+     * The default maximum number of compiled units held by the cache.
+     */
+    public static final int DEFAULT_MAX_SIZE = 4096;
+
+    private final int maxSize;
+    private final Map<Key, CompiledUnit<?>> units;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Constructs a cache holding, at most, the given number of compiled units.
+     *
+     * @param maxSize the maximum number of compiled units held by this cache. A size of zero or less disables caching.
+     */
+    public CompiledUnitCache(final int maxSize) {
+        this.maxSize = maxSize;
+        this.units = new LinkedHashMap<Key, CompiledUnit<?>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, CompiledUnit<?>> eldest) {
+                boolean evict = size() > CompiledUnitCache.this.maxSize;
+                if ( evict ) evictions.incrementAndGet();
+                return evict;
+            }
+        };
+    }
+
+    /**
+     * Creates a cache sized according to the {@link #MAX_SIZE_PROPERTY} system property, or {@link #DEFAULT_MAX_SIZE}
+     * if the property is not set.
+     *
+     * @return a new cache with the default maximum size.
+     */
+    public static CompiledUnitCache defaultCache() {
+        return new CompiledUnitCache(Integer.getInteger(MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE));
+    }
+
+    /**
+     * Creates a cache which never holds any compiled units, effectively opting out of caching.
+     *
+     * @return a new cache instance with caching disabled.
+     */
+    public static CompiledUnitCache disabled() {
+        return new CompiledUnitCache(0);
+    }
+
+    /**
+     * Whether this cache will hold compiled units.
+     *
+     * @return true if caching is enabled, false otherwise.
+     */
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    /**
+     * Gets the maximum number of compiled units held by this cache.
+     *
+     * @return the maximum size of the cache.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the compiled unit associated with the given key components, compiling and caching it by way of the
+     * supplied compilation function if not already present.
+     *
+     * @param source the source text of the compilation unit.
+     * @param bindingType the binding type against which the unit is compiled, which may be null.
+     * @param defaultImports the default imports in effect during compilation.
+     * @param navigatorRegistry the navigator registry snapshot used during compilation.
+     * @param compilerOptions the options of the compiler, which determine the code generated.
+     * @param compilation the function which performs compilation, on a cache miss.
+     * @return the cached or newly compiled unit.
+     */
+    @SuppressWarnings("unchecked")
+    public <B> CompiledUnit<B> computeIfAbsent(final String source,
+                                               final Class<B> bindingType,
+                                               final List<ImportStmt> defaultImports,
+                                               final NavigatorRegistry navigatorRegistry,
+                                               final CompilerOptions compilerOptions,
+                                               final Supplier<CompiledUnit<B>> compilation) {
+        if ( !isEnabled() ) return compilation.get();
+
+        final Key key = new Key(source, bindingType, defaultImports, navigatorRegistry, compilerOptions);
+        synchronized (units) {
+            CompiledUnit<?> cached = units.get(key);
+            if ( cached != null ) {
+                hits.incrementAndGet();
+                return (CompiledUnit<B>)cached;
+            }
+        }
+
+        //--------------------------------------------------------------------------------------------------------------
+        // Compile outside of the lock so other compilations are not held up. Should another thread beat us to it, the
+        // first unit cached wins, keeping the unit handed to callers stable.
+        //--------------------------------------------------------------------------------------------------------------
+        misses.incrementAndGet();
+        CompiledUnit<B> compiled = compilation.get();
+        if ( !isCacheable(compiled) ) return compiled;
+
+        synchronized (units) {
+            CompiledUnit<?> existing = units.putIfAbsent(key, compiled);
+            return existing != null ? (CompiledUnit<B>)existing : compiled;
+        }
+    }
+
+    /**
+     * Whether the given compiled unit may be shared between callers, being free of non-final static fields.
+     *
+     * @param compiledUnit the compiled unit to be checked.
+     * @return true if the compiled unit may be cached, false otherwise.
+     */
+    static boolean isCacheable(final CompiledUnit<?> compiledUnit) {
+        return compiledUnit.getAstNode() == null
+               || new ParseTree(compiledUnit.getAstNode()).preorderParentUnawareStream()
+                                                          .filter(FieldDeclaration.class::isInstance)
+                                                          .map(FieldDeclaration.class::cast)
+                                                          .noneMatch(f -> f.getModifiers() != null
+                                                                          && f.getModifiers().isStatic()
+                                                                          && !f.getModifiers().isFinal());
+    }
+
+    /**
+     * Gets the number of compiled units currently held by this cache.
+     *
+     * @return the current size of the cache.
+     */
+    public int size() {
+        synchronized (units) {
+            return units.size();
+        }
+    }
+
+    /**
+     * Gets a snapshot of the compiled units currently held by this cache, in least-recently-used order.
+     *
+     * @return the units held by the cache.
+     */
+    List<CompiledUnit<?>> cachedUnits() {
+        synchronized (units) {
+            return new ArrayList<>(units.values());
+        }
+    }
+
+    /**
+     * Removes all compiled units from this cache. Statistics are not reset.
+     */
+    public void clear() {
+        synchronized (units) {
+            units.clear();
+        }
+    }
+
+    /**
+     * Gets the number of lookups satisfied by a cached compiled unit.
+     *
+     * @return the number of cache hits.
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Gets the number of lookups which resulted in a compilation.
+     *
+     * @return the number of cache misses.
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Gets the number of compiled units evicted to keep the cache within its maximum size.
+     *
+     * @return the number of cache evictions.
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledUnitCache[size=" + size() + ", maxSize=" + maxSize + ", hits=" + getHitCount() + ", misses=" + getMissCount() + ", evictions=" + getEvictionCount() + "]";
+    }
+
+    private static final class Key {
+        private final String source;
+        private final Class<?> bindingType;
+        private final String defaultImports;
+        private final NavigatorRegistry navigatorRegistry;
+        private final CompilerOptions compilerOptions;
+        private final int hashCode;
+
+        private Key(final String source,
+                    final Class<?> bindingType,
+                    final List<ImportStmt> defaultImports,
+                    final NavigatorRegistry navigatorRegistry,
+                    final CompilerOptions compilerOptions) {
+            this.source = source;
+            this.bindingType = bindingType;
+            this.navigatorRegistry = navigatorRegistry;
+            this.compilerOptions = compilerOptions;
+            this.defaultImports = defaultImports == null ? "" : defaultImports.stream()
+                                                                             .map(i -> i.getElements().stream().map(Name::getName).collect(joining(".")) + (i.isOnDemand() ? ".*" : ""))
+                                                                             .collect(joining(";"));
+            this.hashCode = Objects.hash(source, bindingType, this.defaultImports, System.identityHashCode(navigatorRegistry), compilerOptions);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(source, key.source)
+                   && Objects.equals(bindingType, key.bindingType)
+                   && Objects.equals(defaultImports, key.defaultImports)
+                   && navigatorRegistry == key.navigatorRegistry
+                   && Objects.equals(compilerOptions, key.compilerOptions);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.orthodox.universel.compiler;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The class loader of the generated classes of a single {@link CompiledUnit}. As each compiled unit has its own loader,
+ * the generated classes of a unit which is no longer referenced, for example one evicted from the
+ * {@link CompiledUnitCache}, become eligible for unloading and the metaspace they occupy may be reclaimed.
+ *
+ * <p>
+ * Counts of the generated classes defined, and of those still live, are maintained across all compiled units.
+ * </p>
+ */
+public final class CompiledUnitClassLoader extends ClassLoader {
+    private static final AtomicLong definedClassCount = new AtomicLong();
+    private static final AtomicLong unloadedClassCount = new AtomicLong();
+
+    /** Weak references to every live generated class, enqueued when their class is unloaded. */
+    private static final Set<Reference<Class<?>>> liveClasses = ConcurrentHashMap.newKeySet();
+    private static final ReferenceQueue<Class<?>> unloadedClasses = new ReferenceQueue<>();
+
+    CompiledUnitClassLoader() {
+    }
+
+    Class<?> defineClass(String name, byte[] b) {
+        Class<?> definedClass = defineClass(name, b, 0, b.length);
+        definedClassCount.incrementAndGet();
+        liveClasses.add(new WeakReference<>(definedClass, unloadedClasses));
+        expungeUnloadedClasses();
+        return definedClass;
+    }
+
+    /**
+     * Gets the total number of generated classes defined since startup.
+     *
+     * @return the number of generated classes defined.
+     */
+    public static long getDefinedClassCount() {
+        return definedClassCount.get();
+    }
+
+    /**
+     * Gets the number of generated classes which have been defined and subsequently unloaded by the JVM.
+     *
+     * @return the number of generated classes unloaded.
+     */
+    public static long getUnloadedClassCount() {
+        expungeUnloadedClasses();
+        return unloadedClassCount.get();
+    }
+
+    /**
+     * Gets the number of generated classes currently loaded, which remain in metaspace.
+     *
+     * @return the number of live generated classes.
+     */
+    public static long getLiveClassCount() {
+        expungeUnloadedClasses();
+        return liveClasses.size();
+    }
+
+    private static void expungeUnloadedClasses() {
+        for (Reference<? extends Class<?>> reference; (reference = unloadedClasses.poll()) != null; ) {
+            if ( liveClasses.remove(reference) ) {
+                unloadedClassCount.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.compiler;
+
+import org.beanplanet.core.io.resource.Resource;
+import org.beanplanet.core.models.NameValue;
+import org.objectweb.asm.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.function.BooleanSupplier;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Verifies that the classes, methods and fields referenced by previously generated classes still exist, with the same
+ * descriptors, as classes available at runtime may have changed since the classes were generated. Generated classes
+ * which would fail to link, with a {@link NoClassDefFoundError}, {@link NoSuchMethodError} or {@link NoSuchFieldError},
+ * may then be regenerated rather than failing on first evaluation.
+ *
+ * <p>References are resolved as the generated classes would resolve them when defined by a
+ * {@link CompiledUnitClassLoader}, whose parent is the system class loader.</p>
+ */
+final class CompiledUnitLinkage {
+    /** The access flag of a method accepting a variable number of arguments, as {@link Modifier} does not expose it. */
+    private static final int VARARGS = 0x80;
+
+    private final ClassLoader classLoader;
+    /** The internal names of the generated classes, whose references to one another are always satisfied. */
+    private final Set<String> generatedClassNames = new HashSet<>();
+    /** The references already verified, by their description. */
+    private final Set<String> verifiedReferences = new HashSet<>();
+
+    private CompiledUnitLinkage(final ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * Finds the first reference of the given generated classes which can no longer be resolved.
+     *
+     * @param compiledClassResources the generated classes of a compiled unit.
+     * @return a description of the first unresolved reference, or empty if every reference resolves.
+     */
+    static Optional<String> unresolvedReference(final List<NameValue<Resource>> compiledClassResources) {
+        return new CompiledUnitLinkage(ClassLoader.getSystemClassLoader()).verify(compiledClassResources);
+    }
+
+    private Optional<String> verify(final List<NameValue<Resource>> compiledClassResources) {
+        final List<ClassReader> classReaders = new ArrayList<>(compiledClassResources.size());
+        for (NameValue<Resource> compiledClassResource : compiledClassResources) {
+            ClassReader classReader = new ClassReader(compiledClassResource.getValue().readFullyAsBytes());
+            generatedClassNames.add(classReader.getClassName());
+            classReaders.add(classReader);
+        }
+
+        final ReferenceCollector references = new ReferenceCollector();
+        for (ClassReader classReader : classReaders) {
+            classReader.accept(references, ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+            if ( references.unresolved != null ) return Optional.of(references.unresolved);
+        }
+        return Optional.empty();
+    }
+
+    private boolean isResolvableType(final Type type) {
+        final Type elementType = type.getSort() == Type.ARRAY ? type.getElementType() : type;
+        return elementType.getSort() != Type.OBJECT || classOrNull(elementType.getInternalName()) != null;
+    }
+
+    private boolean isResolvableMethod(final String owner, final String name, final String descriptor, final boolean isStatic) {
+        if ( owner.startsWith("[") ) return true;
+        final Class<?> ownerClass = classOrNull(owner);
+        if ( ownerClass == null ) return false;
+
+        if ( "<init>".equals(name) ) {
+            for (Constructor<?> constructor : ownerClass.getDeclaredConstructors()) {
+                if ( descriptor.equals(Type.getConstructorDescriptor(constructor)) ) return true;
+            }
+            return false;
+        }
+
+        for (Class<?> declaringClass : hierarchyOf(ownerClass)) {
+            for (Method method : declaringClass.getDeclaredMethods()) {
+                if ( !name.equals(method.getName()) || Modifier.isStatic(method.getModifiers()) != isStatic ) continue;
+                // Signature polymorphic methods, such as MethodHandle.invokeExact, accept any descriptor
+                if ( descriptor.equals(Type.getMethodDescriptor(method)) || isSignaturePolymorphic(method) ) return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isResolvableField(final String owner, final String name, final String descriptor, final boolean isStatic) {
+        final Class<?> ownerClass = classOrNull(owner);
+        if ( ownerClass == null ) return false;
+
+        for (Class<?> declaringClass : hierarchyOf(ownerClass)) {
+            for (Field field : declaringClass.getDeclaredFields()) {
+                if ( name.equals(field.getName()) ) {
+                    return descriptor.equals(Type.getDescriptor(field.getType())) && Modifier.isStatic(field.getModifiers()) == isStatic;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSignaturePolymorphic(final Method method) {
+        final int nativeVarargs = Modifier.NATIVE | VARARGS;
+        return (method.getModifiers() & nativeVarargs) == nativeVarargs
+               && (method.getDeclaringClass() == MethodHandle.class || "java.lang.invoke.VarHandle".equals(method.getDeclaringClass().getName()));
+    }
+
+    /**
+     * The given class, its superclasses and all interfaces they implement, in the order in which members are resolved.
+     */
+    private static Collection<Class<?>> hierarchyOf(final Class<?> type) {
+        final Set<Class<?>> hierarchy = new LinkedHashSet<>();
+        for (Class<?> superclass = type; superclass != null; superclass = superclass.getSuperclass()) {
+            hierarchy.add(superclass);
+        }
+        final Deque<Class<?>> remaining = new ArrayDeque<>(hierarchy);
+        while (!remaining.isEmpty()) {
+            for (Class<?> superinterface : remaining.pop().getInterfaces()) {
+                if ( hierarchy.add(superinterface) ) remaining.add(superinterface);
+            }
+        }
+        if ( type.isInterface() ) hierarchy.add(Object.class);
+        return hierarchy;
+    }
+
+    private Class<?> classOrNull(final String internalName) {
+        if ( generatedClassNames.contains(internalName) ) return Object.class;
+        try {
+            return Class.forName(internalName.replace('/', '.'), false, classLoader);
+        } catch (ClassNotFoundException | LinkageError ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Visits the generated classes, recording the first reference to a class, method or field which cannot be resolved.
+     */
+    private final class ReferenceCollector extends ClassVisitor {
+        private String unresolved;
+
+        private ReferenceCollector() {
+            super(ASM8);
+        }
+
+        @Override
+        public void visit(final int version, final int access, final String name, final String signature, final String superName, final String[] interfaces) {
+            if ( superName != null ) verifyType(Type.getObjectType(superName));
+            if ( interfaces != null ) Arrays.stream(interfaces).forEach(i -> verifyType(Type.getObjectType(i)));
+        }
+
+        @Override
+        public MethodVisitor visitMethod(final int access, final String name, final String descriptor, final String signature, final String[] exceptions) {
+            return new MethodVisitor(ASM8) {
+                @Override
+                public void visitTypeInsn(final int opcode, final String type) {
+                    verifyType(Type.getObjectType(type));
+                }
+
+                @Override
+                public void visitFieldInsn(final int opcode, final String owner, final String name, final String descriptor) {
+                    verifyField(owner, name, descriptor, opcode == GETSTATIC || opcode == PUTSTATIC);
+                }
+
+                @Override
+                public void visitMethodInsn(final int opcode, final String owner, final String name, final String descriptor, final boolean isInterface) {
+                    verifyMethod(owner, name, descriptor, opcode == INVOKESTATIC);
+                }
+
+                @Override
+                public void visitInvokeDynamicInsn(final String name, final String descriptor, final Handle bootstrapMethodHandle, final Object... bootstrapMethodArguments) {
+                    verifyHandle(bootstrapMethodHandle);
+                    Arrays.stream(bootstrapMethodArguments).forEach(this::visitLdcInsn);
+                }
+
+                @Override
+                public void visitLdcInsn(final Object value) {
+                    if ( value instanceof Type && ((Type)value).getSort() != Type.METHOD ) {
+                        verifyType((Type)value);
+                    } else if ( value instanceof Handle ) {
+                        verifyHandle((Handle)value);
+                    }
+                }
+
+                @Override
+                public void visitMultiANewArrayInsn(final String descriptor, final int numDimensions) {
+                    verifyType(Type.getType(descriptor));
+                }
+            };
+        }
+
+        private void verifyHandle(final Handle handle) {
+            final int tag = handle.getTag();
+            if ( tag == H_GETFIELD || tag == H_GETSTATIC || tag == H_PUTFIELD || tag == H_PUTSTATIC ) {
+                verifyField(handle.getOwner(), handle.getName(), handle.getDesc(), tag == H_GETSTATIC || tag == H_PUTSTATIC);
+            } else {
+                verifyMethod(handle.getOwner(), handle.getName(), handle.getDesc(), tag == H_INVOKESTATIC);
+            }
+        }
+
+        private void verifyType(final Type type) {
+            verify("class " + type.getDescriptor(), () -> isResolvableType(type));
+        }
+
+        private void verifyMethod(final String owner, final String name, final String descriptor, final boolean isStatic) {
+            if ( generatedClassNames.contains(owner) ) return;
+            verify((isStatic ? "static method " : "method ") + owner + "." + name + descriptor,
+                   () -> isResolvableMethod(owner, name, descriptor, isStatic));
+        }
+
+        private void verifyField(final String owner, final String name, final String descriptor, final boolean isStatic) {
+            if ( generatedClassNames.contains(owner) ) return;
+            verify((isStatic ? "static field " : "field ") + owner + "." + name + ":" + descriptor,
+                   () -> isResolvableField(owner, name, descriptor, isStatic));
+        }
+
+        private void verify(final String reference, final BooleanSupplier resolvable) {
+            if ( unresolved != null || !verifiedReferences.add(reference) ) return;
+            if ( !resolvable.getAsBoolean() ) unresolved = reference;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.compiler;
+
+import org.orthodox.universel.symanticanalysis.navigation.NavigationBackend;
+import org.orthodox.universel.symanticanalysis.navigation.NavigationParallelism;
+
+import java.util.Objects;
+
+/**
+ * The options of a {@link UniversalCompiler} which determine the code generated for a compilation unit. As the same
+ * source compiles to different code under different options, the options form part of the key of every cached and
+ * persisted compiled unit.
+ *
+ * <p>Options are immutable. The {@link #defaultOptions() default options} are read from system properties once, when
+ * they are created, so changing a property later affects only compilers constructed afterwards.</p>
+ */
+public final class CompilerOptions {
+    private final NavigationBackend navigationBackend;
+    private final NavigationParallelism navigationParallelism;
+
+    private CompilerOptions(final NavigationBackend navigationBackend, final NavigationParallelism navigationParallelism) {
+        this.navigationBackend = Objects.requireNonNull(navigationBackend, "The navigation backend must not be null");
+        this.navigationParallelism = Objects.requireNonNull(navigationParallelism, "The navigation parallelism must not be null");
+    }
+
+    /**
+     * Creates the options configured by system properties, where set, such as
+     * {@link NavigationBackend#BACKEND_PROPERTY}, {@link NavigationParallelism#PARALLEL_PROPERTY} and
+     * {@link NavigationParallelism#PARALLEL_THRESHOLD_PROPERTY}.
+     *
+     * @return the default compiler options, never null.
+     */
+    public static CompilerOptions defaultOptions() {
+        return new CompilerOptions(NavigationBackend.defaultBackend(), NavigationParallelism.defaultParallelism());
+    }
+
+    /**
+     * Gets the code generation backend to which multi-step navigations are lowered.
+     *
+     * @return the navigation backend, never null.
+     */
+    public NavigationBackend getNavigationBackend() {
+        return navigationBackend;
+    }
+
+    /**
+     * Creates a copy of these options with the given navigation backend.
+     *
+     * @param navigationBackend the code generation backend to which multi-step navigations are to be lowered.
+     * @return new options, with the given navigation backend.
+     */
+    public CompilerOptions withNavigationBackend(final NavigationBackend navigationBackend) {
+        return new CompilerOptions(navigationBackend, navigationParallelism);
+    }
+
+    /**
+     * Gets whether, and from what size, the sequences of multi-step navigations are evaluated in parallel.
+     *
+     * @return the navigation parallelism, never null.
+     */
+    public NavigationParallelism getNavigationParallelism() {
+        return navigationParallelism;
+    }
+
+    /**
+     * Creates a copy of these options with the given navigation parallelism.
+     *
+     * @param navigationParallelism whether, and from what size, navigation sequences are to be evaluated in parallel.
+     * @return new options, with the given navigation parallelism.
+     */
+    public CompilerOptions withNavigationParallelism(final NavigationParallelism navigationParallelism) {
+        return new CompilerOptions(navigationBackend, navigationParallelism);
+    }
+
+    /**
+     * Gets a stable textual form of these options, suitable for inclusion in the key of a persisted compiled unit.
+     *
+     * @return the fingerprint of these options.
+     */
+    String fingerprint() {
+        return "navigationBackend=" + navigationBackend.name() + ";navigationParallelism=" + navigationParallelism;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CompilerOptions)) return false;
+        CompilerOptions that = (CompilerOptions) o;
+        return navigationBackend == that.navigationBackend && navigationParallelism.equals(that.navigationParallelism);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(navigationBackend, navigationParallelism);
+    }
+
+    @Override
+    public String toString() {
+        return "CompilerOptions[" + fingerprint() + "]";
+    }
+}
@@ -27,6 +27,11 @@ import org.orthodox.universel.ast.type.declaration.FieldRead;
 import org.orthodox.universel.ast.type.declaration.FieldWrite;
 import org.orthodox.universel.ast.type.reference.TypeReference;
 import org.orthodox.universel.compiler.CompilationContext.CompilingTypeInfo;
+import org.orthodox.universel.compiler.CompilationContext.HoistedConstant;
+import org.orthodox.universel.compiler.codegen.PrimitiveOperatorIntrinsics;
+import org.orthodox.universel.exec.collections.ImmutableArrayList;
+import org.orthodox.universel.exec.collections.ImmutableLinkedHashMap;
+import org.orthodox.universel.exec.collections.ImmutableLinkedHashSet;
 import org.orthodox.universel.exec.operators.binary.BinaryOperatorRegistry;
 import org.orthodox.universel.exec.operators.binary.ConcurrentBinaryOperatorRegistry;
 import org.orthodox.universel.exec.operators.binary.PackageScanBinaryOperatorLoader;
@@ -40,6 +45,8 @@ import org.orthodox.universel.symanticanalysis.name.InternalNodeSequence;
 import javax.lang.model.type.NullType;
 import java.lang.invoke.*;
 import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -56,6 +63,10 @@ import static org.orthodox.universel.compiler.codegen.CodeGenUtil.internalName;
 public class CompilingAstVisitor extends UniversalVisitorAdapter {
     private static BinaryOperatorRegistry binaryOperatorRegistry;
     private CompilationContext compilationContext;
+    /** Whether constant values may be hoisted into static fields, which is not the case within the class initialiser. */
+    private boolean hoistConstants = true;
+    /** Whether a hoisted constant value is being initialised, so collections are created immutable. */
+    private boolean initialisingHoistedConstant = false;
 
     private synchronized void checkLoaded() {
         if (binaryOperatorRegistry != null)
@@ -131,26 +142,146 @@ public class CompilingAstVisitor extends UniversalVisitorAdapter {
 
         Method binaryOperatorMethod = binaryOperatorRegistry.lookup(node.getOperator(), lhsType, rhsType).orElseThrow(() -> new UniversalException("Unable to find applicable binary operator [" + node.getOperator() + "] method."));
 
-        if (binaryOperatorMethod.getParameterTypes().length == 3 && Operator.class.isAssignableFrom(binaryOperatorMethod.getParameterTypes()[2])) {
-            compilationContext.getBytecodeHelper().emitLoadEnum(node.getOperator());
-        }
-        compilationContext.getBytecodeHelper().emitInvokeStaticMethod(binaryOperatorMethod);
+        emitBinaryOperator(node.getOperator(), binaryOperatorMethod);
         compilationContext.getVirtualMachine().loadOperandOfType(binaryOperatorMethod.getReturnType());
         return node;
     }
 
     @Override
     public Node visitBinaryExpression(final BinaryExpressionOperatorMethodCall node) {
+        final Method operatorMethod = node.getOperatorMethod();
+        if ( isShortCircuitLogicalOperator(node) ) {
+            emitShortCircuitLogicalOperator(node);
+            return node;
+        } else if ( isShortCircuitElvisOperator(node) ) {
+            emitShortCircuitElvisOperator(node);
+            return node;
+        }
+
         node.getParameters().forEach(p -> p.accept(this));
 
-        final Method operatorMethod = node.getOperatorMethod();
+        emitBinaryOperator(node.getOperator(), operatorMethod);
+        compilationContext.getVirtualMachine().loadOperandOfType(operatorMethod.getReturnType());
+
+        return node;
+    }
+
+    /**
+     * Emits a binary operator whose operands are already on the operand stack: in-line, for the built-in operators on
+     * primitive operands, or as a call to the operator method otherwise.
+     */
+    private void emitBinaryOperator(final Operator operator, final Method operatorMethod) {
+        if ( PrimitiveOperatorIntrinsics.emitBinaryOperator(compilationContext.getBytecodeHelper().peekMethodVisitor(), operator, operatorMethod) ) return;
+
         if (operatorMethod.getParameterTypes().length == 3 && Operator.class.isAssignableFrom(operatorMethod.getParameterTypes()[2])) {
-            compilationContext.getBytecodeHelper().emitLoadEnum(node.getOperator());
+            compilationContext.getBytecodeHelper().emitLoadEnum(operator);
         }
         compilationContext.getBytecodeHelper().emitInvokeStaticMethod(operatorMethod);
-        compilationContext.getVirtualMachine().loadOperandOfType(operatorMethod.getReturnType());
+    }
 
-        return node;
+    /**
+     * Whether the given operator call is a logical AND or OR whose right-hand operand need only be evaluated when the
+     * left-hand operand does not already determine the result. This is the case for every operator method of the form
+     * <code>boolean op(T lhs, T rhs)</code>, all of which treat each operand as a truth value independently.
+     */
+    private static boolean isShortCircuitLogicalOperator(final BinaryExpressionOperatorMethodCall node) {
+        final Method operatorMethod = node.getOperatorMethod();
+        final Class<?>[] paramTypes = operatorMethod.getParameterTypes();
+        return (node.getOperator() == Operator.LOGICAL_AND || node.getOperator() == Operator.LOGICAL_OR)
+               && node.getParameters().size() == 2
+               && paramTypes.length == 2
+               && paramTypes[0] == paramTypes[1]
+               && operatorMethod.getReturnType() == boolean.class;
+    }
+
+    /**
+     * Emits a logical AND or OR using conditional jumps, so the right-hand operand is only evaluated when required.
+     *
+     * <pre>
+     *     &lt;lhs truth value&gt;
+     *     IFEQ shortCircuit      (IFNE for OR)
+     *     &lt;rhs truth value&gt;
+     *     GOTO end
+     *   shortCircuit:
+     *     ICONST_0               (ICONST_1 for OR)
+     *   end:
+     * </pre>
+     */
+    private void emitShortCircuitLogicalOperator(final BinaryExpressionOperatorMethodCall node) {
+        final boolean isAnd = node.getOperator() == Operator.LOGICAL_AND;
+        final MethodVisitor mv = compilationContext.getBytecodeHelper().peekMethodVisitor();
+        final Label shortCircuitLabel = new Label(), endLabel = new Label();
+
+        emitTruthValue(node.getParameters().get(0), node.getOperatorMethod());
+        mv.visitJumpInsn(isAnd ? IFEQ : IFNE, shortCircuitLabel);
+        emitTruthValue(node.getParameters().get(1), node.getOperatorMethod());
+        mv.visitJumpInsn(GOTO, endLabel);
+        mv.visitLabel(shortCircuitLabel);
+        mv.visitInsn(isAnd ? ICONST_0 : ICONST_1);
+        mv.visitLabel(endLabel);
+
+        compilationContext.getVirtualMachine().loadOperandOfType(boolean.class);
+    }
+
+    /**
+     * Emits the truth value of a logical operand, as a boolean on the operand stack. Other than for boolean operands,
+     * the truth value is that given by the operator method itself: applying the operator to the operand and itself
+     * yields the truth of the operand alone, whatever the operand type.
+     */
+    private void emitTruthValue(final Node operand, final Method logicalOperatorMethod) {
+        final int stackSize = compilationContext.getVirtualMachine().stackSize();
+        final Class<?> operandType = logicalOperatorMethod.getParameterTypes()[0];
+
+        operand.accept(this);
+        if ( operandType != boolean.class ) {
+            compilationContext.getBytecodeHelper().emitDuplicate(operandType);
+            compilationContext.getBytecodeHelper().emitInvokeStaticMethod(logicalOperatorMethod);
+        }
+        compilationContext.getVirtualMachine().popToStackSize(stackSize);
+    }
+
+    /**
+     * Whether the given operator call is an Elvis operator, whose right-hand operand need only be evaluated when the
+     * left-hand operand is null.
+     */
+    private static boolean isShortCircuitElvisOperator(final BinaryExpressionOperatorMethodCall node) {
+        final Class<?>[] paramTypes = node.getOperatorMethod().getParameterTypes();
+        return node.getOperator() == Operator.ELVIS
+               && node.getParameters().size() == 2
+               && paramTypes.length == 2
+               && !paramTypes[0].isPrimitive()
+               && !paramTypes[1].isPrimitive();
+    }
+
+    /**
+     * Emits an Elvis operator using a null test and conditional jump, so the right-hand operand is only evaluated when
+     * the left-hand operand is null.
+     *
+     * <pre>
+     *     &lt;lhs&gt;
+     *     DUP
+     *     IFNONNULL end
+     *     POP
+     *     &lt;rhs&gt;
+     *   end:
+     * </pre>
+     */
+    private void emitShortCircuitElvisOperator(final BinaryExpressionOperatorMethodCall node) {
+        final MethodVisitor mv = compilationContext.getBytecodeHelper().peekMethodVisitor();
+        final int stackSize = compilationContext.getVirtualMachine().stackSize();
+        final Label endLabel = new Label();
+
+        node.getParameters().get(0).accept(this);
+        compilationContext.getVirtualMachine().boxIfNeeded();
+        mv.visitInsn(DUP);
+        mv.visitJumpInsn(IFNONNULL, endLabel);
+        mv.visitInsn(POP);
+        node.getParameters().get(1).accept(this);
+        compilationContext.getVirtualMachine().boxIfNeeded();
+        mv.visitLabel(endLabel);
+
+        compilationContext.getVirtualMachine().popToStackSize(stackSize);
+        compilationContext.getVirtualMachine().loadOperandOfType(node.getOperatorMethod().getReturnType());
     }
 
     @Override
@@ -227,8 +358,14 @@ public class CompilingAstVisitor extends UniversalVisitorAdapter {
             return node;
         });
 
+        // Generate the class members
+        for (Node member : node.getMembers()) {
+            member.accept(this);
+        }
+
         //--------------------------------------------------------------------------------------------------------------
-        // Generate Class Initialiser, if appropriate.
+        // Generate Class Initialiser, if appropriate. This follows member generation so that constants hoisted from
+        // the member bodies are initialised here, once, ahead of any static field initialisers.
         //--------------------------------------------------------------------------------------------------------------
         withinStack(node, n -> {
             List<FieldDeclaration> applicableStaticInitialisations = node.getMembers()
@@ -237,20 +374,39 @@ public class CompilingAstVisitor extends UniversalVisitorAdapter {
                                                                          .map(FieldDeclaration.class::cast)
                                                                          .filter(f -> Modifiers.isStatic(f.getModifiers().getModifiers()) && f.getVariableDeclarations().stream().anyMatch(v -> v.getInitialiser() != null))
                                                                          .collect(Collectors.toList());
-            if ( applicableStaticInitialisations.isEmpty() ) return node;
+            List<HoistedConstant> hoistedConstants = compilationContext.peekTypeInfo().getHoistedConstants();
+            if ( applicableStaticInitialisations.isEmpty() && hoistedConstants.isEmpty() ) return node;
 
             MethodVisitor mv = compilationContext.getBytecodeHelper().generateMethod(ACC_STATIC, "<clinit>", void.class, null);
 
-            applicableStaticInitialisations.forEach(f -> {
-                f.getVariableDeclarations()
-                 .stream()
-                 .filter(vd -> vd.getInitialiser() != null)
-                 .forEach(vd -> {
-                     vd.getInitialiser().accept(this);
+            boolean wasHoistingConstants = hoistConstants;
+            hoistConstants = false;
+            try {
+                hoistedConstants.forEach(c -> {
+                    cw.visitField(ACC_PRIVATE | ACC_STATIC | ACC_FINAL | ACC_SYNTHETIC, c.getFieldName(), descriptor(c.getFieldType()), null, null).visitEnd();
+                    initialisingHoistedConstant = true;
+                    try {
+                        c.getNode().accept(this);
+                    } finally {
+                        initialisingHoistedConstant = false;
+                    }
+
+                    mv.visitFieldInsn(PUTSTATIC, internalName(fqClassName), c.getFieldName(), descriptor(c.getFieldType()));
+                });
 
-                     mv.visitFieldInsn(PUTSTATIC, internalName(fqClassName), vd.getId().getName(), descriptor(f.getDeclarationType()));
-                 });
-            });
+                applicableStaticInitialisations.forEach(f -> {
+                    f.getVariableDeclarations()
+                     .stream()
+                     .filter(vd -> vd.getInitialiser() != null)
+                     .forEach(vd -> {
+                         vd.getInitialiser().accept(this);
+
+                         mv.visitFieldInsn(PUTSTATIC, internalName(fqClassName), vd.getId().getName(), descriptor(f.getDeclarationType()));
+                     });
+                });
+            } finally {
+                hoistConstants = wasHoistingConstants;
+            }
 
             mv.visitInsn(RETURN);
 
@@ -263,11 +419,6 @@ public class CompilingAstVisitor extends UniversalVisitorAdapter {
             return node;
         });
 
-        // Generate the class members
-        for (Node member : node.getMembers()) {
-            member.accept(this);
-        }
-
         cw.visitEnd();
         compilationContext.getBytecodeHelper().popClassWriter();
 
@@ -504,7 +655,17 @@ public class CompilingAstVisitor extends UniversalVisitorAdapter {
 
     @Override
     public Node visitList(final ListExpr node) {
+        if (!isNullOrEmpty(node.getElements()) && isConstantExpression(node) && emitLoadHoistedConstant(node, node, ArrayList.class)) {
+            compilationContext.getVirtualMachine().loadOperandOfType(ArrayList.class);
+            return node;
+        }
+
         MethodVisitor mv = compilationContext.getBytecodeHelper().peekMethodVisitor();
+        boolean immutable = initialisingHoistedConstant;
+        if (immutable) {
+            mv.visitTypeInsn(NEW, getInternalName(ImmutableArrayList.class));
+            mv.visitInsn(DUP);
+        }
         String className = getInternalName(ArrayList.class);
         mv.visitTypeInsn(NEW, className);
         mv.visitInsn(DUP);
@@ -523,6 +684,9 @@ public class CompilingAstVisitor extends UniversalVisitorAdapter {
             mv.visitMethodInsn(INVOKEINTERFACE, getInternalName(List.class), "add", Type.getMethodDescriptor(Type.BOOLEAN_TYPE, BytecodeHelper.OBJECT_TYPE_ARRAY));
             mv.visitInsn(POP);
         }
+        if (immutable) {
+            mv.visitMethodInsn(INVOKESPECIAL, getInternalName(ImmutableArrayList.class), BytecodeHelper.CTOR_METHOD_NAME, Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(Collection.class)), false);
+        }
         compilationContext.getVirtualMachine().loadOperandOfType(ArrayList.class);
 
         return node;
@@ -551,7 +715,17 @@ public class CompilingAstVisitor extends UniversalVisitorAdapter {
 
     @Override
     public Node visitMap(final MapExpr node) {
+        if (!isNullOrEmpty(node.getEntries()) && isConstantExpression(node) && emitLoadHoistedConstant(node, node, LinkedHashMap.class)) {
+            compilationContext.getVirtualMachine().loadOperandOfType(LinkedHashMap.class);
+            return node;
+        }
+
         MethodVisitor mv = compilationContext.getBytecodeHelper().peekMethodVisitor();
+        boolean immutable = initialisingHoistedConstant;
+        if (immutable) {
+            mv.visitTypeInsn(NEW, getInternalName(ImmutableLinkedHashMap.class));
+            mv.visitInsn(DUP);
+        }
         String className = getInternalName(LinkedHashMap.class);
         mv.visitTypeInsn(NEW, className);
         mv.visitInsn(DUP);
@@ -566,6 +740,9 @@ public class CompilingAstVisitor extends UniversalVisitorAdapter {
             mv.visitMethodInsn(INVOKEINTERFACE, getInternalName(Map.class), "put", Type.getMethodDescriptor(BytecodeHelper.OBJECT_TYPE, BytecodeHelper.OBJECT_TYPE, BytecodeHelper.OBJECT_TYPE));
             mv.visitInsn(POP);
         }
+        if (immutable) {
+            mv.visitMethodInsn(INVOKESPECIAL, getInternalName(ImmutableLinkedHashMap.class), BytecodeHelper.CTOR_METHOD_NAME, Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(Map.class)), false);
+        }
 
         compilationContext.getVirtualMachine().loadOperandOfType(LinkedHashMap.class);
 
@@ -645,7 +822,10 @@ public class CompilingAstVisitor extends UniversalVisitorAdapter {
                 parameter.accept(this);
             }
 
-            if ( node.getDeclaringType() != null) {
+            if ( node.getDeclaringType() == null
+                 && PrimitiveOperatorIntrinsics.emitStaticMethodCall(mv(), node.getDeclaringClass(), node.getName(), node.getParameterClasses()) ) {
+                return n;
+            } else if ( node.getDeclaringType() != null) {
                 compilationContext.getBytecodeHelper().emitInvokeStaticMethod(node.getDeclaringType(), node.getTypeDescriptor(), node.getName(), node.getParameterClasses().stream().toArray(Class[]::new));
             } else {
                 compilationContext.getBytecodeHelper().emitInvokeStaticMethod(node.getDeclaringClass(), node.getTypeDescriptor(), node.getName(), node.getParameterClasses().stream().toArray(Class[]::new));
@@ -734,11 +914,65 @@ public class CompilingAstVisitor extends UniversalVisitorAdapter {
     public Node visitNumericLiteralExpression(final NumericLiteral node) {
         Class<?> fpClass = node.getTypeDescriptor();
         compilationContext.getVirtualMachine().loadOperandOfType(fpClass);
-        compilationContext.getBytecodeHelper().emitLoadNumericOperand(node.getValue());
+        Number value = node.getValue();
+        if ( (value.getClass() == BigDecimal.class || value.getClass() == BigInteger.class) && emitLoadHoistedConstant(value, (Node)node, fpClass) ) {
+            return (Node) node;
+        }
+        compilationContext.getBytecodeHelper().emitLoadNumericOperand(value);
 
         return (Node) node;
     }
 
+    /**
+     * Emits a load of a constant value from a static field of the type being compiled, hoisting the constant into the
+     * field if not already hoisted. The field is initialised once, by the class initialiser, from the given node.
+     *
+     * @param key the key identifying the constant value, under which equal constants share the same field.
+     * @param node the node whose evaluation initialises the constant.
+     * @param fieldType the declared type of the field holding the constant.
+     * @return true if the load of the hoisted constant was emitted, or false if constants cannot currently be hoisted
+     * and the caller should emit the constant value in-line.
+     */
+    private boolean emitLoadHoistedConstant(final Object key, final Node node, final Class<?> fieldType) {
+        CompilingTypeInfo typeInfo = compilationContext.peekTypeInfo();
+        if ( !hoistConstants || typeInfo == null ) return false;
+
+        HoistedConstant constant = typeInfo.hoistConstant(key, node, fieldType);
+        compilationContext.getBytecodeHelper()
+                          .peekMethodVisitor()
+                          .visitFieldInsn(GETSTATIC, internalName(typeInfo.getFullyQualifiedTypeName()), constant.getFieldName(), descriptor(fieldType));
+        return true;
+    }
+
+    /**
+     * Determines whether an expression always evaluates to the same, equal, value and so may be hoisted into a constant:
+     * a literal, other than an interpolated string, or a list, set or map literal comprised only of such expressions.
+     *
+     * @param node the expression to be tested.
+     * @return true if the expression is constant, false otherwise.
+     */
+    private static boolean isConstantExpression(final Node node) {
+        if ( node instanceof NumericLiteral
+             || node instanceof StringLiteralExpr
+             || node instanceof BooleanLiteralExpr
+             || node instanceof NullLiteralExpr ) {
+            return true;
+        } else if ( node instanceof BoxConversion ) {
+            return isConstantExpression(((BoxConversion)node).getSource());
+        } else if ( node instanceof ListExpr ) {
+            List<Node> elements = ((ListExpr)node).getElements();
+            return elements == null || elements.stream().allMatch(CompilingAstVisitor::isConstantExpression);
+        } else if ( node instanceof SetExpr ) {
+            List<Node> elements = ((SetExpr)node).getElements();
+            return elements == null || elements.stream().allMatch(CompilingAstVisitor::isConstantExpression);
+        } else if ( node instanceof MapExpr ) {
+            List<MapEntryExpr> entries = ((MapExpr)node).getEntries();
+            return entries == null || entries.stream().allMatch(e -> isConstantExpression(e.getKeyExpression()) && isConstantExpression(e.getValueExpression()));
+        }
+
+        return false;
+    }
+
     @Override
     public Node visitObjectCreationExpression(ObjectCreationExpression node) {
         String internalTypename = internalName(node.getType());
@@ -833,7 +1067,17 @@ public class CompilingAstVisitor extends UniversalVisitorAdapter {
 
     @Override
     public Node visitSet(final SetExpr node) {
+        if (!isNullOrEmpty(node.getElements()) && isConstantExpression(node) && emitLoadHoistedConstant(node, node, LinkedHashSet.class)) {
+            compilationContext.getVirtualMachine().loadOperandOfType(LinkedHashSet.class);
+            return node;
+        }
+
         MethodVisitor mv = compilationContext.getBytecodeHelper().peekMethodVisitor();
+        boolean immutable = initialisingHoistedConstant;
+        if (immutable) {
+            mv.visitTypeInsn(NEW, getInternalName(ImmutableLinkedHashSet.class));
+            mv.visitInsn(DUP);
+        }
         String className = getInternalName(LinkedHashSet.class);
         mv.visitTypeInsn(NEW, className);
         mv.visitInsn(DUP);
@@ -852,6 +1096,9 @@ public class CompilingAstVisitor extends UniversalVisitorAdapter {
             mv.visitMethodInsn(INVOKEINTERFACE, getInternalName(Set.class), "add", Type.getMethodDescriptor(Type.BOOLEAN_TYPE, BytecodeHelper.OBJECT_TYPE_ARRAY));
             mv.visitInsn(POP);
         }
+        if (immutable) {
+            mv.visitMethodInsn(INVOKESPECIAL, getInternalName(ImmutableLinkedHashSet.class), BytecodeHelper.CTOR_METHOD_NAME, Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(Collection.class)), false);
+        }
         compilationContext.getVirtualMachine().loadOperandOfType(LinkedHashSet.class);
 
         return node;
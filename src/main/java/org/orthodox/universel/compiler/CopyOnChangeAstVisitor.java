@@ -32,7 +32,8 @@ import org.orthodox.universel.ast.*;
 import org.orthodox.universel.symanticanalysis.SemanticAnalyser;
 import org.orthodox.universel.symanticanalysis.SemanticAnalysisContext;
 
-import java.util.Objects;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * <p>
@@ -63,15 +64,18 @@ public class CopyOnChangeAstVisitor extends UniversalVisitorAdapter implements S
             transformedImport = (ImportDecl)node.getImportDeclaration().accept(this);
         }
 
-        NodeSequence.NodeSequenceBuilder<Node> transformedBodyBuilder = NodeSequence.builder();
+        List<Node> transformedBody = new ArrayList<>(node.getBody().size());
         for (Node bodyElement : node.getBody()) {
-            transformedBodyBuilder.add(callDelegateForChange(bodyElement));
+            transformedBody.add(callDelegateForChange(bodyElement));
         }
-        transformedBodyBuilder.resultType(node.getBody().getResultType());
 
-        boolean noTransformationChanges = Objects.equals(node.getImportDeclaration(), transformedImport)
-                                          && Objects.equals(node.getBody(), transformedBodyBuilder);
-        return noTransformationChanges ? node : new Script(node.getType(), node.getPackageDeclaration(), transformedImport, transformedBodyBuilder.build());
+        boolean noTransformationChanges = unchanged(node.getImportDeclaration(), transformedImport)
+                                          && unchanged(node.getBody().getNodes(), transformedBody);
+        if ( noTransformationChanges ) return node;
+
+        NodeSequence.NodeSequenceBuilder<Node> transformedBodyBuilder = NodeSequence.<Node>builder().addAll(transformedBody);
+        transformedBodyBuilder.resultType(node.getBody().getResultType());
+        return rewritten(new Script(node.getType(), node.getPackageDeclaration(), transformedImport, transformedBodyBuilder.build()));
     }
 
     @Override
@@ -79,9 +83,9 @@ public class CopyOnChangeAstVisitor extends UniversalVisitorAdapter implements S
         Node newLhs = callDelegateForChange(node.getLhsExpression());
         Node newRhs = callDelegateForChange(node.getRhsExpression());
 
-        return Objects.equals(node.getLhsExpression(), newLhs)
-                && Objects.equals(node.getRhsExpression(), newRhs) ?
-               node : new BinaryExpression(node.getOperator(), newLhs, newRhs);
+        return unchanged(node.getLhsExpression(), newLhs)
+                && unchanged(node.getRhsExpression(), newRhs) ?
+               node : rewritten(new BinaryExpression(node.getOperator(), newLhs, newRhs));
     }
 
     private Node callDelegateForChange(Node node) {
@@ -90,6 +94,7 @@ public class CopyOnChangeAstVisitor extends UniversalVisitorAdapter implements S
 
     @Override
     public Node performAnalysis(SemanticAnalysisContext context, Node from) {
+        clearRewrites();
         return from.accept(this);
     }
 }
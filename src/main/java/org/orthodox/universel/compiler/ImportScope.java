@@ -28,10 +28,8 @@
 
 package org.orthodox.universel.compiler;
 
-import org.beanplanet.core.collections.ListBuilder;
 import org.beanplanet.core.lang.TypeUtil;
 import org.beanplanet.core.models.path.NamePath;
-import org.beanplanet.core.models.path.SimpleNamePath;
 import org.beanplanet.messages.domain.Messages;
 import org.orthodox.universel.ast.*;
 import org.orthodox.universel.ast.allocation.ObjectCreationExpression;
@@ -70,6 +68,13 @@ public class ImportScope implements Scope {
     private final List<ImportStmt> importStatements;
     private final Messages compilationMessages;
 
+    /** The candidate names of all import statements, in declaration order. */
+    private final List<ImportCandidates> imports;
+    /** The candidate names of the single-name (not on-demand) import statements, in declaration order. */
+    private final List<ImportCandidates> notOnDemandImports;
+    /** The candidate names of the on-demand import statements, in declaration order. */
+    private final List<ImportCandidates> onDemandImports;
+
     public ImportScope(
         final ImportDecl importDecl,
         final Messages compilationMessages) {
@@ -81,6 +86,10 @@ public class ImportScope implements Scope {
         final Messages compilationMessages) {
         this.importStatements = importStatements;
         this.compilationMessages = compilationMessages;
+
+        this.imports = importStatements == null ? emptyList() : importStatements.stream().map(ImportCandidates::new).collect(Collectors.toList());
+        this.notOnDemandImports = imports.stream().filter(ImportCandidates::isNotOnDemand).collect(Collectors.toList());
+        this.onDemandImports = imports.stream().filter(ImportCandidates::isOnDemand).collect(Collectors.toList());
     }
 
     @SuppressWarnings("unchecked")
@@ -117,10 +126,10 @@ public class ImportScope implements Scope {
     }
 
     private Node resolveTypeFromImports(final NavigationAxisAndNodeTest<NameTest> step) {
-        final List<Class<?>> typesFromNotOnDemandImports = resolveTypeNameFromImports(step, importStatements.stream().filter(ImportStmt::isNotOnDemand).collect(Collectors.toList()));
+        final List<Class<?>> typesFromNotOnDemandImports = resolveTypeNameFromImports(step, notOnDemandImports);
         if (typesFromNotOnDemandImports.size() == 1) return new LoadTypeExpression(step.getTokenImage(), new ResolvedTypeReferenceOld(step.getTokenImage(), typesFromNotOnDemandImports.get(0)));
 
-        final List<Class<?>> typesFromOnDemandImports = resolveTypeNameFromImports(step, importStatements.stream().filter(ImportStmt::isOnDemand).collect(Collectors.toList()));
+        final List<Class<?>> typesFromOnDemandImports = resolveTypeNameFromImports(step, onDemandImports);
         if (typesFromOnDemandImports.size() == 1)  return new LoadTypeExpression(step.getTokenImage(), new ResolvedTypeReferenceOld(step.getTokenImage(), typesFromOnDemandImports.get(0)));;
 
         //--------------------------------------------------------------------------------------------------------------
@@ -145,21 +154,15 @@ public class ImportScope implements Scope {
         return null;
     }
 
-    private List<Class<?>> resolveTypeNameFromImports(final NavigationAxisAndNodeTest<NameTest> step, final List<ImportStmt> importStatements) {
+    private List<Class<?>> resolveTypeNameFromImports(final NavigationAxisAndNodeTest<NameTest> step, final List<ImportCandidates> imports) {
         final String name = step.getNodeTest().getName();
 
         List<Class<?>> matchingNameTransformations = new ArrayList<>();
-        for (int n=importStatements.size()-1; n >= 0; n--) {
-            ImportStmt importStmt = importStatements.get(n);
-
-            NamePath typeName = new SimpleNamePath(importStmt.getElements().stream().map(Name::getName).collect(Collectors.toList()));
-            if ( importStmt.isOnDemand() ) {
-                typeName = typeName.joinSingleton(name);
-            } else if ( !Objects.equals(name, typeName.getLastElement()) ) {
-                continue;
-            }
+        for (int n=imports.size()-1; n >= 0; n--) {
+            String typeName = imports.get(n).importedTypeName(name);
+            if ( typeName == null ) continue;
 
-            Class<?> referredType = TypeUtil.loadClassOrNull(typeName.join("."));
+            Class<?> referredType = ClassResolutionCache.loadClassOrNull(typeName);
             if (referredType == null) continue;
 
             matchingNameTransformations.add(referredType);
@@ -175,29 +178,24 @@ public class ImportScope implements Scope {
     }
 
     private Node resolveFieldReferenceFromImports(final NavigationAxisAndNodeTest<NameTest> step) {
-        final List<Node> fieldReferencesFromExplicitImports = resolveFieldReferenceFromImports(step, importStatements.stream().filter(ImportStmt::isNotOnDemand).collect(Collectors.toList()));
+        final List<Node> fieldReferencesFromExplicitImports = resolveFieldReferenceFromImports(step, notOnDemandImports);
         if (fieldReferencesFromExplicitImports.size() == 1) return fieldReferencesFromExplicitImports.get(0);
 
-        final List<Node> fieldReferencesFromOnDemandImports = resolveFieldReferenceFromImports(step, importStatements.stream().filter(ImportStmt::isOnDemand).collect(Collectors.toList()));
+        final List<Node> fieldReferencesFromOnDemandImports = resolveFieldReferenceFromImports(step, onDemandImports);
         if (fieldReferencesFromOnDemandImports.size() == 1)  return fieldReferencesFromOnDemandImports.get(0);
 
         return null;
     }
 
-    private List<Node> resolveFieldReferenceFromImports(final NavigationAxisAndNodeTest<NameTest> step, final List<ImportStmt> importStatements) {
+    private List<Node> resolveFieldReferenceFromImports(final NavigationAxisAndNodeTest<NameTest> step, final List<ImportCandidates> imports) {
         final String name = step.getNodeTest().getName();
 
         List<Node> matchingNameTransformations = new ArrayList<>();
-        for (int n=importStatements.size()-1; n >= 0; n--) {
-            ImportStmt importStmt = importStatements.get(n);
+        for (int n=imports.size()-1; n >= 0; n--) {
+            String declaringTypeName = imports.get(n).importedMemberDeclaringTypeName(name);
+            if ( declaringTypeName == null ) continue;
 
-            SimpleNamePath declaringTypeFqName = new SimpleNamePath(importStmt.getElements().stream().map(Name::getName).collect(Collectors.toList()));
-            if ( !importStmt.isOnDemand() ) {
-                if ( !Objects.equals(name, declaringTypeFqName.getLastElement()) ) continue;
-                declaringTypeFqName = declaringTypeFqName.parentPath();
-            }
-
-            Class<?> declaringType = TypeUtil.loadClassOrNull(declaringTypeFqName.join("."));
+            Class<?> declaringType = ClassResolutionCache.loadClassOrNull(declaringTypeName);
             if (declaringType == null) continue;
 
             try {
@@ -318,7 +316,7 @@ public class ImportScope implements Scope {
     }
 
     private Node resolveMethodCallFromImports(final NavigationAxisAndNodeTest<MethodCall> step) {
-        final List<Method> callableMethodsFromNotOnDemandImports = findMatchingMethodsFromImports(step.getNodeTest(), importStatements.stream().filter(ImportStmt::isNotOnDemand).collect(Collectors.toList()));
+        final List<Method> callableMethodsFromNotOnDemandImports = findMatchingMethodsFromImports(step.getNodeTest(), notOnDemandImports);
         if (callableMethodsFromNotOnDemandImports.size() == 1) {
             return new StaticMethodCall(callableMethodsFromNotOnDemandImports.get(0).getReturnType(),
                                         step.getTokenImage(),
@@ -328,7 +326,7 @@ public class ImportScope implements Scope {
             );
         }
 
-        final List<Method> callableMethodsFromOnDemandImports = findMatchingMethodsFromImports(step.getNodeTest(), importStatements.stream().filter(ImportStmt::isOnDemand).collect(Collectors.toList()));
+        final List<Method> callableMethodsFromOnDemandImports = findMatchingMethodsFromImports(step.getNodeTest(), onDemandImports);
         if (callableMethodsFromOnDemandImports.size() == 1) {
             return new StaticMethodCall(callableMethodsFromOnDemandImports.get(0).getReturnType(),
                                         step.getTokenImage(),
@@ -360,20 +358,14 @@ public class ImportScope implements Scope {
         return null;
     }
 
-    private List<Method> findMatchingMethodsFromImports(final MethodCall methodCall, final List<ImportStmt> importStatements) {
+    private List<Method> findMatchingMethodsFromImports(final MethodCall methodCall, final List<ImportCandidates> imports) {
         final String methodName = methodCall.getName().getName();
         List<Method> matchingMethods = new ArrayList<>();
-        for (int n=importStatements.size()-1; n >= 0; n--) {
-            ImportStmt importStmt = importStatements.get(n);
-            SimpleNamePath enclosingTypeName = new SimpleNamePath(importStmt.getElements().stream()
-                                                                            .map(Name::getName)
-                                                                            .collect(Collectors.toList()));
-            if ( !importStmt.isOnDemand() ) {
-                if ( !Objects.equals(enclosingTypeName.getLastElement(), methodName) ) continue;
-                enclosingTypeName = enclosingTypeName.parentPath();
-            }
+        for (int n=imports.size()-1; n >= 0; n--) {
+            String enclosingTypeName = imports.get(n).importedMemberDeclaringTypeName(methodName);
+            if ( enclosingTypeName == null ) continue;
 
-            Class<?> enclosingType = TypeUtil.loadClassOrNull(enclosingTypeName.join("."));
+            Class<?> enclosingType = ClassResolutionCache.loadClassOrNull(enclosingTypeName);
             if (enclosingType == null) continue;
 
             collectCallableMethods(methodCall, enclosingType, matchingMethods);
@@ -410,19 +402,11 @@ public class ImportScope implements Scope {
         final String unqualifiedTypeName = methodCall.getName().getName();
 
         List<Constructor<?>> matchingConstructors = new ArrayList<>();
-        for (int n=importStatements.size()-1; n >= 0; n--) {
-            ImportStmt importStmt = importStatements.get(n);
-
-            NamePath enclosingTypeName = new SimpleNamePath(importStmt.getElements().stream()
-                                                                      .map(Name::getName)
-                                                                      .collect(Collectors.toList()));
-            if ( importStmt.isOnDemand() ) {
-                enclosingTypeName = enclosingTypeName.joinSingleton(unqualifiedTypeName);
-            } else if ( !Objects.equals(enclosingTypeName.getLastElement(), methodCall.getName().getName()) ) {
-                continue;
-            }
+        for (int n=imports.size()-1; n >= 0; n--) {
+            String enclosingTypeName = imports.get(n).importedTypeName(unqualifiedTypeName);
+            if ( enclosingTypeName == null ) continue;
 
-            Class<?> enclosingType = TypeUtil.loadClassOrNull(enclosingTypeName.join("."));
+            Class<?> enclosingType = ClassResolutionCache.loadClassOrNull(enclosingTypeName);
             if (enclosingType == null) continue;
 
             collectCallableConstructors(methodCall, enclosingType, matchingConstructors);
@@ -441,16 +425,11 @@ public class ImportScope implements Scope {
         final String methodName = methodCall.getName().getName();
 
         List<Method> matchingMethods = new ArrayList<>();
-        for (int n=importStatements.size()-1; n >= 0; n--) {
-            ImportStmt importStmt = importStatements.get(n);
-
-            if ( importStmt.isOnDemand() ) continue;
-            if ( importStmt.getElements().isEmpty() || !importStmt.getElements().get(importStmt.getElements().size()-1).getName().equals(methodName)) continue;
-
-            String enclosingTypeName = asDelimitedString(importStmt.getElements().subList(0, importStmt.getElements().size()-1)
-                                                                   .stream().map(Name::getName).collect(Collectors.toList()), ".");
+        for (int n=notOnDemandImports.size()-1; n >= 0; n--) {
+            String enclosingTypeName = notOnDemandImports.get(n).importedMemberDeclaringTypeName(methodName);
+            if ( enclosingTypeName == null ) continue;
 
-            Class<?> enclosingType = TypeUtil.loadClassOrNull(enclosingTypeName);
+            Class<?> enclosingType = ClassResolutionCache.loadClassOrNull(enclosingTypeName);
             if (enclosingType == null) continue;
 
             collectCallableMethods(methodCall, enclosingType, matchingMethods);
@@ -463,18 +442,10 @@ public class ImportScope implements Scope {
         final String unqualifiedTypeName = methodCall.getName().getName();
 
         List<Constructor<?>> matchingConstructors = new ArrayList<>();
-        for (int n=importStatements.size()-1; n >= 0; n--) {
-            ImportStmt importStmt = importStatements.get(n);
-
-            String fqTypeName = asDelimitedString(
-                ListBuilder.<String>builder()
-                    .addAll(importStmt.getElements().stream().map(Name::getName).collect(Collectors.toList()))
-                    .add(unqualifiedTypeName)
-                    .build(),
-                "."
-            );
+        for (int n=imports.size()-1; n >= 0; n--) {
+            String fqTypeName = imports.get(n).qualifiedMemberName(unqualifiedTypeName);
 
-            Class<?> enclosingType = TypeUtil.loadClassOrNull(fqTypeName);
+            Class<?> enclosingType = ClassResolutionCache.loadClassOrNull(fqTypeName);
             if (enclosingType == null) continue;
 
             collectCallableConstructors(methodCall, enclosingType, matchingConstructors);
@@ -487,18 +458,11 @@ public class ImportScope implements Scope {
         final String unqualifiedTypeName = methodCall.getName().getName();
 
         List<Constructor<?>> matchingConstructors = new ArrayList<>();
-        for (int n=importStatements.size()-1; n >= 0; n--) {
-            ImportStmt importStmt = importStatements.get(n);
-
-            if ( importStmt.isOnDemand() ) continue;
-            if ( importStmt.getElements().isEmpty() || !importStmt.getElements().get(importStmt.getElements().size()-1).getName().equals(unqualifiedTypeName)) continue;
+        for (int n=notOnDemandImports.size()-1; n >= 0; n--) {
+            String fqTypeName = notOnDemandImports.get(n).importedTypeName(unqualifiedTypeName);
+            if ( fqTypeName == null ) continue;
 
-            String fqTypeName = asDelimitedString(importStmt.getElements()
-                                                            .stream()
-                                                            .map(Name::getName).collect(Collectors.toList()),
-                                                  ".");
-
-            Class<?> enclosingType = TypeUtil.loadClassOrNull(fqTypeName);
+            Class<?> enclosingType = ClassResolutionCache.loadClassOrNull(fqTypeName);
             if (enclosingType == null) continue;
 
             collectCallableConstructors(methodCall, enclosingType, matchingConstructors);
@@ -533,14 +497,8 @@ public class ImportScope implements Scope {
 
     private List<Method> findMatchingMethodsFromOnDemandImports(final MethodCall methodCall) {
         List<Method> matchingMethods = new ArrayList<>();
-        for (int n=importStatements.size()-1; n >= 0; n--) {
-            ImportStmt importStmt = importStatements.get(n);
-
-            if ( !importStmt.isOnDemand() ) continue;
-
-            String enclosingTypeName = asDelimitedString(importStmt.getElements().stream().map(Name::getName).collect(Collectors.toList()), ".");
-
-            Class<?> enclosingType = TypeUtil.loadClassOrNull(enclosingTypeName);
+        for (int n=onDemandImports.size()-1; n >= 0; n--) {
+            Class<?> enclosingType = ClassResolutionCache.loadClassOrNull(onDemandImports.get(n).getQualifiedName());
             if (enclosingType == null) continue;
 
             collectCallableMethods(methodCall, enclosingType, matchingMethods);
@@ -571,30 +529,24 @@ public class ImportScope implements Scope {
 
     @Override
     public List<Type> resolveType(final NamePath name) {
-        final List<Type> typesFromExplicitImports = resolveType(name, importStatements.stream().filter(ImportStmt::isNotOnDemand).collect(Collectors.toList()));
+        final List<Type> typesFromExplicitImports = resolveType(name, notOnDemandImports);
         if ( !typesFromExplicitImports.isEmpty() ) return typesFromExplicitImports;
 
-        final List<Type> typesFromOnDemandImports = resolveType(name, importStatements.stream().filter(ImportStmt::isOnDemand).collect(Collectors.toList()));
+        final List<Type> typesFromOnDemandImports = resolveType(name, onDemandImports);
         if ( !typesFromOnDemandImports.isEmpty() ) return typesFromOnDemandImports;
 
         return emptyList();
     }
 
-    private List<Type> resolveType(final NamePath names, final List<ImportStmt> importStatements) {
+    private List<Type> resolveType(final NamePath names, final List<ImportCandidates> imports) {
         final String name = names.getLastElement();  // TODO: What about fqtn? Possibly handled by navigation path...
 
         List<Type> matchingTypes = new ArrayList<>();
-        for (int n=importStatements.size()-1; n >= 0; n--) {
-            ImportStmt importStmt = importStatements.get(n);
+        for (int n=imports.size()-1; n >= 0; n--) {
+            String typeName = imports.get(n).importedTypeName(name);
+            if ( typeName == null ) continue;
 
-            NamePath typeName = new SimpleNamePath(importStmt.getElements().stream().map(Name::getName).collect(Collectors.toList()));
-            if ( importStmt.isOnDemand() ) {
-                typeName = typeName.joinSingleton(name);
-            } else if ( !Objects.equals(name, typeName.getLastElement()) ) {
-                continue;
-            }
-
-            Class<?> referredType = TypeUtil.loadClassOrNull(typeName.join("."));
+            Class<?> referredType = ClassResolutionCache.loadClassOrNull(typeName);
             if (referredType == null) continue;
 
             matchingTypes.add(new ResolvedTypeReferenceOld(referredType));
@@ -603,4 +555,70 @@ public class ImportScope implements Scope {
         return matchingTypes;
     }
 
+    /**
+     * The candidate names of an import statement, precomputed so names may be resolved against the import without
+     * rebuilding its qualified name each time.
+     */
+    private static final class ImportCandidates {
+        private final boolean onDemand;
+        /** The import path elements, joined: the package or type of an on-demand import, or the imported name. */
+        private final String qualifiedName;
+        /** The last element of the import path. */
+        private final String lastElement;
+        /** The import path elements excluding the last, joined: the type declaring an imported static member. */
+        private final String parentName;
+
+        private ImportCandidates(final ImportStmt importStmt) {
+            List<String> elements = importStmt.getElements().stream().map(Name::getName).collect(Collectors.toList());
+            this.onDemand = importStmt.isOnDemand();
+            this.qualifiedName = asDelimitedString(elements, ".");
+            this.lastElement = elements.isEmpty() ? null : elements.get(elements.size()-1);
+            this.parentName = elements.isEmpty() ? "" : asDelimitedString(elements.subList(0, elements.size()-1), ".");
+        }
+
+        boolean isOnDemand() {
+            return onDemand;
+        }
+
+        boolean isNotOnDemand() {
+            return !onDemand;
+        }
+
+        String getQualifiedName() {
+            return qualifiedName;
+        }
+
+        /**
+         * Qualifies the given name by the import path, regardless of whether the import is on-demand.
+         *
+         * @param name the simple name to be qualified.
+         * @return the import path joined with the given name.
+         */
+        String qualifiedMemberName(final String name) {
+            return qualifiedName.isEmpty() ? name : qualifiedName + "." + name;
+        }
+
+        /**
+         * Gets the fully qualified name of the type of the given simple name which this import would import.
+         *
+         * @param name the simple type name.
+         * @return the qualified type name, or null if this single-name import does not import the given name.
+         */
+        String importedTypeName(final String name) {
+            if ( onDemand ) return qualifiedMemberName(name);
+            return Objects.equals(name, lastElement) ? qualifiedName : null;
+        }
+
+        /**
+         * Gets the fully qualified name of the type declaring the static member of the given simple name which this
+         * import would import.
+         *
+         * @param name the simple member name.
+         * @return the qualified declaring type name, or null if this single-name import does not import the given name.
+         */
+        String importedMemberDeclaringTypeName(final String name) {
+            if ( onDemand ) return qualifiedName;
+            return Objects.equals(name, lastElement) ? parentName : null;
+        }
+    }
 }
@@ -0,0 +1,157 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.compiler;
+
+import org.orthodox.universel.UniversalException;
+import org.orthodox.universel.exec.CompiledScript;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.Method;
+
+/**
+ * A compiled script whose entry point is the script main method, linked once as a {@link MethodHandle} adapted to
+ * <code>(Object)Object</code> so that each evaluation is a single exact invocation.
+ *
+ * <p>The primitive evaluation methods are linked on first use to handles returning the primitive type directly, so
+ * scripts whose body is already of a primitive type are evaluated without boxing the result.</p>
+ */
+final class MethodHandleCompiledScript<B, R> implements CompiledScript<B, R> {
+    private final MethodHandle mainMethodHandle;
+    private final MethodHandle entryPoint;
+
+    private volatile MethodHandle booleanEntryPoint;
+    private volatile MethodHandle intEntryPoint;
+    private volatile MethodHandle longEntryPoint;
+    private volatile MethodHandle doubleEntryPoint;
+
+    MethodHandleCompiledScript(final Method mainMethod) {
+        try {
+            this.mainMethodHandle = MethodHandles.publicLookup().unreflect(mainMethod);
+        } catch (IllegalAccessException accessEx) {
+            throw new UniversalException("Unable to link the script main method ["+mainMethod+"]", accessEx);
+        }
+
+        this.entryPoint = adaptEntryPoint(Object.class);
+    }
+
+    /**
+     * Adapts the main method handle to accept a single binding argument, returning the given result type.
+     *
+     * @param resultType the result type of the adapted handle.
+     * @return the adapted main method handle, of type <code>(Object)resultType</code>.
+     * @throws UniversalException if the result of the script cannot be converted to the given result type.
+     */
+    MethodHandle adaptEntryPoint(final Class<?> resultType) {
+        MethodHandle adapted = mainMethodHandle.type().parameterCount() == 0 ? MethodHandles.dropArguments(mainMethodHandle, 0, Object.class) : mainMethodHandle;
+        try {
+            return adapted.asType(MethodType.methodType(resultType, Object.class));
+        } catch (WrongMethodTypeException typeEx) {
+            throw new UniversalException("The script result of type ["+mainMethodHandle.type().returnType().getName()+"] cannot be evaluated as type ["+resultType.getName()+"]", typeEx);
+        }
+    }
+
+    /**
+     * Gets the method handle of the script main method, with its exact declared type.
+     *
+     * @return the main method handle.
+     */
+    MethodHandle getMainMethodHandle() {
+        return mainMethodHandle;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public R evaluate(final B binding) {
+        try {
+            return (R)(Object)entryPoint.invokeExact((Object)binding);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable th) {
+            throw new UniversalException("Script evaluation failed", th);
+        }
+    }
+
+    @Override
+    public boolean evaluateBoolean(final B binding) {
+        MethodHandle handle = booleanEntryPoint;
+        if ( handle == null ) booleanEntryPoint = handle = adaptEntryPoint(boolean.class);
+
+        try {
+            return (boolean)handle.invokeExact((Object)binding);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable th) {
+            throw new UniversalException("Script evaluation failed", th);
+        }
+    }
+
+    @Override
+    public int evaluateInt(final B binding) {
+        MethodHandle handle = intEntryPoint;
+        if ( handle == null ) intEntryPoint = handle = adaptEntryPoint(int.class);
+
+        try {
+            return (int)handle.invokeExact((Object)binding);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable th) {
+            throw new UniversalException("Script evaluation failed", th);
+        }
+    }
+
+    @Override
+    public long evaluateLong(final B binding) {
+        MethodHandle handle = longEntryPoint;
+        if ( handle == null ) longEntryPoint = handle = adaptEntryPoint(long.class);
+
+        try {
+            return (long)handle.invokeExact((Object)binding);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable th) {
+            throw new UniversalException("Script evaluation failed", th);
+        }
+    }
+
+    @Override
+    public double evaluateDouble(final B binding) {
+        MethodHandle handle = doubleEntryPoint;
+        if ( handle == null ) doubleEntryPoint = handle = adaptEntryPoint(double.class);
+
+        try {
+            return (double)handle.invokeExact((Object)binding);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable th) {
+            throw new UniversalException("Script evaluation failed", th);
+        }
+    }
+}
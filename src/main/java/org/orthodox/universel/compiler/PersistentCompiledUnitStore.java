@@ -0,0 +1,478 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.orthodox.universel.compiler;
+
+import org.beanplanet.core.io.resource.ByteArrayResource;
+import org.beanplanet.core.io.resource.Resource;
+import org.beanplanet.core.logging.Logger;
+import org.beanplanet.core.models.NameValue;
+import org.beanplanet.core.models.SimpleNameValue;
+import org.orthodox.universel.UniversalException;
+import org.orthodox.universel.ast.Type;
+import org.orthodox.universel.exec.navigation.NavigatorRegistry;
+import org.orthodox.universel.exec.navigation.PackageScanNavigatorLoader;
+import org.orthodox.universel.exec.operators.binary.PackageScanBinaryOperatorLoader;
+
+import java.io.*;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.stream.Collectors.joining;
+import static org.beanplanet.messages.domain.MessagesImpl.messages;
+
+/**
+ * A persistent store of {@link CompiledUnit}s on local disk, allowing the generated classes of a compilation unit to be
+ * reused across JVM restarts without parsing or analysing the unit again.
+ *
+ * <p>Each unit is held in its own file, named after a SHA-256 digest of the source of the unit, the signature of the
+ * binding type, the version and options of the compiler and a fingerprint of the operators and navigators available at
+ * compilation time. A change to any of these yields a different digest, so stale units are simply never found again. Files are
+ * written to a temporary file and moved into place, so readers never observe a partially written unit, and are memory
+ * mapped for reading.</p>
+ *
+ * <p>Other types on which a unit depends, such as those reached by navigation from the binding type or imported, are not
+ * part of the key. Instead, every class, method and field referenced by a stored unit is verified to still resolve when
+ * the unit is loaded, and a unit which would fail to link is treated as absent, to be recompiled and stored afresh.</p>
+ *
+ * <p>Units restored from the store have no AST and no compilation messages. Units with errors, or which declare
+ * non-final static fields, are never stored.</p>
+ */
+public class PersistentCompiledUnitStore implements Logger {
+    /**
+     * The system property naming the directory of the default store. Persistence is disabled if the property is not
+     * set.
+     */
+    public static final String DIRECTORY_PROPERTY = "universel.compiler.persistentCache.dir";
+
+    /**
+     * The file extension of compiled units held in the store.
+     */
+    public static final String FILE_EXTENSION = ".ucu";
+
+    /**
+     * The version of the file format, which is part of every key so files written in an earlier format are ignored.
+     */
+    static final int FORMAT_VERSION = 1;
+
+    private static final int MAGIC = 0x55435546;
+
+    private static final String COMPILER_VERSION = compilerVersion();
+
+    private final Path directory;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+
+    /**
+     * Constructs a store of compiled units in the given directory, which will be created on first write if it does not
+     * exist.
+     *
+     * @param directory the directory in which compiled units are stored, or null to disable persistence.
+     */
+    public PersistentCompiledUnitStore(final Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Creates a store in the directory named by the {@link #DIRECTORY_PROPERTY} system property, or a disabled store if
+     * the property is not set.
+     *
+     * @return a new store with the default location.
+     */
+    public static PersistentCompiledUnitStore defaultStore() {
+        String directory = System.getProperty(DIRECTORY_PROPERTY);
+        return directory == null || directory.trim().isEmpty() ? disabled() : new PersistentCompiledUnitStore(Paths.get(directory.trim()));
+    }
+
+    /**
+     * Creates a store which never holds any compiled units, effectively opting out of persistence.
+     *
+     * @return a new store with persistence disabled.
+     */
+    public static PersistentCompiledUnitStore disabled() {
+        return new PersistentCompiledUnitStore(null);
+    }
+
+    /**
+     * Whether this store will persist compiled units.
+     *
+     * @return true if persistence is enabled, false otherwise.
+     */
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Gets the directory in which compiled units are stored.
+     *
+     * @return the store directory, or null if persistence is disabled.
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Loads a previously stored compiled unit.
+     *
+     * @param source the source text of the compilation unit.
+     * @param bindingType the binding type against which the unit is compiled, which may be null.
+     * @param navigatorRegistry the navigator registry in effect for the compilation.
+     * @param compilerOptions the options of the compiler, which determine the code generated.
+     * @return the stored compiled unit, or empty if no unit is stored under the given key components, the stored unit
+     * could not be read or it references classes or members which no longer exist.
+     */
+    public <B> Optional<CompiledUnit<B>> load(final String source,
+                                              final Class<B> bindingType,
+                                              final NavigatorRegistry navigatorRegistry,
+                                              final CompilerOptions compilerOptions) {
+        if ( !isEnabled() ) return Optional.empty();
+
+        final String key = keyFor(source, bindingType, navigatorRegistry, compilerOptions);
+        final Path file = fileFor(key);
+        if ( !Files.isRegularFile(file) ) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long startTime = System.currentTimeMillis();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if ( buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION || !key.equals(readString(buffer)) ) {
+                warning("Ignoring unrecognised compiled unit file [" + file + "]");
+                misses.incrementAndGet();
+                return Optional.empty();
+            }
+
+            final String resultTypeName = readString(buffer);
+            final int classCount = buffer.getInt();
+            final List<NameValue<Resource>> compiledClassResources = new ArrayList<>(classCount);
+            for (int n = 0; n < classCount; n++) {
+                String className = readString(buffer);
+                byte[] classBytes = new byte[buffer.getInt()];
+                buffer.get(classBytes);
+                compiledClassResources.add(new SimpleNameValue<Resource>(className, new ByteArrayResource(classBytes)));
+            }
+
+            // Types reached through navigation or imports are not part of the key, so may have changed since the unit was stored
+            final Optional<String> unresolvedReference = CompiledUnitLinkage.unresolvedReference(compiledClassResources);
+            if ( unresolvedReference.isPresent() ) {
+                warning("Ignoring stale compiled unit [" + file + "] whose " + unresolvedReference.get() + " no longer resolves");
+                misses.incrementAndGet();
+                return Optional.empty();
+            }
+
+            final Type resultType = resultTypeName.isEmpty() ? null : Type.forClass(resolveClass(resultTypeName, bindingType));
+            hits.incrementAndGet();
+            return Optional.of(new CompiledUnit<>(bindingType,
+                                                  resultType,
+                                                  messages(),
+                                                  compiledClassResources,
+                                                  System.currentTimeMillis() - startTime));
+        } catch (IOException | RuntimeException | ClassNotFoundException ex) {
+            warning("Unable to load compiled unit from [" + file + "]: " + ex);
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores the given compiled unit, replacing any unit already stored under the same key components. Units with
+     * errors or which declare mutable static state are not stored. Failure to write the unit is logged but otherwise
+     * ignored, as persistence is an optimisation only.
+     *
+     * @param source the source text of the compilation unit.
+     * @param bindingType the binding type against which the unit was compiled, which may be null.
+     * @param navigatorRegistry the navigator registry in effect for the compilation.
+     * @param compilerOptions the options of the compiler which compiled the unit.
+     * @param compiledUnit the compiled unit to be stored.
+     * @return true if the unit was stored, false otherwise.
+     */
+    public boolean store(final String source,
+                         final Class<?> bindingType,
+                         final NavigatorRegistry navigatorRegistry,
+                         final CompilerOptions compilerOptions,
+                         final CompiledUnit<?> compiledUnit) {
+        if ( !isEnabled() || compiledUnit.hasErrors() || !CompiledUnitCache.isCacheable(compiledUnit) ) return false;
+
+        final String key = keyFor(source, bindingType, navigatorRegistry, compilerOptions);
+        final Path file = fileFor(key);
+        Path tempFile = null;
+        try {
+            Files.createDirectories(directory);
+            tempFile = Files.createTempFile(directory, key, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                writeString(out, key);
+
+                Type resultType = compiledUnit.getResultType();
+                writeString(out, resultType == null || resultType.getTypeClass() == null ? "" : resultType.getTypeClass().getName());
+
+                List<NameValue<Resource>> compiledClassResources = compiledUnit.getCompiledClassResources();
+                out.writeInt(compiledClassResources.size());
+                for (NameValue<Resource> compiledClassResource : compiledClassResources) {
+                    writeString(out, compiledClassResource.getName());
+                    byte[] classBytes = compiledClassResource.getValue().readFullyAsBytes();
+                    out.writeInt(classBytes.length);
+                    out.write(classBytes);
+                }
+            }
+
+            try {
+                Files.move(tempFile, file, ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException notSupportedEx) {
+                Files.move(tempFile, file, REPLACE_EXISTING);
+            }
+            writes.incrementAndGet();
+            return true;
+        } catch (IOException | RuntimeException ex) {
+            warning("Unable to store compiled unit to [" + file + "]: " + ex);
+            deleteQuietly(tempFile);
+            return false;
+        }
+    }
+
+    /**
+     * Removes all compiled units from this store.
+     */
+    public void clear() {
+        if ( !isEnabled() || !Files.isDirectory(directory) ) return;
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + FILE_EXTENSION)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException ioEx) {
+            throw new UniversalException("Unable to clear compiled unit store [" + directory + "]", ioEx);
+        }
+    }
+
+    /**
+     * Gets the number of loads satisfied by a stored compiled unit.
+     *
+     * @return the number of store hits.
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Gets the number of loads for which no usable compiled unit was stored.
+     *
+     * @return the number of store misses.
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Gets the number of compiled units written to this store.
+     *
+     * @return the number of store writes.
+     */
+    public long getWriteCount() {
+        return writes.get();
+    }
+
+    @Override
+    public String toString() {
+        return "PersistentCompiledUnitStore[directory=" + directory + ", hits=" + getHitCount() + ", misses=" + getMissCount() + ", writes=" + getWriteCount() + "]";
+    }
+
+    /**
+     * Computes the key under which a compiled unit is stored, as a hexadecimal SHA-256 digest of its key components.
+     *
+     * @param source the source text of the compilation unit.
+     * @param bindingType the binding type against which the unit is compiled, which may be null.
+     * @param navigatorRegistry the navigator registry in effect for the compilation.
+     * @param compilerOptions the options of the compiler, which determine the code generated.
+     * @return the key of the compiled unit.
+     */
+    String keyFor(final String source, final Class<?> bindingType, final NavigatorRegistry navigatorRegistry, final CompilerOptions compilerOptions) {
+        return digestOf("format:" + FORMAT_VERSION,
+                        "compiler:" + COMPILER_VERSION,
+                        "options:" + compilerOptions.fingerprint(),
+                        "binding:" + bindingTypeSignature(bindingType),
+                        "registries:" + registryFingerprint(navigatorRegistry),
+                        "source:" + source);
+    }
+
+    /**
+     * Computes a hexadecimal SHA-256 digest of the given components.
+     *
+     * @param components the components to be digested, in order.
+     * @return the digest of the components.
+     */
+    static String digestOf(final String ... components) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String component : components) {
+                byte[] bytes = component.getBytes(StandardCharsets.UTF_8);
+                digest.update(ByteBuffer.allocate(4).putInt(bytes.length).array());
+                digest.update(bytes);
+            }
+
+            StringBuilder hex = new StringBuilder(64);
+            for (byte b : digest.digest()) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException noSuchAlgorithmEx) {
+            throw new UniversalException("Unable to compute digest", noSuchAlgorithmEx);
+        }
+    }
+
+    private Path fileFor(final String key) {
+        return directory.resolve(key + FILE_EXTENSION);
+    }
+
+    /**
+     * The signature of a binding type comprises its name and public members, as these determine how a script is linked
+     * against the binding.
+     */
+    private static String bindingTypeSignature(final Class<?> bindingType) {
+        if ( bindingType == null ) return "";
+
+        StringBuilder signature = new StringBuilder(bindingType.getName());
+        Arrays.stream(bindingType.getMethods()).map(Method::toGenericString).sorted().forEach(m -> signature.append(';').append(m));
+        Arrays.stream(bindingType.getFields()).map(Field::toGenericString).sorted().forEach(f -> signature.append(';').append(f));
+        return signature.toString();
+    }
+
+    /**
+     * The registries do not expose their contents, so they are fingerprinted by the number of navigators registered
+     * and by the operator and navigator package declarations on the classpath from which they are loaded.
+     */
+    private static String registryFingerprint(final NavigatorRegistry navigatorRegistry) {
+        return "navigators=" + (navigatorRegistry == null ? 0 : navigatorRegistry.size())
+               + ";" + classpathResourceContents(PackageScanNavigatorLoader.NAVIGATOR_PACKAGES_RESOURCE)
+               + ";" + classpathResourceContents(PackageScanBinaryOperatorLoader.TYPE_CONVERTER_PACKAGES_RESOURCE);
+    }
+
+    private static String classpathResourceContents(final String resourcePath) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if ( classLoader == null ) classLoader = PersistentCompiledUnitStore.class.getClassLoader();
+
+        List<String> contents = new ArrayList<>();
+        try {
+            for (Enumeration<URL> resources = classLoader.getResources(resourcePath); resources.hasMoreElements(); ) {
+                try (InputStream in = resources.nextElement().openStream()) {
+                    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                    byte[] buf = new byte[4096];
+                    for (int bytesRead; (bytesRead = in.read(buf)) >= 0; ) {
+                        bytes.write(buf, 0, bytesRead);
+                    }
+                    contents.add(new String(bytes.toByteArray(), StandardCharsets.UTF_8).trim());
+                }
+            }
+        } catch (IOException ioEx) {
+            throw new UniversalException("Unable to read classpath resource [" + resourcePath + "]", ioEx);
+        }
+        Collections.sort(contents);
+        return contents.stream().collect(joining("|"));
+    }
+
+    /**
+     * The implementation version of the compiler, where packaged, qualified by the modification time of the compiler
+     * classes so that development builds sharing a version do not share stored units.
+     */
+    private static String compilerVersion() {
+        Package compilerPackage = UniversalCompiler.class.getPackage();
+        String version = compilerPackage == null || compilerPackage.getImplementationVersion() == null ? "development" : compilerPackage.getImplementationVersion();
+
+        URL compilerClass = UniversalCompiler.class.getResource(UniversalCompiler.class.getSimpleName() + ".class");
+        if ( compilerClass == null ) return version;
+        try {
+            URLConnection connection = compilerClass.openConnection();
+            connection.setUseCaches(false);
+            return version + "@" + connection.getLastModified();
+        } catch (IOException ioEx) {
+            return version;
+        }
+    }
+
+    /**
+     * Resolves a class by name, including primitive types, preferring the class loader of the binding type.
+     *
+     * @param className the name of the class to be resolved.
+     * @param bindingType the binding type of the compiled unit, which may be null.
+     * @return the class of the given name.
+     * @throws ClassNotFoundException if the class could not be found.
+     */
+    static Class<?> resolveClass(final String className, final Class<?> bindingType) throws ClassNotFoundException {
+        switch (className) {
+            case "boolean": return boolean.class;
+            case "byte": return byte.class;
+            case "char": return char.class;
+            case "short": return short.class;
+            case "int": return int.class;
+            case "long": return long.class;
+            case "float": return float.class;
+            case "double": return double.class;
+            case "void": return void.class;
+            default:
+                ClassLoader classLoader = bindingType != null && bindingType.getClassLoader() != null ? bindingType.getClassLoader() : PersistentCompiledUnitStore.class.getClassLoader();
+                return Class.forName(className, false, classLoader);
+        }
+    }
+
+    private static String readString(final ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void deleteQuietly(final Path file) {
+        if ( file == null ) return;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+        }
+    }
+}
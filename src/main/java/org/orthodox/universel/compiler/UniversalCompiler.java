@@ -9,10 +9,8 @@ import org.orthodox.universal.parser.UniversalParser;
 import org.orthodox.universel.ast.Node;
 import org.orthodox.universel.ast.Script;
 import org.orthodox.universel.ast.Type;
-import org.orthodox.universel.exec.navigation.ConcurrentNavigatorRegistry;
-import org.orthodox.universel.exec.navigation.NavigatorLoader;
 import org.orthodox.universel.exec.navigation.NavigatorRegistry;
-import org.orthodox.universel.exec.navigation.PackageScanNavigatorLoader;
+import org.orthodox.universel.exec.navigation.SharedNavigatorRegistry;
 import org.orthodox.universel.symanticanalysis.*;
 import org.orthodox.universel.symanticanalysis.conversion.BinaryExpressionOperatorMethodConverter;
 import org.orthodox.universel.symanticanalysis.conversion.WideningNumericConversionAnalyser;
@@ -25,22 +23,105 @@ import org.orthodox.universel.symanticanalysis.navigation.UnresolvedNameReporter
 import org.orthodox.universel.symanticanalysis.name.IfStatementImplicitResultValueResolver;
 import org.orthodox.universel.symanticanalysis.navigation.NavigationResolver;
 import org.orthodox.universel.symanticanalysis.operators.unary.UnaryOperatorErrorReporter;
+import org.orthodox.universel.symanticanalysis.operators.ConstantFoldingAnalyser;
 import org.orthodox.universel.symanticanalysis.operators.unary.UnaryOperatorImplementationAnalyser;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.util.Optional;
 
 import static org.beanplanet.messages.domain.MessagesImpl.messages;
 
 public class UniversalCompiler {
-    private static NavigatorRegistry navigatorRegistry = new ConcurrentNavigatorRegistry();
-    private static NavigatorLoader loader = new PackageScanNavigatorLoader();
+    private final CompiledUnitCache compiledUnitCache;
+    private final PersistentCompiledUnitStore persistentCompiledUnitStore;
+    private final CompilerOptions compilerOptions;
 
+    /**
+     * Constructs a compiler which caches compiled units in the {@link CompiledUnitCache#defaultCache() default cache}
+     * and persists them in the {@link PersistentCompiledUnitStore#defaultStore() default store}, which is disabled
+     * unless the {@link PersistentCompiledUnitStore#DIRECTORY_PROPERTY} system property is set.
+     */
     public UniversalCompiler() {
-        loader.load(navigatorRegistry);
+        this(CompiledUnitCache.defaultCache());
     }
 
-    private SemanticAnalyser getSemanticAnalyser() {
+    /**
+     * Constructs a compiler which caches compiled units in the given cache and persists them in the
+     * {@link PersistentCompiledUnitStore#defaultStore() default store}, which is disabled unless the
+     * {@link PersistentCompiledUnitStore#DIRECTORY_PROPERTY} system property is set.
+     *
+     * @param compiledUnitCache the cache of compiled units, which may be {@link CompiledUnitCache#disabled()} to opt
+     *                          out of caching.
+     */
+    public UniversalCompiler(final CompiledUnitCache compiledUnitCache) {
+        this(compiledUnitCache, PersistentCompiledUnitStore.defaultStore());
+    }
+
+    /**
+     * Constructs a compiler which caches compiled units in the given cache and persists them in the given store, so
+     * they may be reused without recompilation after a restart.
+     *
+     * @param compiledUnitCache the cache of compiled units, which may be {@link CompiledUnitCache#disabled()} to opt
+     *                          out of caching.
+     * @param persistentCompiledUnitStore the persistent store of compiled units, which may be
+     *                                    {@link PersistentCompiledUnitStore#disabled()} to opt out of persistence.
+     */
+    public UniversalCompiler(final CompiledUnitCache compiledUnitCache, final PersistentCompiledUnitStore persistentCompiledUnitStore) {
+        this(compiledUnitCache, persistentCompiledUnitStore, CompilerOptions.defaultOptions());
+    }
+
+    /**
+     * Constructs a compiler which generates code according to the given options, caching compiled units in the given
+     * cache and persisting them in the given store.
+     *
+     * @param compiledUnitCache the cache of compiled units, which may be {@link CompiledUnitCache#disabled()} to opt
+     *                          out of caching.
+     * @param persistentCompiledUnitStore the persistent store of compiled units, which may be
+     *                                    {@link PersistentCompiledUnitStore#disabled()} to opt out of persistence.
+     * @param compilerOptions the options determining the code generated by the compiler.
+     */
+    public UniversalCompiler(final CompiledUnitCache compiledUnitCache,
+                             final PersistentCompiledUnitStore persistentCompiledUnitStore,
+                             final CompilerOptions compilerOptions) {
+        this.compiledUnitCache = compiledUnitCache;
+        this.persistentCompiledUnitStore = persistentCompiledUnitStore;
+        this.compilerOptions = compilerOptions;
+    }
+
+    /**
+     * Gets the cache of compiled units used by this compiler.
+     *
+     * @return the compiled unit cache, never null.
+     */
+    public CompiledUnitCache getCompiledUnitCache() {
+        return compiledUnitCache;
+    }
+
+    /**
+     * Gets the persistent store of compiled units used by this compiler.
+     *
+     * @return the persistent compiled unit store, never null.
+     */
+    public PersistentCompiledUnitStore getPersistentCompiledUnitStore() {
+        return persistentCompiledUnitStore;
+    }
+
+    /**
+     * Gets the options determining the code generated by this compiler.
+     *
+     * @return the compiler options, never null.
+     */
+    public CompilerOptions getCompilerOptions() {
+        return compilerOptions;
+    }
+
+    /**
+     * Creates the semantic analyser, comprising the ordered analysis stages applied to every compilation unit.
+     *
+     * @return a new semantic analyser instance.
+     */
+    public SemanticAnalyser getSemanticAnalyser() {
         return new CompositeSemanticAnalyser(
             new MethodDeclarationDeclaringTypeDecorator(),
             new ScriptAssembler(),
@@ -52,11 +133,12 @@ public class UniversalCompiler {
             new NodeSequenceLastValueAnalyser(),
 //            new NavigationContextResolver(),
             new AssignmentAnalyser(),
-            new NavigationResolver(),
+            new NavigationResolver(compilerOptions.getNavigationBackend(), compilerOptions.getNavigationParallelism()),
             new IfStatementImplicitResultValueResolver(),
             new ImplicitReturnStatementDecorator(),
             new BinaryExpressionOperatorMethodConverter(),
             new UnaryOperatorImplementationAnalyser(),
+            new ConstantFoldingAnalyser(),
             new FieldDeclarationInitialiserConverter(),
 
             // Lastly, when all opportunities for resolution has preceded, report any errors
@@ -69,7 +151,7 @@ public class UniversalCompiler {
         );
     }
 
-    private <T> Node parsePhases(CompilationContext compilationContext, Resource compilationUnitResource, Class<T> bindingType, Messages messages) {
+    private <T> Node parsePhases(CompilationContext compilationContext, Resource compilationUnitResource, Class<T> bindingType, NavigatorRegistry navigatorRegistry, Messages messages) {
         try (Reader compilationUnitReader = compilationUnitResource.getReader()) {
             //----------------------------------------------------------------------------------------------------------
             // Lexical Analysis:
@@ -129,6 +211,43 @@ public class UniversalCompiler {
     }
 
     public <B> CompiledUnit<B> compile(Resource compilationUnitResource, Class<B> bindingType) {
+        final NavigatorRegistry navigatorRegistry = SharedNavigatorRegistry.getInstance();
+        if ( !compiledUnitCache.isEnabled() && !persistentCompiledUnitStore.isEnabled() ) return compileUncached(compilationUnitResource, bindingType, navigatorRegistry);
+
+        final String source = readSource(compilationUnitResource);
+        return compiledUnitCache.computeIfAbsent(source,
+                                                 bindingType,
+                                                 CompilationContext.DEFAULT_IMPORTS,
+                                                 navigatorRegistry,
+                                                 compilerOptions,
+                                                 () -> compilePersisted(source, bindingType, navigatorRegistry));
+    }
+
+    private <B> CompiledUnit<B> compilePersisted(String source, Class<B> bindingType, NavigatorRegistry navigatorRegistry) {
+        if ( !persistentCompiledUnitStore.isEnabled() ) return compileUncached(new StringResource(source), bindingType, navigatorRegistry);
+
+        Optional<CompiledUnit<B>> persisted = persistentCompiledUnitStore.load(source, bindingType, navigatorRegistry, compilerOptions);
+        if ( persisted.isPresent() ) return persisted.get();
+
+        CompiledUnit<B> compiled = compileUncached(new StringResource(source), bindingType, navigatorRegistry);
+        persistentCompiledUnitStore.store(source, bindingType, navigatorRegistry, compilerOptions, compiled);
+        return compiled;
+    }
+
+    private String readSource(final Resource compilationUnitResource) {
+        try (Reader compilationUnitReader = compilationUnitResource.getReader()) {
+            StringBuilder source = new StringBuilder();
+            char[] buf = new char[4096];
+            for (int charsRead; (charsRead = compilationUnitReader.read(buf)) >= 0; ) {
+                source.append(buf, 0, charsRead);
+            }
+            return source.toString();
+        } catch (IOException ioEx) {
+            throw new IoException(String.format("I/O error occurred during compilation [%s]: ", compilationUnitResource.getCanonicalForm()), ioEx);
+        }
+    }
+
+    private <B> CompiledUnit<B> compileUncached(Resource compilationUnitResource, Class<B> bindingType, NavigatorRegistry navigatorRegistry) {
         final Messages messages = messages();
         CompilationContext compilationContext = new CompilationContext(bindingType, new VirtualMachine(new BytecodeHelper()), messages);
 
@@ -136,7 +255,7 @@ public class UniversalCompiler {
         // Analysis: Lexical and Semantic
         //----------------------------------------------------------------------------------------------------------
         long startTime = System.currentTimeMillis();
-        Script compilationUnitNonTerminal = (Script)parsePhases(compilationContext, compilationUnitResource, bindingType, messages);
+        Script compilationUnitNonTerminal = (Script)parsePhases(compilationContext, compilationUnitResource, bindingType, navigatorRegistry, messages);
         long endTime = System.currentTimeMillis();
 
         //----------------------------------------------------------------------------------------------------------
@@ -0,0 +1,264 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.orthodox.universel.compiler.codegen;
+
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.orthodox.universel.ast.Operator;
+import org.orthodox.universel.exec.operators.binary.impl.BooleanEqualityOperatorFunctions;
+import org.orthodox.universel.exec.operators.binary.impl.BooleanOperatorFunctions;
+import org.orthodox.universel.exec.operators.binary.impl.CharBinaryOperatorFunctions;
+import org.orthodox.universel.exec.operators.binary.impl.numeric.*;
+import org.orthodox.universel.exec.operators.unary.UnaryFunctions;
+
+import java.lang.reflect.Method;
+import java.util.*;
+
+import static org.objectweb.asm.Opcodes.*;
+import static org.orthodox.universel.ast.Operator.*;
+
+/**
+ * A table of the JVM instructions implementing the built-in operators on primitive operands, so the operators may be
+ * compiled in-line rather than as calls to the operator functions. The instructions emitted have exactly the semantics
+ * of the operator functions they replace, including narrowing of <code>byte</code>, <code>short</code> and
+ * <code>char</code> results and the treatment of NaN in floating point comparisons.
+ *
+ * <p>Intrinsics apply only where the operator method resolved is one of the built-in primitive operator functions, so
+ * operators registered for other types, or registered in place of the built-in functions, are still called.</p>
+ */
+public final class PrimitiveOperatorIntrinsics {
+    /**
+     * Emits the instructions of an operator, the operands of which are already on the operand stack.
+     */
+    @FunctionalInterface
+    private interface Intrinsic {
+        void emit(MethodVisitor mv);
+    }
+
+    private static final Set<Class<?>> BUILT_IN_OPERATOR_FUNCTIONS = new HashSet<>(Arrays.asList(
+        BooleanEqualityOperatorFunctions.class,
+        BooleanOperatorFunctions.class,
+        ByteBinaryOperatorFunctions.class,
+        CharBinaryOperatorFunctions.class,
+        DoubleBinaryOperatorFunctions.class,
+        FloatBinaryOperatorFunctions.class,
+        IntegerBinaryOperatorFunctions.class,
+        LongBinaryOperatorFunctions.class,
+        ShortBinaryOperatorFunctions.class
+    ));
+
+    private static final Map<Key, Intrinsic> BINARY_INTRINSICS = new HashMap<>();
+
+    private static final Map<Class<?>, Intrinsic> UNARY_MINUS_INTRINSICS = new HashMap<>();
+
+    static {
+        intCategoryIntrinsics(int.class, NOP);
+        intCategoryIntrinsics(short.class, I2S);
+        intCategoryIntrinsics(byte.class, I2B);
+        intCategoryIntrinsics(char.class, I2C);
+
+        binary(long.class, PLUS, insns(LADD));
+        binary(long.class, MINUS, insns(LSUB));
+        binary(long.class, STAR, insns(LMUL));
+        binary(long.class, FORWARD_SLASH, insns(LDIV));
+        binary(long.class, PERCENT, insns(LREM));
+        binary(long.class, AMPERSAND, insns(LAND));
+        binary(long.class, PIPE, insns(LOR));
+        binary(long.class, CARAT, insns(LXOR));
+        binary(long.class, SHIFT_LEFT, insns(L2I, LSHL));
+        binary(long.class, SHIFT_RIGHT, insns(L2I, LSHR));
+        binary(long.class, TREBLE_SHIFT_RIGHT, insns(L2I, LUSHR));
+        comparisons(long.class, LCMP, LCMP);
+
+        floatingPointIntrinsics(float.class, FADD, FSUB, FMUL, FDIV, FREM, FCMPL, FCMPG);
+        floatingPointIntrinsics(double.class, DADD, DSUB, DMUL, DDIV, DREM, DCMPL, DCMPG);
+
+        binary(boolean.class, EQUAL, comparison(NOP, IF_ICMPEQ));
+        binary(boolean.class, TREBLE_EQUAL, comparison(NOP, IF_ICMPEQ));
+        binary(boolean.class, EXCLAMATION_EQUAL, comparison(NOP, IF_ICMPNE));
+        binary(boolean.class, LESS_GREATER_THAN, comparison(NOP, IF_ICMPNE));
+
+        UNARY_MINUS_INTRINSICS.put(int.class, insns(INEG));
+        UNARY_MINUS_INTRINSICS.put(short.class, insns(INEG, I2S));
+        UNARY_MINUS_INTRINSICS.put(byte.class, insns(INEG, I2B));
+        UNARY_MINUS_INTRINSICS.put(char.class, insns(INEG, I2C));
+        UNARY_MINUS_INTRINSICS.put(long.class, insns(LNEG));
+        UNARY_MINUS_INTRINSICS.put(float.class, insns(FNEG));
+        UNARY_MINUS_INTRINSICS.put(double.class, insns(DNEG));
+    }
+
+    private PrimitiveOperatorIntrinsics() {
+    }
+
+    private static void intCategoryIntrinsics(final Class<?> type, final int narrowingOpcode) {
+        binary(type, PLUS, insns(IADD, narrowingOpcode));
+        binary(type, MINUS, insns(ISUB, narrowingOpcode));
+        binary(type, STAR, insns(IMUL, narrowingOpcode));
+        binary(type, FORWARD_SLASH, insns(IDIV, narrowingOpcode));
+        binary(type, PERCENT, insns(IREM, narrowingOpcode));
+        binary(type, AMPERSAND, insns(IAND, narrowingOpcode));
+        binary(type, PIPE, insns(IOR, narrowingOpcode));
+        binary(type, CARAT, insns(IXOR, narrowingOpcode));
+        binary(type, SHIFT_LEFT, insns(ISHL, narrowingOpcode));
+        binary(type, SHIFT_RIGHT, insns(ISHR, narrowingOpcode));
+        binary(type, TREBLE_SHIFT_RIGHT, insns(IUSHR, narrowingOpcode));
+
+        binary(type, EQUAL, comparison(NOP, IF_ICMPEQ));
+        binary(type, TREBLE_EQUAL, comparison(NOP, IF_ICMPEQ));
+        binary(type, EXCLAMATION_EQUAL, comparison(NOP, IF_ICMPNE));
+        binary(type, LESS_GREATER_THAN, comparison(NOP, IF_ICMPNE));
+        binary(type, GREATER_THAN, comparison(NOP, IF_ICMPGT));
+        binary(type, GREATER_THAN_EQUAL, comparison(NOP, IF_ICMPGE));
+        binary(type, LESS_THAN, comparison(NOP, IF_ICMPLT));
+        binary(type, LESS_THAN_EQUAL, comparison(NOP, IF_ICMPLE));
+    }
+
+    private static void floatingPointIntrinsics(final Class<?> type,
+                                                final int addOpcode,
+                                                final int subOpcode,
+                                                final int mulOpcode,
+                                                final int divOpcode,
+                                                final int remOpcode,
+                                                final int compareNaNLessOpcode,
+                                                final int compareNaNGreaterOpcode) {
+        binary(type, PLUS, insns(addOpcode));
+        binary(type, MINUS, insns(subOpcode));
+        binary(type, STAR, insns(mulOpcode));
+        binary(type, FORWARD_SLASH, insns(divOpcode));
+        binary(type, PERCENT, insns(remOpcode));
+        comparisons(type, compareNaNLessOpcode, compareNaNGreaterOpcode);
+    }
+
+    /**
+     * Registers comparisons which first compare the operands to an int of -1, 0 or 1. Where the operands are unordered,
+     * as when either is NaN, each comparison must be false but for inequality, which is why greater-than comparisons
+     * use the compare instruction yielding -1 and less-than comparisons the one yielding 1.
+     */
+    private static void comparisons(final Class<?> type, final int compareNaNLessOpcode, final int compareNaNGreaterOpcode) {
+        binary(type, EQUAL, comparison(compareNaNLessOpcode, IFEQ));
+        binary(type, TREBLE_EQUAL, comparison(compareNaNLessOpcode, IFEQ));
+        binary(type, EXCLAMATION_EQUAL, comparison(compareNaNLessOpcode, IFNE));
+        binary(type, LESS_GREATER_THAN, comparison(compareNaNLessOpcode, IFNE));
+        binary(type, GREATER_THAN, comparison(compareNaNLessOpcode, IFGT));
+        binary(type, GREATER_THAN_EQUAL, comparison(compareNaNLessOpcode, IFGE));
+        binary(type, LESS_THAN, comparison(compareNaNGreaterOpcode, IFLT));
+        binary(type, LESS_THAN_EQUAL, comparison(compareNaNGreaterOpcode, IFLE));
+    }
+
+    private static void binary(final Class<?> type, final Operator operator, final Intrinsic intrinsic) {
+        BINARY_INTRINSICS.put(new Key(operator, type, type), intrinsic);
+    }
+
+    private static Intrinsic insns(final int ... opcodes) {
+        return mv -> {
+            for (int opcode : opcodes) {
+                if ( opcode != NOP ) mv.visitInsn(opcode);
+            }
+        };
+    }
+
+    private static Intrinsic comparison(final int compareOpcode, final int jumpOpcode) {
+        return mv -> {
+            final Label trueLabel = new Label(), endLabel = new Label();
+            if ( compareOpcode != NOP ) mv.visitInsn(compareOpcode);
+            mv.visitJumpInsn(jumpOpcode, trueLabel);
+            mv.visitInsn(ICONST_0);
+            mv.visitJumpInsn(GOTO, endLabel);
+            mv.visitLabel(trueLabel);
+            mv.visitInsn(ICONST_1);
+            mv.visitLabel(endLabel);
+        };
+    }
+
+    /**
+     * Emits the instructions of a binary operator in place of a call to its operator method, where the operator method
+     * is a built-in primitive operator function. The operands must already be on the operand stack.
+     *
+     * @param mv the method visitor to which instructions are emitted.
+     * @param operator the binary operator.
+     * @param operatorMethod the operator method resolved for the operands.
+     * @return true if the operator was emitted in-line, or false if no intrinsic applies and the operator method must be
+     * called.
+     */
+    public static boolean emitBinaryOperator(final MethodVisitor mv, final Operator operator, final Method operatorMethod) {
+        final Class<?>[] paramTypes = operatorMethod.getParameterTypes();
+        if ( paramTypes.length != 2 || !BUILT_IN_OPERATOR_FUNCTIONS.contains(operatorMethod.getDeclaringClass()) ) return false;
+
+        final Intrinsic intrinsic = BINARY_INTRINSICS.get(new Key(operator, paramTypes[0], paramTypes[1]));
+        if ( intrinsic == null ) return false;
+
+        intrinsic.emit(mv);
+        return true;
+    }
+
+    /**
+     * Emits the instructions of a static method call in place of the call itself, where the method is a built-in unary
+     * operator function on a primitive operand. The operand must already be on the operand stack.
+     *
+     * @param mv the method visitor to which instructions are emitted.
+     * @param declaringClass the class declaring the method called.
+     * @param methodName the name of the method called.
+     * @param paramTypes the parameter types of the method called.
+     * @return true if the method was emitted in-line, or false if no intrinsic applies and the method must be called.
+     */
+    public static boolean emitStaticMethodCall(final MethodVisitor mv, final Class<?> declaringClass, final String methodName, final List<Class<?>> paramTypes) {
+        if ( declaringClass != UnaryFunctions.class || !"unaryMinus".equals(methodName) || paramTypes.size() != 1 ) return false;
+
+        final Intrinsic intrinsic = UNARY_MINUS_INTRINSICS.get(paramTypes.get(0));
+        if ( intrinsic == null ) return false;
+
+        intrinsic.emit(mv);
+        return true;
+    }
+
+    private static final class Key {
+        private final Operator operator;
+        private final Class<?> lhsType;
+        private final Class<?> rhsType;
+
+        private Key(final Operator operator, final Class<?> lhsType, final Class<?> rhsType) {
+            this.operator = operator;
+            this.lhsType = lhsType;
+            this.rhsType = rhsType;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return operator == key.operator && lhsType == key.lhsType && rhsType == key.rhsType;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(operator, lhsType, rhsType);
+        }
+    }
+}
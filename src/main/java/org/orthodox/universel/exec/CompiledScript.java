@@ -0,0 +1,103 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.exec;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * A pre-linked, directly invocable entry point to a compiled script. Once obtained, a compiled script may be evaluated
+ * repeatedly, and from any thread, without reflective method lookup or per-call argument arrays.
+ *
+ * @param <B> the type of binding passed to the script on evaluation.
+ * @param <R> the type of result returned by the script.
+ */
+@FunctionalInterface
+public interface CompiledScript<B, R> {
+    /**
+     * Evaluates the script against the given binding.
+     *
+     * @param binding the binding for this evaluation, which may be null.
+     * @return the result of the script, which may be null.
+     */
+    R evaluate(B binding);
+
+    /**
+     * Evaluates the script against the given binding within the given fork/join pool, so that any navigations compiled
+     * for parallel evaluation are parallelised on that pool rather than on the common pool.
+     *
+     * @param binding the binding for this evaluation, which may be null.
+     * @param pool the pool on which the script, and any parallel navigations within it, are to be evaluated.
+     * @return the result of the script, which may be null.
+     */
+    default R evaluate(B binding, ForkJoinPool pool) {
+        if (ForkJoinTask.getPool() == pool) return evaluate(binding);
+
+        return pool.submit(() -> evaluate(binding)).join();
+    }
+
+    /**
+     * Evaluates a script which yields a <code>boolean</code> result against the given binding.
+     *
+     * @param binding the binding for this evaluation, which may be null.
+     * @return the boolean result of the script.
+     */
+    default boolean evaluateBoolean(B binding) {
+        return (Boolean)evaluate(binding);
+    }
+
+    /**
+     * Evaluates a script which yields an <code>int</code> result against the given binding.
+     *
+     * @param binding the binding for this evaluation, which may be null.
+     * @return the int result of the script.
+     */
+    default int evaluateInt(B binding) {
+        return ((Number)evaluate(binding)).intValue();
+    }
+
+    /**
+     * Evaluates a script which yields a <code>long</code> result against the given binding.
+     *
+     * @param binding the binding for this evaluation, which may be null.
+     * @return the long result of the script.
+     */
+    default long evaluateLong(B binding) {
+        return ((Number)evaluate(binding)).longValue();
+    }
+
+    /**
+     * Evaluates a script which yields a <code>double</code> result against the given binding.
+     *
+     * @param binding the binding for this evaluation, which may be null.
+     * @return the double result of the script.
+     */
+    default double evaluateDouble(B binding) {
+        return ((Number)evaluate(binding)).doubleValue();
+    }
+}
@@ -37,13 +37,20 @@ import org.orthodox.universel.ast.navigation.ReductionNodeTest;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
-import static java.util.Collections.emptyList;
-import static java.util.Collections.emptyMap;
+import static java.util.Collections.*;
 import static org.beanplanet.core.lang.TypeUtil.ensureNonPrimitiveType;
 
 /**
- * A highly concurrent implementation of registry of binary operator functions.
+ * A highly concurrent implementation of registry of navigators.
+ *
+ * <p>
+ * The navigators resolved for each combination of from type, axis and node test are memoised, until the registry is
+ * next changed, and are returned as immutable lists shared between lookups. The supertype hierarchy of each from type,
+ * in the order searched, is also retained. Memoised lookups are held against the from type in a {@link ClassValue}, so
+ * the registry never prevents the types navigated, or their class loaders, from being unloaded.
+ * </p>
  */
 public class ConcurrentNavigatorRegistry implements NavigatorRegistry {
     private Map<Class<?>, Map<String, Map<String, List<NavigatorFunction>>>> mappingNavigators = new ConcurrentHashMap<>();
@@ -51,6 +58,8 @@ public class ConcurrentNavigatorRegistry implements NavigatorRegistry {
     private Map<Class<?>, Map<String, Map<Class<? extends ReductionNodeTest>, List<NavigatorFunction>>>> reductionNavigators = new ConcurrentHashMap<>();
     private static final NameTest WILDCARD_NAMETEST = new NameTest(null, "*");
 
+    private volatile ClassValue<ResolvedNavigators> resolvedNavigators = newResolvedNavigators();
+
     @Override
     public void addMappingNavigator(final Class<?> fromType, final List<String> axes, final List<String> names, final NavigatorFunction navigator) {
         for (String axis : axes) {
@@ -60,6 +69,7 @@ public class ConcurrentNavigatorRegistry implements NavigatorRegistry {
                                       .computeIfAbsent(name, k -> new ArrayList<>(Collections.singletonList(navigator)));
             }
         }
+        clearResolvedNavigators();
     }
 
     @Override
@@ -71,6 +81,7 @@ public class ConcurrentNavigatorRegistry implements NavigatorRegistry {
                                       .computeIfAbsent(name, k -> new ArrayList<>(Collections.singletonList(navigator)));
             }
         }
+        clearResolvedNavigators();
     }
 
     @Override
@@ -80,6 +91,7 @@ public class ConcurrentNavigatorRegistry implements NavigatorRegistry {
                                     .computeIfAbsent(axis, k -> new MultiValueListMapImpl<>())
                                     .computeIfAbsent(reductionType, k -> new ArrayList<>(Collections.singletonList(navigator)));
         }
+        clearResolvedNavigators();
     }
 
     @SuppressWarnings("unchecked")
@@ -97,66 +109,124 @@ public class ConcurrentNavigatorRegistry implements NavigatorRegistry {
     }
 
     public List<NavigatorFunction> lookupNameNavigators(final Class<?> fromType, final NavigationAxisAndNodeTest<NameTest> step) {
+        return resolved(resolvedNavigators.get(fromType).nameNavigators, new LookupKey(step.getAxis(), step.getNodeTest().getName()), k -> resolveNameNavigators(fromType, step));
+    }
+
+    private List<NavigatorFunction> resolveNameNavigators(final Class<?> fromType, final NavigationAxisAndNodeTest<NameTest> step) {
         //--------------------------------------------------------------------------------------------------------------
         // Look for navigator matches in the following order:
         // 1) an exact match navigator on type, over the given axis and on the given name, then
         // 2) an exact match navigator on type, over the given axis and on the wildcard name.
         // 3) As above, but on the supertype hierarchy.
         //--------------------------------------------------------------------------------------------------------------
-        TypeTree fromTypeTree = new TypeTree(null, fromType);
         List<NavigatorFunction> navigators = new ArrayList<>();
-        for (TreeNode<Class<?>> fromTypeNode : fromTypeTree.postorderIterable()) {
-            navigators.addAll(mappingNavigators.getOrDefault(fromTypeNode.getManagedObject(), emptyMap())
+        for (Class<?> type : typeHierarchyOf(fromType)) {
+            navigators.addAll(mappingNavigators.getOrDefault(type, emptyMap())
                                                .getOrDefault(step.getAxis(), emptyMap())
                                                .getOrDefault(step.getNodeTest().getName(), emptyList()));
 
-            navigators.addAll(mappingNavigators.getOrDefault(fromTypeNode.getManagedObject(), emptyMap())
+            navigators.addAll(mappingNavigators.getOrDefault(type, emptyMap())
                                                .getOrDefault(step.getAxis(), emptyMap())
                                                .getOrDefault(WILDCARD_NAMETEST.getName(), emptyList()));
         }
 
-        return navigators;
+        return immutable(navigators);
     }
 
     public List<NavigatorFunction> lookupMethodCallNavigators(final Class<?> fromType, final NavigationAxisAndNodeTest<MethodCall> step) {
+        return resolved(resolvedNavigators.get(fromType).methodCallNavigators, new LookupKey(step.getAxis(), step.getNodeTest().getName().getName()), k -> resolveMethodCallNavigators(fromType, step));
+    }
+
+    private List<NavigatorFunction> resolveMethodCallNavigators(final Class<?> fromType, final NavigationAxisAndNodeTest<MethodCall> step) {
         //--------------------------------------------------------------------------------------------------------------
         // Look for navigator matches in the following order:
         // 1) an exact match navigator on type, over the given axis and on the given name and parameters, then
         // 2) an exact match navigator on type, over the given axis and on the wildcard name and parameters, then
         // 3) As above, but on the supertype hierarchy.
         //--------------------------------------------------------------------------------------------------------------
-        TypeTree fromTypeTree = new TypeTree(null, fromType);
         List<NavigatorFunction> navigators = new ArrayList<>();
-        for (TreeNode<Class<?>> fromTypeNode : fromTypeTree.postorderIterable()) {
-            navigators.addAll(methodNavigators.getOrDefault(fromTypeNode.getManagedObject(), emptyMap())
+        for (Class<?> type : typeHierarchyOf(fromType)) {
+            navigators.addAll(methodNavigators.getOrDefault(type, emptyMap())
                                                .getOrDefault(step.getAxis(), emptyMap())
                                                .getOrDefault(step.getNodeTest().getName().getName(), emptyList()));
 
-            navigators.addAll(methodNavigators.getOrDefault(fromTypeNode.getManagedObject(), emptyMap())
+            navigators.addAll(methodNavigators.getOrDefault(type, emptyMap())
                                                .getOrDefault(step.getAxis(), emptyMap())
                                                .getOrDefault(WILDCARD_NAMETEST.getName(), emptyList()));
         }
 
-        return navigators;
+        return immutable(navigators);
     }
 
 
     public List<NavigatorFunction> lookupReductionNavigators(final Class<?> fromType, final NavigationAxisAndNodeTest<? extends ReductionNodeTest> step) {
+        return resolved(resolvedNavigators.get(fromType).reductionNavigators, new LookupKey(step.getAxis(), step.getNodeTest().getClass()), k -> resolveReductionNavigators(fromType, step));
+    }
+
+    private List<NavigatorFunction> resolveReductionNavigators(final Class<?> fromType, final NavigationAxisAndNodeTest<? extends ReductionNodeTest> step) {
         //--------------------------------------------------------------------------------------------------------------
         // Look for navigator matches in the following order:
         // 1) an exact match navigator on type, over the given axis and on the given name, then
         // 2) an exact match navigator on type, over the given axis and on the wildcard name.
         // 3) As above, but on the supertype hierarchy.
         //--------------------------------------------------------------------------------------------------------------
-        TypeTree fromTypeTree = new TypeTree(null, ensureNonPrimitiveType(fromType));
         List<NavigatorFunction> navigators = new ArrayList<>();
-        for (TreeNode<Class<?>> fromTypeNode : fromTypeTree.postorderIterable()) {
-            navigators.addAll(reductionNavigators.getOrDefault(fromTypeNode.getManagedObject(), emptyMap())
+        for (Class<?> type : typeHierarchyOf(ensureNonPrimitiveType(fromType))) {
+            navigators.addAll(reductionNavigators.getOrDefault(type, emptyMap())
                                                .getOrDefault(step.getAxis(), emptyMap())
                                                .getOrDefault(step.getNodeTest().getClass(), emptyList()));
         }
 
-        return navigators;
+        return immutable(navigators);
+    }
+
+    private static List<NavigatorFunction> resolved(final ConcurrentHashMap<LookupKey, List<NavigatorFunction>> resolvedNavigators,
+                                                    final LookupKey key,
+                                                    final Function<LookupKey, List<NavigatorFunction>> resolver) {
+        List<NavigatorFunction> navigators = resolvedNavigators.get(key);
+        return navigators != null ? navigators : resolvedNavigators.computeIfAbsent(key, resolver);
+    }
+
+    private static List<NavigatorFunction> immutable(final List<NavigatorFunction> navigators) {
+        if ( navigators.isEmpty() ) return emptyList();
+        return navigators.size() == 1 ? singletonList(navigators.get(0)) : unmodifiableList(navigators);
+    }
+
+    /**
+     * Gets the given type and its supertypes, in the order searched for navigators: a post-order traversal of the type
+     * hierarchy tree.
+     *
+     * @param fromType the type whose hierarchy is to be returned.
+     * @return the types in the hierarchy of the given type.
+     */
+    private List<Class<?>> typeHierarchyOf(final Class<?> fromType) {
+        final ResolvedNavigators resolved = resolvedNavigators.get(fromType);
+        List<Class<?>> hierarchy = resolved.typeHierarchy;
+        if ( hierarchy == null ) {
+            List<Class<?>> types = new ArrayList<>();
+            for (TreeNode<Class<?>> typeNode : new TypeTree(null, fromType).postorderIterable()) {
+                types.add(typeNode.getManagedObject());
+            }
+            hierarchy = resolved.typeHierarchy = unmodifiableList(types);
+        }
+        return hierarchy;
+    }
+
+    /**
+     * Discards all memoised lookups and type hierarchies. The memo is replaced, rather than cleared, as a
+     * {@link ClassValue} cannot be cleared of the values it holds for every class.
+     */
+    private void clearResolvedNavigators() {
+        resolvedNavigators = newResolvedNavigators();
+    }
+
+    private static ClassValue<ResolvedNavigators> newResolvedNavigators() {
+        return new ClassValue<ResolvedNavigators>() {
+            @Override
+            protected ResolvedNavigators computeValue(final Class<?> fromType) {
+                return new ResolvedNavigators();
+            }
+        };
     }
 
     @Override
@@ -175,6 +245,43 @@ public class ConcurrentNavigatorRegistry implements NavigatorRegistry {
     @Override
     public void clear() {
         mappingNavigators.clear();
-        reductionNavigators.clear();;
+        methodNavigators.clear();
+        reductionNavigators.clear();
+        clearResolvedNavigators();
+    }
+
+    /**
+     * The navigators resolved from a single from type, and the type's supertype hierarchy.
+     */
+    private static final class ResolvedNavigators {
+        private final ConcurrentHashMap<LookupKey, List<NavigatorFunction>> nameNavigators = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<LookupKey, List<NavigatorFunction>> methodCallNavigators = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<LookupKey, List<NavigatorFunction>> reductionNavigators = new ConcurrentHashMap<>();
+        private volatile List<Class<?>> typeHierarchy;
+    }
+
+    private static final class LookupKey {
+        private final String axis;
+        private final Object nodeTestKey;
+        private final int hashCode;
+
+        private LookupKey(final String axis, final Object nodeTestKey) {
+            this.axis = axis;
+            this.nodeTestKey = nodeTestKey;
+            this.hashCode = Objects.hash(axis, nodeTestKey);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if ( this == o ) return true;
+            if ( !(o instanceof LookupKey) ) return false;
+            LookupKey other = (LookupKey)o;
+            return Objects.equals(axis, other.axis) && Objects.equals(nodeTestKey, other.nodeTestKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
     }
 }
@@ -0,0 +1,379 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.exec.navigation;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Aggregate navigation reduction functions. Each aggregates its stream in a single pass, through primitive or
+ * <code>BigDecimal</code>/<code>BigInteger</code> accumulators, without collecting the stream. Null elements are
+ * ignored by all but the count, and the minimum, maximum and average of an empty stream are null.
+ */
+public class NavigationAggregateFunctions {
+    /** The precision to which the average of a stream of <code>BigDecimal</code> or <code>BigInteger</code> values is calculated. */
+    public static final MathContext AVERAGE_MATH_CONTEXT = MathContext.DECIMAL128;
+
+    /**
+     * Sums a stream of integral numbers.
+     *
+     * @param stream the stream of numbers to be summed.
+     * @return the sum of the numbers, which is zero for an empty stream.
+     */
+    public static long sumLong(final Stream<? extends Number> stream) {
+        return stream.filter(Objects::nonNull).mapToLong(Number::longValue).sum();
+    }
+
+    /**
+     * Sums a stream of floating point numbers, or of numbers whose precision is not known, such as {@link Number} itself.
+     * The sum is exact only up to 2<sup>53</sup>, beyond which integral values are rounded.
+     *
+     * @param stream the stream of numbers to be summed.
+     * @return the sum of the numbers, which is zero for an empty stream.
+     */
+    public static double sumDouble(final Stream<? extends Number> stream) {
+        return stream.filter(Objects::nonNull).mapToDouble(Number::doubleValue).sum();
+    }
+
+    /**
+     * Sums a stream of <code>BigDecimal</code> values.
+     *
+     * @param stream the stream of values to be summed.
+     * @return the sum of the values, which is zero for an empty stream.
+     */
+    public static BigDecimal sumBigDecimal(final Stream<BigDecimal> stream) {
+        return stream.filter(Objects::nonNull).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    /**
+     * Sums a stream of <code>BigInteger</code> values.
+     *
+     * @param stream the stream of values to be summed.
+     * @return the sum of the values, which is zero for an empty stream.
+     */
+    public static BigInteger sumBigInteger(final Stream<BigInteger> stream) {
+        return stream.filter(Objects::nonNull).reduce(BigInteger.ZERO, BigInteger::add);
+    }
+
+    /**
+     * Sums a stream of <code>int</code> values, without overflow.
+     *
+     * @param stream the stream of values to be summed.
+     * @return the sum of the values, which is zero for an empty stream.
+     */
+    public static long sum(final IntStream stream) {
+        return stream.asLongStream().sum();
+    }
+
+    /**
+     * Sums a stream of <code>long</code> values.
+     *
+     * @param stream the stream of values to be summed.
+     * @return the sum of the values, which is zero for an empty stream.
+     */
+    public static long sum(final LongStream stream) {
+        return stream.sum();
+    }
+
+    /**
+     * Sums a stream of <code>double</code> values.
+     *
+     * @param stream the stream of values to be summed.
+     * @return the sum of the values, which is zero for an empty stream.
+     */
+    public static double sum(final DoubleStream stream) {
+        return stream.sum();
+    }
+
+    /**
+     * Finds the least of a stream of comparable values.
+     *
+     * @param stream the stream of values.
+     * @return the least value, or null if the stream has no non-null values.
+     */
+    public static <T extends Comparable<? super T>> T min(final Stream<T> stream) {
+        return stream.filter(Objects::nonNull).min(Comparator.naturalOrder()).orElse(null);
+    }
+
+    /**
+     * Finds the greatest of a stream of comparable values.
+     *
+     * @param stream the stream of values.
+     * @return the greatest value, or null if the stream has no non-null values.
+     */
+    public static <T extends Comparable<? super T>> T max(final Stream<T> stream) {
+        return stream.filter(Objects::nonNull).max(Comparator.naturalOrder()).orElse(null);
+    }
+
+    /**
+     * Finds the least of a stream of <code>int</code> values.
+     *
+     * @param stream the stream of values.
+     * @return the least value, or null if the stream is empty.
+     */
+    public static Integer min(final IntStream stream) {
+        return valueOf(stream.min());
+    }
+
+    /**
+     * Finds the greatest of a stream of <code>int</code> values.
+     *
+     * @param stream the stream of values.
+     * @return the greatest value, or null if the stream is empty.
+     */
+    public static Integer max(final IntStream stream) {
+        return valueOf(stream.max());
+    }
+
+    /**
+     * Finds the least of a stream of <code>long</code> values.
+     *
+     * @param stream the stream of values.
+     * @return the least value, or null if the stream is empty.
+     */
+    public static Long min(final LongStream stream) {
+        return valueOf(stream.min());
+    }
+
+    /**
+     * Finds the greatest of a stream of <code>long</code> values.
+     *
+     * @param stream the stream of values.
+     * @return the greatest value, or null if the stream is empty.
+     */
+    public static Long max(final LongStream stream) {
+        return valueOf(stream.max());
+    }
+
+    /**
+     * Finds the least of a stream of <code>double</code> values.
+     *
+     * @param stream the stream of values.
+     * @return the least value, or null if the stream is empty.
+     */
+    public static Double min(final DoubleStream stream) {
+        return valueOf(stream.min());
+    }
+
+    /**
+     * Finds the greatest of a stream of <code>double</code> values.
+     *
+     * @param stream the stream of values.
+     * @return the greatest value, or null if the stream is empty.
+     */
+    public static Double max(final DoubleStream stream) {
+        return valueOf(stream.max());
+    }
+
+    /**
+     * Averages a stream of numbers.
+     *
+     * @param stream the stream of numbers to be averaged.
+     * @return the arithmetic mean of the numbers, or null if the stream has no non-null numbers.
+     */
+    public static Double average(final Stream<? extends Number> stream) {
+        return valueOf(stream.filter(Objects::nonNull).mapToDouble(Number::doubleValue).average());
+    }
+
+    /**
+     * Averages a stream of <code>BigDecimal</code> values, to the precision of {@link #AVERAGE_MATH_CONTEXT}.
+     *
+     * @param stream the stream of values to be averaged.
+     * @return the arithmetic mean of the values, or null if the stream has no non-null values.
+     */
+    public static BigDecimal averageBigDecimal(final Stream<BigDecimal> stream) {
+        return stream.filter(Objects::nonNull)
+                     .collect(BigDecimalAverage::new, BigDecimalAverage::add, BigDecimalAverage::combine)
+                     .average();
+    }
+
+    /**
+     * Averages a stream of <code>BigInteger</code> values, to the precision of {@link #AVERAGE_MATH_CONTEXT}.
+     *
+     * @param stream the stream of values to be averaged.
+     * @return the arithmetic mean of the values, or null if the stream has no non-null values.
+     */
+    public static BigDecimal averageBigInteger(final Stream<BigInteger> stream) {
+        return averageBigDecimal(stream.filter(Objects::nonNull).map(BigDecimal::new));
+    }
+
+    /**
+     * Averages a stream of <code>int</code> values.
+     *
+     * @param stream the stream of values to be averaged.
+     * @return the arithmetic mean of the values, or null if the stream is empty.
+     */
+    public static Double average(final IntStream stream) {
+        return valueOf(stream.average());
+    }
+
+    /**
+     * Averages a stream of <code>long</code> values.
+     *
+     * @param stream the stream of values to be averaged.
+     * @return the arithmetic mean of the values, or null if the stream is empty.
+     */
+    public static Double average(final LongStream stream) {
+        return valueOf(stream.average());
+    }
+
+    /**
+     * Averages a stream of <code>double</code> values.
+     *
+     * @param stream the stream of values to be averaged.
+     * @return the arithmetic mean of the values, or null if the stream is empty.
+     */
+    public static Double average(final DoubleStream stream) {
+        return valueOf(stream.average());
+    }
+
+    /**
+     * Finds the first non-null element of a stream, navigating no further elements once it is found.
+     *
+     * @param stream the stream whose first element is to be found.
+     * @return the first non-null element of the stream, or null if the stream has no non-null elements.
+     */
+    public static <T> T first(final Stream<T> stream) {
+        return stream.filter(Objects::nonNull).findFirst().orElse(null);
+    }
+
+    /**
+     * Finds any non-null element of a stream, navigating no further elements once it is found. Unlike
+     * {@link #first(Stream)}, a parallel stream may return whichever element it finds first.
+     *
+     * @param stream the stream any of whose elements is to be found.
+     * @return a non-null element of the stream, or null if the stream has no non-null elements.
+     */
+    public static <T> T any(final Stream<T> stream) {
+        return stream.filter(Objects::nonNull).findAny().orElse(null);
+    }
+
+    /**
+     * Finds the first element of a stream of <code>int</code> values.
+     *
+     * @param stream the stream whose first value is to be found.
+     * @return the first value, or null if the stream is empty.
+     */
+    public static Integer first(final IntStream stream) {
+        return valueOf(stream.findFirst());
+    }
+
+    /**
+     * Finds any element of a stream of <code>int</code> values.
+     *
+     * @param stream the stream any of whose values is to be found.
+     * @return a value of the stream, or null if the stream is empty.
+     */
+    public static Integer any(final IntStream stream) {
+        return valueOf(stream.findAny());
+    }
+
+    /**
+     * Finds the first element of a stream of <code>long</code> values.
+     *
+     * @param stream the stream whose first value is to be found.
+     * @return the first value, or null if the stream is empty.
+     */
+    public static Long first(final LongStream stream) {
+        return valueOf(stream.findFirst());
+    }
+
+    /**
+     * Finds any element of a stream of <code>long</code> values.
+     *
+     * @param stream the stream any of whose values is to be found.
+     * @return a value of the stream, or null if the stream is empty.
+     */
+    public static Long any(final LongStream stream) {
+        return valueOf(stream.findAny());
+    }
+
+    /**
+     * Finds the first element of a stream of <code>double</code> values.
+     *
+     * @param stream the stream whose first value is to be found.
+     * @return the first value, or null if the stream is empty.
+     */
+    public static Double first(final DoubleStream stream) {
+        return valueOf(stream.findFirst());
+    }
+
+    /**
+     * Finds any element of a stream of <code>double</code> values.
+     *
+     * @param stream the stream any of whose values is to be found.
+     * @return a value of the stream, or null if the stream is empty.
+     */
+    public static Double any(final DoubleStream stream) {
+        return valueOf(stream.findAny());
+    }
+
+    private static Integer valueOf(final OptionalInt value) {
+        return value.isPresent() ? value.getAsInt() : null;
+    }
+
+    private static Long valueOf(final OptionalLong value) {
+        return value.isPresent() ? value.getAsLong() : null;
+    }
+
+    private static Double valueOf(final OptionalDouble value) {
+        return value.isPresent() ? value.getAsDouble() : null;
+    }
+
+    /**
+     * The mutable single-pass accumulator of a <code>BigDecimal</code> average.
+     */
+    private static final class BigDecimalAverage {
+        private BigDecimal sum = BigDecimal.ZERO;
+        private long count;
+
+        private void add(final BigDecimal value) {
+            sum = sum.add(value);
+            count++;
+        }
+
+        private void combine(final BigDecimalAverage other) {
+            sum = sum.add(other.sum);
+            count += other.count;
+        }
+
+        private BigDecimal average() {
+            return count == 0 ? null : sum.divide(BigDecimal.valueOf(count), AVERAGE_MATH_CONTEXT);
+        }
+    }
+}
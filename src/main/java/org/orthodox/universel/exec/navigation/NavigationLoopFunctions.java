@@ -0,0 +1,96 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.exec.navigation;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+
+/**
+ * Navigation stage implementation functions, supporting navigations fused into imperative loops.
+ */
+public class NavigationLoopFunctions {
+    /** The capacity of a result collection whose source sequence is of unknown size. */
+    private static final int DEFAULT_CAPACITY = 10;
+
+    /**
+     * Creates a list to accumulate the results of a navigation loop, presized to the source sequence of the loop.
+     *
+     * @param source the sequence iterated by the outermost loop: a collection, array or other iterable.
+     * @return a new, empty, list with capacity for at least as many elements as the source sequence.
+     */
+    public static <T> ArrayList<T> newResultList(final Object source) {
+        return new ArrayList<>(sizeOf(source));
+    }
+
+    /**
+     * Creates a set to accumulate the results of a navigation loop, presized to the source sequence of the loop.
+     *
+     * @param source the sequence iterated by the outermost loop: a collection, array or other iterable.
+     * @return a new, empty, insertion-ordered set with capacity for at least as many elements as the source sequence
+     * without rehashing.
+     */
+    public static <T> LinkedHashSet<T> newResultSet(final Object source) {
+        return new LinkedHashSet<>(Math.max((int)(sizeOf(source) / .75f) + 1, 16));
+    }
+
+    /**
+     * Copies the results of a navigation loop to an array.
+     *
+     * @param elements the accumulated results of the navigation loop.
+     * @param componentType the component type of the array to be returned.
+     * @return an array, of the given component type, containing the elements in iteration order.
+     */
+    public static Object[] toArray(final Collection<?> elements, final Class<?> componentType) {
+        return elements.toArray((Object[])Array.newInstance(componentType, elements.size()));
+    }
+
+    /**
+     * Checks an index filter of a navigation loop selected an element.
+     *
+     * @param index the index of the element to be selected.
+     * @param size the number of elements presented to the index filter.
+     * @throws IndexOutOfBoundsException if the index is outside the elements presented to the index filter.
+     */
+    public static void checkSelectedIndex(final int index, final int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private static int sizeOf(final Object source) {
+        if (source instanceof Collection) {
+            return ((Collection<?>)source).size();
+        } else if (source instanceof Object[]) {
+            return ((Object[])source).length;
+        }
+
+        return DEFAULT_CAPACITY;
+    }
+}
@@ -30,7 +30,12 @@ package org.orthodox.universel.exec.navigation;
 
 import org.orthodox.universel.exec.operators.range.NumericRange;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 /**
@@ -47,4 +52,89 @@ public class NavigationStreamFunctions {
     public static <T> Stream<T> indexRangeStream(final List<T> list, final NumericRange<?> range) {
         return list.subList(range.getLowerBound().intValue(), range.getUpperBound().intValue()+1).stream();
     }
+
+    /**
+     * Streams the elements of a collection, in parallel if the collection has at least the given number of elements.
+     *
+     * @param collection the collection whose elements are to be streamed, which may be null.
+     * @param parallelThreshold the number of elements from which the collection is to be streamed in parallel.
+     * @return a stream of the elements of the collection, in encounter order, or null if the collection was null.
+     */
+    public static <T> Stream<T> stream(final Collection<T> collection, final int parallelThreshold) {
+        if (collection == null) return null;
+
+        return collection.size() >= parallelThreshold ? collection.parallelStream() : collection.stream();
+    }
+
+    /**
+     * Streams the elements of an array, in parallel if the array has at least the given number of elements.
+     *
+     * @param array the array whose elements are to be streamed, which may be null.
+     * @param parallelThreshold the number of elements from which the array is to be streamed in parallel.
+     * @return a stream of the elements of the array, in encounter order, or null if the array was null.
+     */
+    public static <T> Stream<T> stream(final T[] array, final int parallelThreshold) {
+        if (array == null) return null;
+
+        final Stream<T> stream = Arrays.stream(array);
+        return array.length >= parallelThreshold ? stream.parallel() : stream;
+    }
+
+    /**
+     * Streams the elements of an <code>int</code> array, in parallel if the array has at least the given number of
+     * elements.
+     *
+     * @param array the array whose elements are to be streamed, which may be null.
+     * @param parallelThreshold the number of elements from which the array is to be streamed in parallel.
+     * @return a stream of the elements of the array, in encounter order, or null if the array was null.
+     */
+    public static IntStream stream(final int[] array, final int parallelThreshold) {
+        if (array == null) return null;
+
+        final IntStream stream = Arrays.stream(array);
+        return array.length >= parallelThreshold ? stream.parallel() : stream;
+    }
+
+    /**
+     * Streams the elements of a <code>long</code> array, in parallel if the array has at least the given number of
+     * elements.
+     *
+     * @param array the array whose elements are to be streamed, which may be null.
+     * @param parallelThreshold the number of elements from which the array is to be streamed in parallel.
+     * @return a stream of the elements of the array, in encounter order, or null if the array was null.
+     */
+    public static LongStream stream(final long[] array, final int parallelThreshold) {
+        if (array == null) return null;
+
+        final LongStream stream = Arrays.stream(array);
+        return array.length >= parallelThreshold ? stream.parallel() : stream;
+    }
+
+    /**
+     * Streams the elements of a <code>double</code> array, in parallel if the array has at least the given number of
+     * elements.
+     *
+     * @param array the array whose elements are to be streamed, which may be null.
+     * @param parallelThreshold the number of elements from which the array is to be streamed in parallel.
+     * @return a stream of the elements of the array, in encounter order, or null if the array was null.
+     */
+    public static DoubleStream stream(final double[] array, final int parallelThreshold) {
+        if (array == null) return null;
+
+        final DoubleStream stream = Arrays.stream(array);
+        return array.length >= parallelThreshold ? stream.parallel() : stream;
+    }
+
+    /**
+     * Views a stream as an iterable, whose elements are navigated only as they are iterated. As the stream may be
+     * consumed only once, so the iterable may be iterated only once.
+     *
+     * @param stream the stream to be viewed as an iterable, which may be null.
+     * @return a single-use iterable over the elements of the stream, or null if the stream was null.
+     */
+    public static <T> Iterable<T> iterable(final Stream<T> stream) {
+        if (stream == null) return null;
+
+        return stream::iterator;
+    }
 }
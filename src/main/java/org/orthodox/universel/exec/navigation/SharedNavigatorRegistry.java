@@ -0,0 +1,94 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.exec.navigation;
+
+/**
+ * The process-wide navigator registry. Navigators are discovered once, on first use, and published as an unmodifiable
+ * snapshot which is safe to share between compilations on any thread.
+ *
+ * <p>Where navigators are deployed or redeployed at runtime, {@link #reload()} discovers the navigators afresh and
+ * atomically replaces the snapshot. Compilations already underway continue with the snapshot they started with.</p>
+ */
+public final class SharedNavigatorRegistry {
+    private static volatile NavigatorRegistry instance;
+
+    private static NavigatorLoader loader = new PackageScanNavigatorLoader();
+
+    private SharedNavigatorRegistry() {
+    }
+
+    /**
+     * Gets the current navigator registry snapshot, loading navigators if this is the first use.
+     *
+     * @return the current unmodifiable navigator registry, never null.
+     */
+    public static NavigatorRegistry getInstance() {
+        NavigatorRegistry registry = instance;
+        if ( registry != null ) return registry;
+
+        synchronized (SharedNavigatorRegistry.class) {
+            if ( instance == null ) {
+                instance = load();
+            }
+            return instance;
+        }
+    }
+
+    /**
+     * Discovers navigators afresh and replaces the current snapshot.
+     *
+     * @return the newly loaded unmodifiable navigator registry.
+     */
+    public static NavigatorRegistry reload() {
+        NavigatorRegistry registry = load();
+        synchronized (SharedNavigatorRegistry.class) {
+            instance = registry;
+        }
+        return registry;
+    }
+
+    /**
+     * Sets the strategy used to discover navigators on the next load or {@link #reload()}.
+     *
+     * @param navigatorLoader the navigator loader to use.
+     */
+    public static synchronized void setNavigatorLoader(final NavigatorLoader navigatorLoader) {
+        loader = navigatorLoader;
+    }
+
+    private static NavigatorRegistry load() {
+        NavigatorLoader navigatorLoader;
+        synchronized (SharedNavigatorRegistry.class) {
+            navigatorLoader = loader;
+        }
+
+        NavigatorRegistry registry = new ConcurrentNavigatorRegistry();
+        navigatorLoader.load(registry);
+        return new UnmodifiableNavigatorRegistry(registry);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.exec.navigation;
+
+import org.orthodox.universel.ast.navigation.NavigationAxisAndNodeTest;
+import org.orthodox.universel.ast.navigation.ReductionNodeTest;
+
+import java.util.List;
+
+/**
+ * A read-only view of a navigator registry. All lookups are delegated to the underlying registry and attempts to modify
+ * the registry are rejected.
+ */
+public final class UnmodifiableNavigatorRegistry implements NavigatorRegistry {
+    private final NavigatorRegistry delegate;
+
+    public UnmodifiableNavigatorRegistry(final NavigatorRegistry delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void addMappingNavigator(final Class<?> fromType, final List<String> axes, final List<String> names, final NavigatorFunction navigator) {
+        throw new UnsupportedOperationException("The navigator registry is unmodifiable");
+    }
+
+    @Override
+    public void addMethodNavigator(final Class<?> fromType, final List<String> axes, final List<String> names, final NavigatorFunction navigator) {
+        throw new UnsupportedOperationException("The navigator registry is unmodifiable");
+    }
+
+    @Override
+    public void addReductionNavigator(final Class<?> fromType, final List<String> axes, final Class<? extends ReductionNodeTest> reductionType, final NavigatorFunction navigator) {
+        throw new UnsupportedOperationException("The navigator registry is unmodifiable");
+    }
+
+    @Override
+    public List<NavigatorFunction> lookup(final Class<?> fromType, final NavigationAxisAndNodeTest<?> step) {
+        return delegate.lookup(fromType, step);
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("The navigator registry is unmodifiable");
+    }
+}
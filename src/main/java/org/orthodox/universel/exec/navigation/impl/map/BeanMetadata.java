@@ -0,0 +1,151 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.exec.navigation.impl.map;
+
+import org.beanplanet.core.beans.TypePropertiesSource;
+import org.orthodox.universel.ast.Modifiers;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+import static org.beanplanet.core.lang.TypeUtil.streamMethods;
+
+/**
+ * Introspection metadata of a bean type, as used by the universal bean navigators: the read and write methods of its
+ * readable properties and its public and protected methods, grouped by name and arity.
+ *
+ * <p>
+ * Metadata is held per class in a {@link ClassValue}, so the metadata of a class is reclaimed along with the class
+ * itself when its class loader is unloaded. Properties and method overloads are introspected on first use of each
+ * name and retained thereafter, including the absence of a property or method of the name.
+ * </p>
+ */
+final class BeanMetadata {
+    private static final ClassValue<BeanMetadata> METADATA = new ClassValue<BeanMetadata>() {
+        @Override
+        protected BeanMetadata computeValue(Class<?> type) {
+            return new BeanMetadata(type);
+        }
+    };
+
+    private final Class<?> type;
+    private final ConcurrentHashMap<String, Optional<PropertyMethods>> readableProperties = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Map<Integer, List<Method>>> methodOverloads = new ConcurrentHashMap<>();
+    private TypePropertiesSource<?> typeProperties;
+
+    private BeanMetadata(final Class<?> type) {
+        this.type = type;
+    }
+
+    /**
+     * Returns the introspection metadata of the given type.
+     *
+     * @param type the bean type whose metadata is to be returned.
+     * @return the metadata of the given type, which is created on first request and shared thereafter.
+     */
+    static BeanMetadata forType(final Class<?> type) {
+        return METADATA.get(type);
+    }
+
+    /**
+     * Returns the read and write methods of the readable property of the given name.
+     *
+     * @param name the name of the property.
+     * @return the read and write methods of the property, or empty if the type has no readable property of the name.
+     */
+    Optional<PropertyMethods> getReadableProperty(final String name) {
+        Optional<PropertyMethods> property = readableProperties.get(name);
+        return property != null ? property : readableProperties.computeIfAbsent(name, this::introspectReadableProperty);
+    }
+
+    /**
+     * Returns the public and protected methods of the given name and number of parameters, in the order the methods of
+     * the type are streamed by {@link org.beanplanet.core.lang.TypeUtil#streamMethods}.
+     *
+     * @param name the name of the methods.
+     * @param arity the number of parameters of the methods.
+     * @return the overloaded methods of the given name and arity, which may be empty.
+     */
+    List<Method> getMethodOverloads(final String name, final int arity) {
+        Map<Integer, List<Method>> overloadsByArity = methodOverloads.get(name);
+        if (overloadsByArity == null) {
+            overloadsByArity = methodOverloads.computeIfAbsent(name, this::introspectMethodOverloads);
+        }
+        return overloadsByArity.getOrDefault(arity, emptyList());
+    }
+
+    private synchronized Optional<PropertyMethods> introspectReadableProperty(final String name) {
+        if (typeProperties == null) typeProperties = new TypePropertiesSource<>(type);
+        if (!typeProperties.isReadableProperty(name)) return Optional.empty();
+
+        PropertyDescriptor propertyDescriptor = typeProperties.assertAndGetReadablePropertyDescriptor(name);
+        return Optional.of(new PropertyMethods(propertyDescriptor.getReadMethod(), propertyDescriptor.getWriteMethod()));
+    }
+
+    private Map<Integer, List<Method>> introspectMethodOverloads(final String name) {
+        Map<Integer, List<Method>> overloadsByArity = streamMethods(type, 0, name, null, (Class<?>[]) null)
+                                                          .filter(m -> Modifiers.isPublic(m.getModifiers()) || Modifiers.isProtected(m.getModifiers()))
+                                                          .collect(groupingBy(Method::getParameterCount, toList()));
+        overloadsByArity.replaceAll((arity, overloads) -> unmodifiableList(overloads));
+        return unmodifiableMap(overloadsByArity);
+    }
+
+    /**
+     * The accessor methods of a bean property.
+     */
+    static final class PropertyMethods {
+        private final Method readMethod;
+        private final Method writeMethod;
+
+        PropertyMethods(final Method readMethod, final Method writeMethod) {
+            this.readMethod = readMethod;
+            this.writeMethod = writeMethod;
+        }
+
+        /**
+         * @return the read method of the property.
+         */
+        Method getReadMethod() {
+            return readMethod;
+        }
+
+        /**
+         * @return the write method of the property, or null if the property is read-only.
+         */
+        Method getWriteMethod() {
+            return writeMethod;
+        }
+    }
+}
@@ -28,10 +28,8 @@
 
 package org.orthodox.universel.exec.navigation.impl.map;
 
-import org.beanplanet.core.beans.TypePropertiesSource;
 import org.orthodox.universel.ast.InstanceMethodCall;
 import org.orthodox.universel.ast.MethodCall;
-import org.orthodox.universel.ast.Modifiers;
 import org.orthodox.universel.ast.Node;
 import org.orthodox.universel.ast.navigation.NameTest;
 import org.orthodox.universel.ast.navigation.NavigationAxisAndNodeTest;
@@ -41,15 +39,12 @@ import org.orthodox.universel.exec.navigation.MappingNavigator;
 import org.orthodox.universel.exec.navigation.MethodNavigator;
 import org.orthodox.universel.exec.navigation.Navigator;
 
-import java.beans.PropertyDescriptor;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
-import static java.lang.reflect.Modifier.PROTECTED;
-import static java.lang.reflect.Modifier.PUBLIC;
-import static org.beanplanet.core.lang.TypeUtil.streamMethods;
 import static org.orthodox.universel.ast.TypeInferenceUtil.resolveType;
 
 @Navigator
@@ -58,11 +53,10 @@ public class UniversalBeanNavigators {
     public static Node universalPropertyNavigator(final Class<?> fromType,
                                                   final Node instanceReadAccessor,
                                                   final NavigationAxisAndNodeTest<NameTest> step) {
-        TypePropertiesSource<?> properties = new TypePropertiesSource<>(fromType);
-        if (!properties.isReadableProperty(step.getNodeTest().getName())) return step;
+        Optional<BeanMetadata.PropertyMethods> property = BeanMetadata.forType(fromType).getReadableProperty(step.getNodeTest().getName());
+        if (!property.isPresent()) return step;
 
-        PropertyDescriptor propertyDescriptor = properties.assertAndGetReadablePropertyDescriptor(step.getNodeTest().getName());
-        Method readMethod = propertyDescriptor.getReadMethod();
+        Method readMethod = property.get().getReadMethod();
         return new InstanceMethodCall(step.getTokenImage(),
                                       instanceReadAccessor,
                                       new ResolvedTypeReferenceOld(step.getTokenImage(), readMethod.getDeclaringClass()),
@@ -75,10 +69,11 @@ public class UniversalBeanNavigators {
     public static Node universalMethodNavigator(final Class<?> fromType,
                                                 final Node instanceReadAccessor,
                                                 final NavigationAxisAndNodeTest<MethodCall> step) {
-        final List<Method> matchingMethods = streamMethods(fromType, 0, step.getNodeTest().getName().getName(), null, (Class<?>[]) null)
-                                                 .filter(m -> Modifiers.isPublic(m.getModifiers()) || Modifiers.isProtected(m.getModifiers()))
-                                                 .filter(m -> parameterTypesCompatible(step.getNodeTest(), m))
-                                                 .collect(Collectors.toList());
+        final List<Method> matchingMethods = BeanMetadata.forType(fromType)
+                                                         .getMethodOverloads(step.getNodeTest().getName().getName(), step.getNodeTest().getParameters().size())
+                                                         .stream()
+                                                         .filter(m -> parameterTypesCompatible(step.getNodeTest(), m))
+                                                         .collect(Collectors.toList());
         if (matchingMethods.isEmpty()) return step;
         final Method matchingMethod = matchingMethods.get(matchingMethods.size()-1); // Last method in the overloaded case
         return new InstanceMethodCall(step.getTokenImage(),
@@ -37,9 +37,19 @@ import org.orthodox.universel.ast.allocation.ArrayCreationExpression;
 import org.orthodox.universel.ast.allocation.ObjectCreationExpression;
 import org.orthodox.universel.ast.functional.FunctionalInterfaceObject;
 import org.orthodox.universel.ast.navigation.ArrayNodeTest;
+import org.orthodox.universel.ast.navigation.AnyNodeTest;
+import org.orthodox.universel.ast.navigation.AverageNodeTest;
+import org.orthodox.universel.ast.navigation.CountNodeTest;
+import org.orthodox.universel.ast.navigation.FirstNodeTest;
+import org.orthodox.universel.ast.navigation.IterableNodeTest;
+import org.orthodox.universel.ast.navigation.IteratorNodeTest;
 import org.orthodox.universel.ast.navigation.ListNodeTest;
+import org.orthodox.universel.ast.navigation.MaxNodeTest;
+import org.orthodox.universel.ast.navigation.MinNodeTest;
 import org.orthodox.universel.ast.navigation.NavigationAxisAndNodeTest;
 import org.orthodox.universel.ast.navigation.SetNodeTest;
+import org.orthodox.universel.ast.navigation.StreamNodeTest;
+import org.orthodox.universel.ast.navigation.SumNodeTest;
 import org.orthodox.universel.ast.Name;
 import org.orthodox.universel.ast.Node;
 import org.orthodox.universel.ast.ParameterisedTypeImpl;
@@ -48,14 +58,25 @@ import org.orthodox.universel.ast.methods.LambdaFunction;
 import org.orthodox.universel.ast.type.Parameter;
 import org.orthodox.universel.ast.type.reference.ResolvedTypeReferenceOld;
 import org.orthodox.universel.ast.type.reference.TypeReference;
+import org.orthodox.universel.compiler.BytecodeHelper;
+import org.orthodox.universel.exec.navigation.NavigationAggregateFunctions;
+import org.orthodox.universel.exec.navigation.NavigationStreamFunctions;
 import org.orthodox.universel.exec.navigation.Navigator;
 import org.orthodox.universel.exec.navigation.ReductionNavigator;
+import org.orthodox.universel.symanticanalysis.JvmInstructionNode;
 import org.orthodox.universel.symanticanalysis.name.InternalNodeSequence;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.IntFunction;
 import java.util.function.Supplier;
 import java.util.stream.Collector;
@@ -68,6 +89,8 @@ import static java.util.Collections.singletonList;
 import static org.beanplanet.core.lang.TypeUtil.ensureNonPrimitiveType;
 import static org.beanplanet.core.lang.TypeUtil.forName;
 import static org.orthodox.universel.ast.Modifiers.FINAL;
+import static org.objectweb.asm.Opcodes.CHECKCAST;
+import static org.objectweb.asm.Type.getInternalName;
 import static org.orthodox.universel.ast.Modifiers.valueOf;
 
 @Navigator
@@ -207,4 +230,185 @@ public class UniversalCollectionReductionNavigators {
                                        .build();
         }
     }
+
+    @ReductionNavigator(axis = "default", collectionType = long.class)
+    public static Node countReduction(final Class<?> fromType,
+                                      final Node instanceReadAccessor,
+                                      final NavigationAxisAndNodeTest<CountNodeTest> step
+    ) {
+        return new InstanceMethodCall(step.getTokenImage(),
+                                      instanceReadAccessor,
+                                      new ResolvedTypeReferenceOld(step.getTokenImage(), Stream.class),
+                                      new ResolvedTypeReferenceOld(step.getTokenImage(), long.class),
+                                      "count"
+        );
+    }
+
+    @ReductionNavigator(axis = "default", collectionType = Number.class)
+    public static Node sumReduction(final Class<?> fromType,
+                                    final Node instanceReadAccessor,
+                                    final NavigationAxisAndNodeTest<SumNodeTest> step
+    ) {
+        final Class<?> elementType = ensureNonPrimitiveType(fromType);
+        if (BigDecimal.class.isAssignableFrom(elementType)) {
+            return aggregate(step, "sumBigDecimal", BigDecimal.class);
+        } else if (BigInteger.class.isAssignableFrom(elementType)) {
+            return aggregate(step, "sumBigInteger", BigInteger.class);
+        } else if (isIntegralType(elementType)) {
+            return aggregate(step, "sumLong", long.class);
+        } else if (Number.class.isAssignableFrom(elementType)) {
+            return aggregate(step, "sumDouble", double.class);
+        }
+
+        return null;
+    }
+
+    @ReductionNavigator(axis = "default", collectionType = Comparable.class)
+    public static Node minReduction(final Class<?> fromType,
+                                    final Node instanceReadAccessor,
+                                    final NavigationAxisAndNodeTest<MinNodeTest> step
+    ) {
+        return comparableAggregate(fromType, step, "min");
+    }
+
+    @ReductionNavigator(axis = "default", collectionType = Comparable.class)
+    public static Node maxReduction(final Class<?> fromType,
+                                    final Node instanceReadAccessor,
+                                    final NavigationAxisAndNodeTest<MaxNodeTest> step
+    ) {
+        return comparableAggregate(fromType, step, "max");
+    }
+
+    @ReductionNavigator(axis = "default", collectionType = Number.class)
+    public static Node averageReduction(final Class<?> fromType,
+                                        final Node instanceReadAccessor,
+                                        final NavigationAxisAndNodeTest<AverageNodeTest> step
+    ) {
+        final Class<?> elementType = ensureNonPrimitiveType(fromType);
+        if (BigDecimal.class.isAssignableFrom(elementType)) {
+            return aggregate(step, "averageBigDecimal", BigDecimal.class);
+        } else if (BigInteger.class.isAssignableFrom(elementType)) {
+            return aggregate(step, "averageBigInteger", BigDecimal.class);
+        } else if (Number.class.isAssignableFrom(elementType)) {
+            return aggregate(step, "average", Double.class);
+        }
+
+        return null;
+    }
+
+    @ReductionNavigator(axis = "default", collectionType = Object.class)
+    public static Node firstReduction(final Class<?> fromType,
+                                      final Node instanceReadAccessor,
+                                      final NavigationAxisAndNodeTest<FirstNodeTest> step
+    ) {
+        return checkcast(step, aggregate(step, "first", Object.class), ensureNonPrimitiveType(fromType));
+    }
+
+    @ReductionNavigator(axis = "default", collectionType = Object.class)
+    public static Node anyReduction(final Class<?> fromType,
+                                    final Node instanceReadAccessor,
+                                    final NavigationAxisAndNodeTest<AnyNodeTest> step
+    ) {
+        return checkcast(step, aggregate(step, "any", Object.class), ensureNonPrimitiveType(fromType));
+    }
+
+    @ReductionNavigator(axis = "default", collectionType = Stream.class)
+    public static Node toStreamReduction(final Class<?> fromType,
+                                         final Node instanceReadAccessor,
+                                         final NavigationAxisAndNodeTest<StreamNodeTest> step
+    ) {
+        // The navigation stream, on the stack, is itself the lazy result
+        return stackOperand(step.getTokenImage(), Stream.class);
+    }
+
+    @ReductionNavigator(axis = "default", collectionType = Iterator.class)
+    public static Node toIteratorReduction(final Class<?> fromType,
+                                           final Node instanceReadAccessor,
+                                           final NavigationAxisAndNodeTest<IteratorNodeTest> step
+    ) {
+        return new InstanceMethodCall(step.getTokenImage(),
+                                      instanceReadAccessor,
+                                      new ResolvedTypeReferenceOld(step.getTokenImage(), Stream.class),
+                                      new ResolvedTypeReferenceOld(step.getTokenImage(), Iterator.class),
+                                      "iterator"
+        );
+    }
+
+    @ReductionNavigator(axis = "default", collectionType = Iterable.class)
+    public static Node toIterableReduction(final Class<?> fromType,
+                                           final Node instanceReadAccessor,
+                                           final NavigationAxisAndNodeTest<IterableNodeTest> step
+    ) {
+        return new StaticMethodCall(step.getTokenImage(),
+                                    new ResolvedTypeReferenceOld(step.getTokenImage(), NavigationStreamFunctions.class),
+                                    new ResolvedTypeReferenceOld(step.getTokenImage(), Iterable.class),
+                                    "iterable",
+                                    singletonList(new ResolvedTypeReferenceOld(step.getTokenImage(), Stream.class)),
+                                    singletonList(stackOperand(step.getTokenImage(), Stream.class))
+        );
+    }
+
+    private static Node comparableAggregate(final Class<?> fromType, final NavigationAxisAndNodeTest<?> step, final String name) {
+        final Class<?> elementType = ensureNonPrimitiveType(fromType);
+        if (!Comparable.class.isAssignableFrom(elementType)) return null;
+
+        return checkcast(step, aggregate(step, name, Comparable.class), elementType);
+    }
+
+    /**
+     * Casts the erased result of an aggregate function, on the stack, to the element type of the navigation.
+     */
+    private static Node checkcast(final NavigationAxisAndNodeTest<?> step, final Node aggregate, final Class<?> elementType) {
+        return new JvmInstructionNode(aggregate) {
+            @Override
+            public Type getType() {
+                return new ResolvedTypeReferenceOld(step.getTokenImage(), elementType);
+            }
+
+            @Override
+            public void emit(final BytecodeHelper bch) {
+                bch.peekMethodVisitor().visitTypeInsn(CHECKCAST, getInternalName(elementType));
+            }
+        };
+    }
+
+    /**
+     * Aggregates the stream on the stack through the named function of {@link NavigationAggregateFunctions}.
+     */
+    private static Node aggregate(final NavigationAxisAndNodeTest<?> step, final String name, final Class<?> resultType) {
+        return new StaticMethodCall(step.getTokenImage(),
+                                    new ResolvedTypeReferenceOld(step.getTokenImage(), NavigationAggregateFunctions.class),
+                                    new ResolvedTypeReferenceOld(step.getTokenImage(), resultType),
+                                    name,
+                                    singletonList(new ResolvedTypeReferenceOld(step.getTokenImage(), Stream.class)),
+                                    singletonList(stackOperand(step.getTokenImage(), Stream.class))
+        );
+    }
+
+    /**
+     * An operand already on the stack, such as the stream being reduced, passed to a method call without being loaded.
+     */
+    private static Node stackOperand(final TokenImage tokenImage, final Class<?> type) {
+        return new JvmInstructionNode(tokenImage) {
+            @Override
+            public Type getType() {
+                return new ResolvedTypeReferenceOld(tokenImage, type);
+            }
+
+            @Override
+            public void emit(final BytecodeHelper bch) {
+            }
+        };
+    }
+
+    /**
+     * Whether the given type is one of the JDK's integral number types, whose values are summed exactly as longs. Other
+     * numbers, including {@link Number} itself and numbers of unknown precision, are summed as doubles and so lose
+     * precision for sums beyond 2<sup>53</sup>.
+     */
+    private static boolean isIntegralType(final Class<?> type) {
+        return type == Byte.class || type == Short.class || type == Integer.class || type == Long.class
+               || type == AtomicInteger.class || type == AtomicLong.class
+               || type == LongAdder.class || type == LongAccumulator.class;
+    }
 }
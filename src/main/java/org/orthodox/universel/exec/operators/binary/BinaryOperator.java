@@ -45,4 +45,13 @@ import java.lang.annotation.Target;
 @Retention(RetentionPolicy.RUNTIME)
 public @interface BinaryOperator {
     Operator[] value() default {};
+
+    /**
+     * Whether the operator functions are pure: free of side effects and always returning equal results for equal
+     * operands. Pure operator functions with constant operands may be evaluated once, at compile time. When present on a
+     * class, applies to all of the operator functions of that class.
+     *
+     * @return true if the operator functions are pure, false otherwise.
+     */
+    boolean pure() default false;
 }
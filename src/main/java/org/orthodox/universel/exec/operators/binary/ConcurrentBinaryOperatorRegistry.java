@@ -27,25 +27,47 @@
  */
 package org.orthodox.universel.exec.operators.binary;
 
-import org.beanplanet.core.lang.TypeTree;
-import org.beanplanet.core.models.tree.TreeNode;
 import org.beanplanet.core.util.MultiValueListMapImpl;
 import org.orthodox.universel.ast.Operator;
 
 import java.lang.reflect.Method;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 import static java.util.Arrays.stream;
-import static java.util.Collections.emptyList;
-import static java.util.Collections.emptyMap;
 
 /**
  * A highly concurrent implementation of registry of binary operator functions.
+ *
+ * <p>
+ * Lookups are first made for an operator function declared on exactly the operand types given. Failing that, the
+ * operator function declared on the most specific supertypes of the operand types is chosen: the function whose
+ * operand types are each assignable to those of every other applicable function. Where there is no single most
+ * specific function the lookup is ambiguous, and is resolved deterministically in favour of the function declared on
+ * the nearest supertypes, then the nearest left-hand supertype, then by method signature.
+ * </p>
+ *
+ * <p>
+ * The outcome of every lookup, including lookups finding no operator function, is memoised until the registry is
+ * next changed, so each distinct combination of operator and operand types is resolved only once. Memoised lookups are
+ * held against the left-hand operand type in a {@link ClassValue}, and within that against the right-hand operand type
+ * in a further {@link ClassValue}, so the registry holds no reference to operand types and never prevents them, or their
+ * class loaders, from being unloaded. Lookup counts and timings are available for profiling.
+ * </p>
  */
 public class ConcurrentBinaryOperatorRegistry implements BinaryOperatorRegistry {
     private ConcurrentHashMap<Operator, Map<Class<?>, Map<Class<?>, List<Method>>>> operatorMap = new ConcurrentHashMap<>();
 
+    private volatile ClassValue<ClassValue<Map<Operator, Optional<Method>>>> resolvedLookups = newResolvedLookups();
+
+    private final LongAdder lookupCount = new LongAdder();
+    private final LongAdder resolutionCount = new LongAdder();
+    private final LongAdder ambiguousResolutionCount = new LongAdder();
+    private final LongAdder lookupNanos = new LongAdder();
+    private final LongAdder resolutionNanos = new LongAdder();
+
     @Override
     public void addOperatorMethod(final Method binaryOperatorMethod) {
         final BinaryOperator binaryOperatorAnnotation = binaryOperatorMethod.getAnnotation(BinaryOperator.class);
@@ -55,27 +77,153 @@ public class ConcurrentBinaryOperatorRegistry implements BinaryOperatorRegistry
                                           .computeIfAbsent(binaryOperatorMethod.getParameterTypes()[0],  lhsClass -> new MultiValueListMapImpl<>())
                                           .computeIfAbsent(binaryOperatorMethod.getParameterTypes()[1], rhsClass -> new ArrayList<>(Collections.singletonList(binaryOperatorMethod)))
               );
+        resolvedLookups = newResolvedLookups();
     }
 
     @Override
     public Optional<Method> lookup(Operator operator, Class<?> lhsType, Class<?> rhsType) {
-        Optional<Method> found = operatorMap.getOrDefault(operator, emptyMap()).getOrDefault(lhsType, emptyMap()).getOrDefault(rhsType, emptyList()).stream().findFirst();
-        if ( found.isPresent() ) return found;
-
-        //--------------------------------------------------------------------------------------------------------------
-        // Look for generic implementation of lhs and rhs types.
-        //--------------------------------------------------------------------------------------------------------------
-        TypeTree lhsTypeTree = new TypeTree(null, lhsType);
-        TypeTree rhsTypeTree = new TypeTree(null, rhsType);
-
-        for (TreeNode<Class<?>> lhsGenericType : lhsTypeTree.postorderIterable()) {
-            for (TreeNode<Class<?>> rhsGenericType : rhsTypeTree.postorderIterable()) {
-                found = operatorMap.getOrDefault(operator, emptyMap()).getOrDefault(lhsGenericType.getManagedObject(), emptyMap()).getOrDefault(rhsGenericType.getManagedObject(), emptyList()).stream().findFirst();
-                if ( found.isPresent() ) return found;
+        final long startTime = System.nanoTime();
+        try {
+            if ( lhsType == null || rhsType == null ) return resolve(operator, lhsType, rhsType);
+
+            final Map<Operator, Optional<Method>> lookupsByOperator = resolvedLookups.get(lhsType).get(rhsType);
+            Optional<Method> resolved = lookupsByOperator.get(operator);
+            if ( resolved == null ) {
+                resolved = lookupsByOperator.computeIfAbsent(operator, k -> resolve(operator, lhsType, rhsType));
+            }
+            return resolved;
+        } finally {
+            lookupCount.increment();
+            lookupNanos.add(System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Creates an empty memo of lookups, by left-hand and then right-hand operand type. The memo is replaced, rather
+     * than cleared, whenever the registry changes, as a {@link ClassValue} cannot be cleared of the values it holds for
+     * every class.
+     */
+    private static ClassValue<ClassValue<Map<Operator, Optional<Method>>>> newResolvedLookups() {
+        return new ClassValue<ClassValue<Map<Operator, Optional<Method>>>>() {
+            @Override
+            protected ClassValue<Map<Operator, Optional<Method>>> computeValue(final Class<?> lhsType) {
+                return new ClassValue<Map<Operator, Optional<Method>>>() {
+                    @Override
+                    protected Map<Operator, Optional<Method>> computeValue(final Class<?> rhsType) {
+                        return new ConcurrentHashMap<>();
+                    }
+                };
+            }
+        };
+    }
+
+    private Optional<Method> resolve(final Operator operator, final Class<?> lhsType, final Class<?> rhsType) {
+        final long startTime = System.nanoTime();
+        try {
+            final Map<Class<?>, Map<Class<?>, List<Method>>> operatorMethodsByLhs = operatorMap.get(operator);
+            if ( operatorMethodsByLhs == null || lhsType == null || rhsType == null ) return Optional.empty();
+
+            Method exactMatch = firstOf(operatorMethodsByLhs.get(lhsType), rhsType);
+            if ( exactMatch != null ) return Optional.of(exactMatch);
+
+            //----------------------------------------------------------------------------------------------------------
+            // Look for generic implementations declared on supertypes of the lhs and rhs types.
+            //----------------------------------------------------------------------------------------------------------
+            List<Method> applicable = new ArrayList<>();
+            for (Map.Entry<Class<?>, Map<Class<?>, List<Method>>> lhsEntry : operatorMethodsByLhs.entrySet()) {
+                if ( !isSupertype(lhsEntry.getKey(), lhsType) ) continue;
+
+                for (Map.Entry<Class<?>, List<Method>> rhsEntry : lhsEntry.getValue().entrySet()) {
+                    if ( isSupertype(rhsEntry.getKey(), rhsType) && !rhsEntry.getValue().isEmpty() ) {
+                        applicable.add(rhsEntry.getValue().get(0));
+                    }
+                }
+            }
+
+            return Optional.ofNullable(mostSpecific(applicable, lhsType, rhsType));
+        } finally {
+            resolutionCount.increment();
+            resolutionNanos.add(System.nanoTime() - startTime);
+        }
+    }
+
+    private Method mostSpecific(final List<Method> applicable, final Class<?> lhsType, final Class<?> rhsType) {
+        if ( applicable.size() <= 1 ) return applicable.isEmpty() ? null : applicable.get(0);
+
+        List<Method> maximallySpecific = new ArrayList<>();
+        for (Method candidate : applicable) {
+            boolean dominated = false;
+            for (Method other : applicable) {
+                if ( other != candidate && isMoreSpecific(other, candidate) ) {
+                    dominated = true;
+                    break;
+                }
+            }
+            if ( !dominated ) maximallySpecific.add(candidate);
+        }
+        if ( maximallySpecific.size() == 1 ) return maximallySpecific.get(0);
+
+        ambiguousResolutionCount.increment();
+        return maximallySpecific.stream()
+                                .min(Comparator.<Method>comparingInt(m -> supertypeDistance(lhsType, lhsParameterType(m)) + supertypeDistance(rhsType, rhsParameterType(m)))
+                                               .thenComparingInt(m -> supertypeDistance(lhsType, lhsParameterType(m)))
+                                               .thenComparing(Method::toGenericString))
+                                .orElse(null);
+    }
+
+    /**
+     * Whether the operand types of one operator method are each assignable to those of another, and differ in at least
+     * one operand type.
+     */
+    private static boolean isMoreSpecific(final Method method, final Method other) {
+        return isSupertype(lhsParameterType(other), lhsParameterType(method))
+               && isSupertype(rhsParameterType(other), rhsParameterType(method))
+               && (lhsParameterType(method) != lhsParameterType(other) || rhsParameterType(method) != rhsParameterType(other));
+    }
+
+    private static boolean isSupertype(final Class<?> supertype, final Class<?> type) {
+        return supertype == type || (!type.isPrimitive() && supertype.isAssignableFrom(type));
+    }
+
+    /**
+     * Determines the number of steps up the type hierarchy, through superclasses and interfaces, from a type to one of
+     * its supertypes.
+     */
+    static int supertypeDistance(final Class<?> type, final Class<?> supertype) {
+        if ( type == supertype ) return 0;
+
+        Set<Class<?>> visited = new HashSet<>();
+        List<Class<?>> level = Collections.singletonList(type);
+        for (int distance = 1; !level.isEmpty(); distance++) {
+            List<Class<?>> nextLevel = new ArrayList<>();
+            for (Class<?> levelType : level) {
+                if ( levelType.getSuperclass() != null ) nextLevel.add(levelType.getSuperclass());
+                nextLevel.addAll(Arrays.asList(levelType.getInterfaces()));
+            }
+            for (Class<?> nextType : nextLevel) {
+                if ( nextType == supertype ) return distance;
             }
+            nextLevel.removeIf(t -> !visited.add(t));
+            level = nextLevel;
         }
 
-        return Optional.empty();
+        // Interfaces have no superclass, but are nonetheless assignable to Object
+        return visited.size() + 1;
+    }
+
+    private static Class<?> lhsParameterType(final Method operatorMethod) {
+        return operatorMethod.getParameterTypes()[0];
+    }
+
+    private static Class<?> rhsParameterType(final Method operatorMethod) {
+        return operatorMethod.getParameterTypes()[1];
+    }
+
+    private static Method firstOf(final Map<Class<?>, List<Method>> operatorMethodsByRhs, final Class<?> rhsType) {
+        if ( operatorMethodsByRhs == null ) return null;
+
+        List<Method> operatorMethods = operatorMethodsByRhs.get(rhsType);
+        return operatorMethods == null || operatorMethods.isEmpty() ? null : operatorMethods.get(0);
     }
 
     @Override
@@ -89,5 +237,67 @@ public class ConcurrentBinaryOperatorRegistry implements BinaryOperatorRegistry
     @Override
     public void clear() {
         operatorMap.clear();
+        resolvedLookups = newResolvedLookups();
+    }
+
+    /**
+     * Gets the number of lookups made of this registry.
+     *
+     * @return the total number of lookups.
+     */
+    public long getLookupCount() {
+        return lookupCount.sum();
+    }
+
+    /**
+     * Gets the number of lookups which could not be answered from previously memoised lookups and so were resolved
+     * against the registered operator functions.
+     *
+     * @return the number of lookups resolved.
+     */
+    public long getResolutionCount() {
+        return resolutionCount.sum();
+    }
+
+    /**
+     * Gets the number of resolved lookups for which there was no single most specific operator function.
+     *
+     * @return the number of ambiguous lookups resolved.
+     */
+    public long getAmbiguousResolutionCount() {
+        return ambiguousResolutionCount.sum();
+    }
+
+    /**
+     * Gets the total time spent in lookups of this registry.
+     *
+     * @param timeUnit the unit of time in which to return the total.
+     * @return the total time spent in all lookups.
+     */
+    public long getLookupTime(final TimeUnit timeUnit) {
+        return timeUnit.convert(lookupNanos.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the total time spent resolving lookups against the registered operator functions, included in the
+     * {@link #getLookupTime(TimeUnit) total lookup time}.
+     *
+     * @param timeUnit the unit of time in which to return the total.
+     * @return the total time spent resolving lookups.
+     */
+    public long getResolutionTime(final TimeUnit timeUnit) {
+        return timeUnit.convert(resolutionNanos.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[operatorMethods=%d, lookups=%d, resolutions=%d, ambiguous=%d, lookupTime=%dus, resolutionTime=%dus]",
+                             getClass().getSimpleName(),
+                             size(),
+                             getLookupCount(),
+                             getResolutionCount(),
+                             getAmbiguousResolutionCount(),
+                             getLookupTime(TimeUnit.MICROSECONDS),
+                             getResolutionTime(TimeUnit.MICROSECONDS));
     }
 }
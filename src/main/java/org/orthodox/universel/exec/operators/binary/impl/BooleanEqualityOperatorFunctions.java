@@ -33,7 +33,7 @@ import org.orthodox.universel.exec.operators.binary.BinaryOperator;
 import static org.orthodox.universel.ast.Operator.EQUAL;
 import static org.orthodox.universel.ast.Operator.TREBLE_EQUAL;
 
-@BinaryOperator
+@BinaryOperator(pure = true)
 public class BooleanEqualityOperatorFunctions {
     @BinaryOperator({EQUAL, TREBLE_EQUAL})
     public static boolean equals(boolean lhs, boolean rhs) {
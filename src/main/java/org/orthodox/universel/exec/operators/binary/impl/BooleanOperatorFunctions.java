@@ -32,7 +32,7 @@ import org.orthodox.universel.exec.operators.binary.BinaryOperator;
 
 import static org.orthodox.universel.ast.Operator.*;
 
-@BinaryOperator
+@BinaryOperator(pure = true)
 public class BooleanOperatorFunctions {
 
     @BinaryOperator({EXCLAMATION_EQUAL, LESS_GREATER_THAN})
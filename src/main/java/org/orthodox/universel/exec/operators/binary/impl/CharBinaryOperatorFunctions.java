@@ -35,7 +35,7 @@ import org.orthodox.universel.exec.operators.range.CharacterRange;
 
 import static org.orthodox.universel.ast.Operator.*;
 
-@BinaryOperator
+@BinaryOperator(pure = true)
 public class CharBinaryOperatorFunctions {
 
     @BinaryOperator(AMPERSAND)
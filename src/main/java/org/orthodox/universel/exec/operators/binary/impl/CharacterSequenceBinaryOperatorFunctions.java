@@ -33,7 +33,7 @@ import org.orthodox.universel.exec.operators.binary.BinaryOperator;
 import static java.lang.String.valueOf;
 import static org.orthodox.universel.ast.Operator.PLUS;
 
-@BinaryOperator
+@BinaryOperator(pure = true)
 public class CharacterSequenceBinaryOperatorFunctions {
 
     @BinaryOperator(PLUS)
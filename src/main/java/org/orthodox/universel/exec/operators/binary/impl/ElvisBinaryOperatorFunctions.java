@@ -32,7 +32,7 @@ import org.orthodox.universel.exec.operators.binary.BinaryOperator;
 
 import static org.orthodox.universel.ast.Operator.ELVIS;
 
-@BinaryOperator
+@BinaryOperator(pure = true)
 public class ElvisBinaryOperatorFunctions {
 
     @BinaryOperator(ELVIS)
@@ -35,7 +35,7 @@ import java.util.Objects;
 import static org.orthodox.universel.ast.Operator.EQUAL;
 import static org.orthodox.universel.ast.Operator.TREBLE_EQUAL;
 
-@BinaryOperator
+@BinaryOperator(pure = true)
 public class ObjectEqualityOperatorFunctions {
     @BinaryOperator(EQUAL)
     public static boolean equals(Object lhs, Object rhs) {
@@ -37,7 +37,7 @@ import java.math.RoundingMode;
 
 import static org.orthodox.universel.ast.Operator.*;
 
-@BinaryOperator
+@BinaryOperator(pure = true)
 public class BigDecimalBinaryOperatorFunctions {
 
     @BinaryOperator({EXCLAMATION_EQUAL, LESS_GREATER_THAN})
@@ -36,7 +36,7 @@ import java.math.BigInteger;
 
 import static org.orthodox.universel.ast.Operator.*;
 
-@BinaryOperator
+@BinaryOperator(pure = true)
 public class BigIntegerBinaryOperatorFunctions {
 
     @BinaryOperator(AMPERSAND)
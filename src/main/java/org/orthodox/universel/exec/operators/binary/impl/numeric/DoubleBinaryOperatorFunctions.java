@@ -34,7 +34,7 @@ import org.orthodox.universel.exec.operators.range.DoubleRange;
 
 import static org.orthodox.universel.ast.Operator.*;
 
-@BinaryOperator
+@BinaryOperator(pure = true)
 public class DoubleBinaryOperatorFunctions {
 
     @BinaryOperator({EXCLAMATION_EQUAL, LESS_GREATER_THAN})
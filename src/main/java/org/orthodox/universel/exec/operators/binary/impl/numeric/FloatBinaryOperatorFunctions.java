@@ -34,7 +34,7 @@ import org.orthodox.universel.exec.operators.range.FloatRange;
 
 import static org.orthodox.universel.ast.Operator.*;
 
-@BinaryOperator
+@BinaryOperator(pure = true)
 public class FloatBinaryOperatorFunctions {
 
     @BinaryOperator({EXCLAMATION_EQUAL, LESS_GREATER_THAN})
@@ -34,7 +34,7 @@ import org.orthodox.universel.exec.operators.range.IntegerRange;
 
 import static org.orthodox.universel.ast.Operator.*;
 
-@BinaryOperator
+@BinaryOperator(pure = true)
 public class IntegerBinaryOperatorFunctions {
 
     @BinaryOperator(AMPERSAND)
@@ -40,7 +40,7 @@ import static org.orthodox.universel.ast.Operator.*;
  * Specific operator functions for {@link org.orthodox.universel.exec.operators.range.CharacterRange} whoch deal
  * leniently with non-character operands, such as Strings where the first character is taken (e.g. 'A' in 'A'..'Z').
  */
-@BinaryOperator
+@BinaryOperator(pure = true)
 public class CharacterRangeOperatorFunctions {
     @BinaryOperator(CONTAINS)
     public static boolean containsSingleValue(final CharacterRange lhs, final CharSequence rhs) {
@@ -48,7 +48,7 @@ public class CharacterRangeOperatorFunctions {
         if ( strRhs == null ) return false;
 
         for (int n=0; n < strRhs.length(); n++) {
-            if ( !lhs.contains(strRhs.charAt(n)) ) return false;
+            if ( !lhs.containsInt(strRhs.charAt(n)) ) return false;
         }
 
         return true;
@@ -72,7 +72,7 @@ public class CharacterRangeOperatorFunctions {
         if ( strLhs == null ) return false;
 
         for (int n=0; n < strLhs.length(); n++) {
-            if ( !rhs.contains(strLhs.charAt(n)) ) return false;
+            if ( !rhs.containsInt(strLhs.charAt(n)) ) return false;
         }
 
         return true;
@@ -38,7 +38,7 @@ import static org.orthodox.universel.ast.Operator.*;
 /**
  * Built-in character range operator functions.
  */
-@BinaryOperator
+@BinaryOperator(pure = true)
 public class EnumRangeOperatorFunctions {
     @BinaryOperator({
             RANGE_INCLUSIVE,
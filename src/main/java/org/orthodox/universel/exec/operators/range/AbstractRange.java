@@ -30,10 +30,17 @@ package org.orthodox.universel.exec.operators.range;
 
 import org.orthodox.universel.ast.Operator;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.*;
 
 /**
  * Implementation of a range of scalar values.
+ *
+ * <p>
+ * The size of a range and the element at any index are computed in closed form, without iterating the range. Sub-lists
+ * and stepped views of a range are lazy views over the range and are not materialised.
+ * </p>
  */
 public abstract class AbstractRange<T> extends AbstractList<T> implements Range<T>, Comparator<T> {
     private int step = 1;
@@ -150,18 +157,28 @@ public abstract class AbstractRange<T> extends AbstractList<T> implements Range<
 
     @Override
     public T get(int index) {
+        checkElementIndex(index);
+
+        if (forward) {
+            return increment(lhsInclusive, index * step);
+        } else {
+            return decrement(lhsInclusive, index * step);
+        }
+    }
+
+    /**
+     * Checks the given index lies within the range.
+     *
+     * @param index the index of a range element.
+     * @throws IndexOutOfBoundsException if the index is negative or not less than the size of the range.
+     */
+    protected void checkElementIndex(int index) {
         if (index < 0) {
             throw new IndexOutOfBoundsException("The range element index [" + index + "] may not be negative");
         }
         if (index >= size()) {
             throw new IndexOutOfBoundsException("The range element index [" + index + "] exceeds the maximum index of the range " + this);
         }
-
-        if (forward) {
-            return increment(getLowerBound(), index * step);
-        } else {
-            return decrement(getUpperBound(), index * step);
-        }
     }
 
     public T increment(T value) {
@@ -176,9 +193,22 @@ public abstract class AbstractRange<T> extends AbstractList<T> implements Range<
 
     public abstract T decrement(T value, int amount);
 
+    /**
+     * Returns the number of elements in the range or, if the range has more than <code>Integer.MAX_VALUE</code> elements,
+     * returns <code>Integer.MAX_VALUE</code>. The exact size of any range may be obtained from {@link #getRangeSize()}.
+     *
+     * @return the number of elements in the range, up to <code>Integer.MAX_VALUE</code>.
+     */
     @Override
     public final int size() {
-        return getRangeSize().intValue();
+        Number rangeSize = getRangeSize();
+        if (rangeSize instanceof BigInteger) {
+            return ((BigInteger)rangeSize).compareTo(BigInteger.valueOf(Integer.MAX_VALUE)) >= 0 ? Integer.MAX_VALUE : rangeSize.intValue();
+        } else if (rangeSize instanceof BigDecimal) {
+            return ((BigDecimal)rangeSize).compareTo(BigDecimal.valueOf(Integer.MAX_VALUE)) >= 0 ? Integer.MAX_VALUE : rangeSize.intValue();
+        }
+
+        return rangeSize.doubleValue() >= Integer.MAX_VALUE ? Integer.MAX_VALUE : rangeSize.intValue();
     }
 
     /**
@@ -194,16 +224,12 @@ public abstract class AbstractRange<T> extends AbstractList<T> implements Range<
         return size;
     }
 
-    protected Number recalculateSize() {
-        int size = 0;
-        // In this implementation we will iterate over the range and count
-        for (Iterator<T> iter = iterator(); iter.hasNext(); ) {
-            iter.next();
-            size++;
-        }
-
-        return size;
-    }
+    /**
+     * Calculates the size of the range, in closed form.
+     *
+     * @return the number of elements in the range, which may be arbitrarily large.
+     */
+    protected abstract Number recalculateSize();
 
     public T getLeftBound() {
         return lhsInclusive;
@@ -221,9 +247,18 @@ public abstract class AbstractRange<T> extends AbstractList<T> implements Range<
         return (lhsLessThanEqualRhs ? rhsInclusive : lhsInclusive);
     }
 
+    /**
+     * Returns a view of every <code>step</code>th element of the range, beginning with the first.
+     *
+     * @param step the distance between the elements of the view, which must be positive.
+     * @return a lazy view of the stepped elements of the range.
+     */
     public List<T> step(int step) {
-        return null; // new ContextualRange<T>(context, from, fromInclusive, to,
-        // toInclusive, step);
+        if (step <= 0) {
+            throw new IllegalArgumentException("The range step [" + step + "] must be positive");
+        }
+
+        return new RangeView<>(this, 0, step, (int)((size() - 1L) / step + 1));
     }
 
     @Override
@@ -238,9 +273,7 @@ public abstract class AbstractRange<T> extends AbstractList<T> implements Range<
             throw new IllegalArgumentException("The from index [" + fromIndex + "] must be less than or equal to the to index [" + toIndex + "]");
         }
 
-        return null; // new ContextualRange<T>(context, get(fromIndex), (fromIndex
-        // > 0 || fromInclusive), get(toIndex--), (toIndex < size()-1
-        // || toInclusive), step);
+        return new RangeView<>(this, fromIndex, 1, toIndex - fromIndex);
     }
 
     @Override
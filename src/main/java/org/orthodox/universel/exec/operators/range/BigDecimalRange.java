@@ -32,6 +32,7 @@ import org.orthodox.universel.ast.Operator;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.math.RoundingMode;
 
 /**
  * A more efficient implementation of a range of {@link BigInteger}.
@@ -52,19 +53,19 @@ public class BigDecimalRange extends NumericRange<BigDecimal> {
 
     @Override
     public BigDecimal increment(BigDecimal value, int amount) {
-        return value == null ? null : value.add(BigDecimal.ONE);
+        return value == null ? null : value.add(BigDecimal.valueOf(amount));
     }
 
     @Override
     public BigDecimal decrement(BigDecimal value, int amount) {
-        return value == null ? null : value.subtract(BigDecimal.ONE);
+        return value == null ? null : value.subtract(BigDecimal.valueOf(amount));
     }
 
     @Override
     public Number recalculateSize() {
         if (forward) {
             if (lhsLessThanEqualRhs) {
-                return getUpperBound().subtract(getLowerBound()).add(BigDecimal.ONE);
+                return getUpperBound().subtract(getLowerBound()).setScale(0, RoundingMode.FLOOR).add(BigDecimal.ONE);
             } else {
                 throw new IllegalArgumentException("Range sizes approaching BigDecimal maximum size range is not supported");
             }
@@ -72,7 +73,7 @@ public class BigDecimalRange extends NumericRange<BigDecimal> {
             if (lhsLessThanEqualRhs) {
                 throw new IllegalArgumentException("Range sizes approaching BigDecimal maximum size range is not supported");
             } else {
-                return getUpperBound().subtract(getLowerBound()).add(BigDecimal.ONE);
+                return getUpperBound().subtract(getLowerBound()).setScale(0, RoundingMode.FLOOR).add(BigDecimal.ONE);
             }
         }
     }
@@ -51,12 +51,12 @@ public class BigIntegerRange extends NumericRange<BigInteger> {
 
     @Override
     public BigInteger increment(BigInteger value, int amount) {
-        return value == null ? null : value.add(BigInteger.ONE);
+        return value == null ? null : value.add(BigInteger.valueOf(amount));
     }
 
     @Override
     public BigInteger decrement(BigInteger value, int amount) {
-        return value == null ? null : value.subtract(BigInteger.ONE);
+        return value == null ? null : value.subtract(BigInteger.valueOf(amount));
     }
 
     @Override
@@ -30,16 +30,23 @@ package org.orthodox.universel.exec.operators.range;
 
 import org.orthodox.universel.ast.Operator;
 
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+
 /**
  * A more efficient implementation of a byte range.
  */
-public class ByteRange extends NumericRange<Byte> {
+public class ByteRange extends NumericRange<Byte> implements PrimitiveIntRange {
+    private final IntRangeElements elements;
+
     public ByteRange(Operator rangeOperator, Byte lhs, Byte rhs) {
         this(lhs, lhsOperatorFor(rangeOperator), rhs, rhsOperatorFor(rangeOperator));
     }
 
     public ByteRange(Byte lhs, Operator lhsOperator, Byte rhs, Operator rhsOperator) {
         super(lhs, lhsOperator, rhs, rhsOperator);
+        elements = new IntRangeElements(lhsInclusive, rhsInclusive, forward, Byte.SIZE, true);
     }
 
     @Override
@@ -49,28 +56,52 @@ public class ByteRange extends NumericRange<Byte> {
 
     @Override
     public Byte increment(Byte value, int amount) {
-        return value == null ? null : (byte)(value + 1);
+        return value == null ? null : (byte)(value + amount);
     }
 
     @Override
     public Byte decrement(Byte value, int amount) {
-        return value == null ? null : (byte)(value - 1);
+        return value == null ? null : (byte)(value - amount);
     }
 
     @Override
     public Number recalculateSize() {
-        if (forward) {
-            if (lhsLessThanEqualRhs) {
-                return getUpperBound().longValue() - getLowerBound().longValue() + 1;
-            } else {
-                return (long) Byte.MAX_VALUE - lhsInclusive + Math.abs((long) Byte.MIN_VALUE - rhsInclusive) + 2;
-            }
-        } else {
-            if (lhsLessThanEqualRhs) {
-                return (long) Byte.MAX_VALUE - rhsInclusive + Math.abs((long) Byte.MIN_VALUE - lhsInclusive) + 2;
-            } else {
-                return getUpperBound().longValue() - getLowerBound().longValue() + 1;
-            }
-        }
+        return elements.size();
+    }
+
+    @Override
+    public Byte get(int index) {
+        checkElementIndex(index);
+        return (byte)elements.elementAt(index);
+    }
+
+    @Override
+    public boolean contains(Object value) {
+        return value instanceof Byte ? containsInt((Byte)value) : super.contains(value);
+    }
+
+    @Override
+    public Iterator<Byte> iterator() {
+        return elements.boxedIterator(value -> (byte)value);
+    }
+
+    @Override
+    public Spliterator<Byte> spliterator() {
+        return elements.boxedSpliterator(value -> (byte)value);
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt intIterator() {
+        return elements.iterator();
+    }
+
+    @Override
+    public Spliterator.OfInt intSpliterator() {
+        return elements.spliterator();
+    }
+
+    @Override
+    public boolean containsInt(int value) {
+        return elements.contains(value);
     }
 }
@@ -30,16 +30,23 @@ package org.orthodox.universel.exec.operators.range;
 
 import org.orthodox.universel.ast.Operator;
 
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+
 /**
  * A more efficient implementation of a range of characters.
  */
-public class CharacterRange extends AbstractRange<Character> {
+public class CharacterRange extends AbstractRange<Character> implements PrimitiveIntRange {
+    private final IntRangeElements elements;
+
     public CharacterRange(Operator rangeOperator, Character lhs, Character rhs) {
         this(lhs, lhsOperatorFor(rangeOperator), rhs, rhsOperatorFor(rangeOperator));
     }
 
     public CharacterRange(Character lhs, Operator lhsOperator, Character rhs, Operator rhsOperator) {
         super(lhs, lhsOperator, rhs, rhsOperator);
+        elements = new IntRangeElements(lhsInclusive, rhsInclusive, forward, Character.SIZE, false);
     }
 
     @Override
@@ -49,28 +56,52 @@ public class CharacterRange extends AbstractRange<Character> {
 
     @Override
     public Character increment(Character value, int amount) {
-        return value == null ? null : (char)(value + 1);
+        return value == null ? null : (char)(value + amount);
     }
 
     @Override
     public Character decrement(Character value, int amount) {
-        return value == null ? null : (char)(value - 1);
+        return value == null ? null : (char)(value - amount);
     }
 
     @Override
     public Number recalculateSize() {
-        if (forward) {
-            if (lhsLessThanEqualRhs) {
-                return getUpperBound() - getLowerBound() + 1;
-            } else {
-                return Character.MAX_VALUE - lhsInclusive + Math.abs(Character.MIN_VALUE - rhsInclusive) + 2;
-            }
-        } else {
-            if (lhsLessThanEqualRhs) {
-                return Character.MAX_VALUE - rhsInclusive + Math.abs(Character.MIN_VALUE - lhsInclusive) + 2;
-            } else {
-                return getUpperBound() - getLowerBound() + 1;
-            }
-        }
+        return elements.size();
+    }
+
+    @Override
+    public Character get(int index) {
+        checkElementIndex(index);
+        return (char)elements.elementAt(index);
+    }
+
+    @Override
+    public boolean contains(Object value) {
+        return value instanceof Character ? containsInt((Character)value) : super.contains(value);
+    }
+
+    @Override
+    public Iterator<Character> iterator() {
+        return elements.boxedIterator(value -> (char)value);
+    }
+
+    @Override
+    public Spliterator<Character> spliterator() {
+        return elements.boxedSpliterator(value -> (char)value);
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt intIterator() {
+        return elements.iterator();
+    }
+
+    @Override
+    public Spliterator.OfInt intSpliterator() {
+        return elements.spliterator();
+    }
+
+    @Override
+    public boolean containsInt(int value) {
+        return elements.contains(value);
     }
 }
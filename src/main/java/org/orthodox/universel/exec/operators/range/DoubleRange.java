@@ -49,28 +49,23 @@ public class DoubleRange extends NumericRange<Double> {
 
     @Override
     public Double increment(Double value, int amount) {
-        return value == null ? null : value + 1;
+        return value == null ? null : value + amount;
     }
 
     @Override
     public Double decrement(Double value, int amount) {
-        return value == null ? null : value - 1;
+        return value == null ? null : value - amount;
     }
 
     @Override
     public Number recalculateSize() {
-        if (forward) {
-            if (lhsLessThanEqualRhs) {
-                return getUpperBound() - getLowerBound() + 1;
-            } else {
-                return Double.MAX_VALUE - lhsInclusive + Math.abs(Double.MIN_VALUE - rhsInclusive) + 2;
-            }
-        } else {
-            if (lhsLessThanEqualRhs) {
-                return Double.MAX_VALUE - rhsInclusive + Math.abs( Double.MIN_VALUE - lhsInclusive) + 2;
-            } else {
-                return getUpperBound() - getLowerBound() + 1;
-            }
+        if (forward == lhsLessThanEqualRhs) {
+            return sizeBetween(getLowerBound(), getUpperBound());
         }
+
+        // Inverted: ascends from the left bound to the highest value and on from the lowest value to the right bound, or
+        // descends from the left bound to the lowest value and on from the highest value to the right bound
+        return forward ? invertedSizeBetween(rhsInclusive, lhsInclusive, Double.MAX_VALUE)
+                       : invertedSizeBetween(lhsInclusive, rhsInclusive, Double.MAX_VALUE);
     }
 }
@@ -50,13 +50,13 @@ public class EnumRange<E extends Enum<E>>  extends AbstractRange<E> {
     @SuppressWarnings("unchecked")
     @Override
     public E increment(E value, int amount) {
-        return value == null ? null : (E)value.getClass().getEnumConstants()[value.ordinal() + amount];
+        return value == null ? null : (E)value.getDeclaringClass().getEnumConstants()[Math.floorMod(value.ordinal() + amount, value.getDeclaringClass().getEnumConstants().length)];
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public E decrement(E value, int amount) {
-        return value == null ? null : (E)value.getClass().getEnumConstants()[value.ordinal() - amount];
+        return value == null ? null : (E)value.getDeclaringClass().getEnumConstants()[Math.floorMod(value.ordinal() - amount, value.getDeclaringClass().getEnumConstants().length)];
     }
 
     @Override
@@ -0,0 +1,180 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.exec.operators.range;
+
+import java.util.*;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.stream.StreamSupport;
+
+/**
+ * The elements of a range of an integral type no wider than <code>int</code>, computed from the first element of the
+ * range, the direction of the range and the offset of each element from the first.
+ *
+ * <p>
+ * Element values wrap around the limits of the type, as do the boxed values of an inverted range, so the elements of
+ * every range form a single run of offsets from <code>0</code> to the offset of the last element.
+ * </p>
+ */
+final class IntRangeElements {
+    private final int first;
+    private final int direction;
+    private final int shift;
+    private final boolean signed;
+    private final long domainMask;
+    private final long lastOffset;
+
+    /**
+     * Creates the elements of a range.
+     *
+     * @param first the first element of the range, inclusive.
+     * @param last the last element of the range, inclusive.
+     * @param forward true if the elements ascend from the first element, false if they descend.
+     * @param bits the width, in bits, of the type of the range.
+     * @param signed whether the type of the range is signed.
+     */
+    IntRangeElements(final int first, final int last, final boolean forward, final int bits, final boolean signed) {
+        this.first = first;
+        this.direction = forward ? 1 : -1;
+        this.shift = Integer.SIZE - bits;
+        this.signed = signed;
+        this.domainMask = bits == Integer.SIZE ? 0xFFFFFFFFL : (1L << bits) - 1;
+        this.lastOffset = (long)((last - first) * direction) & domainMask;
+    }
+
+    long size() {
+        return lastOffset + 1;
+    }
+
+    int elementAt(final long offset) {
+        return narrow(first + direction * (int)offset);
+    }
+
+    boolean contains(final int value) {
+        if ( narrow(value) != value ) return false;
+
+        return ((long)((value - first) * direction) & domainMask) <= lastOffset;
+    }
+
+    private int narrow(final int value) {
+        if ( shift == 0 ) return value;
+
+        return signed ? (value << shift) >> shift : (value << shift) >>> shift;
+    }
+
+    PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private long offset;
+
+            @Override
+            public boolean hasNext() {
+                return offset <= lastOffset;
+            }
+
+            @Override
+            public int nextInt() {
+                if ( !hasNext() ) {
+                    throw new NoSuchElementException("A call to next() was made on an exhausted range iterator");
+                }
+                return elementAt(offset++);
+            }
+        };
+    }
+
+    Spliterator.OfInt spliterator() {
+        return new ElementSpliterator(0, lastOffset + 1);
+    }
+
+    <T> Iterator<T> boxedIterator(final IntFunction<T> boxer) {
+        final PrimitiveIterator.OfInt elements = iterator();
+        return new Iterator<T>() {
+            @Override
+            public boolean hasNext() {
+                return elements.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return boxer.apply(elements.nextInt());
+            }
+        };
+    }
+
+    <T> Spliterator<T> boxedSpliterator(final IntFunction<T> boxer) {
+        return StreamSupport.intStream(spliterator(), false).mapToObj(boxer).spliterator();
+    }
+
+    private final class ElementSpliterator implements Spliterator.OfInt {
+        private long offset;
+        private final long fence;
+
+        private ElementSpliterator(final long origin, final long fence) {
+            this.offset = origin;
+            this.fence = fence;
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            long mid = (offset + fence) >>> 1;
+            if ( mid <= offset ) return null;
+
+            ElementSpliterator prefix = new ElementSpliterator(offset, mid);
+            offset = mid;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(final IntConsumer action) {
+            Objects.requireNonNull(action);
+            if ( offset >= fence ) return false;
+
+            action.accept(elementAt(offset++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(final IntConsumer action) {
+            Objects.requireNonNull(action);
+            long remainingOffset = offset;
+            offset = fence;
+            for (; remainingOffset < fence; remainingOffset++) {
+                action.accept(elementAt(remainingOffset));
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - offset;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL | DISTINCT;
+        }
+    }
+}
@@ -30,16 +30,23 @@ package org.orthodox.universel.exec.operators.range;
 
 import org.orthodox.universel.ast.Operator;
 
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+
 /**
  * A more efficient implementation of a range of integer.
  */
-public class IntegerRange extends NumericRange<Integer> {
+public class IntegerRange extends NumericRange<Integer> implements PrimitiveIntRange {
+    private final IntRangeElements elements;
+
     public IntegerRange(Operator rangeOperator, Integer lhs, Integer rhs) {
         this(lhs, lhsOperatorFor(rangeOperator), rhs, rhsOperatorFor(rangeOperator));
     }
 
     public IntegerRange(Integer lhs, Operator lhsOperator, Integer rhs, Operator rhsOperator) {
         super(lhs, lhsOperator, rhs, rhsOperator);
+        elements = new IntRangeElements(lhsInclusive, rhsInclusive, forward, Integer.SIZE, true);
     }
 
     @Override
@@ -49,28 +56,52 @@ public class IntegerRange extends NumericRange<Integer> {
 
     @Override
     public Integer increment(Integer value, int amount) {
-        return value == null ? null : value + 1;
+        return value == null ? null : value + amount;
     }
 
     @Override
     public Integer decrement(Integer value, int amount) {
-        return value == null ? null : value - 1;
+        return value == null ? null : value - amount;
     }
 
     @Override
     public Number recalculateSize() {
-        if (forward) {
-            if (lhsLessThanEqualRhs) {
-                return getUpperBound().longValue() - getLowerBound().longValue() + 1;
-            } else {
-                return (long) Integer.MAX_VALUE - lhsInclusive + Math.abs((long) Integer.MIN_VALUE - rhsInclusive) + 2;
-            }
-        } else {
-            if (lhsLessThanEqualRhs) {
-                return (long) Integer.MAX_VALUE - rhsInclusive + Math.abs((long) Integer.MIN_VALUE - lhsInclusive) + 2;
-            } else {
-                return getUpperBound().longValue() - getLowerBound().longValue() + 1;
-            }
-        }
+        return elements.size();
+    }
+
+    @Override
+    public Integer get(int index) {
+        checkElementIndex(index);
+        return elements.elementAt(index);
+    }
+
+    @Override
+    public boolean contains(Object value) {
+        return value instanceof Integer ? containsInt((Integer)value) : super.contains(value);
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return intIterator();
+    }
+
+    @Override
+    public Spliterator<Integer> spliterator() {
+        return intSpliterator();
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt intIterator() {
+        return elements.iterator();
+    }
+
+    @Override
+    public Spliterator.OfInt intSpliterator() {
+        return elements.spliterator();
+    }
+
+    @Override
+    public boolean containsInt(int value) {
+        return elements.contains(value);
     }
 }
@@ -30,16 +30,24 @@ package org.orthodox.universel.exec.operators.range;
 
 import org.orthodox.universel.ast.Operator;
 
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+
 /**
  * A more efficient implementation of a range of long.
  */
-public class LongRange extends NumericRange<Long> {
+public class LongRange extends NumericRange<Long> implements PrimitiveLongRange {
+    private final LongRangeElements elements;
+
     public LongRange(Operator rangeOperator, Long lhs, Long rhs) {
         this(lhs, lhsOperatorFor(rangeOperator), rhs, rhsOperatorFor(rangeOperator));
     }
 
     public LongRange(Long lhs, Operator lhsOperator, Long rhs, Operator rhsOperator) {
         super(lhs, lhsOperator, rhs, rhsOperator);
+        elements = new LongRangeElements(lhsInclusive, rhsInclusive, forward);
     }
 
     @Override
@@ -49,28 +57,54 @@ public class LongRange extends NumericRange<Long> {
 
     @Override
     public Long increment(Long value, int amount) {
-        return value == null ? null : value + 1;
+        return value == null ? null : value + amount;
     }
 
     @Override
     public Long decrement(Long value, int amount) {
-        return value == null ? null : value - 1;
+        return value == null ? null : value - amount;
     }
 
     @Override
     public Number recalculateSize() {
-        if (forward) {
-            if (lhsLessThanEqualRhs) {
-                return getUpperBound()- getLowerBound() + 1;
-            } else {
-                return Long.MAX_VALUE - lhsInclusive + Math.abs(Long.MIN_VALUE - rhsInclusive) + 2;
-            }
-        } else {
-            if (lhsLessThanEqualRhs) {
-                return Long.MAX_VALUE - rhsInclusive + Math.abs(Long.MIN_VALUE - lhsInclusive) + 2;
-            } else {
-                return getUpperBound() - getLowerBound() + 1;
-            }
-        }
+        long lastOffset = elements.lastOffset();
+        return lastOffset >= 0 && lastOffset < Long.MAX_VALUE ? (Number)(lastOffset + 1)
+                                                              : new BigInteger(Long.toUnsignedString(lastOffset)).add(BigInteger.ONE);
+    }
+
+    @Override
+    public Long get(int index) {
+        checkElementIndex(index);
+        return elements.elementAt(index);
+    }
+
+    @Override
+    public boolean contains(Object value) {
+        return value instanceof Long ? containsLong((Long)value) : super.contains(value);
+    }
+
+    @Override
+    public Iterator<Long> iterator() {
+        return longIterator();
+    }
+
+    @Override
+    public Spliterator<Long> spliterator() {
+        return longSpliterator();
+    }
+
+    @Override
+    public PrimitiveIterator.OfLong longIterator() {
+        return elements.iterator();
+    }
+
+    @Override
+    public Spliterator.OfLong longSpliterator() {
+        return elements.spliterator();
+    }
+
+    @Override
+    public boolean containsLong(long value) {
+        return elements.contains(value);
     }
 }
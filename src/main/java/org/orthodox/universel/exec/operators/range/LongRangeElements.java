@@ -0,0 +1,163 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.exec.operators.range;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+
+/**
+ * The elements of a range of <code>long</code>, computed from the first element of the range, the direction of the
+ * range and the offset of each element from the first.
+ *
+ * <p>
+ * Offsets are unsigned, since an inverted range may span more than {@link Long#MAX_VALUE} elements. Element values wrap
+ * around the limits of the type, as do the boxed values of an inverted range.
+ * </p>
+ */
+final class LongRangeElements {
+    private final long first;
+    private final long direction;
+    private final long lastOffset;
+
+    /**
+     * Creates the elements of a range.
+     *
+     * @param first the first element of the range, inclusive.
+     * @param last the last element of the range, inclusive.
+     * @param forward true if the elements ascend from the first element, false if they descend.
+     */
+    LongRangeElements(final long first, final long last, final boolean forward) {
+        this.first = first;
+        this.direction = forward ? 1 : -1;
+        this.lastOffset = (last - first) * direction;
+    }
+
+    /**
+     * @return the offset of the last element of the range, unsigned.
+     */
+    long lastOffset() {
+        return lastOffset;
+    }
+
+    long elementAt(final long offset) {
+        return first + direction * offset;
+    }
+
+    boolean contains(final long value) {
+        return Long.compareUnsigned((value - first) * direction, lastOffset) <= 0;
+    }
+
+    PrimitiveIterator.OfLong iterator() {
+        return new PrimitiveIterator.OfLong() {
+            private long offset;
+            private boolean exhausted;
+
+            @Override
+            public boolean hasNext() {
+                return !exhausted;
+            }
+
+            @Override
+            public long nextLong() {
+                if ( exhausted ) {
+                    throw new NoSuchElementException("A call to next() was made on an exhausted range iterator");
+                }
+                long value = elementAt(offset);
+                if ( offset == lastOffset ) {
+                    exhausted = true;
+                } else {
+                    offset++;
+                }
+                return value;
+            }
+        };
+    }
+
+    Spliterator.OfLong spliterator() {
+        return new ElementSpliterator(0, lastOffset);
+    }
+
+    private final class ElementSpliterator implements Spliterator.OfLong {
+        private long offset;
+        private final long last;
+        private final boolean sized;
+        private boolean exhausted;
+
+        private ElementSpliterator(final long origin, final long last) {
+            this.offset = origin;
+            this.last = last;
+            this.sized = Long.compareUnsigned(last - origin, Long.MAX_VALUE) < 0;
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            if ( exhausted || offset == last ) return null;
+
+            long mid = offset + ((last - offset) >>> 1);
+            ElementSpliterator prefix = new ElementSpliterator(offset, mid);
+            offset = mid + 1;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(final LongConsumer action) {
+            Objects.requireNonNull(action);
+            if ( exhausted ) return false;
+
+            action.accept(elementAt(offset));
+            if ( offset == last ) {
+                exhausted = true;
+            } else {
+                offset++;
+            }
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(final LongConsumer action) {
+            Objects.requireNonNull(action);
+            while (tryAdvance(action)) ;
+        }
+
+        @Override
+        public long estimateSize() {
+            if ( exhausted ) return 0;
+
+            long remainingAfterNext = last - offset;
+            return Long.compareUnsigned(remainingAfterNext, Long.MAX_VALUE) >= 0 ? Long.MAX_VALUE : remainingAfterNext + 1;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | IMMUTABLE | NONNULL | DISTINCT | (sized ? SIZED | SUBSIZED : 0);
+        }
+    }
+}
@@ -30,6 +30,10 @@ package org.orthodox.universel.exec.operators.range;
 
 import org.orthodox.universel.ast.Operator;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
 /**
  * A more efficient implementation of a range of integer.
  */
@@ -37,4 +41,41 @@ public abstract class NumericRange<T extends Number> extends AbstractRange<T> {
     public NumericRange(T lhs, Operator lhsOperator, T rhs, Operator rhsOperator) {
         super(lhs, lhsOperator, rhs, rhsOperator);
     }
+
+    /**
+     * Calculates the number of unit-spaced elements from a lower bound to an upper bound, inclusive, of a floating point
+     * range. The size is a <code>long</code> where it fits, otherwise an exact <code>BigInteger</code>, so that the widest
+     * ranges neither overflow nor lose their magnitude.
+     *
+     * @param lower the lower bound of the range, inclusive.
+     * @param upper the upper bound of the range, inclusive.
+     * @return the number of elements from the lower to the upper bound, as <code>floor(upper - lower) + 1</code>.
+     */
+    protected static Number sizeBetween(final double lower, final double upper) {
+        final double span = Math.floor(upper - lower);
+        if (span < 0x1p53) {
+            return (long)span + 1;
+        }
+
+        // Beyond the integers a double represents exactly, and possibly beyond a long or even a double, so subtract exactly
+        final BigInteger size = new BigDecimal(upper).subtract(new BigDecimal(lower)).setScale(0, RoundingMode.FLOOR).toBigInteger().add(BigInteger.ONE);
+        return size.bitLength() < Long.SIZE ? (Number)size.longValue() : size;
+    }
+
+    /**
+     * Calculates the number of elements of an inverted floating point range, which runs from its left bound to one limit
+     * of the type and resumes from the opposite limit through to its right bound.
+     *
+     * @param lowerSegmentUpper the upper bound of the segment of the range adjoining the lowest value of the type.
+     * @param upperSegmentLower the lower bound of the segment of the range adjoining the highest value of the type.
+     * @param maxValue the highest finite value of the type, the negation of which is its lowest finite value.
+     * @return the total number of elements of both segments of the range.
+     */
+    protected static BigInteger invertedSizeBetween(final double lowerSegmentUpper, final double upperSegmentLower, final double maxValue) {
+        return toBigInteger(sizeBetween(-maxValue, lowerSegmentUpper)).add(toBigInteger(sizeBetween(upperSegmentLower, maxValue)));
+    }
+
+    private static BigInteger toBigInteger(final Number size) {
+        return size instanceof BigInteger ? (BigInteger)size : BigInteger.valueOf(size.longValue());
+    }
 }
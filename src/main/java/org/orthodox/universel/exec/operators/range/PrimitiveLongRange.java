@@ -0,0 +1,70 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.exec.operators.range;
+
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A range whose elements are represented as primitive <code>long</code> values, which may be iterated and streamed
+ * without boxing.
+ */
+public interface PrimitiveLongRange {
+    /**
+     * Returns an iterator over the elements of the range, in range order, as primitive long values.
+     *
+     * @return a primitive iterator over the range.
+     */
+    PrimitiveIterator.OfLong longIterator();
+
+    /**
+     * Returns a splittable spliterator over the elements of the range, in range order, as primitive long values.
+     *
+     * @return a splittable primitive spliterator over the range.
+     */
+    Spliterator.OfLong longSpliterator();
+
+    /**
+     * Determines whether the given primitive value lies within the range.
+     *
+     * @param value the value to be tested.
+     * @return true if the value is an element of the range, false otherwise.
+     */
+    boolean containsLong(long value);
+
+    /**
+     * Returns a sequential stream of the elements of the range, as primitive long values.
+     *
+     * @return a primitive stream of the range, which may be made parallel.
+     */
+    default LongStream longStream() {
+        return StreamSupport.longStream(longSpliterator(), false);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.exec.operators.range;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A lazy view of evenly spaced elements of a range: a sub-list, a stepped view or a combination of both. Elements are
+ * obtained from the range by index on demand, so no view is ever materialised.
+ *
+ * @param <T> the type of the range elements.
+ */
+final class RangeView<T> extends AbstractList<T> implements RandomAccess {
+    private final List<T> range;
+    private final int offset;
+    private final int step;
+    private final int size;
+
+    /**
+     * Creates a view of a range.
+     *
+     * @param range the range to be viewed.
+     * @param offset the index, in the range, of the first element of the view.
+     * @param step the distance, in the range, between successive elements of the view.
+     * @param size the number of elements in the view.
+     */
+    RangeView(final List<T> range, final int offset, final int step, final int size) {
+        this.range = range;
+        this.offset = offset;
+        this.step = step;
+        this.size = size;
+    }
+
+    @Override
+    public T get(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("The range view element index [" + index + "] lies outside the view of size [" + size + "]");
+        }
+
+        return range.get(offset + index * step);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public List<T> subList(final int fromIndex, final int toIndex) {
+        if (fromIndex < 0) {
+            throw new IndexOutOfBoundsException("The from index [" + fromIndex + "] may not be negative");
+        }
+        if (toIndex > size) {
+            throw new IndexOutOfBoundsException("The to index [" + toIndex + "] must be less than the size of the range view [" + size + "]");
+        }
+        if (fromIndex > toIndex) {
+            throw new IllegalArgumentException("The from index [" + fromIndex + "] must be less than or equal to the to index [" + toIndex + "]");
+        }
+
+        return new RangeView<>(range, offset + fromIndex * step, step, toIndex - fromIndex);
+    }
+
+    /**
+     * Returns a view of every <code>step</code>th element of this view, beginning with the first.
+     *
+     * @param step the distance between the elements of the view, which must be positive.
+     * @return a lazy view of the stepped elements of this view.
+     */
+    public List<T> step(final int step) {
+        if (step <= 0) {
+            throw new IllegalArgumentException("The range step [" + step + "] must be positive");
+        }
+
+        return new RangeView<>(range, offset, this.step * step, size == 0 ? 0 : (size - 1) / step + 1);
+    }
+}
@@ -30,16 +30,23 @@ package org.orthodox.universel.exec.operators.range;
 
 import org.orthodox.universel.ast.Operator;
 
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+
 /**
  * A more efficient implementation of a range of short.
  */
-public class ShortRange extends NumericRange<Short> {
+public class ShortRange extends NumericRange<Short> implements PrimitiveIntRange {
+    private final IntRangeElements elements;
+
     public ShortRange(Operator rangeOperator, Short lhs, Short rhs) {
         this(lhs, lhsOperatorFor(rangeOperator), rhs, rhsOperatorFor(rangeOperator));
     }
 
     public ShortRange(Short lhs, Operator lhsOperator, Short rhs, Operator rhsOperator) {
         super(lhs, lhsOperator, rhs, rhsOperator);
+        elements = new IntRangeElements(lhsInclusive, rhsInclusive, forward, Short.SIZE, true);
     }
 
     @Override
@@ -49,28 +56,52 @@ public class ShortRange extends NumericRange<Short> {
 
     @Override
     public Short increment(Short value, int amount) {
-        return value == null ? null : (short)(value + 1);
+        return value == null ? null : (short)(value + amount);
     }
 
     @Override
     public Short decrement(Short value, int amount) {
-        return value == null ? null : (short)(value - 1);
+        return value == null ? null : (short)(value - amount);
     }
 
     @Override
     public Number recalculateSize() {
-        if (forward) {
-            if (lhsLessThanEqualRhs) {
-                return getUpperBound().longValue() - getLowerBound().longValue() + 1;
-            } else {
-                return (long) Short.MAX_VALUE - lhsInclusive + Math.abs((long) Short.MIN_VALUE - rhsInclusive) + 2;
-            }
-        } else {
-            if (lhsLessThanEqualRhs) {
-                return (long) Short.MAX_VALUE - rhsInclusive + Math.abs((long) Short.MIN_VALUE - lhsInclusive) + 2;
-            } else {
-                return getUpperBound().longValue() - getLowerBound().longValue() + 1;
-            }
-        }
+        return elements.size();
+    }
+
+    @Override
+    public Short get(int index) {
+        checkElementIndex(index);
+        return (short)elements.elementAt(index);
+    }
+
+    @Override
+    public boolean contains(Object value) {
+        return value instanceof Short ? containsInt((Short)value) : super.contains(value);
+    }
+
+    @Override
+    public Iterator<Short> iterator() {
+        return elements.boxedIterator(value -> (short)value);
+    }
+
+    @Override
+    public Spliterator<Short> spliterator() {
+        return elements.boxedSpliterator(value -> (short)value);
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt intIterator() {
+        return elements.iterator();
+    }
+
+    @Override
+    public Spliterator.OfInt intSpliterator() {
+        return elements.spliterator();
+    }
+
+    @Override
+    public boolean containsInt(int value) {
+        return elements.contains(value);
     }
 }
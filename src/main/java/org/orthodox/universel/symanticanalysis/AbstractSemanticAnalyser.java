@@ -55,6 +55,7 @@ public class AbstractSemanticAnalyser extends UniversalVisitorAdapter implements
     @Override
     public Node performAnalysis(SemanticAnalysisContext context, Node from) {
         this.context = context;
+        clearRewrites();
         return from.accept(this);
     }
 
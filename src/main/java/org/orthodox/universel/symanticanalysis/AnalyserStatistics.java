@@ -0,0 +1,88 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.orthodox.universel.symanticanalysis;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistics gathered for a single analyser during semantic analysis of a compilation unit: the number of times the
+ * analyser was run, how many of those runs changed the tree, how many times it was passed over because no node it is
+ * interested in had changed, and the total time spent in the analyser.
+ */
+public class AnalyserStatistics {
+    private final SemanticAnalyser analyser;
+    private int runCount;
+    private int changeCount;
+    private int skipCount;
+    private long elapsedNanos;
+
+    public AnalyserStatistics(final SemanticAnalyser analyser) {
+        this.analyser = analyser;
+    }
+
+    public SemanticAnalyser getAnalyser() {
+        return analyser;
+    }
+
+    public int getRunCount() {
+        return runCount;
+    }
+
+    public int getChangeCount() {
+        return changeCount;
+    }
+
+    public int getSkipCount() {
+        return skipCount;
+    }
+
+    public long getElapsedTime(TimeUnit timeUnit) {
+        return timeUnit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void recordRun(long elapsedNanos, boolean changed) {
+        this.runCount++;
+        this.elapsedNanos += elapsedNanos;
+        if ( changed ) this.changeCount++;
+    }
+
+    void recordSkip() {
+        this.skipCount++;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[runs=%d, changes=%d, skips=%d, time=%dus]",
+                             analyser.getClass().getSimpleName(),
+                             runCount,
+                             changeCount,
+                             skipCount,
+                             getElapsedTime(TimeUnit.MICROSECONDS));
+    }
+}
@@ -29,10 +29,15 @@
 package org.orthodox.universel.symanticanalysis;
 
 import org.beanplanet.core.logging.Logger;
+import org.orthodox.universel.ast.CompositeNode;
 import org.orthodox.universel.ast.Node;
+import org.orthodox.universel.ast.ParseTree;
 import org.orthodox.universel.ast.type.reference.ReferenceType;
 
-import java.util.Objects;
+import java.util.*;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
 
 /**
  * Iterates over the AST, performing a depth-first post-order traversal to establish the types on the AST. Essentially,
@@ -43,33 +48,150 @@ import java.util.Objects;
  * </ul>
  *
  * and resolving them to actiual types.
+ *
+ * <p>
+ * Analysers are scheduled from a worklist, always running the earliest pending analyser in declaration order. When an
+ * analyser changes the tree, the types of the nodes on the changed paths are determined, by identity, and only those
+ * analysers {@link SemanticAnalyser#isInterestedIn(Class) interested} in them are made pending again. Once the
+ * worklist is exhausted, any analyser passed over since the tree last changed is run once more, so that every
+ * analyser has seen the final tree. Statistics for each analyser are available after analysis from
+ * {@link #getStatistics()}.
+ * </p>
+ *
+ * <p>
+ * Whether an analyser changed the tree is decided in constant time where possible: the same root means no change and
+ * a root the analyser reports as a {@link SemanticAnalyser#isRewrite(Node) rewrite} means a change. Only a root newly
+ * created by other means is compared structurally.
+ * </p>
  */
 public class CompositeSemanticAnalyser implements SemanticAnalyser, Logger {
     private final SemanticAnalyser[] analysers;
 
     private static final int MAX_CHANGE_ITERATIONS = 20;
 
+    private List<AnalyserStatistics> statistics = emptyList();
+
+    private int changeIterations;
+
     public CompositeSemanticAnalyser(final SemanticAnalyser ... analysers) {
         this.analysers = analysers;
     }
 
     @Override
     public Node performAnalysis(final SemanticAnalysisContext context, Node from) {
-        int i=0;
-        while (++i <= MAX_CHANGE_ITERATIONS)  {
+        final AnalyserStatistics[] analyserStatistics = new AnalyserStatistics[analysers.length];
+        for (int n=0; n < analysers.length; n++) {
+            analyserStatistics[n] = new AnalyserStatistics(analysers[n]);
+        }
+
+        // Pending analysers are to be run next; stale analysers have not yet run over the current tree.
+        final BitSet pending = new BitSet(analysers.length);
+        final BitSet stale = new BitSet(analysers.length);
+        pending.set(0, analysers.length);
+        stale.set(0, analysers.length);
+
+        int changes = 0;
+        while (changes < MAX_CHANGE_ITERATIONS) {
+            int next = pending.nextSetBit(0);
+            if ( next < 0 ) {
+                if ( stale.isEmpty() ) break;
+                pending.or(stale);
+                continue;
+            }
+            pending.clear(next);
+            stale.clear(next);
+
             Node lastNode = from;
-            for (SemanticAnalyser analyser : analysers) {
-                from = analyser.performAnalysis(context, lastNode);
-                if ( !Objects.equals(lastNode, from) ) break;
-                lastNode = from;
+            long startTime = System.nanoTime();
+            from = analysers[next].performAnalysis(context, lastNode);
+            boolean changed = lastNode != from && (analysers[next].isRewrite(from) || !Objects.equals(lastNode, from));
+            analyserStatistics[next].recordRun(System.nanoTime() - startTime, changed);
+            if ( !changed ) continue;
+
+            changes++;
+            Set<Class<? extends Node>> changedNodeTypes = changedNodeTypes(lastNode, from);
+            for (int n=0; n < analysers.length; n++) {
+                stale.set(n);
+                if ( isInterestedInAny(analysers[n], changedNodeTypes) ) {
+                    pending.set(n);
+                } else if ( !pending.get(n) ) {
+                    analyserStatistics[n].recordSkip();
+                }
             }
-            if ( Objects.equals(lastNode, from) ) break;
         }
 
-        if ( i == MAX_CHANGE_ITERATIONS ) {
+        this.changeIterations = changes;
+        this.statistics = unmodifiableList(Arrays.asList(analyserStatistics));
+
+        if ( changes == MAX_CHANGE_ITERATIONS && !stale.isEmpty() ) {
             warning("Maximum semantic analysis iterations reached. This could indicate a compilation issue.");
         }
+        if ( isDebugEnabled() ) {
+            debug("Semantic analysis completed after " + changes + " change iterations: " + statistics);
+        }
 
         return from;
     }
+
+    /**
+     * Gets the per-analyser statistics gathered during the most recent analysis performed by this analyser.
+     *
+     * @return the statistics of each analyser, in analyser order, which will be empty if no analysis has been performed.
+     */
+    public List<AnalyserStatistics> getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Gets the number of times the tree was changed during the most recent analysis performed by this analyser.
+     *
+     * @return the number of changes made to the tree by all analysers.
+     */
+    public int getChangeIterations() {
+        return changeIterations;
+    }
+
+    private static boolean isInterestedInAny(final SemanticAnalyser analyser, final Set<Class<? extends Node>> nodeTypes) {
+        for (Class<? extends Node> nodeType : nodeTypes) {
+            if ( analyser.isInterestedIn(nodeType) ) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Determines the types of the nodes which differ between two versions of a tree. As the tree is copy-on-change,
+     * unchanged subtrees are shared by identity and only the paths leading to changes need be visited.
+     *
+     * @param from the tree before a transformation.
+     * @param to the tree after a transformation.
+     * @return the types of the nodes on the changed paths of the transformed tree.
+     */
+    static Set<Class<? extends Node>> changedNodeTypes(final Node from, final Node to) {
+        Set<Class<? extends Node>> changedNodeTypes = new HashSet<>();
+        collectChangedNodeTypes(from, to, changedNodeTypes);
+        return changedNodeTypes;
+    }
+
+    private static void collectChangedNodeTypes(final Node from, final Node to, final Set<Class<? extends Node>> changedNodeTypes) {
+        if ( from == to || to == null ) return;
+
+        changedNodeTypes.add(to.getClass());
+        List<Node> fromChildren = childrenOf(from);
+        List<Node> toChildren = childrenOf(to);
+        if ( from == null || from.getClass() != to.getClass() || fromChildren.size() != toChildren.size() ) {
+            // Structurally different: every node of the transformed subtree is considered changed
+            new ParseTree(to).preorderParentUnawareStream()
+                             .filter(Objects::nonNull)
+                             .forEach(node -> changedNodeTypes.add(node.getClass()));
+            return;
+        }
+
+        for (int n=0; n < toChildren.size(); n++) {
+            collectChangedNodeTypes(fromChildren.get(n), toChildren.get(n), changedNodeTypes);
+        }
+    }
+
+    private static List<Node> childrenOf(final Node node) {
+        return node instanceof CompositeNode ? ((CompositeNode)node).getChildNodes() : emptyList();
+    }
 }
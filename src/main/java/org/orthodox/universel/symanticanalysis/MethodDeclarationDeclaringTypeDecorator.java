@@ -62,4 +62,10 @@ public class MethodDeclarationDeclaringTypeDecorator extends AbstractSemanticAna
         node.setDeclaringType(new TypeDeclarationReference(enclosingTypeDeclarations.peek()));
         return node;
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean isInterestedIn(Class<? extends Node> nodeType) {
+        return ClassDeclaration.class.isAssignableFrom(nodeType)
+               || MethodDeclaration.class.isAssignableFrom(nodeType);
+    }
+}
@@ -46,4 +46,9 @@ public class NodeSequenceLastValueAnalyser extends AbstractSemanticAnalyser {
 
         return Objects.equals(node.getNodes(), transformedNodes) ? node : new NodeSequence(transformedNodes);
     }
+
+    @Override
+    public boolean isInterestedIn(Class<? extends Node> nodeType) {
+        return NodeSequence.class.isAssignableFrom(nodeType);
+    }
 }
@@ -32,4 +32,28 @@ import org.orthodox.universel.ast.Node;
 
 public interface SemanticAnalyser {
     Node performAnalysis(SemanticAnalysisContext context, Node from);
+
+    /**
+     * Whether this analyser needs to be re-run when a node of the given type, or a node beneath it, has been changed by
+     * another analyser. Analysers which only transform or report on specific node types should narrow this so they are
+     * not re-run needlessly. Defaults to every type of node.
+     *
+     * @param nodeType the type of a node which has changed.
+     * @return true if a change to a node of the given type may affect the outcome of this analyser, false otherwise.
+     */
+    default boolean isInterestedIn(Class<? extends Node> nodeType) {
+        return true;
+    }
+
+    /**
+     * Whether the given node, returned from this analyser's most recent analysis, is known to be a rewrite of the node
+     * it replaced. A rewrite is certain to differ from the original, so no structural comparison is needed to detect
+     * the change.
+     *
+     * @param node the node returned from analysis.
+     * @return true if the node is known to have been rewritten by this analyser, false if this is unknown.
+     */
+    default boolean isRewrite(Node node) {
+        return false;
+    }
 }
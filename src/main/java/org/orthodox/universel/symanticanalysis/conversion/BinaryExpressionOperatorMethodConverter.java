@@ -67,6 +67,7 @@ public class BinaryExpressionOperatorMethodConverter extends UniversalVisitorAda
     public Node performAnalysis(SemanticAnalysisContext context, Node from) {
         this.context = context;
         checkLoaded();
+        clearRewrites();
         return from.accept(this);
     }
 
@@ -134,4 +135,10 @@ public class BinaryExpressionOperatorMethodConverter extends UniversalVisitorAda
         Optional<Method> binaryOperatorMethod = binaryOperatorRegistry.lookup(transformedInstanceOfExpr.getOperator(), Object.class, Class.class);
         return binaryOperatorMethod.isPresent() ? new BinaryExpressionOperatorMethodCall(transformedInstanceOfExpr.getTokenImage(), transformedInstanceOfExpr.getOperator(), binaryOperatorMethod.get(), asList(lhs, rhs)) : transformedInstanceOfExpr;
     }
+
+    @Override
+    public boolean isInterestedIn(Class<? extends Node> nodeType) {
+        return BinaryExpression.class.isAssignableFrom(nodeType)
+               || InstanceofExpression.class.isAssignableFrom(nodeType);
+    }
 }
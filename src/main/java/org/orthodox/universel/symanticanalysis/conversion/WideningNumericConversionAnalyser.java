@@ -143,4 +143,9 @@ public class WideningNumericConversionAnalyser extends AbstractSemanticAnalyser
 
         return new BinaryExpression(node.getOperator(), lhs, rhs);
     }
+
+    @Override
+    public boolean isInterestedIn(Class<? extends Node> nodeType) {
+        return BinaryExpression.class.isAssignableFrom(nodeType);
+    }
 }
@@ -91,4 +91,9 @@ public class FieldDeclarationInitialiserConverter extends AbstractSemanticAnalys
     private boolean allFieldinitialisationsHaveCompatibleInitialisers(final FieldDeclaration node) {
         return node.getVariableDeclarations().stream().filter(vd -> vd.getInitialiser() != null).allMatch(vd -> initialiserIsAssigmentCompatible(node, vd.getInitialiser()));
     }
+
+    @Override
+    public boolean isInterestedIn(Class<? extends Node> nodeType) {
+        return FieldDeclaration.class.isAssignableFrom(nodeType);
+    }
 }
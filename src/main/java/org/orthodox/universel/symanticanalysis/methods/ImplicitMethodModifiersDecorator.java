@@ -29,6 +29,7 @@
 package org.orthodox.universel.symanticanalysis.methods;
 
 import org.orthodox.universel.ast.Modifiers;
+import org.orthodox.universel.ast.Node;
 import org.orthodox.universel.ast.methods.MethodDeclaration;
 import org.orthodox.universel.symanticanalysis.AbstractSemanticAnalyser;
 
@@ -50,4 +51,9 @@ public class ImplicitMethodModifiersDecorator extends AbstractSemanticAnalyser {
                                      node.getBody()
         );
     }
+
+    @Override
+    public boolean isInterestedIn(Class<? extends Node> nodeType) {
+        return MethodDeclaration.class.isAssignableFrom(nodeType);
+    }
 }
@@ -97,4 +97,9 @@ public class ImplicitReturnStatementDecorator extends AbstractSemanticAnalyser {
 
         return sourceNode;
     }
+
+    @Override
+    public boolean isInterestedIn(Class<? extends Node> nodeType) {
+        return MethodDeclaration.class.isAssignableFrom(nodeType);
+    }
 }
@@ -71,4 +71,9 @@ public class IfStatementImplicitResultValueResolver extends AbstractSemanticAnal
 
         return transformedNode;
     }
+
+    @Override
+    public boolean isInterestedIn(Class<? extends Node> nodeType) {
+        return IfStatement.class.isAssignableFrom(nodeType);
+    }
 }
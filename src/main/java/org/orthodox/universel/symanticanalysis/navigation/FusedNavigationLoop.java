@@ -0,0 +1,507 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.symanticanalysis.navigation;
+
+import org.beanplanet.core.models.path.SimpleNamePath;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.orthodox.universel.ast.*;
+import org.orthodox.universel.ast.functional.FunctionalInterfaceObject;
+import org.orthodox.universel.ast.literals.IntegerLiteral;
+import org.orthodox.universel.ast.methods.GeneratedStaticLambdaFunction;
+import org.orthodox.universel.ast.navigation.NavigationFilterStep;
+import org.orthodox.universel.ast.type.LoadTypeExpression;
+import org.orthodox.universel.ast.type.Parameter;
+import org.orthodox.universel.ast.type.reference.ResolvedTypeReferenceOld;
+import org.orthodox.universel.compiler.BytecodeHelper;
+import org.orthodox.universel.exec.navigation.NavigationLoopFunctions;
+import org.orthodox.universel.symanticanalysis.JvmInstructionNode;
+import org.orthodox.universel.symanticanalysis.ResolvedTypeReference;
+import org.orthodox.universel.symanticanalysis.conversion.BoxConversion;
+import org.orthodox.universel.symanticanalysis.name.InternalNodeSequence;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.objectweb.asm.Opcodes.*;
+import static org.objectweb.asm.Type.getInternalName;
+import static org.objectweb.asm.Type.getMethodDescriptor;
+import static org.orthodox.universel.ast.Modifiers.FINAL;
+import static org.orthodox.universel.ast.Modifiers.valueOf;
+import static org.orthodox.universel.ast.type.reference.TypeReference.forClass;
+import static org.orthodox.universel.compiler.TransformationUtil.autoBoxIfNecessary;
+import static org.orthodox.universel.compiler.TransformationUtil.autoBoxOrPromoteIfNecessary;
+
+/**
+ * Fuses the trailing stages of a navigation into nested imperative loops within a single generated method, as an
+ * alternative to the chain of stream operations produced by the stream backend.
+ * <p>
+ * The first stage fused is the loop source: the first sequence of the navigation or, if there are intermediate
+ * reductions, the last of them. Each subsequent sequence opens a nested loop, each scalar map is evaluated into a
+ * local variable, each filter skips to the next element of the innermost loop and the final reduction accumulates
+ * into a result collection presized to the loop source.
+ * </p>
+ */
+final class FusedNavigationLoop {
+    /** The local variable of the generated method holding the loop source, being its sole parameter. */
+    private static final int SOURCE_LOCAL = 0;
+
+    /** The stages fused, from the loop source through to the final reduction. */
+    private final List<NavigationStage> stages;
+    /** The token image of the loop source, attributed to all generated nodes. */
+    private final TokenImage tokenImage;
+    /** The body of the generated method. */
+    private final List<Node> body = new ArrayList<>();
+    /** The labels of the generated method, which are created afresh on each emission of the method. */
+    private final List<LabelReference> labels = new ArrayList<>();
+    /** The counter and index local variables of each index filter stage, by stage index. */
+    private final int[] indexFilterCounterLocals;
+    private final int[] indexFilterIndexLocals;
+    /** The label to which control passes once an index filter has selected its element and navigation is complete. */
+    private final LabelReference completed = newLabel();
+    /** The next unallocated local variable of the generated method. */
+    private int nextLocal = SOURCE_LOCAL + 1;
+
+    private FusedNavigationLoop(final List<NavigationStage> stages) {
+        this.stages = stages;
+        this.tokenImage = stages.get(0).getNode().getTokenImage();
+        this.indexFilterCounterLocals = new int[stages.size()];
+        this.indexFilterIndexLocals = new int[stages.size()];
+    }
+
+    /**
+     * Determines whether the trailing stages of a navigation may be fused into a loop and, if so, the loop source.
+     *
+     * @param stages the stages of the navigation.
+     * @return the index of the loop source stage, or -1 if the navigation cannot be fused.
+     */
+    static int sourceStageIndex(final List<NavigationStage> stages) {
+        final int lastStageIndex = stages.size() - 1;
+        if (lastStageIndex < 1 || !isFusibleReduction(stages.get(lastStageIndex))) return -1;
+
+        int sourceStageIndex = -1;
+        for (int n = 0; n < lastStageIndex; n++) {
+            final NavigationStage stage = stages.get(n);
+            if (stage.isReduce() || (sourceStageIndex < 0 && stage.isMap() && stage.isSequence())) {
+                sourceStageIndex = n;
+            }
+        }
+        if (sourceStageIndex < 0 || !isIterable(stages.get(sourceStageIndex).getType())) return -1;
+
+        for (int n = sourceStageIndex + 1; n < lastStageIndex; n++) {
+            final NavigationStage stage = stages.get(n);
+            final boolean fusible = stage instanceof PredicateFilterStage
+                                    || (stage instanceof IndexFilterStage && isConstantIndex(stage))
+                                    || (stage.isMap() && (!stage.isSequence() || isIterable(stage.getType())));
+            if (!fusible) return -1;
+        }
+
+        return sourceStageIndex;
+    }
+
+    /**
+     * Fuses the given stages into a loop, within a generated method, and returns the node invoking it.
+     *
+     * @param stages the stages to be fused, from the loop source, as determined by {@link #sourceStageIndex(List)},
+     *               through to the final reduction.
+     * @return a node which, given the loop source sequence on the operand stack, replaces it with the result of the
+     * final reduction.
+     */
+    static Node fuse(final List<NavigationStage> stages) {
+        return new FusedNavigationLoop(stages).invocation();
+    }
+
+    private Node invocation() {
+        final Type sourceType = stages.get(0).getType();
+        final Type resultType = stages.get(stages.size() - 1).getType();
+        GeneratedStaticLambdaFunction loopMethod = new GeneratedStaticLambdaFunction(new ResolvedTypeReference(tokenImage, resultType),
+                                                                                     new SimpleNamePath("nav", "loop", "fio"),
+                                                                                     NodeSequence.<Parameter>builder()
+                                                                                         .add(new Parameter(valueOf(FINAL),
+                                                                                                            new ResolvedTypeReference(tokenImage, sourceType),
+                                                                                                            false,
+                                                                                                            new Name(tokenImage, "source")
+                                                                                         ))
+                                                                                         .build(),
+                                                                                     NodeSequence.builder()
+                                                                                                 .addAll(loopMethodBody())
+                                                                                                 .build()
+        );
+
+        // With the loop source on the stack, load the loop function and apply it to the source
+        return InternalNodeSequence.builder()
+                                   .add(new FunctionalInterfaceObject(tokenImage,
+                                                                      Function.class, Object.class, singletonList(Object.class), "apply",
+                                                                      loopMethod
+                                   ))
+                                   .add(checkCast(new InstanceMethodCall(tokenImage,
+                                                                         new ResolvedTypeReferenceOld(tokenImage, Function.class),
+                                                                         new ResolvedTypeReferenceOld(tokenImage, Object.class),
+                                                                         "apply",
+                                                                         singletonList(new ResolvedTypeReferenceOld(tokenImage, Object.class)),
+                                                                         singletonList(instructions(mv -> mv.visitInsn(SWAP)))
+                                                  ), resultType))
+                                   .resultType(resultType)
+                                   .build();
+    }
+
+    private List<Node> loopMethodBody() {
+        final ReduceStage reduceStage = (ReduceStage)stages.get(stages.size() - 1);
+        final boolean reducesToSet = Set.class.isAssignableFrom(reduceStage.getReductionType());
+        final Type resultCollectionType = forClass(reducesToSet ? LinkedHashSet.class : ArrayList.class);
+        final int resultLocal = allocateLocal(resultCollectionType);
+
+        //--------------------------------------------------------------------------------------------------------------
+        // Prologue: initialise the index filter counters and constant indices and the result collection.
+        //--------------------------------------------------------------------------------------------------------------
+        body.add(instructions(mv -> labels.forEach(LabelReference::reset)));
+        for (int n = 1; n < stages.size() - 1; n++) {
+            if (stages.get(n) instanceof IndexFilterStage) {
+                final int counterLocal = indexFilterCounterLocals[n] = allocateLocal(forClass(int.class));
+                indexFilterIndexLocals[n] = allocateLocal(forClass(int.class));
+                body.add(instructions(mv -> {
+                    mv.visitInsn(ICONST_0);
+                    mv.visitVarInsn(ISTORE, counterLocal);
+                }));
+                body.add(new StoreLocal(tokenImage, forClass(int.class), autoBoxOrPromoteIfNecessary(stages.get(n).getNode(), int.class), true, indexFilterIndexLocals[n]));
+            }
+        }
+        body.add(new StoreLocal(tokenImage,
+                                resultCollectionType,
+                                new StaticMethodCall(tokenImage,
+                                                     new ResolvedTypeReferenceOld(tokenImage, NavigationLoopFunctions.class),
+                                                     new ResolvedTypeReferenceOld(tokenImage, resultCollectionType.getTypeClass()),
+                                                     reducesToSet ? "newResultSet" : "newResultList",
+                                                     singletonList(new ResolvedTypeReferenceOld(tokenImage, Object.class)),
+                                                     singletonList(new LoadLocal(tokenImage, stages.get(0).getType(), SOURCE_LOCAL))
+                                ),
+                                true,
+                                resultLocal
+        ));
+
+        //--------------------------------------------------------------------------------------------------------------
+        // The loops, starting with the loop source.
+        //--------------------------------------------------------------------------------------------------------------
+        body.add(new LoadLocal(tokenImage, stages.get(0).getType(), SOURCE_LOCAL));
+        iterate(stages.get(0).getType(), (elementType, elementLocal) -> navigate(1, elementType, elementLocal, resultLocal));
+
+        //--------------------------------------------------------------------------------------------------------------
+        // Epilogue: check index filters selected their element and return the result.
+        //--------------------------------------------------------------------------------------------------------------
+        body.add(label(completed));
+        for (int n = 1; n < stages.size() - 1; n++) {
+            if (stages.get(n) instanceof IndexFilterStage) {
+                final int counterLocal = indexFilterCounterLocals[n];
+                final int indexLocal = indexFilterIndexLocals[n];
+                body.add(instructions(mv -> {
+                    mv.visitVarInsn(ILOAD, indexLocal);
+                    mv.visitVarInsn(ILOAD, counterLocal);
+                    mv.visitMethodInsn(INVOKESTATIC, getInternalName(NavigationLoopFunctions.class), "checkSelectedIndex",
+                                       getMethodDescriptor(org.objectweb.asm.Type.VOID_TYPE, org.objectweb.asm.Type.INT_TYPE, org.objectweb.asm.Type.INT_TYPE), false);
+                }));
+            }
+        }
+
+        final Node result = new LoadLocal(tokenImage, resultCollectionType, resultLocal);
+        if (reduceStage.getReductionType().isArray()) {
+            final Class<?> arrayType = reduceStage.getTypeDescriptor();
+            body.add(new ReturnStatement(checkCast(new StaticMethodCall(tokenImage,
+                                                                        new ResolvedTypeReferenceOld(tokenImage, NavigationLoopFunctions.class),
+                                                                        new ResolvedTypeReferenceOld(tokenImage, Object[].class),
+                                                                        "toArray",
+                                                                        asList(new ResolvedTypeReferenceOld(tokenImage, Collection.class),
+                                                                               new ResolvedTypeReferenceOld(tokenImage, Class.class)),
+                                                                        asList(result,
+                                                                               new LoadTypeExpression(tokenImage, forClass(arrayType.getComponentType())))
+                                                   ), reduceStage.getType())));
+        } else {
+            body.add(new ReturnStatement(result));
+        }
+
+        return body;
+    }
+
+    /**
+     * Generates the navigation of the given stage, and those following it, for an element of the enclosing loop.
+     *
+     * @param stageIndex the index of the stage to be navigated.
+     * @param elementType the type of the element navigated, being the result of the previous stage.
+     * @param elementLocal the local variable holding the element navigated.
+     * @param resultLocal the local variable holding the result collection.
+     */
+    private void navigate(final int stageIndex, final Type elementType, final int elementLocal, final int resultLocal) {
+        final NavigationStage stage = stages.get(stageIndex);
+        final Node step = stage.getNode();
+
+        if (stage.isReduce()) {
+            final Node element = new LoadLocal(tokenImage, elementType, elementLocal);
+            body.add(new LoadLocal(tokenImage, forClass(Collection.class), resultLocal));
+            body.add(elementType.isPrimitiveType() ? new BoxConversion(element) : element);
+            body.add(instructions(mv -> {
+                mv.visitMethodInsn(INVOKEINTERFACE, getInternalName(Collection.class), "add",
+                                   getMethodDescriptor(org.objectweb.asm.Type.BOOLEAN_TYPE, org.objectweb.asm.Type.getType(Object.class)), true);
+                mv.visitInsn(POP);
+            }));
+        } else if (stage instanceof PredicateFilterStage) {
+            final LabelReference rejected = newLabel();
+            body.add(autoBoxIfNecessary(bindElement(step, elementLocal), boolean.class));
+            body.add(jump(IFEQ, rejected));
+            navigate(stageIndex + 1, elementType, elementLocal, resultLocal);
+            body.add(label(rejected));
+        } else if (stage instanceof IndexFilterStage) {
+            final int counterLocal = indexFilterCounterLocals[stageIndex];
+            final int indexLocal = indexFilterIndexLocals[stageIndex];
+            final LabelReference rejected = newLabel();
+            body.add(instructions(mv -> {
+                mv.visitVarInsn(ILOAD, counterLocal);
+                mv.visitIincInsn(counterLocal, 1);
+                mv.visitVarInsn(ILOAD, indexLocal);
+                mv.visitJumpInsn(IF_ICMPNE, rejected.get());
+            }));
+            navigate(stageIndex + 1, elementType, elementLocal, resultLocal);
+            // No further element can pass the filter, so the navigation is complete
+            body.add(jump(GOTO, completed));
+            body.add(label(rejected));
+        } else if (stage.isSequence()) {
+            body.add(new LoadLocal(tokenImage, elementType, elementLocal));
+            body.add(step);
+            iterate(step.getType(), (componentType, componentLocal) -> navigate(stageIndex + 1, componentType, componentLocal, resultLocal));
+        } else {
+            final int valueLocal = allocateLocal(step.getType());
+            body.add(new LoadLocal(tokenImage, elementType, elementLocal));
+            body.add(new StoreLocal(tokenImage, step.getType(), step, true, valueLocal));
+            navigate(stageIndex + 1, step.getType(), valueLocal, resultLocal);
+        }
+    }
+
+    /**
+     * Generates a loop over the sequence on the operand stack, which may be an array or iterable. As with a flat-map of
+     * the stream backend, a null sequence is navigated as an empty sequence.
+     *
+     * @param sequenceType the type of the sequence.
+     * @param elementNavigation generates the navigation of each element of the sequence, given the element type and
+     *                          the local variable holding the element.
+     */
+    private void iterate(final Type sequenceType, final ElementNavigation elementNavigation) {
+        final Type elementType = elementTypeOf(sequenceType);
+        final Class<?> elementClass = elementType.getTypeClass();
+        final int sequenceLocal = allocateLocal(sequenceType);
+        final int elementLocal = allocateLocal(elementType);
+        final LabelReference next = newLabel();
+        final LabelReference end = newLabel();
+
+        if (sequenceType.getTypeClass().isArray()) {
+            final int indexLocal = allocateLocal(forClass(int.class));
+            body.add(instructions(mv -> {
+                mv.visitVarInsn(ASTORE, sequenceLocal);
+                mv.visitVarInsn(ALOAD, sequenceLocal);
+                mv.visitJumpInsn(IFNULL, end.get());
+                mv.visitInsn(ICONST_0);
+                mv.visitVarInsn(ISTORE, indexLocal);
+                mv.visitLabel(next.get());
+                mv.visitVarInsn(ILOAD, indexLocal);
+                mv.visitVarInsn(ALOAD, sequenceLocal);
+                mv.visitInsn(ARRAYLENGTH);
+                mv.visitJumpInsn(IF_ICMPGE, end.get());
+                mv.visitVarInsn(ALOAD, sequenceLocal);
+                mv.visitVarInsn(ILOAD, indexLocal);
+                mv.visitInsn(AALOAD);
+                mv.visitVarInsn(ASTORE, elementLocal);
+                mv.visitIincInsn(indexLocal, 1);
+            }));
+        } else {
+            final int iteratorLocal = allocateLocal(forClass(Object.class));
+            body.add(instructions(mv -> {
+                mv.visitVarInsn(ASTORE, sequenceLocal);
+                mv.visitVarInsn(ALOAD, sequenceLocal);
+                mv.visitJumpInsn(IFNULL, end.get());
+                mv.visitVarInsn(ALOAD, sequenceLocal);
+                mv.visitMethodInsn(INVOKEINTERFACE, "java/lang/Iterable", "iterator", "()Ljava/util/Iterator;", true);
+                mv.visitVarInsn(ASTORE, iteratorLocal);
+                mv.visitLabel(next.get());
+                mv.visitVarInsn(ALOAD, iteratorLocal);
+                mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Iterator", "hasNext", "()Z", true);
+                mv.visitJumpInsn(IFEQ, end.get());
+                mv.visitVarInsn(ALOAD, iteratorLocal);
+                mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Iterator", "next", "()Ljava/lang/Object;", true);
+                if (elementClass != Object.class) {
+                    mv.visitTypeInsn(CHECKCAST, getInternalName(elementClass));
+                }
+                mv.visitVarInsn(ASTORE, elementLocal);
+            }));
+        }
+
+        elementNavigation.navigate(elementType, elementLocal);
+
+        body.add(instructions(mv -> {
+            mv.visitJumpInsn(GOTO, next.get());
+            mv.visitLabel(end.get());
+        }));
+    }
+
+    /**
+     * Binds a filter to the element navigated. Filters are resolved to read the element from the first local variable,
+     * being the parameter of a stream backend predicate, which are rebound here to the local variable holding the
+     * element in the loop. Functional objects are not rebound, as their methods have their own local variables.
+     *
+     * @param filter the filter to be bound.
+     * @param elementLocal the local variable holding the element filtered.
+     * @return the filter, reading the element from the given local variable.
+     */
+    private static Node bindElement(final Node filter, final int elementLocal) {
+        return filter.accept(new UniversalVisitorAdapter() {
+            @Override
+            public Node visitFunctionalInterfaceObject(final FunctionalInterfaceObject node) {
+                return node;
+            }
+
+            @Override
+            public Node visitLoadLocal(final LoadLocal node) {
+                return node.getLocalIndex() == 0 ? new LoadLocal(node.getTokenImage(), node.getType(), elementLocal) : node;
+            }
+        });
+    }
+
+    /**
+     * Determines whether the index of an index filter is a constant. The index of a fused filter is evaluated in the
+     * prologue of the generated method, where the first local variable is the loop source rather than the script
+     * binding, so only indices independent of the binding may be fused.
+     *
+     * @param stage the index filter stage.
+     * @return true if the index is an integer literal, false otherwise.
+     */
+    private static boolean isConstantIndex(final NavigationStage stage) {
+        Node index = stage.getNode();
+        if (index instanceof NavigationFilterStep) {
+            index = ((NavigationFilterStep)index).getFilterExpression();
+        }
+        return index instanceof IntegerLiteral;
+    }
+
+    private static boolean isFusibleReduction(final NavigationStage stage) {
+        if (!(stage instanceof ReduceStage) || ((ReduceStage)stage).getReductionType() == null) return false;
+
+        final Class<?> reductionType = ((ReduceStage)stage).getReductionType();
+        if (reductionType == List.class || reductionType == Set.class) return true;
+
+        final Class<?> arrayType = stage.getTypeDescriptor();
+        return reductionType == Object[].class && arrayType != null && arrayType.isArray() && !arrayType.getComponentType().isPrimitive();
+    }
+
+    private static boolean isIterable(final Type type) {
+        final Class<?> typeClass = type == null ? null : type.getTypeClass();
+        if (typeClass == null) return false;
+
+        return typeClass.isArray() ? !typeClass.getComponentType().isPrimitive() : Iterable.class.isAssignableFrom(typeClass);
+    }
+
+    private static Type elementTypeOf(final Type sequenceType) {
+        final Type componentType = sequenceType.getComponentType();
+        if (componentType != null && componentType.getTypeClass() != null) return componentType;
+
+        return forClass(sequenceType.getTypeClass().isArray() ? sequenceType.getTypeClass().getComponentType() : Object.class);
+    }
+
+    private int allocateLocal(final Type type) {
+        final int local = nextLocal;
+        final Class<?> typeClass = type.getTypeClass();
+        nextLocal += typeClass == long.class || typeClass == double.class ? 2 : 1;
+        return local;
+    }
+
+    private LabelReference newLabel() {
+        final LabelReference label = new LabelReference();
+        labels.add(label);
+        return label;
+    }
+
+    private Node label(final LabelReference label) {
+        return instructions(mv -> mv.visitLabel(label.get()));
+    }
+
+    private Node jump(final int opcode, final LabelReference label) {
+        return instructions(mv -> mv.visitJumpInsn(opcode, label.get()));
+    }
+
+    private Node instructions(final Consumer<MethodVisitor> emitter) {
+        return new JvmInstructionNode(tokenImage) {
+            @Override
+            public void emit(final BytecodeHelper bch) {
+                emitter.accept(bch.peekMethodVisitor());
+            }
+        };
+    }
+
+    private static Node checkCast(final Node source, final Type type) {
+        return new JvmInstructionNode(source) {
+            @Override
+            public Type getType() {
+                return type;
+            }
+
+            @Override
+            public void emit(final BytecodeHelper bch) {
+                bch.peekMethodVisitor().visitTypeInsn(CHECKCAST, getInternalName(type.getTypeClass()));
+            }
+        };
+    }
+
+    /**
+     * Generates the navigation of an element of a loop.
+     */
+    @FunctionalInterface
+    private interface ElementNavigation {
+        void navigate(Type elementType, int elementLocal);
+    }
+
+    /**
+     * A reference to a label of the generated method. Labels may only be visited once, so are created afresh each
+     * time the method is emitted.
+     */
+    private static final class LabelReference {
+        private Label label;
+
+        Label get() {
+            if (label == null) {
+                label = new Label();
+            }
+            return label;
+        }
+
+        void reset() {
+            label = null;
+        }
+    }
+}
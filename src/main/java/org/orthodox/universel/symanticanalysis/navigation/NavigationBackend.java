@@ -0,0 +1,60 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.symanticanalysis.navigation;
+
+/**
+ * The code generation backends to which multi-step navigations may be lowered.
+ */
+public enum NavigationBackend {
+    /**
+     * Lowers each navigation stage to a {@link java.util.stream.Stream} operation, with map, filter and flat-map
+     * functions generated as lambda methods.
+     */
+    STREAM,
+    /**
+     * Fuses the map, filter and reduce stages of a navigation into nested imperative loops within a single generated
+     * method, accumulating into a presized result collection. Navigations the loop backend cannot fuse are lowered by
+     * the stream backend.
+     */
+    LOOP;
+
+    /** The system property naming the backend used by compilers which have not been given one explicitly. */
+    public static final String BACKEND_PROPERTY = "universel.compiler.navigation.backend";
+
+    /**
+     * Gets the backend named by the {@link #BACKEND_PROPERTY} system property, or {@link #STREAM} if the property is
+     * not set.
+     *
+     * @return the default navigation backend, never null.
+     * @throws IllegalArgumentException if the property does not name a navigation backend.
+     */
+    public static NavigationBackend defaultBackend() {
+        final String backendName = System.getProperty(BACKEND_PROPERTY);
+        return backendName == null ? STREAM : valueOf(backendName.trim().toUpperCase());
+    }
+}
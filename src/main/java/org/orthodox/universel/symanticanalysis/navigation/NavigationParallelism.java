@@ -0,0 +1,115 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.symanticanalysis.navigation;
+
+import java.util.Objects;
+
+/**
+ * Whether, and from what size, the sequences of multi-step navigations are evaluated in parallel. Parallel evaluation
+ * runs on the fork/join pool of the evaluating thread, which is the common pool unless a script is evaluated within
+ * a supplied pool. Encounter order is preserved, so list, set and array reductions are unaffected by parallelism.
+ */
+public final class NavigationParallelism {
+    /** The system property enabling parallel navigation for compilers which have not been given a parallelism. */
+    public static final String PARALLEL_PROPERTY = "universel.compiler.navigation.parallel";
+    /** The system property giving the parallel threshold for compilers which have not been given a parallelism. */
+    public static final String PARALLEL_THRESHOLD_PROPERTY = "universel.compiler.navigation.parallelThreshold";
+    /** The default size of sequence from which navigation is parallelised. */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 10_000;
+
+    /** Strictly sequential navigation. */
+    public static final NavigationParallelism SEQUENTIAL = new NavigationParallelism(false, Integer.MAX_VALUE);
+
+    private final boolean parallel;
+    private final int threshold;
+
+    private NavigationParallelism(final boolean parallel, final int threshold) {
+        this.parallel = parallel;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Parallel navigation of sequences of at least the given size, with smaller sequences navigated sequentially.
+     *
+     * @param threshold the size of sequence from which navigation is parallelised.
+     * @return parallel navigation from the given threshold.
+     * @throws IllegalArgumentException if the threshold is negative.
+     */
+    public static NavigationParallelism parallel(final int threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("The parallel navigation threshold [" + threshold + "] must not be negative");
+        }
+        return new NavigationParallelism(true, threshold);
+    }
+
+    /**
+     * Gets the parallelism configured by the {@link #PARALLEL_PROPERTY} and {@link #PARALLEL_THRESHOLD_PROPERTY} system
+     * properties, which is {@link #SEQUENTIAL} unless parallel navigation is enabled.
+     *
+     * @return the default navigation parallelism, never null.
+     */
+    public static NavigationParallelism defaultParallelism() {
+        return Boolean.getBoolean(PARALLEL_PROPERTY) ? parallel(Integer.getInteger(PARALLEL_THRESHOLD_PROPERTY, DEFAULT_PARALLEL_THRESHOLD)) : SEQUENTIAL;
+    }
+
+    /**
+     * Whether sequences may be navigated in parallel.
+     *
+     * @return true if sequences of at least the threshold size are navigated in parallel, false otherwise.
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Gets the size of sequence from which navigation is parallelised.
+     *
+     * @return the parallel threshold, which is {@link Integer#MAX_VALUE} for sequential navigation.
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (!(o instanceof NavigationParallelism)) return false;
+        NavigationParallelism that = (NavigationParallelism) o;
+        return parallel == that.parallel && threshold == that.threshold;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(parallel, threshold);
+    }
+
+    @Override
+    public String toString() {
+        return parallel ? "parallel(" + threshold + ")" : "sequential";
+    }
+}
@@ -52,6 +52,7 @@ import org.orthodox.universel.symanticanalysis.conversion.TypeConversion;
 import org.orthodox.universel.symanticanalysis.name.InternalNodeSequence;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
@@ -74,6 +75,41 @@ import static org.orthodox.universel.compiler.TransformationUtil.autoBoxIfNecess
 import static org.orthodox.universel.compiler.TransformationUtil.autoBoxOrPromoteIfNecessary;
 
 public class NavigationResolver extends AbstractSemanticAnalyser {
+    /** The code generation backend to which multi-step navigations are lowered. */
+    private final NavigationBackend backend;
+    /** Whether, and from what size, navigated sequences are streamed in parallel. */
+    private final NavigationParallelism parallelism;
+
+    /**
+     * Constructs a navigation resolver which lowers navigations using the backend and parallelism configured by the
+     * {@link NavigationBackend#BACKEND_PROPERTY} and {@link NavigationParallelism#PARALLEL_PROPERTY} system properties,
+     * or the sequential stream backend by default.
+     */
+    public NavigationResolver() {
+        this(NavigationBackend.defaultBackend());
+    }
+
+    /**
+     * Constructs a navigation resolver which lowers navigations using the given backend and the parallelism configured
+     * by the {@link NavigationParallelism#PARALLEL_PROPERTY} system property.
+     *
+     * @param backend the code generation backend to which multi-step navigations are to be lowered.
+     */
+    public NavigationResolver(final NavigationBackend backend) {
+        this(backend, NavigationParallelism.defaultParallelism());
+    }
+
+    /**
+     * Constructs a navigation resolver which lowers navigations using the given backend and parallelism. Parallel
+     * navigations are always lowered to streams, as fused loops are inherently sequential.
+     *
+     * @param backend the code generation backend to which multi-step navigations are to be lowered.
+     * @param parallelism whether, and from what size, navigated sequences are to be streamed in parallel.
+     */
+    public NavigationResolver(final NavigationBackend backend, final NavigationParallelism parallelism) {
+        this.backend = backend;
+        this.parallelism = parallelism;
+    }
 
     /**
      * Simplifies the potentially complex AST navigation expression, by functional decomposition, to
@@ -98,7 +134,7 @@ public class NavigationResolver extends AbstractSemanticAnalyser {
     @Override
     public Node visitNavigationStream(final NavigationStream node) {
         NavigationStream transformedNavigationStream = (NavigationStream)super.visitNavigationStream(node);
-        if ( !Objects.equals(node, transformedNavigationStream) ) return transformedNavigationStream;
+        if ( !unchanged(node, transformedNavigationStream) ) return transformedNavigationStream;
 
         if ( transformedNavigationStream.getInputSteps().isEmpty() ) {
             return finaliseNavigation(transformedNavigationStream);
@@ -177,16 +213,17 @@ public class NavigationResolver extends AbstractSemanticAnalyser {
                         remainingInputSteps.addAll(node.getInputSteps().subList(n, node.getInputSteps().size()));
                     } else {
                         final boolean isReduction = navigationAxisAndNodeTest.getNodeTest() instanceof ReductionNodeTest;
+                        final ReductionNodeTest reductionNodeTest = isReduction ? (ReductionNodeTest)navigationAxisAndNodeTest.getNodeTest() : null;
                         if ( navTransform.getSource() != null ) {
                             final boolean isSequence = isSequenceType(navTransform.getSource());
                             inSequence = (inSequence || isSequence);
-                            final NavigationStage targetNode = isReduction ? new ReduceStage(navTransform.getSource(), isSequence, inSequence) : new MapStage(navTransform.getSource(), isSequence, inSequence);
+                            final NavigationStage targetNode = isReduction ? new ReduceStage(navTransform.getSource(), isSequence, inSequence, reductionNodeTest) : new MapStage(navTransform.getSource(), isSequence, inSequence);
                             targetStages.add(targetNode);
                         }
 
                         final boolean isSequence = isSequenceType(navTransform.getTarget());
                         inSequence = (inSequence || isSequence);
-                        final NavigationStage targetNode = isReduction ? new ReduceStage(navTransform.getTarget(), isSequence, inSequence) : new MapStage(navTransform.getTarget(), isSequence, inSequence);
+                        final NavigationStage targetNode = isReduction ? new ReduceStage(navTransform.getTarget(), isSequence, inSequence, reductionNodeTest) : new MapStage(navTransform.getTarget(), isSequence, inSequence);
                         targetStages.add(targetNode);
                     }
                 }
@@ -377,6 +414,23 @@ public class NavigationResolver extends AbstractSemanticAnalyser {
     }
 
     private List<Node> transformTargetStages(final List<NavigationStage> stages) {
+        //--------------------------------------------------------------------------------------------------------------
+        // Fuse the trailing sequence stages into a single loop, where selected and the stages permit. Any leading
+        // stages, up to and including the loop source, are transformed as they would be by the stream backend.
+        //--------------------------------------------------------------------------------------------------------------
+        if (backend == NavigationBackend.LOOP && !parallelism.isParallel()) {
+            final int sourceStageIndex = FusedNavigationLoop.sourceStageIndex(stages);
+            if (sourceStageIndex >= 0) {
+                List<Node> transformedStages = transformStreamStages(stages.subList(0, sourceStageIndex + 1));
+                transformedStages.add(FusedNavigationLoop.fuse(stages.subList(sourceStageIndex, stages.size())));
+                return transformedStages;
+            }
+        }
+
+        return transformStreamStages(stages);
+    }
+
+    private List<Node> transformStreamStages(final List<NavigationStage> stages) {
 
         //--------------------------------------------------------------------------------------------------------------
         // Transform the single-cardinality steps back to multi-cardinalities, where applicable.
@@ -384,6 +438,14 @@ public class NavigationResolver extends AbstractSemanticAnalyser {
         List<Node> multipleCardinalityTransformedSteps = new ArrayList<>(stages.size());
         boolean inStream = false;
         Type prevMapStageType = null;
+
+        //--------------------------------------------------------------------------------------------------------------
+        // Navigations of int, long or double elements which reduce to a primitive array, or to an aggregate, are
+        // streamed as primitive streams from the stage producing the primitive elements, so they are never boxed.
+        //--------------------------------------------------------------------------------------------------------------
+        final Class<?> primitiveElementType = PrimitiveNavigationStreams.primitiveElementType(stages);
+        final int primitiveStageIndex = PrimitiveNavigationStreams.primitiveStageIndex(stages);
+        boolean inPrimitiveStream = false;
         for (int n = 0; n < stages.size(); n++) {
             NavigationStage previousStage = n > 0 ? stages.get(n - 1) : null;
             NavigationStage stage = stages.get(n);
@@ -395,12 +457,38 @@ public class NavigationResolver extends AbstractSemanticAnalyser {
                 if (!isLastStage) {
                     inStream = true;
                     // Convert to stream
-                    step = new TypeConversion(step, new ParameterisedTypeImpl(step.getTokenImage(), forClass(Stream.class), step.getType().getComponentType()));
+                    step = toStream(step);
+                } else if (inPrimitiveStream) {
+                    step = PrimitiveNavigationStreams.reduce((ReduceStage)stage, primitiveElementType);
                 }
             } else if (stage.isMap()) {
                 if (stage.isSequence()) {
+                    final Type streamElementType = prevMapStageType;
                     prevMapStageType = step.getType().getComponentType();
-                    if (inStream) {
+                    if (inStream && n == primitiveStageIndex) {
+                        // Flatten the primitive arrays into a primitive stream
+                        LambdaFunction conversionLambda = new GeneratedStaticLambdaFunction(new ResolvedTypeReference(step.getTokenImage(), forClass(PrimitiveNavigationStreams.streamType(primitiveElementType))),
+                                                                                            new SimpleNamePath("nav", "flatMap", "stage", String.valueOf(n), "fio"),
+                                                                                            NodeSequence.<Parameter>builder()
+                                                                                                .add(new Parameter(valueOf(FINAL),
+                                                                                                                   new ResolvedTypeReference(previousStage.getNode().getTokenImage(), streamElementType),
+                                                                                                                   false,
+                                                                                                                   new Name(previousStage.getNode().getTokenImage(), "step")
+                                                                                                ))
+                                                                                                .build(),
+                                                                                            NodeSequence.builder()
+                                                                                                        .add(new ReturnStatement(
+                                                                                                            InternalNodeSequence.builder()
+                                                                                                                                .add(new LoadLocal(previousStage.getNode().getTokenImage(), streamElementType, 0))
+                                                                                                                                .add(PrimitiveNavigationStreams.toStream(step, Integer.MAX_VALUE))
+                                                                                                                                .build()
+                                                                                                             )
+                                                                                                        )
+                                                                                                        .build()
+                        );
+                        step = PrimitiveNavigationStreams.flatMapTo(step.getTokenImage(), primitiveElementType, conversionLambda);
+                        inPrimitiveStream = true;
+                    } else if (inStream) {
                         // Convert sequence to stream and flatMap into existing stream
                         LambdaFunction conversionLambda = new GeneratedStaticLambdaFunction(new ResolvedTypeReference(step.getTokenImage(), forClass(Stream.class)),
                                                                                             new SimpleNamePath("nav", "flatMap", "stage", String.valueOf(n), "fio"),
@@ -435,10 +523,15 @@ public class NavigationResolver extends AbstractSemanticAnalyser {
                                                    ))
                                                    .build();
 
+                    } else if (!isLastStage && n == primitiveStageIndex) {
+                        inStream = true;
+                        inPrimitiveStream = true;
+                        // Convert to primitive stream
+                        step = PrimitiveNavigationStreams.toStream(step, parallelism.getThreshold());
                     } else if (!isLastStage) {
                         inStream = true;
                         // Convert to stream
-                        step = new TypeConversion(step, new ParameterisedTypeImpl(step.getTokenImage(), forClass(Stream.class), step.getType().getComponentType()));
+                        step = toStream(step);
                     }
                 } else if (inStream) {
 
@@ -458,26 +551,31 @@ public class NavigationResolver extends AbstractSemanticAnalyser {
                                                                                                    .build()
                     );
                     prevMapStageType = step.getType();
-                    step = InternalNodeSequence.builder()
-                                               .add(new InstanceMethodCall(step.getTokenImage(),
-                                                                           new ResolvedTypeReferenceOld(step.getTokenImage(), Stream.class),
-                                                                           new ParameterisedTypeImpl(step.getTokenImage(), forClass(Stream.class), step.getType()),
-                                                                           "map",
-                                                                           singletonList(new ResolvedTypeReferenceOld(Function.class)),
-                                                                           singletonList(new FunctionalInterfaceObject(step.getTokenImage(),
-                                                                                                                       Function.class, Object.class, singletonList(Object.class), "apply",
-                                                                                                                       generatedMethod
-                                                                                         )
-                                                                           )
-                                               ))
-                                               .build();
+                    if (n == primitiveStageIndex) {
+                        step = PrimitiveNavigationStreams.mapTo(step.getTokenImage(), primitiveElementType, generatedMethod);
+                        inPrimitiveStream = true;
+                    } else {
+                        step = InternalNodeSequence.builder()
+                                                   .add(new InstanceMethodCall(step.getTokenImage(),
+                                                                               new ResolvedTypeReferenceOld(step.getTokenImage(), Stream.class),
+                                                                               new ParameterisedTypeImpl(step.getTokenImage(), forClass(Stream.class), step.getType()),
+                                                                               "map",
+                                                                               singletonList(new ResolvedTypeReferenceOld(Function.class)),
+                                                                               singletonList(new FunctionalInterfaceObject(step.getTokenImage(),
+                                                                                                                           Function.class, Object.class, singletonList(Object.class), "apply",
+                                                                                                                           generatedMethod
+                                                                                             )
+                                                                               )
+                                                   ))
+                                                   .build();
+                    }
                 } else {
                     prevMapStageType = step.getType();
                 }
             } else if (stage.isFilter()) {
                 if (stage instanceof PredicateFilterStage) {
                     if (inStream) {
-                        // Simply translate the filter to a stream filter operation
+                        // Simply translate the filter to a stream, or primitive stream, filter operation
                         LambdaFunction generatedMethod = new GeneratedStaticLambdaFunction(new ResolvedTypeReferenceOld(step.getTokenImage(), boolean.class),
                                                                                            new SimpleNamePath("nav", "predicatefilter", "stage", String.valueOf(n), "fio"),
                                                                                            NodeSequence.<Parameter>builder()
@@ -491,7 +589,8 @@ public class NavigationResolver extends AbstractSemanticAnalyser {
                                                                                                        .add(new ReturnStatement(autoBoxIfNecessary(step, boolean.class)))
                                                                                                        .build()
                         );
-                        step = InternalNodeSequence.builder()
+                        step = inPrimitiveStream ? PrimitiveNavigationStreams.filter(step.getTokenImage(), primitiveElementType, generatedMethod) :
+                               InternalNodeSequence.builder()
                                                    .add(new InstanceMethodCall(step.getTokenImage(),
                                                                                new ResolvedTypeReferenceOld(step.getTokenImage(), Stream.class),
                                                                                new ParameterisedTypeImpl(step.getTokenImage(), forClass(Stream.class), prevMapStageType),
@@ -568,6 +667,44 @@ public class NavigationResolver extends AbstractSemanticAnalyser {
         return multipleCardinalityTransformedSteps;
     }
 
+    /**
+     * Converts a sequence to the stream which begins a navigation. Collections and reference arrays are streamed in
+     * parallel where parallel navigation is selected and the sequence is at least the parallel threshold in size, as
+     * determined when the navigation is evaluated. All other sequences are streamed sequentially.
+     *
+     * @param sequence the sequence to be streamed.
+     * @return a node converting the sequence to a stream of its elements.
+     */
+    private Node toStream(final Node sequence) {
+        final ParameterisedTypeImpl streamType = new ParameterisedTypeImpl(sequence.getTokenImage(), forClass(Stream.class), sequence.getType().getComponentType());
+        final Class<?> sequenceClass = sequence.getTypeDescriptor();
+        final Class<?> streamedClass = sequenceClass == null ? null
+                                       : Collection.class.isAssignableFrom(sequenceClass) ? Collection.class
+                                       : sequenceClass.isArray() && !sequenceClass.getComponentType().isPrimitive() ? Object[].class
+                                       : null;
+        if (!parallelism.isParallel() || streamedClass == null) {
+            return new TypeConversion(sequence, streamType);
+        }
+
+        final int parallelThreshold = parallelism.getThreshold();
+        return new StaticMethodCall(sequence.getTokenImage(),
+                                    new ResolvedTypeReferenceOld(sequence.getTokenImage(), NavigationStreamFunctions.class),
+                                    streamType,
+                                    "stream",
+                                    asList(new ResolvedTypeReference(sequence.getTokenImage(), forClass(streamedClass)),
+                                           new ResolvedTypeReference(sequence.getTokenImage(), forClass(int.class))
+                                    ),
+                                    asList(sequence,
+                                           new JvmInstructionNode(sequence.getTokenImage()) {
+                                               @Override
+                                               public void emit(final BytecodeHelper bch) {
+                                                   bch.emitLoadNumericOperand(parallelThreshold);
+                                               }
+                                           }
+                                    )
+        );
+    }
+
     private Node addNullSafetyChecks(final List<Node> transformedStages) {
         Node lastNullSafeNavigation = null;
         for (int n = transformedStages.size() - 1; n > 0; n--) {
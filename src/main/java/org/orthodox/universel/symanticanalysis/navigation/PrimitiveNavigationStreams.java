@@ -0,0 +1,326 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.symanticanalysis.navigation;
+
+import org.orthodox.universel.ast.InstanceMethodCall;
+import org.orthodox.universel.ast.Node;
+import org.orthodox.universel.ast.StaticMethodCall;
+import org.orthodox.universel.ast.TokenImage;
+import org.orthodox.universel.ast.Type;
+import org.orthodox.universel.ast.functional.FunctionalInterfaceObject;
+import org.orthodox.universel.ast.methods.LambdaFunction;
+import org.orthodox.universel.ast.navigation.AggregateNodeTest;
+import org.orthodox.universel.ast.type.reference.ResolvedTypeReferenceOld;
+import org.orthodox.universel.compiler.BytecodeHelper;
+import org.orthodox.universel.exec.navigation.NavigationAggregateFunctions;
+import org.orthodox.universel.exec.navigation.NavigationStreamFunctions;
+import org.orthodox.universel.symanticanalysis.JvmInstructionNode;
+import org.orthodox.universel.symanticanalysis.ResolvedTypeReference;
+
+import java.util.List;
+import java.util.function.DoublePredicate;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.beanplanet.core.lang.TypeUtil.ensureNonPrimitiveType;
+import static org.orthodox.universel.ast.type.reference.TypeReference.forClass;
+
+/**
+ * Specialises the stream backend for navigations of <code>int</code>, <code>long</code> or <code>double</code>
+ * elements which reduce to an array of the same primitive type or to an aggregate. From the stage producing the
+ * primitive elements, the navigation is lowered to an {@link IntStream}, {@link LongStream} or {@link DoubleStream} so
+ * the elements are never boxed: scalar maps become <code>mapTo&lt;Type&gt;</code>, nested arrays become
+ * <code>flatMapTo&lt;Type&gt;</code>, predicate filters take primitive predicates and the reduction is the primitive
+ * stream's own <code>toArray()</code> or <code>count()</code>, or a primitive aggregate of
+ * {@link NavigationAggregateFunctions}.
+ */
+final class PrimitiveNavigationStreams {
+    /**
+     * The primitive element types which may be streamed without boxing, with the stream and functional interface
+     * types through which they are navigated.
+     */
+    private enum PrimitiveStream {
+        INT(int.class, int[].class, IntStream.class, "Int", ToIntFunction.class, IntPredicate.class),
+        LONG(long.class, long[].class, LongStream.class, "Long", ToLongFunction.class, LongPredicate.class),
+        DOUBLE(double.class, double[].class, DoubleStream.class, "Double", ToDoubleFunction.class, DoublePredicate.class);
+
+        private final Class<?> elementType;
+        private final Class<?> arrayType;
+        private final Class<?> streamType;
+        private final String typeName;
+        private final Class<?> mappingFunctionType;
+        private final Class<?> predicateType;
+
+        PrimitiveStream(final Class<?> elementType,
+                        final Class<?> arrayType,
+                        final Class<?> streamType,
+                        final String typeName,
+                        final Class<?> mappingFunctionType,
+                        final Class<?> predicateType) {
+            this.elementType = elementType;
+            this.arrayType = arrayType;
+            this.streamType = streamType;
+            this.typeName = typeName;
+            this.mappingFunctionType = mappingFunctionType;
+            this.predicateType = predicateType;
+        }
+
+        private static PrimitiveStream forElementType(final Class<?> elementType) {
+            for (PrimitiveStream primitiveStream : values()) {
+                if (primitiveStream.elementType == elementType) return primitiveStream;
+            }
+            return null;
+        }
+    }
+
+    private PrimitiveNavigationStreams() {
+    }
+
+    /**
+     * Determines the primitive element type of a navigation which may be streamed without boxing.
+     *
+     * @param stages the stages of the navigation.
+     * @return <code>int</code>, <code>long</code> or <code>double</code> if the navigation may be streamed without
+     * boxing, or null otherwise.
+     */
+    static Class<?> primitiveElementType(final List<NavigationStage> stages) {
+        final int primitiveStageIndex = primitiveStageIndex(stages);
+        return primitiveStageIndex < 0 ? null : elementTypeProducedBy(stages.get(primitiveStageIndex));
+    }
+
+    /**
+     * Determines the stage of a navigation from which its elements may be streamed without boxing. This is the map
+     * stage producing <code>int</code>, <code>long</code> or <code>double</code> elements, or arrays of them, followed by
+     * nothing but predicate filters and a final reduction either to an array of the same primitive type or to an
+     * aggregate.
+     *
+     * @param stages the stages of the navigation.
+     * @return the index of the map stage producing the primitive elements, or -1 if the navigation cannot be streamed
+     * without boxing.
+     */
+    static int primitiveStageIndex(final List<NavigationStage> stages) {
+        if (stages.size() < 2) return -1;
+
+        final NavigationStage lastStage = stages.get(stages.size() - 1);
+        if (!(lastStage instanceof ReduceStage)) return -1;
+
+        int n = stages.size() - 2;
+        while (n >= 0 && stages.get(n) instanceof PredicateFilterStage) n--;
+        if (n < 0 || !(stages.get(n) instanceof MapStage)) return -1;
+
+        final Class<?> elementType = elementTypeProducedBy(stages.get(n));
+        if (elementType == null) return -1;
+
+        final ReduceStage reduceStage = (ReduceStage)lastStage;
+        if (reduceStage.isAggregate()) return n;
+
+        return reduceStage.getReductionType() == Object[].class
+               && lastStage.getNode().getTypeDescriptor() == PrimitiveStream.forElementType(elementType).arrayType ? n : -1;
+    }
+
+    private static Class<?> elementTypeProducedBy(final NavigationStage stage) {
+        final Class<?> producedType = stage.getNode().getTypeDescriptor();
+        if (producedType == null) return null;
+
+        final PrimitiveStream primitiveStream = PrimitiveStream.forElementType(stage.isSequence() && producedType.isArray() ? producedType.getComponentType() : producedType);
+        if (primitiveStream == null) return null;
+
+        return producedType == (stage.isSequence() ? primitiveStream.arrayType : primitiveStream.elementType) ? primitiveStream.elementType : null;
+    }
+
+    /**
+     * Gets the primitive stream type of the given element type.
+     *
+     * @param elementType the primitive element type.
+     * @return the primitive stream type.
+     */
+    static Class<?> streamType(final Class<?> elementType) {
+        return PrimitiveStream.forElementType(elementType).streamType;
+    }
+
+    /**
+     * Converts a primitive array to the primitive stream of its elements.
+     *
+     * @param sequence the primitive array to be streamed.
+     * @param parallelThreshold the length of array from which the stream is to be parallel.
+     * @return a node streaming the elements of the array, or yielding null if the array is null.
+     */
+    static Node toStream(final Node sequence, final int parallelThreshold) {
+        final PrimitiveStream primitiveStream = PrimitiveStream.forElementType(sequence.getTypeDescriptor().getComponentType());
+        return new StaticMethodCall(sequence.getTokenImage(),
+                                    new ResolvedTypeReferenceOld(sequence.getTokenImage(), NavigationStreamFunctions.class),
+                                    new ResolvedTypeReferenceOld(sequence.getTokenImage(), primitiveStream.streamType),
+                                    "stream",
+                                    asList(new ResolvedTypeReference(sequence.getTokenImage(), forClass(primitiveStream.arrayType)),
+                                           new ResolvedTypeReference(sequence.getTokenImage(), forClass(int.class))
+                                    ),
+                                    asList(sequence,
+                                           new JvmInstructionNode(sequence.getTokenImage()) {
+                                               @Override
+                                               public void emit(final BytecodeHelper bch) {
+                                                   bch.emitLoadNumericOperand(parallelThreshold);
+                                               }
+                                           }
+                                    )
+        );
+    }
+
+    /**
+     * Maps each element of the stream on the stack to a primitive element.
+     *
+     * @param tokenImage the token image of the navigation step.
+     * @param elementType the primitive type of the mapped elements.
+     * @param mapping the function mapping each element of the stream to a primitive element.
+     * @return a node mapping the stream on the stack to a primitive stream.
+     */
+    static Node mapTo(final TokenImage tokenImage, final Class<?> elementType, final LambdaFunction mapping) {
+        final PrimitiveStream primitiveStream = PrimitiveStream.forElementType(elementType);
+        return new InstanceMethodCall(tokenImage,
+                                      new ResolvedTypeReferenceOld(tokenImage, Stream.class),
+                                      new ResolvedTypeReferenceOld(tokenImage, primitiveStream.streamType),
+                                      "mapTo" + primitiveStream.typeName,
+                                      singletonList(new ResolvedTypeReferenceOld(tokenImage, primitiveStream.mappingFunctionType)),
+                                      singletonList(new FunctionalInterfaceObject(tokenImage,
+                                                                                  primitiveStream.mappingFunctionType, elementType, singletonList(Object.class),
+                                                                                  "applyAs" + primitiveStream.typeName,
+                                                                                  mapping
+                                      ))
+        );
+    }
+
+    /**
+     * Maps each element of the stream on the stack to a primitive stream, flattening the streams into one.
+     *
+     * @param tokenImage the token image of the navigation step.
+     * @param elementType the primitive type of the mapped elements.
+     * @param mapping the function mapping each element of the stream to a primitive stream.
+     * @return a node flat-mapping the stream on the stack to a primitive stream.
+     */
+    static Node flatMapTo(final TokenImage tokenImage, final Class<?> elementType, final LambdaFunction mapping) {
+        final PrimitiveStream primitiveStream = PrimitiveStream.forElementType(elementType);
+        return new InstanceMethodCall(tokenImage,
+                                      new ResolvedTypeReferenceOld(tokenImage, Stream.class),
+                                      new ResolvedTypeReferenceOld(tokenImage, primitiveStream.streamType),
+                                      "flatMapTo" + primitiveStream.typeName,
+                                      singletonList(new ResolvedTypeReferenceOld(tokenImage, Function.class)),
+                                      singletonList(new FunctionalInterfaceObject(tokenImage,
+                                                                                  Function.class, Object.class, singletonList(Object.class), "apply",
+                                                                                  mapping
+                                      ))
+        );
+    }
+
+    /**
+     * Filters the primitive stream on the stack.
+     *
+     * @param tokenImage the token image of the navigation step.
+     * @param elementType the primitive type of the stream elements.
+     * @param predicate the predicate selecting the elements to be retained.
+     * @return a node filtering the primitive stream on the stack.
+     */
+    static Node filter(final TokenImage tokenImage, final Class<?> elementType, final LambdaFunction predicate) {
+        final PrimitiveStream primitiveStream = PrimitiveStream.forElementType(elementType);
+        return new InstanceMethodCall(tokenImage,
+                                      new ResolvedTypeReferenceOld(tokenImage, primitiveStream.streamType),
+                                      new ResolvedTypeReferenceOld(tokenImage, primitiveStream.streamType),
+                                      "filter",
+                                      singletonList(new ResolvedTypeReferenceOld(tokenImage, primitiveStream.predicateType)),
+                                      singletonList(new FunctionalInterfaceObject(tokenImage,
+                                                                                  primitiveStream.predicateType, boolean.class, singletonList(elementType), "test",
+                                                                                  predicate
+                                      ))
+        );
+    }
+
+    /**
+     * Reduces the primitive stream on the stack, to an array of its elements or to an aggregate of them.
+     *
+     * @param reduceStage the final reduction stage of the navigation.
+     * @param elementType the primitive type of the stream elements.
+     * @return a node reducing the primitive stream on the stack.
+     */
+    static Node reduce(final ReduceStage reduceStage, final Class<?> elementType) {
+        final TokenImage tokenImage = reduceStage.getNode().getTokenImage();
+        final PrimitiveStream primitiveStream = PrimitiveStream.forElementType(elementType);
+        if (!reduceStage.isAggregate()) {
+            return new InstanceMethodCall(tokenImage,
+                                          new ResolvedTypeReferenceOld(tokenImage, primitiveStream.streamType),
+                                          new ResolvedTypeReferenceOld(tokenImage, primitiveStream.arrayType),
+                                          "toArray"
+            );
+        }
+
+        final String aggregate = ((AggregateNodeTest)reduceStage.getReductionNodeTest()).getName();
+        if (AggregateNodeTest.COUNT.equals(aggregate)) {
+            return new InstanceMethodCall(tokenImage,
+                                          new ResolvedTypeReferenceOld(tokenImage, primitiveStream.streamType),
+                                          new ResolvedTypeReferenceOld(tokenImage, long.class),
+                                          "count"
+            );
+        }
+
+        return new StaticMethodCall(tokenImage,
+                                    new ResolvedTypeReferenceOld(tokenImage, NavigationAggregateFunctions.class),
+                                    new ResolvedTypeReferenceOld(tokenImage, aggregateType(aggregate, elementType)),
+                                    aggregate,
+                                    singletonList(new ResolvedTypeReferenceOld(tokenImage, primitiveStream.streamType)),
+                                    singletonList(new JvmInstructionNode(tokenImage) {
+                                        // The primitive stream, already on the stack
+                                        @Override
+                                        public Type getType() {
+                                            return new ResolvedTypeReferenceOld(tokenImage, primitiveStream.streamType);
+                                        }
+
+                                        @Override
+                                        public void emit(final BytecodeHelper bch) {
+                                        }
+                                    })
+        );
+    }
+
+    /**
+     * Gets the type of an aggregate of primitive elements, as returned by {@link NavigationAggregateFunctions}.
+     */
+    private static Class<?> aggregateType(final String aggregate, final Class<?> elementType) {
+        switch (aggregate) {
+            case AggregateNodeTest.SUM: return elementType == double.class ? double.class : long.class;
+            case AggregateNodeTest.AVERAGE: return Double.class;
+            default: return ensureNonPrimitiveType(elementType);
+        }
+    }
+}
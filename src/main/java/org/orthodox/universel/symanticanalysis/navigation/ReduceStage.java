@@ -29,13 +29,54 @@
 package org.orthodox.universel.symanticanalysis.navigation;
 
 import org.orthodox.universel.ast.Node;
+import org.orthodox.universel.ast.navigation.AggregateNodeTest;
+import org.orthodox.universel.ast.navigation.ReductionNodeTest;
 
 public class ReduceStage extends NavigationStage {
+    /** The node test from which the stage was resolved, determining how the stage reduces its input sequence. */
+    private final ReductionNodeTest reductionNodeTest;
+
     public ReduceStage(final Node node,
                        final boolean isSequence,
                        final boolean inSequence
+    ) {
+        this(node, isSequence, inSequence, null);
+    }
+
+    public ReduceStage(final Node node,
+                       final boolean isSequence,
+                       final boolean inSequence,
+                       final ReductionNodeTest reductionNodeTest
     ) {
         super(node, isSequence, inSequence);
+        this.reductionNodeTest = reductionNodeTest;
+    }
+
+    /**
+     * Gets the node test from which the stage was resolved.
+     *
+     * @return the reduction node test of the stage, or null if unknown.
+     */
+    public ReductionNodeTest getReductionNodeTest() {
+        return reductionNodeTest;
+    }
+
+    /**
+     * Gets the type of collection, or array, to which the stage reduces its input sequence.
+     *
+     * @return the reduction type of the node test from which the stage was resolved, or null if unknown.
+     */
+    public Class<?> getReductionType() {
+        return reductionNodeTest == null ? null : reductionNodeTest.getReductionType();
+    }
+
+    /**
+     * Whether the stage reduces its input sequence to a single aggregate value, rather than a collection or array.
+     *
+     * @return true if the stage was resolved from an {@link AggregateNodeTest}, false otherwise.
+     */
+    public boolean isAggregate() {
+        return reductionNodeTest instanceof AggregateNodeTest;
     }
 
     public boolean isReduce() { return true; }
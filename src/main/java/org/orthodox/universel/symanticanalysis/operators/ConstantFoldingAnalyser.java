@@ -0,0 +1,292 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.orthodox.universel.symanticanalysis.operators;
+
+import org.beanplanet.core.logging.Logger;
+import org.orthodox.universel.ast.Node;
+import org.orthodox.universel.ast.Operator;
+import org.orthodox.universel.ast.StaticMethodCall;
+import org.orthodox.universel.ast.TokenImage;
+import org.orthodox.universel.ast.literals.BooleanLiteralExpr;
+import org.orthodox.universel.ast.literals.InterpolatedStringLiteralExpr;
+import org.orthodox.universel.ast.literals.NumericLiteral;
+import org.orthodox.universel.ast.literals.NumericLiteral.NumericPrecision;
+import org.orthodox.universel.ast.literals.StringLiteralExpr;
+import org.orthodox.universel.compiler.Box;
+import org.orthodox.universel.compiler.Unbox;
+import org.orthodox.universel.exec.operators.binary.BinaryOperator;
+import org.orthodox.universel.exec.operators.unary.UnaryFunctions;
+import org.orthodox.universel.symanticanalysis.AbstractSemanticAnalyser;
+import org.orthodox.universel.symanticanalysis.SemanticAnalysisContext;
+import org.orthodox.universel.symanticanalysis.conversion.BinaryExpressionOperatorMethodCall;
+import org.orthodox.universel.symanticanalysis.conversion.BoxConversion;
+import org.orthodox.universel.symanticanalysis.conversion.ConvertedNumericLiteral;
+import org.orthodox.universel.symanticanalysis.conversion.TypeConversion;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.orthodox.universel.StringEscapeUtil.unescapeUniversalCharacterEscapeSequences;
+
+/**
+ * Folds constant expressions into literals at compile time. An expression is constant when it is built only from
+ * literals and calls to {@link BinaryOperator#pure() pure} operator functions, or unary operators, over constant
+ * operands. Constant sub-expressions of an otherwise non-constant expression are folded in-place.
+ *
+ * <p>
+ * Constant expressions are evaluated by invoking the operator functions themselves, so folding can never differ from
+ * runtime evaluation. An expression whose evaluation fails, such as <code>1 / 0</code>, is left unchanged to fail at
+ * runtime as before. Intermediate values need not be literals (<code>'a'..'z' contains 'q'</code> folds to
+ * <code>true</code>), but only expressions whose results are primitive, big number, boolean or string literals are
+ * replaced.
+ * </p>
+ *
+ * <p>
+ * Interpolated strings whose parts are all constant are folded into plain string literals.
+ * </p>
+ */
+public class ConstantFoldingAnalyser extends AbstractSemanticAnalyser implements Logger {
+    /** Sentinel value of an expression which is not constant. */
+    private static final Object NOT_CONSTANT = new Object();
+
+    private int foldedNodeCount;
+
+    /** The number of operations evaluated in the constant expression currently being folded. */
+    private int evaluatedOperations;
+
+    /**
+     * Gets the number of operator, unary operator and interpolated string nodes folded away by this analyser, over all
+     * analyses it has performed.
+     *
+     * @return the number of nodes folded into literals.
+     */
+    public int getFoldedNodeCount() {
+        return foldedNodeCount;
+    }
+
+    @Override
+    public Node performAnalysis(final SemanticAnalysisContext context, final Node from) {
+        final int foldedBefore = foldedNodeCount;
+        final Node result = super.performAnalysis(context, from);
+        if ( foldedNodeCount > foldedBefore && isDebugEnabled() ) {
+            debug("Folded " + (foldedNodeCount - foldedBefore) + " constant expression nodes");
+        }
+        return result;
+    }
+
+    @Override
+    public Node visitBinaryExpression(final BinaryExpressionOperatorMethodCall node) {
+        return fold(super.visitBinaryExpression(node));
+    }
+
+    @Override
+    public Node visitMethodCall(final StaticMethodCall node) {
+        return fold(super.visitMethodCall(node));
+    }
+
+    @Override
+    public Node visitInterpolatedStringLiteral(final InterpolatedStringLiteralExpr node) {
+        final Node transformed = super.visitInterpolatedStringLiteral(node);
+        if ( !(transformed instanceof InterpolatedStringLiteralExpr) ) return transformed;
+
+        // Concatenate the still-escaped images of the parts, as the folded literal is unescaped when emitted
+        StringBuilder image = new StringBuilder();
+        for (Node part : ((InterpolatedStringLiteralExpr)transformed).getParts()) {
+            if ( part instanceof StringLiteralExpr ) {
+                image.append(((StringLiteralExpr)part).getUndelimitedTokenImage());
+                continue;
+            }
+
+            Object value = constantValueOf(part);
+            if ( !(value instanceof Number || value instanceof Boolean) ) return transformed;
+            image.append(value);
+        }
+
+        foldedNodeCount++;
+        return rewritten(new StringLiteralExpr(tokenImageOf(transformed, image.toString())));
+    }
+
+    @Override
+    public boolean isInterestedIn(Class<? extends Node> nodeType) {
+        return BinaryExpressionOperatorMethodCall.class.isAssignableFrom(nodeType)
+               || StaticMethodCall.class.isAssignableFrom(nodeType)
+               || InterpolatedStringLiteralExpr.class.isAssignableFrom(nodeType);
+    }
+
+    private Node fold(final Node node) {
+        evaluatedOperations = 0;
+        final Object value = constantValueOf(node);
+        if ( value == NOT_CONSTANT ) return node;
+
+        final Node literal = literalFor(node, value);
+        if ( literal == null ) return node;
+
+        foldedNodeCount += evaluatedOperations;
+        return rewritten(literal);
+    }
+
+    /**
+     * Evaluates a constant expression.
+     *
+     * @param node the expression to be evaluated.
+     * @return the value of the expression, or {@link #NOT_CONSTANT} if the expression is not constant or its evaluation
+     * failed.
+     */
+    private Object constantValueOf(final Node node) {
+        if ( node instanceof NumericLiteral ) {
+            return ((NumericLiteral)node).getValue();
+        } else if ( node instanceof BooleanLiteralExpr ) {
+            return ((BooleanLiteralExpr)node).getBooleanValue();
+        } else if ( node instanceof StringLiteralExpr ) {
+            return unescapeUniversalCharacterEscapeSequences(((StringLiteralExpr)node).getUndelimitedTokenImage());
+        } else if ( node instanceof Box ) {
+            return constantValueOf(((Box)node).getSource());
+        } else if ( node instanceof Unbox ) {
+            return constantValueOf(((Unbox)node).getSource());
+        } else if ( node instanceof BoxConversion ) {
+            return constantValueOf(((BoxConversion)node).getSource());
+        } else if ( node instanceof TypeConversion ) {
+            return convert(constantValueOf(((TypeConversion)node).getSource()), ((TypeConversion)node).getTargetType());
+        } else if ( node instanceof BinaryExpressionOperatorMethodCall ) {
+            return evaluate((BinaryExpressionOperatorMethodCall)node);
+        } else if ( node instanceof StaticMethodCall ) {
+            return evaluate((StaticMethodCall)node);
+        }
+
+        return NOT_CONSTANT;
+    }
+
+    private Object evaluate(final BinaryExpressionOperatorMethodCall node) {
+        final Method operatorMethod = node.getOperatorMethod();
+        if ( !isPure(operatorMethod) ) return NOT_CONSTANT;
+
+        final List<Object> arguments = new ArrayList<>(node.getParameters().size() + 1);
+        for (Node parameter : node.getParameters()) {
+            Object argument = constantValueOf(parameter);
+            if ( argument == NOT_CONSTANT ) return NOT_CONSTANT;
+            arguments.add(argument);
+        }
+
+        final Class<?>[] parameterTypes = operatorMethod.getParameterTypes();
+        if ( parameterTypes.length == arguments.size() + 1 && Operator.class.isAssignableFrom(parameterTypes[parameterTypes.length - 1]) ) {
+            arguments.add(node.getOperator());
+        }
+        if ( parameterTypes.length != arguments.size() ) return NOT_CONSTANT;
+
+        return invoke(operatorMethod, arguments.toArray());
+    }
+
+    private Object evaluate(final StaticMethodCall node) {
+        if ( node.getDeclaringClass() != UnaryFunctions.class || node.getParameters().size() != 1 ) return NOT_CONSTANT;
+
+        final Node operand = node.getParameters().get(0);
+        final Object argument = constantValueOf(operand);
+        if ( argument == NOT_CONSTANT || operand.getTypeDescriptor() == null ) return NOT_CONSTANT;
+
+        try {
+            return invoke(UnaryFunctions.class.getMethod(node.getName(), operand.getTypeDescriptor()), argument);
+        } catch (NoSuchMethodException ex) {
+            return NOT_CONSTANT;
+        }
+    }
+
+    private Object invoke(final Method method, final Object ... arguments) {
+        try {
+            Object result = method.invoke(null, arguments);
+            if ( result == null ) return NOT_CONSTANT;
+
+            evaluatedOperations++;
+            return result;
+        } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException ex) {
+            return NOT_CONSTANT;
+        }
+    }
+
+    private static boolean isPure(final Method operatorMethod) {
+        BinaryOperator methodAnnotation = operatorMethod.getAnnotation(BinaryOperator.class);
+        BinaryOperator classAnnotation = operatorMethod.getDeclaringClass().getAnnotation(BinaryOperator.class);
+        return (methodAnnotation != null && methodAnnotation.pure()) || (classAnnotation != null && classAnnotation.pure());
+    }
+
+    /**
+     * Performs a numeric conversion between primitive types of a constant value, as would be performed at runtime.
+     */
+    private static Object convert(final Object value, final Class<?> targetType) {
+        if ( !(value instanceof Number) || value instanceof BigDecimal || value instanceof BigInteger ) return NOT_CONSTANT;
+
+        final Number number = (Number)value;
+        if ( targetType == int.class ) return number.intValue();
+        if ( targetType == long.class ) return number.longValue();
+        if ( targetType == float.class ) return number.floatValue();
+        if ( targetType == double.class ) return number.doubleValue();
+        if ( targetType == short.class ) return number.shortValue();
+        if ( targetType == byte.class ) return number.byteValue();
+        return NOT_CONSTANT;
+    }
+
+    /**
+     * Creates a literal node for the value of a folded expression, where the value is representable as a literal of the
+     * same static type as the expression.
+     *
+     * @param node the expression folded.
+     * @param value the value of the expression.
+     * @return the literal, or null if the value cannot be represented by a literal of the expression's type.
+     */
+    private static Node literalFor(final Node node, final Object value) {
+        final Class<?> type = node.getTypeDescriptor();
+        final TokenImage tokenImage = tokenImageOf(node, String.valueOf(value));
+
+        if ( (type == int.class && value instanceof Integer)
+             || (type == float.class && value instanceof Float)
+             || (type == double.class && value instanceof Double) ) {
+            return new ConvertedNumericLiteral(tokenImage, (Number)value, NumericPrecision.STANDARD);
+        } else if ( type == long.class && value instanceof Long ) {
+            return new ConvertedNumericLiteral(tokenImage, (Number)value, NumericPrecision.LONG);
+        } else if ( (type == BigDecimal.class || type == BigInteger.class) && value.getClass() == type ) {
+            return new ConvertedNumericLiteral(tokenImage, (Number)value, NumericPrecision.ARBITRARY);
+        } else if ( type == boolean.class && value instanceof Boolean ) {
+            return new BooleanLiteralExpr(tokenImage);
+        } else if ( type == String.class && value instanceof String && ((String)value).indexOf('\\') < 0 ) {
+            // Strings containing backslashes are left alone, as the emitted literal would be unescaped a second time
+            return new StringLiteralExpr(tokenImage);
+        }
+
+        return null;
+    }
+
+    private static TokenImage tokenImageOf(final Node node, final String image) {
+        final TokenImage tokenImage = node.getTokenImage();
+        return tokenImage == null ? new TokenImage(image)
+                                  : new TokenImage(tokenImage.getStartLine(), tokenImage.getStartColumn(), tokenImage.getEndLine(), tokenImage.getEndColumn(), image);
+    }
+}
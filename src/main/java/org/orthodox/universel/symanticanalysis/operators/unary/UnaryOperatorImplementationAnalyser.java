@@ -76,4 +76,9 @@ public class UnaryOperatorImplementationAnalyser extends AbstractSemanticAnalyse
             )
             .orElse(transformedOperand);
     }
+
+    @Override
+    public boolean isInterestedIn(Class<? extends Node> nodeType) {
+        return UnaryExpression.class.isAssignableFrom(nodeType);
+    }
 }
@@ -0,0 +1,112 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.orthodox.universel.tools;
+
+import org.orthodox.universel.compiler.*;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line entry point of the {@link BatchCompiler}, compiling a directory of scripts ahead of time into a jar which
+ * may be loaded at runtime by a {@link CompiledUnitArchive}.
+ *
+ * <pre>
+ * BatchCompile &lt;script-directory&gt; &lt;jar-file&gt; [options]
+ *
+ *   --extension &lt;ext&gt;              the file extension of scripts, defaults to .uel
+ *   --binding [&lt;glob&gt;=]&lt;class&gt;      the binding type of scripts whose name matches the glob, or of all scripts
+ *                                   if no glob is given. May be repeated, the first match applying.
+ *   --threads &lt;n&gt;                  the number of scripts compiled concurrently
+ * </pre>
+ */
+public class BatchCompile {
+    public static void main(String[] args) throws Exception {
+        if ( args.length < 2 ) {
+            System.err.println("Usage: BatchCompile <script-directory> <jar-file> [--extension <ext>] [--binding [<glob>=]<class>]... [--threads <n>]");
+            System.exit(2);
+        }
+
+        final Path scriptDirectory = Paths.get(args[0]);
+        final Path jarFile = Paths.get(args[1]);
+        String extension = BatchCompiler.DEFAULT_SCRIPT_FILE_EXTENSION;
+        int threads = Runtime.getRuntime().availableProcessors();
+        final Map<PathMatcher, Class<?>> bindingTypes = new LinkedHashMap<>();
+        for (int n = 2; n < args.length; n += 2) {
+            if ( n + 1 >= args.length ) {
+                throw new IllegalArgumentException("Missing value for option [" + args[n] + "]");
+            }
+            switch (args[n]) {
+                case "--extension":
+                    extension = args[n + 1];
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[n + 1]);
+                    break;
+                case "--binding":
+                    int equalsPos = args[n + 1].indexOf('=');
+                    String glob = equalsPos < 0 ? "**" : args[n + 1].substring(0, equalsPos);
+                    bindingTypes.put(FileSystems.getDefault().getPathMatcher("glob:" + glob), Class.forName(args[n + 1].substring(equalsPos + 1)));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unrecognised option [" + args[n] + "]");
+            }
+        }
+
+        long startTime = System.currentTimeMillis();
+        BatchCompiler batchCompiler = new BatchCompiler(new UniversalCompiler(CompiledUnitCache.disabled(), PersistentCompiledUnitStore.disabled()), threads);
+        List<BatchCompiler.CompiledScriptEntry> compiledScripts = batchCompiler.compile(scriptDirectory, extension, scriptName -> bindingTypes.entrySet()
+                                                                                                                                           .stream()
+                                                                                                                                           .filter(e -> e.getKey().matches(Paths.get(scriptName)))
+                                                                                                                                           .map(Map.Entry::getValue)
+                                                                                                                                           .findFirst()
+                                                                                                                                           .orElse(null));
+
+        int errorCount = 0;
+        for (BatchCompiler.CompiledScriptEntry compiledScript : compiledScripts) {
+            if ( compiledScript.getCompiledUnit().hasErrors() ) {
+                errorCount++;
+                System.err.println(compiledScript.getScriptName() + ":");
+                System.err.print(CompilationErrorsException.getErrorMessagesSummary(compiledScript.getCompiledUnit().getMessages()));
+            }
+        }
+        if ( errorCount > 0 ) {
+            System.err.println(errorCount + " of " + compiledScripts.size() + " scripts failed to compile; no jar was written.");
+            System.exit(1);
+        }
+
+        batchCompiler.writeJar(compiledScripts, jarFile);
+        System.out.println("Compiled " + compiledScripts.size() + " scripts to [" + jarFile + "] in " + (System.currentTimeMillis() - startTime) + "ms");
+    }
+}
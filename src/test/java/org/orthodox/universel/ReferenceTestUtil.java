@@ -0,0 +1,141 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel;
+
+import org.objectweb.asm.ClassWriter;
+
+import java.lang.ref.Reference;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.V1_8;
+
+/**
+ * Testing utilities for checking what an object holds on to, without relying on the garbage collector to reveal it.
+ */
+public class ReferenceTestUtil {
+    /**
+     * Defines a new, empty class in a new class loader, as a type which could otherwise be unloaded.
+     *
+     * @param className the fully qualified name of the class.
+     * @return the class defined, whose class loader is a child of the class loader of this class.
+     */
+    public static Class<?> defineClassInNewClassLoader(final String className) {
+        ClassWriter classWriter = new ClassWriter(0);
+        classWriter.visit(V1_8, ACC_PUBLIC, className.replace('.', '/'), null, "java/lang/Object", null);
+        classWriter.visitEnd();
+        byte[] classBytes = classWriter.toByteArray();
+
+        return new ClassLoader(ReferenceTestUtil.class.getClassLoader()) {
+            Class<?> define() {
+                return defineClass(className, classBytes, 0, classBytes.length);
+            }
+        }.define();
+    }
+
+    /**
+     * Determines whether the given target is strongly reachable from the given root, by way of the instance fields of
+     * application objects and the contents of JDK maps, collections, arrays and optionals.
+     *
+     * <p>The referents of {@link Reference}s and the keys of {@link WeakHashMap}s are weakly held, so are not followed.
+     * Neither are the values of a {@link ClassValue}, which are held by the classes they are computed for rather than
+     * by the class value itself. Classes are not traversed, so reachability through static state is not considered. A
+     * reflective {@link Member} reaches its declaring class. Other JDK objects are not traversed.</p>
+     *
+     * @param root the object from which references are followed.
+     * @param target the object sought.
+     * @return true if the target is strongly reachable from the root, false otherwise.
+     */
+    public static boolean isStronglyReachable(final Object root, final Object target) {
+        final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        final Deque<Object> remaining = new ArrayDeque<>();
+        remaining.push(root);
+
+        while (!remaining.isEmpty()) {
+            final Object object = remaining.pop();
+            if ( object == target ) return true;
+            if ( !visited.add(object) || object instanceof Class || object instanceof Reference || object instanceof ClassValue ) continue;
+
+            if ( object instanceof WeakHashMap ) {
+                pushAll(remaining, ((Map<?, ?>)object).values());
+            } else if ( object instanceof Map ) {
+                pushAll(remaining, ((Map<?, ?>)object).keySet());
+                pushAll(remaining, ((Map<?, ?>)object).values());
+            } else if ( object instanceof Collection ) {
+                pushAll(remaining, (Collection<?>)object);
+            } else if ( object instanceof Optional ) {
+                ((Optional<?>)object).ifPresent(remaining::push);
+            } else if ( object instanceof Member ) {
+                remaining.push(((Member)object).getDeclaringClass());
+            } else if ( object.getClass().isArray() ) {
+                if ( !object.getClass().getComponentType().isPrimitive() ) {
+                    for (int n=0; n < Array.getLength(object); n++) {
+                        push(remaining, Array.get(object, n));
+                    }
+                }
+            } else if ( !isJdkClass(object.getClass()) ) {
+                pushInstanceFields(remaining, object);
+            }
+        }
+
+        return false;
+    }
+
+    private static void pushInstanceFields(final Deque<Object> remaining, final Object object) {
+        for (Class<?> type = object.getClass(); type != null && !isJdkClass(type); type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if ( Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive() ) continue;
+                try {
+                    field.setAccessible(true);
+                    push(remaining, field.get(object));
+                } catch (ReflectiveOperationException | RuntimeException inaccessibleEx) {
+                    throw new IllegalStateException("Unable to follow field [" + field + "] of [" + object + "]", inaccessibleEx);
+                }
+            }
+        }
+    }
+
+    private static void pushAll(final Deque<Object> remaining, final Collection<?> objects) {
+        for (Object object : objects) {
+            push(remaining, object);
+        }
+    }
+
+    private static void push(final Deque<Object> remaining, final Object object) {
+        if ( object != null ) remaining.push(object);
+    }
+
+    private static boolean isJdkClass(final Class<?> type) {
+        final String name = type.getName();
+        return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.") || name.startsWith("sun.") || name.startsWith("com.sun.");
+    }
+}
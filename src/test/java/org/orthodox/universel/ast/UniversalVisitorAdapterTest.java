@@ -0,0 +1,92 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.orthodox.universel.ast;
+
+import org.junit.jupiter.api.Test;
+import org.orthodox.universel.ast.literals.StringLiteralExpr;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class UniversalVisitorAdapterTest {
+    private static final BinaryExpression EXPRESSION = new BinaryExpression(Operator.PLUS,
+                                                                            new StringLiteralExpr(new TokenImage("a")),
+                                                                            new StringLiteralExpr(new TokenImage("b")));
+
+    @Test
+    void noTransformation_returnsOriginalNode() {
+        // Given
+        UniversalVisitorAdapter visitor = new UniversalVisitorAdapter();
+
+        // When
+        Node result = EXPRESSION.accept(visitor);
+
+        // Then
+        assertThat(result, sameInstance(EXPRESSION));
+        assertThat(visitor.isRewrite(result), is(false));
+    }
+
+    @Test
+    void equivalentTransformation_returnsOriginalNode() {
+        // Given
+        UniversalVisitorAdapter visitor = new UniversalVisitorAdapter() {
+            @Override
+            public Node visitStringLiteral(StringLiteralExpr node) {
+                return new StringLiteralExpr(new TokenImage(node.getTokenImage().getImage()));
+            }
+        };
+
+        // When
+        Node result = EXPRESSION.accept(visitor);
+
+        // Then
+        assertThat(result, sameInstance(EXPRESSION));
+        assertThat(visitor.isRewrite(result), is(false));
+    }
+
+    @Test
+    void changedChild_parentIsRewritten() {
+        // Given
+        UniversalVisitorAdapter visitor = new UniversalVisitorAdapter() {
+            @Override
+            public Node visitStringLiteral(StringLiteralExpr node) {
+                return "b".equals(node.getTokenImage().getImage()) ? new StringLiteralExpr(new TokenImage("c")) : node;
+            }
+        };
+
+        // When
+        Node result = EXPRESSION.accept(visitor);
+
+        // Then
+        assertThat(result, not(equalTo(EXPRESSION)));
+        assertThat(visitor.isRewrite(result), is(true));
+        assertThat(((BinaryExpression)result).getLhsExpression(), sameInstance(EXPRESSION.getLhsExpression()));
+        assertThat(((BinaryExpression)result).getRhsExpression().getTokenImage().getImage(), equalTo("c"));
+    }
+}
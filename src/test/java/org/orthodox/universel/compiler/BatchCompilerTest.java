@@ -0,0 +1,121 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.compiler;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.orthodox.universel.BeanWithProperties;
+import org.orthodox.universel.UniversalException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.orthodox.universel.Universal.execute;
+
+class BatchCompilerTest {
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("universel-batch");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void scripts_areCompiledToJar_andRestoredByName() throws IOException {
+        // Given
+        Path scripts = Files.createDirectories(directory.resolve("scripts/rules"));
+        Files.write(scripts.resolve("three.uel"), "1 + 2".getBytes(StandardCharsets.UTF_8));
+        Files.write(scripts.resolve("greeting.uel"), "'Hello World'".getBytes(StandardCharsets.UTF_8));
+        Files.write(scripts.resolve("ignored.txt"), "1 +".getBytes(StandardCharsets.UTF_8));
+        Path jarFile = directory.resolve("scripts.jar");
+        BatchCompiler batchCompiler = new BatchCompiler();
+
+        // When
+        List<BatchCompiler.CompiledScriptEntry> compiledScripts = batchCompiler.compile(directory.resolve("scripts"), ".uel", scriptName -> null);
+        batchCompiler.writeJar(compiledScripts, jarFile);
+        CompiledUnitArchive archive = CompiledUnitArchive.open(jarFile);
+
+        // Then
+        assertThat(archive.getScriptNames(), contains("rules/greeting", "rules/three"));
+        CompiledUnit<?> three = archive.getCompiledUnit("rules/three", null).get();
+        assertThat(three.getAstNode(), nullValue());
+        assertThat(execute(Integer.class, three), equalTo(3));
+        assertThat(execute(String.class, archive.findCompiledUnit("'Hello World'", null).get()), equalTo("Hello World"));
+        assertThat(archive.getCompiledUnit("rules/missing", null).isPresent(), is(false));
+    }
+
+    @Test
+    void bindingTypes_areRecorded_andChecked() throws IOException {
+        // Given
+        Path scripts = Files.createDirectories(directory.resolve("scripts"));
+        Files.write(scripts.resolve("bound.uel"), "1 + 2".getBytes(StandardCharsets.UTF_8));
+        Path jarFile = directory.resolve("scripts.jar");
+        BatchCompiler batchCompiler = new BatchCompiler();
+        batchCompiler.writeJar(batchCompiler.compile(scripts, ".uel", scriptName -> BeanWithProperties.class), jarFile);
+
+        // When
+        CompiledUnitArchive archive = CompiledUnitArchive.open(jarFile);
+
+        // Then
+        assertThat(archive.getCompiledUnit("bound", BeanWithProperties.class).get().getBindingType(), equalTo(BeanWithProperties.class));
+        assertThat(archive.findCompiledUnit("1 + 2", null).isPresent(), is(false));
+        assertThrows(UniversalException.class, () -> archive.getCompiledUnit("bound", null));
+    }
+
+    @Test
+    void scriptsWithErrors_areNotWritten() throws IOException {
+        // Given
+        Path scripts = Files.createDirectories(directory.resolve("scripts"));
+        Files.write(scripts.resolve("broken.uel"), "1 +".getBytes(StandardCharsets.UTF_8));
+        BatchCompiler batchCompiler = new BatchCompiler();
+        List<BatchCompiler.CompiledScriptEntry> compiledScripts = batchCompiler.compile(scripts, ".uel", scriptName -> null);
+
+        // When
+        assertThrows(CompilationErrorsException.class, () -> batchCompiler.writeJar(compiledScripts, directory.resolve("scripts.jar")));
+
+        // Then
+        assertThat(compiledScripts.get(0).getCompiledUnit().hasErrors(), is(true));
+        assertThat(Files.exists(directory.resolve("scripts.jar")), is(false));
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.compiler;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ClassResolutionCacheTest {
+    @Test
+    void resolvedClass_isCached() {
+        // Given
+        ClassResolutionCache.loadClassOrNull("java.util.ArrayList");
+        long hits = ClassResolutionCache.getHitCount();
+        long misses = ClassResolutionCache.getMissCount();
+
+        // When
+        Class<?> resolved = ClassResolutionCache.loadClassOrNull("java.util.ArrayList");
+
+        // Then
+        assertThat(resolved, equalTo(java.util.ArrayList.class));
+        assertThat(ClassResolutionCache.getHitCount(), greaterThan(hits));
+        assertThat(ClassResolutionCache.getMissCount(), equalTo(misses));
+    }
+
+    @Test
+    void absentClass_isCached() {
+        // Given
+        ClassResolutionCache.loadClassOrNull("java.lang.DoesNotExist");
+        long misses = ClassResolutionCache.getMissCount();
+
+        // When
+        Class<?> resolved = ClassResolutionCache.loadClassOrNull("java.lang.DoesNotExist");
+
+        // Then
+        assertThat(resolved, nullValue());
+        assertThat(ClassResolutionCache.getMissCount(), equalTo(misses));
+    }
+}
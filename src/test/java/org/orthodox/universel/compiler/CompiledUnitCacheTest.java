@@ -0,0 +1,106 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.compiler;
+
+import org.junit.jupiter.api.Test;
+import org.orthodox.universel.BeanWithProperties;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.orthodox.universel.Universal.execute;
+
+class CompiledUnitCacheTest {
+    @Test
+    void sameSourceAndBindingType_isCompiledOnce() {
+        // Given
+        UniversalCompiler compiler = new UniversalCompiler(new CompiledUnitCache(10));
+
+        // When
+        CompiledUnit<?> first = compiler.compile("1 + 2");
+        CompiledUnit<?> second = compiler.compile("1 + 2");
+
+        // Then
+        assertThat(second, sameInstance(first));
+        assertThat(compiler.getCompiledUnitCache().getMissCount(), equalTo(1L));
+        assertThat(compiler.getCompiledUnitCache().getHitCount(), equalTo(1L));
+        assertThat(execute(Integer.class, second), equalTo(3));
+    }
+
+    @Test
+    void differentBindingTypes_areCompiledSeparately() {
+        // Given
+        UniversalCompiler compiler = new UniversalCompiler(new CompiledUnitCache(10));
+
+        // When
+        CompiledUnit<?> unbound = compiler.compile("1 + 2");
+        CompiledUnit<BeanWithProperties> bound = compiler.compile("1 + 2", BeanWithProperties.class);
+
+        // Then
+        assertThat(bound, not(sameInstance(unbound)));
+        assertThat(compiler.getCompiledUnitCache().getMissCount(), equalTo(2L));
+        assertThat(compiler.getCompiledUnitCache().size(), equalTo(2));
+    }
+
+    @Test
+    void leastRecentlyUsed_isEvicted_whenFull() {
+        // Given
+        UniversalCompiler compiler = new UniversalCompiler(new CompiledUnitCache(2));
+        CompiledUnit<?> one = compiler.compile("1");
+        compiler.compile("2");
+        compiler.compile("1");
+
+        // When
+        compiler.compile("3");
+
+        // Then
+        assertThat(compiler.getCompiledUnitCache().size(), equalTo(2));
+        assertThat(compiler.getCompiledUnitCache().getEvictionCount(), equalTo(1L));
+        assertThat(compiler.compile("1"), sameInstance(one));
+    }
+
+    @Test
+    void disabledCache_compilesEveryTime() {
+        // Given
+        UniversalCompiler compiler = new UniversalCompiler(CompiledUnitCache.disabled());
+
+        // Then
+        assertThat(compiler.compile("1 + 2"), not(sameInstance(compiler.compile("1 + 2"))));
+        assertThat(compiler.getCompiledUnitCache().size(), equalTo(0));
+    }
+
+    @Test
+    void unitsWithMutableStaticState_areNotCached() {
+        // Given
+        UniversalCompiler compiler = new UniversalCompiler(new CompiledUnitCache(10));
+        String script = "static int counter = 0   counter = counter + 1";
+
+        // Then
+        assertThat(compiler.compile(script), not(sameInstance(compiler.compile(script))));
+        assertThat(compiler.getCompiledUnitCache().size(), equalTo(0));
+    }
+}
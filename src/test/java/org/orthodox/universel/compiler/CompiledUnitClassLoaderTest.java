@@ -0,0 +1,99 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.orthodox.universel.compiler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.orthodox.universel.compiler.CompiledUnitClassLoader.getDefinedClassCount;
+
+class CompiledUnitClassLoaderTest {
+    @Test
+    void sameScriptCompiledTwice_definesDistinctClasses() {
+        // Given
+        UniversalCompiler compiler = new UniversalCompiler(CompiledUnitCache.disabled());
+
+        // When
+        Class<?> first = compiler.compile("1 + 2").getCompiledClasses().get(0);
+        Class<?> second = compiler.compile("1 + 2").getCompiledClasses().get(0);
+
+        // Then
+        assertThat(second, not(sameInstance(first)));
+        assertThat(second.getClassLoader(), not(sameInstance(first.getClassLoader())));
+    }
+
+    @Test
+    void evictedUnits_areReleasedByTheCache() {
+        // Given
+        final int cacheSize = 10;
+        UniversalCompiler compiler = new UniversalCompiler(new CompiledUnitCache(cacheSize));
+        long definedBefore = getDefinedClassCount();
+        CompiledUnit<?> evicted = compiler.compile("0 + 1");
+
+        // When
+        for (int n=1; n <= cacheSize; n++) {
+            assertThat(compiler.compile(n + " + 1").<Integer>getScript().evaluate(null), equalTo(n + 1));
+        }
+
+        // Then
+        assertThat(compiler.getCompiledUnitCache().getEvictionCount(), equalTo(1L));
+        assertThat(compiler.getCompiledUnitCache().size(), equalTo(cacheSize));
+        assertThat(compiler.compile("0 + 1"), not(sameInstance(evicted)));
+        assertThat(getDefinedClassCount() - definedBefore, greaterThanOrEqualTo((long)cacheSize + 2));
+    }
+
+    @Test
+    void evictedUnits_classLoadersAreNoLongerReferencedByTheCache() {
+        // Given
+        final int cacheSize = 10;
+        UniversalCompiler compiler = new UniversalCompiler(new CompiledUnitCache(cacheSize));
+        CompiledUnit<?> evicted = compiler.compile("0 + 1");
+        ClassLoader evictedClassLoader = evicted.getCompiledClasses().get(0).getClassLoader();
+
+        // When
+        for (int n=1; n <= cacheSize; n++) {
+            compiler.compile(n + " + 1").getCompiledClasses();
+        }
+
+        // Then
+        List<CompiledUnit<?>> cachedUnits = compiler.getCompiledUnitCache().cachedUnits();
+        assertThat(cachedUnits, hasSize(cacheSize));
+        assertThat(cachedUnits.stream().noneMatch(unit -> unit == evicted), is(true));
+        assertThat(cachedUnits.stream()
+                              .flatMap(unit -> unit.getCompiledClasses().stream())
+                              .map(Class::getClassLoader)
+                              .collect(Collectors.toList()),
+                   not(hasItem(sameInstance(evictedClassLoader))));
+        assertThat(evictedClassLoader, instanceOf(CompiledUnitClassLoader.class));
+    }
+}
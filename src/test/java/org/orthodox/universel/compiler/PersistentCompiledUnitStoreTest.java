@@ -0,0 +1,266 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.compiler;
+
+import org.beanplanet.core.io.resource.ByteArrayResource;
+import org.beanplanet.core.io.resource.Resource;
+import org.beanplanet.core.models.SimpleNameValue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.orthodox.universel.BeanWithProperties;
+import org.orthodox.universel.ast.Node;
+import org.orthodox.universel.exec.navigation.SharedNavigatorRegistry;
+import org.orthodox.universel.symanticanalysis.navigation.NavigationBackend;
+import org.orthodox.universel.symanticanalysis.navigation.NavigationParallelism;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static java.util.Collections.singletonList;
+import static org.beanplanet.messages.domain.MessagesImpl.messages;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.objectweb.asm.Opcodes.*;
+import static org.orthodox.universel.Universal.execute;
+
+class PersistentCompiledUnitStoreTest {
+    private static final CompilerOptions STREAM_OPTIONS = CompilerOptions.defaultOptions()
+                                                                                .withNavigationBackend(NavigationBackend.STREAM)
+                                                                                .withNavigationParallelism(NavigationParallelism.SEQUENTIAL);
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("universel-store");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void compiledUnit_isRestoredByAnotherCompiler_withoutAnalysis() {
+        // Given
+        CompiledUnit<?> compiled = new UniversalCompiler(CompiledUnitCache.disabled(), new PersistentCompiledUnitStore(directory)).compile("1 + 2");
+        UniversalCompiler restartedCompiler = new UniversalCompiler(CompiledUnitCache.disabled(), new PersistentCompiledUnitStore(directory));
+
+        // When
+        CompiledUnit<?> restored = restartedCompiler.compile("1 + 2");
+
+        // Then
+        assertThat(restartedCompiler.getPersistentCompiledUnitStore().getHitCount(), equalTo(1L));
+        assertThat(restored.getAstNode(), nullValue());
+        assertThat(restored.getResultType().getTypeClass(), equalTo(compiled.getResultType().getTypeClass()));
+        assertThat(execute(Integer.class, restored), equalTo(3));
+    }
+
+    @Test
+    void differentSourceOrBindingType_isNotRestored() {
+        // Given
+        PersistentCompiledUnitStore store = new PersistentCompiledUnitStore(directory);
+        UniversalCompiler compiler = new UniversalCompiler(CompiledUnitCache.disabled(), store);
+        compiler.compile("1 + 2");
+
+        // When
+        compiler.compile("1 + 3");
+        compiler.compile("1 + 2", BeanWithProperties.class);
+
+        // Then
+        assertThat(store.getHitCount(), equalTo(0L));
+        assertThat(store.getMissCount(), equalTo(3L));
+        assertThat(store.getWriteCount(), equalTo(3L));
+    }
+
+    @Test
+    void keyChanges_whenBindingTypeChanges() {
+        // Given
+        PersistentCompiledUnitStore store = new PersistentCompiledUnitStore(directory);
+
+        // When
+        String unbound = store.keyFor("1 + 2", null, null, STREAM_OPTIONS);
+        String bound = store.keyFor("1 + 2", BeanWithProperties.class, null, STREAM_OPTIONS);
+
+        // Then
+        assertThat(bound, not(equalTo(unbound)));
+        assertThat(store.keyFor("1 + 2", null, null, STREAM_OPTIONS), equalTo(unbound));
+    }
+
+    @Test
+    void keyChanges_whenCompilerOptionsChange() {
+        // Given
+        PersistentCompiledUnitStore store = new PersistentCompiledUnitStore(directory);
+
+        // When
+        String stream = store.keyFor("1 + 2", null, null, STREAM_OPTIONS);
+        String loop = store.keyFor("1 + 2", null, null, STREAM_OPTIONS.withNavigationBackend(NavigationBackend.LOOP));
+        String parallel = store.keyFor("1 + 2", null, null, STREAM_OPTIONS.withNavigationParallelism(NavigationParallelism.parallel(1)));
+        String otherThreshold = store.keyFor("1 + 2", null, null, STREAM_OPTIONS.withNavigationParallelism(NavigationParallelism.parallel(100)));
+
+        // Then
+        assertThat(loop, not(equalTo(stream)));
+        assertThat(parallel, not(equalTo(stream)));
+        assertThat(otherThreshold, not(equalTo(parallel)));
+        assertThat(store.keyFor("1 + 2", null, null, STREAM_OPTIONS.withNavigationParallelism(NavigationParallelism.parallel(1))), equalTo(parallel));
+    }
+
+    @Test
+    void unitCompiledWithOtherOptions_isNotRestored() {
+        // Given
+        String navigation = "referenceListProperty.stringProperty.[]";
+        new UniversalCompiler(CompiledUnitCache.disabled(), new PersistentCompiledUnitStore(directory), STREAM_OPTIONS).compile(navigation, BeanWithProperties.class);
+        PersistentCompiledUnitStore restartedStore = new PersistentCompiledUnitStore(directory);
+        UniversalCompiler restartedCompiler = new UniversalCompiler(CompiledUnitCache.disabled(), restartedStore, STREAM_OPTIONS.withNavigationBackend(NavigationBackend.LOOP));
+
+        // When
+        restartedCompiler.compile(navigation, BeanWithProperties.class);
+
+        // Then
+        assertThat(restartedStore.getHitCount(), equalTo(0L));
+        assertThat(restartedStore.getMissCount(), equalTo(1L));
+        assertThat(restartedStore.getWriteCount(), equalTo(1L));
+    }
+
+    @Test
+    void corruptFile_isIgnoredAndRecompiled() throws IOException {
+        // Given
+        PersistentCompiledUnitStore store = new PersistentCompiledUnitStore(directory);
+        Files.write(directory.resolve(store.keyFor("1 + 2", null, null, STREAM_OPTIONS) + PersistentCompiledUnitStore.FILE_EXTENSION), new byte[] { 1, 2, 3 });
+        UniversalCompiler compiler = new UniversalCompiler(CompiledUnitCache.disabled(), store, STREAM_OPTIONS);
+
+        // When
+        CompiledUnit<?> compiled = compiler.compile("1 + 2");
+
+        // Then
+        assertThat(store.getHitCount(), equalTo(0L));
+        assertThat(compiled.getAstNode(), notNullValue());
+        assertThat(execute(Integer.class, compiled), equalTo(3));
+    }
+
+    @Test
+    void unitReferencingMembersWhichNoLongerExist_isIgnoredAndRecompiled() {
+        // Given a unit stored before BeanWithProperties lost a property on which it depends
+        String navigation = "stringProperty";
+        PersistentCompiledUnitStore store = new PersistentCompiledUnitStore(directory);
+        CompiledUnit<BeanWithProperties> staleUnit = new CompiledUnit<>(BeanWithProperties.class,
+                                                                        (Node)null,
+                                                                        messages(),
+                                                                        singletonList(new SimpleNameValue<Resource>("StaleScript", new ByteArrayResource(staleScriptClass()))),
+                                                                        0);
+        store.store(navigation, BeanWithProperties.class, SharedNavigatorRegistry.getInstance(), STREAM_OPTIONS, staleUnit);
+        UniversalCompiler compiler = new UniversalCompiler(CompiledUnitCache.disabled(), store, STREAM_OPTIONS);
+
+        // When
+        CompiledUnit<BeanWithProperties> compiled = compiler.compile(navigation, BeanWithProperties.class);
+
+        // Then
+        assertThat(store.getHitCount(), equalTo(0L));
+        assertThat(store.getMissCount(), equalTo(1L));
+        assertThat(store.getWriteCount(), equalTo(2L));
+        assertThat(compiled.getAstNode(), notNullValue());
+        assertThat(compiled.getScript().evaluate(new BeanWithProperties().withStringProperty("Hello")), equalTo("Hello"));
+
+        // And the recompiled unit replaces the stale unit
+        PersistentCompiledUnitStore restartedStore = new PersistentCompiledUnitStore(directory);
+        new UniversalCompiler(CompiledUnitCache.disabled(), restartedStore, STREAM_OPTIONS).compile(navigation, BeanWithProperties.class);
+        assertThat(restartedStore.getHitCount(), equalTo(1L));
+    }
+
+    @Test
+    void compilersWithoutAStore_useTheDefaultStore() {
+        // Given
+        System.setProperty(PersistentCompiledUnitStore.DIRECTORY_PROPERTY, directory.toString());
+        try {
+            // When
+            UniversalCompiler defaultCompiler = new UniversalCompiler();
+            UniversalCompiler cachingCompiler = new UniversalCompiler(CompiledUnitCache.disabled());
+
+            // Then
+            assertThat(defaultCompiler.getPersistentCompiledUnitStore().getDirectory(), equalTo(directory));
+            assertThat(cachingCompiler.getPersistentCompiledUnitStore().getDirectory(), equalTo(directory));
+        } finally {
+            System.clearProperty(PersistentCompiledUnitStore.DIRECTORY_PROPERTY);
+        }
+
+        assertThat(new UniversalCompiler(CompiledUnitCache.disabled()).getPersistentCompiledUnitStore().isEnabled(), is(false));
+    }
+
+    @Test
+    void unitsWithErrors_areNotStored() {
+        // Given
+        PersistentCompiledUnitStore store = new PersistentCompiledUnitStore(directory);
+        UniversalCompiler compiler = new UniversalCompiler(CompiledUnitCache.disabled(), store);
+
+        // When
+        compiler.compile("1 +");
+
+        // Then
+        assertThat(store.getWriteCount(), equalTo(0L));
+    }
+
+    @Test
+    void disabledStore_neverStores() {
+        // Given
+        PersistentCompiledUnitStore store = PersistentCompiledUnitStore.disabled();
+        UniversalCompiler compiler = new UniversalCompiler(new CompiledUnitCache(10), store);
+
+        // When
+        compiler.compile("1 + 2");
+
+        // Then
+        assertThat(store.isEnabled(), is(false));
+        assertThat(store.getWriteCount(), equalTo(0L));
+    }
+
+    /**
+     * A script class, as generated before the <code>getStringProperty</code> method of the binding type was renamed,
+     * calling <code>getFormerStringProperty</code>.
+     */
+    private static byte[] staleScriptClass() {
+        ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        classWriter.visit(V1_8, ACC_PUBLIC | ACC_FINAL, "StaleScript", null, "java/lang/Object", null);
+        MethodVisitor method = classWriter.visitMethod(ACC_PUBLIC | ACC_STATIC, "execute", "(Lorg/orthodox/universel/BeanWithProperties;)Ljava/lang/String;", null, null);
+        method.visitCode();
+        method.visitVarInsn(ALOAD, 0);
+        method.visitMethodInsn(INVOKEVIRTUAL, "org/orthodox/universel/BeanWithProperties", "getFormerStringProperty", "()Ljava/lang/String;", false);
+        method.visitInsn(ARETURN);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+}
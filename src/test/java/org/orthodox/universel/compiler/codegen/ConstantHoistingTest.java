@@ -0,0 +1,142 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.orthodox.universel.compiler.codegen;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.*;
+import org.orthodox.universel.BeanWithProperties;
+import org.orthodox.universel.compiler.CompiledUnit;
+import org.orthodox.universel.compiler.CompiledUnitCache;
+import org.orthodox.universel.compiler.UniversalCompiler;
+import org.orthodox.universel.exec.CompiledScript;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.objectweb.asm.Opcodes.GETSTATIC;
+import static org.objectweb.asm.Opcodes.NEW;
+import static org.orthodox.universel.Universal.compile;
+
+class ConstantHoistingTest {
+    @Test
+    void bigDecimalLiterals_areInitialisedOnce_inTheClassInitialiser() {
+        // Given
+        BeanWithProperties binding = new BeanWithProperties();
+        binding.setBigDecimalProperty(new BigDecimal("10.00"));
+        CompiledUnit<BeanWithProperties> compiledUnit = new UniversalCompiler(CompiledUnitCache.disabled())
+                                                            .compile("bigDecimalProperty * 1.05D + 1.05D", BeanWithProperties.class);
+
+        // When
+        List<String> instructions = instructionsOutsideClassInitialiser(compiledUnit);
+        BigDecimal result = compiledUnit.<BigDecimal>getScript().evaluate(binding);
+
+        // Then
+        assertThat(instructions, not(hasItem("NEW java/math/BigDecimal")));
+        assertThat(instructions, hasItem(startsWith("GETSTATIC")));
+        assertThat(result, equalTo(new BigDecimal("11.5500")));
+    }
+
+    @Test
+    void constantList_isSharedAcrossEvaluations() {
+        // Given
+        CompiledScript<?, List<Object>> script = compile("[1, 'two', 3.0D, [4]]").getScript();
+
+        // When
+        List<Object> first = script.evaluate(null);
+        List<Object> second = script.evaluate(null);
+
+        // Then
+        assertThat(first, sameInstance(second));
+        assertThat(first, instanceOf(ArrayList.class));
+        assertThat(first, equalTo(asList(1, "two", new BigDecimal("3.0"), asList(4))));
+    }
+
+    @Test
+    void constantCollections_areImmutable() {
+        // When
+        List<Object> list = compile("[1, [2]]").<List<Object>>getScript().evaluate(null);
+        Set<Object> set = compile("{1, 2}").<Set<Object>>getScript().evaluate(null);
+        Map<Object, Object> map = compile("{1 : {2 : 'inner'}}").<Map<Object, Object>>getScript().evaluate(null);
+
+        // Then
+        assertThrows(UnsupportedOperationException.class, () -> list.add(3));
+        assertThrows(UnsupportedOperationException.class, () -> ((List<Object>)list.get(1)).clear());
+        assertThrows(UnsupportedOperationException.class, () -> set.iterator().remove());
+        assertThrows(UnsupportedOperationException.class, () -> map.put(3, "three"));
+        assertThrows(UnsupportedOperationException.class, () -> map.entrySet().iterator().next().setValue("changed"));
+        assertThrows(UnsupportedOperationException.class, () -> ((Map<Object, Object>)map.get(1)).remove(2));
+        assertThat(map, equalTo(singletonMap(1, singletonMap(2, "inner"))));
+    }
+
+    @Test
+    void nonConstantAndEmptyCollections_areCreatedOnEachEvaluation() {
+        // Given
+        CompiledScript<BeanWithProperties, List<Object>> nonConstant = compile("[intProperty]", BeanWithProperties.class).getScript();
+        CompiledScript<?, List<Object>> empty = compile("[]").getScript();
+        BeanWithProperties binding = new BeanWithProperties(1);
+
+        // When
+        List<Object> emptyResult = empty.evaluate(null);
+        emptyResult.add(1);
+
+        // Then
+        assertThat(nonConstant.evaluate(binding), not(sameInstance(nonConstant.evaluate(binding))));
+        assertThat(empty.evaluate(null), not(sameInstance(emptyResult)));
+        assertThat(emptyResult, equalTo(asList(1)));
+    }
+
+    private static List<String> instructionsOutsideClassInitialiser(CompiledUnit<?> compiledUnit) {
+        List<String> instructions = new ArrayList<>();
+        compiledUnit.getCompiledClassResources().forEach(compiledClass -> {
+            ClassNode classNode = new ClassNode();
+            new ClassReader(compiledClass.getValue().readFullyAsBytes()).accept(classNode, 0);
+            for (MethodNode method : classNode.methods) {
+                if ( "<clinit>".equals(method.name) ) continue;
+
+                for (AbstractInsnNode insn : method.instructions.toArray()) {
+                    if ( insn.getOpcode() == NEW ) {
+                        instructions.add("NEW " + ((TypeInsnNode)insn).desc);
+                    } else if ( insn.getOpcode() == GETSTATIC ) {
+                        instructions.add("GETSTATIC " + ((FieldInsnNode)insn).owner + "." + ((FieldInsnNode)insn).name);
+                    }
+                }
+            }
+        });
+        return instructions;
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.compiler.codegen;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.orthodox.universel.BeanWithProperties;
+import org.orthodox.universel.compiler.CompiledUnit;
+import org.orthodox.universel.compiler.CompiledUnitCache;
+import org.orthodox.universel.compiler.UniversalCompiler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.orthodox.universel.Universal.execute;
+
+class PrimitiveOperatorIntrinsicsTest {
+    @Test
+    void primitiveOperators_areEmittedInline() {
+        // Given
+        CompiledUnit<BeanWithProperties> compiledUnit = new UniversalCompiler(CompiledUnitCache.disabled())
+                                                            .compile("-intProperty * 3 + longProperty << 2 > 10L && doubleProperty / 2d <= 1d", BeanWithProperties.class);
+
+        // When
+        List<String> methodsCalled = methodsCalledBy(compiledUnit);
+
+        // Then
+        assertThat(methodsCalled, not(hasItem(containsString("OperatorFunctions"))));
+        assertThat(methodsCalled, not(hasItem(containsString("UnaryFunctions"))));
+    }
+
+    @Test
+    void nonPrimitiveOperators_callOperatorFunctions() {
+        // Given
+        CompiledUnit<BeanWithProperties> compiledUnit = new UniversalCompiler(CompiledUnitCache.disabled())
+                                                            .compile("bigDecimalProperty + bigDecimalProperty", BeanWithProperties.class);
+
+        // When
+        List<String> methodsCalled = methodsCalledBy(compiledUnit);
+
+        // Then
+        assertThat(methodsCalled, hasItem(containsString("BigDecimalBinaryOperatorFunctions")));
+    }
+
+    @Test
+    void floatingPointComparisons_withNaN_areFalse_exceptInequality() {
+        // Given
+        BeanWithProperties binding = new BeanWithProperties();
+        binding.setDoubleProperty(Double.NaN);
+        binding.setFloatProperty(Float.NaN);
+
+        // Then
+        assertThat(execute("doubleProperty < 1d", binding), is(false));
+        assertThat(execute("doubleProperty <= 1d", binding), is(false));
+        assertThat(execute("doubleProperty > 1d", binding), is(false));
+        assertThat(execute("doubleProperty >= 1d", binding), is(false));
+        assertThat(execute("doubleProperty == doubleProperty", binding), is(false));
+        assertThat(execute("doubleProperty != doubleProperty", binding), is(true));
+        assertThat(execute("floatProperty < 1f", binding), is(false));
+        assertThat(execute("floatProperty > 1f", binding), is(false));
+        assertThat(execute("floatProperty != floatProperty", binding), is(true));
+    }
+
+    @Test
+    void primitiveOperators_haveJavaSemantics() {
+        // Given operands bound through properties, so the operators are not folded as constants at compile time
+        BeanWithProperties binding = new BeanWithProperties().withIntProperty(-7)
+                                                             .withLongProperty(-16L)
+                                                             .withDoubleProperty(2.5d)
+                                                             .withBooleanProperty(true);
+
+        // Then
+        assertThat(execute("intProperty / 2", binding), equalTo(-7 / 2));
+        assertThat(execute("intProperty % 3", binding), equalTo(-7 % 3));
+        assertThat(execute("intProperty << 33", binding), equalTo(-7 << 33));
+        assertThat(execute("longProperty << 33L", binding), equalTo(-16L << 33L));
+        assertThat(execute("longProperty >>> 60L", binding), equalTo(-16L >>> 60L));
+        assertThat(execute("intProperty ^ 3", binding), equalTo(-7 ^ 3));
+        assertThat(execute("longProperty > 2L", binding), is(false));
+        assertThat(execute("doubleProperty * 2d", binding), equalTo(5d));
+        assertThat(execute("booleanProperty == false", binding), is(false));
+        assertThat(execute("-intProperty", binding), equalTo(7));
+    }
+
+    @Test
+    void byteShortAndCharOperators_narrowTheirResults() {
+        // Given
+        BeanWithProperties binding = new BeanWithProperties().withByteProperty(Byte.MAX_VALUE)
+                                                             .withShortProperty(Short.MAX_VALUE)
+                                                             .withCharProperty('A');
+
+        // When
+        UniversalCompiler compiler = new UniversalCompiler(CompiledUnitCache.disabled());
+        List<String> methodsCalled = new ArrayList<>();
+        for (String expression : asList("byteProperty + byteProperty", "shortProperty * shortProperty", "charProperty - charProperty", "-byteProperty")) {
+            methodsCalled.addAll(methodsCalledBy(compiler.compile(expression, BeanWithProperties.class)));
+        }
+
+        // Then
+        assertThat(methodsCalled, not(hasItem(containsString("OperatorFunctions"))));
+        assertThat(methodsCalled, not(hasItem(containsString("UnaryFunctions"))));
+        assertThat(execute("byteProperty + byteProperty", binding), equalTo((byte)(Byte.MAX_VALUE + Byte.MAX_VALUE)));
+        assertThat(execute("byteProperty * byteProperty", binding), equalTo((byte)(Byte.MAX_VALUE * Byte.MAX_VALUE)));
+        assertThat(execute("-byteProperty - byteProperty - byteProperty", binding), equalTo((byte)(-Byte.MAX_VALUE - Byte.MAX_VALUE - Byte.MAX_VALUE)));
+        assertThat(execute("shortProperty + shortProperty", binding), equalTo((short)(Short.MAX_VALUE + Short.MAX_VALUE)));
+        assertThat(execute("shortProperty * shortProperty", binding), equalTo((short)(Short.MAX_VALUE * Short.MAX_VALUE)));
+        assertThat(execute("charProperty - charProperty - charProperty", binding), equalTo((char)-'A'));
+        assertThat(execute("charProperty * charProperty", binding), equalTo((char)('A' * 'A')));
+        assertThat(execute("-charProperty", binding), equalTo((char)-'A'));
+        assertThat(execute("-shortProperty - shortProperty - shortProperty", binding), equalTo((short)(-Short.MAX_VALUE - Short.MAX_VALUE - Short.MAX_VALUE)));
+    }
+
+    private static List<String> methodsCalledBy(CompiledUnit<?> compiledUnit) {
+        List<String> methodsCalled = new ArrayList<>();
+        compiledUnit.getCompiledClassResources().forEach(compiledClass -> {
+            ClassNode classNode = new ClassNode();
+            new ClassReader(compiledClass.getValue().readFullyAsBytes()).accept(classNode, 0);
+            for (MethodNode method : classNode.methods) {
+                for (AbstractInsnNode insn : method.instructions.toArray()) {
+                    if ( insn instanceof MethodInsnNode ) {
+                        methodsCalled.add(((MethodInsnNode)insn).owner + "." + ((MethodInsnNode)insn).name);
+                    }
+                }
+            }
+        });
+        return methodsCalled;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.exec;
+
+import org.junit.jupiter.api.Test;
+import org.orthodox.universel.BeanWithProperties;
+import org.orthodox.universel.UniversalException;
+import org.orthodox.universel.compiler.CompiledUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.orthodox.universel.Universal.compile;
+
+class CompiledScriptTest {
+    @Test
+    void unboundScript_evaluatesRepeatedly() {
+        // Given
+        CompiledScript<?, Integer> script = compile("1 + 2").getScript();
+
+        // Then
+        assertThat(script.evaluate(null), equalTo(3));
+        assertThat(script.evaluate(null), equalTo(3));
+    }
+
+    @Test
+    void boundScript_evaluatesAgainstEachBinding() {
+        // Given
+        CompiledScript<BeanWithProperties, Integer> script = compile("intProperty", BeanWithProperties.class).getScript();
+
+        // Then
+        assertThat(script.evaluate(new BeanWithProperties(1)), equalTo(1));
+        assertThat(script.evaluate(new BeanWithProperties(2)), equalTo(2));
+    }
+
+    @Test
+    void script_isLinkedOnce() {
+        // Given
+        CompiledUnit<BeanWithProperties> compiledUnit = compile("intProperty", BeanWithProperties.class);
+
+        // Then
+        assertThat(compiledUnit.getScript(), sameInstance(compiledUnit.getScript()));
+    }
+
+    @Test
+    void booleanScript_evaluatesAsPredicate() {
+        // Given
+        CompiledUnit<BeanWithProperties> compiledUnit = compile("intProperty > 1", BeanWithProperties.class);
+
+        // Then
+        assertThat(compiledUnit.asPredicate().test(new BeanWithProperties(1)), is(false));
+        assertThat(compiledUnit.asPredicate().test(new BeanWithProperties(2)), is(true));
+        assertThat(compiledUnit.getScript().evaluateBoolean(new BeanWithProperties(2)), is(true));
+    }
+
+    @Test
+    void intScript_evaluatesAsIntFunction() {
+        assertThat(compile("60 * 60 * 24").asIntFunction().applyAsInt(null), equalTo(86400));
+    }
+
+    @Test
+    void intScript_widensToLongAndDouble() {
+        assertThat(compile("1 + 2").asLongFunction().applyAsLong(null), equalTo(3L));
+        assertThat(compile("1 + 2").asDoubleFunction().applyAsDouble(null), equalTo(3d));
+    }
+
+    @Test
+    void doubleScript_evaluatesAsDoubleFunction() {
+        assertThat(compile("1.5d * 2d").asDoubleFunction().applyAsDouble(null), equalTo(3d));
+    }
+
+    @Test
+    void longScript_cannotEvaluateAsInt() {
+        assertThrows(UniversalException.class, () -> compile("1L + 2L").asIntFunction());
+    }
+}
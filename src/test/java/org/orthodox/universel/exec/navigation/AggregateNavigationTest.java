@@ -0,0 +1,184 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.exec.navigation;
+
+import org.beanplanet.core.beans.JavaBean;
+import org.junit.jupiter.api.Test;
+import org.orthodox.universel.BeanWithProperties;
+import org.orthodox.universel.ast.StaticMethodCall;
+import org.orthodox.universel.ast.TokenImage;
+import org.orthodox.universel.ast.navigation.NavigationAxisAndNodeTest;
+import org.orthodox.universel.ast.navigation.SumNodeTest;
+import org.orthodox.universel.exec.navigation.impl.reduce.UniversalCollectionReductionNavigators;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.orthodox.universel.Universal.execute;
+
+class AggregateNavigationTest {
+    @Test
+    void sum() {
+        // Given
+        final BeanWithProperties binding = beans();
+
+        // Then
+        assertThat(execute("referenceListProperty\\intProperty\\[sum]", binding), equalTo(6L));
+        assertThat(execute("referenceListProperty\\longProperty\\[sum]", binding), equalTo(60L));
+        assertThat(execute("referenceListProperty\\doubleProperty\\[sum]", binding), equalTo(600d));
+        assertThat(execute("referenceListProperty\\bigDecimalProperty\\[sum]", binding), comparesEqualTo(new BigDecimal("6.6")));
+    }
+
+    @Test
+    void sum_ignoresNullElements() {
+        // Given
+        final BeanWithProperties binding = new BeanWithProperties().withReferenceListProperty(asList(
+            new BeanWithProperties().withIntWrapperProperty(1),
+            new BeanWithProperties(),
+            new BeanWithProperties().withIntWrapperProperty(3)
+        ));
+
+        // Then
+        assertThat(execute("referenceListProperty\\intWrapperProperty\\[sum]", binding), equalTo(4L));
+        assertThat(execute("referenceListProperty\\intWrapperProperty\\[count]", binding), equalTo(3L));
+    }
+
+    @Test
+    void sum_ofLongsBeyondDoublePrecision_isExact() {
+        // Given
+        final BeanWithProperties binding = new BeanWithProperties().withReferenceListProperty(asList(
+            new BeanWithProperties().withLongProperty(1L << 53).withLongWrapperProperty(Long.MAX_VALUE - 1L),
+            new BeanWithProperties().withLongProperty(1L).withLongWrapperProperty(1L)
+        ));
+
+        // Then
+        assertThat(execute("referenceListProperty\\longProperty\\[sum]", binding), equalTo(9007199254740993L));
+        assertThat(execute("referenceListProperty\\longWrapperProperty\\[sum]", binding), equalTo(Long.MAX_VALUE));
+    }
+
+    @Test
+    void sum_ofJdkIntegralNumbers_isExact() {
+        // Given
+        final NavigationAxisAndNodeTest<SumNodeTest> step = new NavigationAxisAndNodeTest<>(new TokenImage("[sum]"), "default", new SumNodeTest(new TokenImage("[sum]")));
+
+        // When
+        final StaticMethodCall atomicLongSum = (StaticMethodCall)UniversalCollectionReductionNavigators.sumReduction(AtomicLong.class, null, step);
+        final StaticMethodCall numberSum = (StaticMethodCall)UniversalCollectionReductionNavigators.sumReduction(Number.class, null, step);
+
+        // Then
+        assertThat(atomicLongSum.getName(), equalTo("sumLong"));
+        assertThat(atomicLongSum.getTypeDescriptor(), equalTo(long.class));
+        assertThat(NavigationAggregateFunctions.sumLong(Stream.of(new AtomicLong(1L << 53), new AtomicLong(1L))), equalTo((1L << 53) + 1L));
+        assertThat(numberSum.getName(), equalTo("sumDouble"));
+    }
+
+    @Test
+    void count() {
+        // Given
+        final BeanWithProperties binding = beans();
+
+        // Then
+        assertThat(execute("referenceListProperty\\intProperty\\[count]", binding), equalTo(3L));
+        assertThat(execute("referenceListProperty\\stringProperty\\[count]", binding), equalTo(3L));
+    }
+
+    @Test
+    void minAndMax() {
+        // Given
+        final BeanWithProperties binding = beans();
+
+        // Then
+        assertThat(execute("referenceListProperty\\intProperty\\[min]", binding), equalTo(1));
+        assertThat(execute("referenceListProperty\\intProperty\\[max]", binding), equalTo(3));
+        assertThat(execute("referenceListProperty\\doubleProperty\\[max]", binding), equalTo(300d));
+        assertThat(execute("referenceListProperty\\stringProperty\\[min]", binding), equalTo("A"));
+        assertThat(execute("referenceListProperty\\stringProperty\\[max]", binding), equalTo("C"));
+        assertThat(execute("referenceListProperty\\bigDecimalProperty\\[max]", binding), equalTo(new BigDecimal("3.3")));
+    }
+
+    @Test
+    void average() {
+        // Given
+        final BeanWithProperties binding = beans();
+
+        // Then
+        assertThat(execute("referenceListProperty\\intProperty\\[average]", binding), equalTo(2d));
+        assertThat(execute("referenceListProperty\\longProperty\\[average]", binding), equalTo(20d));
+        assertThat(execute("referenceListProperty\\bigDecimalProperty\\[average]", binding), comparesEqualTo(new BigDecimal("2.2")));
+    }
+
+    @Test
+    void aggregatesOfEmptySequences() {
+        // Given
+        final BeanWithProperties binding = new BeanWithProperties().withReferenceListProperty(emptyList());
+
+        // Then
+        assertThat(execute("referenceListProperty\\intProperty\\[sum]", binding), equalTo(0L));
+        assertThat(execute("referenceListProperty\\intProperty\\[count]", binding), equalTo(0L));
+        assertThat(execute("referenceListProperty\\intProperty\\[min]", binding), nullValue());
+        assertThat(execute("referenceListProperty\\intProperty\\[average]", binding), nullValue());
+        assertThat(execute("referenceListProperty\\bigDecimalProperty\\[sum]", binding), equalTo(BigDecimal.ZERO));
+    }
+
+    @Test
+    void aggregatesOfFilteredAndFlattenedSequences() {
+        // Given
+        final BeanWithProperties binding = beans();
+        final BeanWithProperties arrays = new BeanWithProperties().withReferenceListProperty(asList(
+            new JavaBean<>(new BeanWithProperties()).with("intArrayProperty", new int[] {1, 2}).getBean(),
+            new JavaBean<>(new BeanWithProperties()).with("intArrayProperty", new int[] {3, 4}).getBean()
+        ));
+
+        // Then
+        assertThat(execute("referenceListProperty[intProperty > 1]\\intProperty\\[sum]", binding), equalTo(5L));
+        assertThat(execute("referenceListProperty\\intProperty[false]\\[count]", binding), equalTo(0L));
+        assertThat(execute("referenceListProperty\\intArrayProperty\\[sum]", arrays), equalTo(10L));
+        assertThat(execute("referenceListProperty\\intArrayProperty\\[max]", arrays), equalTo(4));
+    }
+
+    private static BeanWithProperties beans() {
+        return new BeanWithProperties().withReferenceListProperty(asList(
+            bean("A", 1, new BigDecimal("1.1")),
+            bean("B", 2, new BigDecimal("2.2")),
+            bean("C", 3, new BigDecimal("3.3"))
+        ));
+    }
+
+    private static BeanWithProperties bean(final String stringProperty, final int intProperty, final BigDecimal bigDecimalProperty) {
+        return new BeanWithProperties().withStringProperty(stringProperty)
+                                       .withIntProperty(intProperty)
+                                       .withLongProperty(intProperty * 10L)
+                                       .withDoubleProperty(intProperty * 100d)
+                                       .withBigDecimalProperty(bigDecimalProperty);
+    }
+}
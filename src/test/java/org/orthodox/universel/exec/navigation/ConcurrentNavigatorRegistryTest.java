@@ -0,0 +1,118 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.exec.navigation;
+
+import org.junit.jupiter.api.Test;
+import org.orthodox.universel.ast.navigation.NameTest;
+import org.orthodox.universel.ast.navigation.NavigationAxisAndNodeTest;
+
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.orthodox.universel.ReferenceTestUtil.defineClassInNewClassLoader;
+import static org.orthodox.universel.ReferenceTestUtil.isStronglyReachable;
+
+class ConcurrentNavigatorRegistryTest {
+    private static final NavigatorFunction NUMBER_NAVIGATOR = (fromType, instanceReadAccessor, step) -> instanceReadAccessor;
+    private static final NavigatorFunction INTEGER_NAVIGATOR = (fromType, instanceReadAccessor, step) -> instanceReadAccessor;
+    private static final NavigatorFunction WILDCARD_NAVIGATOR = (fromType, instanceReadAccessor, step) -> instanceReadAccessor;
+
+    private static NavigationAxisAndNodeTest<NameTest> step(String name) {
+        return new NavigationAxisAndNodeTest<>(null, "default", new NameTest(name));
+    }
+
+    @Test
+    void lookup_findsNavigatorsOfSupertypes() {
+        // Given
+        ConcurrentNavigatorRegistry registry = new ConcurrentNavigatorRegistry();
+        registry.addMappingNavigator(Number.class, singletonList("default"), singletonList("value"), NUMBER_NAVIGATOR);
+        registry.addMappingNavigator(Object.class, singletonList("default"), singletonList("*"), WILDCARD_NAVIGATOR);
+
+        // When
+        List<NavigatorFunction> navigators = registry.lookup(Integer.class, step("value"));
+
+        // Then
+        assertThat(navigators, hasItems(NUMBER_NAVIGATOR, WILDCARD_NAVIGATOR));
+        assertThat(registry.lookup(Integer.class, step("other")), equalTo(singletonList(WILDCARD_NAVIGATOR)));
+        assertThat(registry.lookup(Integer.class, new NavigationAxisAndNodeTest<>(null, "other", new NameTest("value"))), empty());
+    }
+
+    @Test
+    void lookup_returnsSharedImmutableList() {
+        // Given
+        ConcurrentNavigatorRegistry registry = new ConcurrentNavigatorRegistry();
+        registry.addMappingNavigator(Number.class, singletonList("default"), asList("value", "*"), NUMBER_NAVIGATOR);
+
+        // When
+        List<NavigatorFunction> navigators = registry.lookup(Integer.class, step("value"));
+
+        // Then
+        assertThat(registry.lookup(Integer.class, step("value")), sameInstance(navigators));
+        assertThrows(UnsupportedOperationException.class, () -> navigators.add(INTEGER_NAVIGATOR));
+    }
+
+    @Test
+    void lookup_isInvalidatedByRegistryChanges() {
+        // Given
+        ConcurrentNavigatorRegistry registry = new ConcurrentNavigatorRegistry();
+        registry.addMappingNavigator(Number.class, singletonList("default"), singletonList("value"), NUMBER_NAVIGATOR);
+        List<NavigatorFunction> before = registry.lookup(Integer.class, step("value"));
+
+        // When
+        registry.addMappingNavigator(Integer.class, singletonList("default"), singletonList("value"), INTEGER_NAVIGATOR);
+        List<NavigatorFunction> afterAdd = registry.lookup(Integer.class, step("value"));
+        registry.clear();
+        List<NavigatorFunction> afterClear = registry.lookup(Integer.class, step("value"));
+
+        // Then
+        assertThat(before, equalTo(singletonList(NUMBER_NAVIGATOR)));
+        assertThat(afterAdd, hasItems(NUMBER_NAVIGATOR, INTEGER_NAVIGATOR));
+        assertThat(afterClear, empty());
+    }
+
+    @Test
+    void memoisedLookups_holdNoStrongReferenceToNavigatedTypes() {
+        // Given
+        ConcurrentNavigatorRegistry registry = new ConcurrentNavigatorRegistry();
+        registry.addMappingNavigator(Object.class, singletonList("default"), singletonList("*"), WILDCARD_NAVIGATOR);
+        Class<?> navigatedType = defineClassInNewClassLoader("org.orthodox.universel.test.NavigatedType");
+
+        // When
+        List<NavigatorFunction> navigators = registry.lookup(navigatedType, step("value"));
+
+        // Then
+        assertThat(navigators, equalTo(singletonList(WILDCARD_NAVIGATOR)));
+        assertThat(registry.lookup(navigatedType, step("value")), sameInstance(navigators));
+        assertThat(isStronglyReachable(registry, navigatedType), is(false));
+        assertThat(isStronglyReachable(registry, navigatedType.getClassLoader()), is(false));
+    }
+}
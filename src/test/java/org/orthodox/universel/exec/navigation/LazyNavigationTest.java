@@ -0,0 +1,193 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.exec.navigation;
+
+import org.junit.jupiter.api.Test;
+import org.orthodox.universel.BeanWithProperties;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.orthodox.universel.Universal.execute;
+
+class LazyNavigationTest {
+    @Test
+    void first() {
+        // Given
+        final BeanWithProperties binding = beans(new AtomicInteger());
+
+        // Then
+        assertThat(execute("referenceListProperty\\stringProperty\\[first]", binding), equalTo("A"));
+        assertThat(execute("referenceListProperty\\intProperty\\[first]", binding), equalTo(1));
+        assertThat(execute("referenceListProperty[intProperty > 1]\\stringProperty\\[first]", binding), equalTo("B"));
+        assertThat(execute("referenceListProperty\\stringProperty\\[any]", binding), oneOf("A", "B", "C"));
+    }
+
+    @Test
+    void first_navigatesNoFurtherThanTheFirstElement() {
+        // Given
+        final AtomicInteger accesses = new AtomicInteger();
+        final BeanWithProperties binding = beans(accesses);
+
+        // When
+        final Object result = execute("referenceListProperty\\stringProperty\\[first]", binding);
+
+        // Then
+        assertThat(result, equalTo("A"));
+        assertThat(accesses.get(), equalTo(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void firstAndStream_ofNestedSequences_navigateNoFurtherThanTheFirstInnerSequence() {
+        // Given
+        final AtomicInteger outerAccesses = new AtomicInteger();
+        final AtomicInteger innerAccesses = new AtomicInteger();
+        final BeanWithProperties binding = new BeanWithProperties().withReferenceListProperty(asList(
+            nested(beans(innerAccesses), outerAccesses),
+            nested(beans(innerAccesses), outerAccesses)
+        ));
+
+        // When
+        final Object first = execute("referenceListProperty\\referenceListProperty\\stringProperty\\[first]", binding);
+
+        // Then the second inner sequence is never navigated and, as Java 8 flatMap consumes each inner sequence fully,
+        // at most the elements of the first are
+        assertThat(first, equalTo("A"));
+        assertThat(outerAccesses.get(), equalTo(1));
+        assertThat(innerAccesses.get(), both(greaterThanOrEqualTo(1)).and(lessThanOrEqualTo(3)));
+
+        // When
+        outerAccesses.set(0);
+        innerAccesses.set(0);
+        final Stream<String> stream = (Stream<String>)execute("referenceListProperty\\referenceListProperty\\stringProperty\\[stream]", binding);
+
+        // Then
+        assertThat(stream.limit(2).collect(Collectors.toList()), equalTo(asList("A", "B")));
+        assertThat(outerAccesses.get(), equalTo(1));
+        assertThat(innerAccesses.get(), both(greaterThanOrEqualTo(2)).and(lessThanOrEqualTo(3)));
+    }
+
+    @Test
+    void firstAndAnyOfEmptySequences() {
+        // Given
+        final BeanWithProperties binding = new BeanWithProperties().withReferenceListProperty(emptyList());
+
+        // Then
+        assertThat(execute("referenceListProperty\\stringProperty\\[first]", binding), nullValue());
+        assertThat(execute("referenceListProperty\\intProperty\\[any]", binding), nullValue());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void stream_isNavigatedOnlyAsConsumed() {
+        // Given
+        final AtomicInteger accesses = new AtomicInteger();
+        final BeanWithProperties binding = beans(accesses);
+
+        // When
+        final Object result = execute("referenceListProperty\\stringProperty\\[stream]", binding);
+
+        // Then
+        assertThat(result, instanceOf(Stream.class));
+        assertThat(accesses.get(), equalTo(0));
+        assertThat(((Stream<String>)result).limit(2).collect(Collectors.toList()), equalTo(asList("A", "B")));
+        assertThat(accesses.get(), equalTo(2));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void iterator_isNavigatedOnlyAsConsumed() {
+        // Given
+        final AtomicInteger accesses = new AtomicInteger();
+        final BeanWithProperties binding = beans(accesses);
+
+        // When
+        final Iterator<String> result = (Iterator<String>)execute("referenceListProperty\\stringProperty\\[iterator]", binding);
+
+        // Then
+        assertThat(result.next(), equalTo("A"));
+        assertThat(accesses.get(), equalTo(1));
+        assertThat(result.next(), equalTo("B"));
+        assertThat(result.next(), equalTo("C"));
+        assertThat(result.hasNext(), is(false));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void iterable() {
+        // Given
+        final BeanWithProperties binding = beans(new AtomicInteger());
+
+        // When
+        final Iterable<String> result = (Iterable<String>)execute("referenceListProperty[intProperty > 1]\\stringProperty\\[iterable]", binding);
+
+        // Then
+        final List<String> elements = new ArrayList<>();
+        for (String element : result) {
+            elements.add(element);
+        }
+        assertThat(elements, equalTo(asList("B", "C")));
+    }
+
+    private static BeanWithProperties beans(final AtomicInteger accesses) {
+        return new BeanWithProperties().withReferenceListProperty(asList(
+            bean("A", 1, accesses),
+            bean("B", 2, accesses),
+            bean("C", 3, accesses)
+        ));
+    }
+
+    private static BeanWithProperties nested(final BeanWithProperties inner, final AtomicInteger accesses) {
+        return new BeanWithProperties() {
+            @Override
+            public List<BeanWithProperties> getReferenceListProperty() {
+                accesses.incrementAndGet();
+                return super.getReferenceListProperty();
+            }
+        }.withReferenceListProperty(inner.getReferenceListProperty());
+    }
+
+    private static BeanWithProperties bean(final String stringProperty, final int intProperty, final AtomicInteger accesses) {
+        return new BeanWithProperties() {
+            @Override
+            public String getStringProperty() {
+                accesses.incrementAndGet();
+                return super.getStringProperty();
+            }
+        }.withStringProperty(stringProperty).withIntProperty(intProperty);
+    }
+}
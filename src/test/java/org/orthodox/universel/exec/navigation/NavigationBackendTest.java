@@ -0,0 +1,205 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.exec.navigation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.orthodox.universel.BeanWithProperties;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.orthodox.universel.compiler.CompiledUnit;
+import org.orthodox.universel.compiler.CompiledUnitCache;
+import org.orthodox.universel.compiler.CompilerOptions;
+import org.orthodox.universel.compiler.PersistentCompiledUnitStore;
+import org.orthodox.universel.compiler.UniversalCompiler;
+import org.orthodox.universel.symanticanalysis.navigation.NavigationBackend;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.orthodox.universel.symanticanalysis.navigation.NavigationBackend.BACKEND_PROPERTY;
+
+class NavigationBackendTest {
+    @AfterEach
+    void tearDown() {
+        System.clearProperty(BACKEND_PROPERTY);
+    }
+
+    @Test
+    void defaultBackend_isStreamUnlessConfigured() {
+        assertThat(NavigationBackend.defaultBackend(), is(NavigationBackend.STREAM));
+
+        System.setProperty(BACKEND_PROPERTY, "loop");
+        assertThat(NavigationBackend.defaultBackend(), is(NavigationBackend.LOOP));
+        assertThat(CompilerOptions.defaultOptions().getNavigationBackend(), is(NavigationBackend.LOOP));
+    }
+
+    @Test
+    void mapReduce_toList() {
+        // Given
+        BeanWithProperties binding = new BeanWithProperties().withReferenceListProperty(asList(bean("A", 1), bean("B", 2), bean("C", 3)));
+
+        // Then
+        assertBackendsAgree("referenceListProperty.stringProperty.[]", binding, asList("A", "B", "C"));
+    }
+
+    @Test
+    void mapReduce_toSet() {
+        // Given
+        BeanWithProperties binding = new BeanWithProperties().withReferenceListProperty(asList(bean("A", 1), bean("B", 2), bean("A", 3)));
+
+        // Then
+        assertBackendsAgree("referenceListProperty.stringProperty.{}", binding, new LinkedHashSet<>(asList("A", "B")));
+    }
+
+    @Test
+    void mapReduce_toArray() {
+        // Given
+        BeanWithProperties binding = new BeanWithProperties().withReferenceArrayProperty(new BeanWithProperties[] {bean("A", 1), bean("B", 2)});
+
+        // Then
+        assertBackendsAgree("referenceArrayProperty.stringProperty.[[]]", binding, new String[] {"A", "B"});
+    }
+
+    @Test
+    void filterMapReduce() {
+        // Given
+        BeanWithProperties binding = new BeanWithProperties().withReferenceListProperty(asList(bean("A", 1), bean("B", 2), bean("C", 3)));
+
+        // Then
+        assertBackendsAgree("referenceListProperty[intProperty > 1].stringProperty.[]", binding, asList("B", "C"));
+        assertBackendsAgree("referenceListProperty[intProperty > 3].stringProperty.[]", binding, emptyList());
+    }
+
+    @Test
+    void indexFilterMapReduce() {
+        // Given
+        BeanWithProperties binding = new BeanWithProperties().withReferenceListProperty(asList(bean("A", 1), bean("B", 2), bean("C", 3)));
+
+        // Then
+        assertBackendsAgree("referenceListProperty[1].stringProperty.[]", binding, asList("B"));
+    }
+
+    @Test
+    void bindingDependentIndexFilterMapReduce() {
+        // Given
+        BeanWithProperties binding = new BeanWithProperties().withIntProperty(1)
+                                                             .withReferenceListProperty(asList(bean("A", 1), bean("B", 2), bean("C", 3)));
+
+        // Then
+        assertBackendsAgree("referenceListProperty[intProperty].stringProperty.[]", binding, asList("B"));
+    }
+
+    @Test
+    void nestedSequences_areFlattened() {
+        // Given
+        BeanWithProperties binding = new BeanWithProperties().withReferenceListProperty(asList(
+            new BeanWithProperties().withReferenceListProperty(asList(bean("A", 1), bean("B", 2))),
+            new BeanWithProperties().withReferenceListProperty(emptyList()),
+            new BeanWithProperties().withReferenceListProperty(asList(bean("C", 3)))
+        ));
+
+        // Then
+        assertBackendsAgree("referenceListProperty.referenceListProperty.stringProperty.[]", binding, asList("A", "B", "C"));
+    }
+
+    @Test
+    void cachedUnits_areNotSharedBetweenBackends() {
+        // Given
+        CompiledUnitCache compiledUnitCache = new CompiledUnitCache(10);
+        UniversalCompiler streamCompiler = compiler(compiledUnitCache, NavigationBackend.STREAM);
+        UniversalCompiler loopCompiler = compiler(compiledUnitCache, NavigationBackend.LOOP);
+        String navigation = "referenceListProperty.stringProperty.[]";
+
+        // When
+        CompiledUnit<BeanWithProperties> streamUnit = streamCompiler.compile(navigation, BeanWithProperties.class);
+        CompiledUnit<BeanWithProperties> loopUnit = loopCompiler.compile(navigation, BeanWithProperties.class);
+
+        // Then
+        assertThat(loopUnit, not(sameInstance(streamUnit)));
+        assertThat(compiledUnitCache.size(), equalTo(2));
+        assertThat(methodsCalledBy(streamUnit), hasItem("java/util/stream/Stream.collect"));
+        assertThat(methodsCalledBy(loopUnit), not(hasItem("java/util/stream/Stream.collect")));
+        assertThat(streamCompiler.compile(navigation, BeanWithProperties.class), sameInstance(streamUnit));
+        assertThat(loopCompiler.compile(navigation, BeanWithProperties.class), sameInstance(loopUnit));
+    }
+
+    private static BeanWithProperties bean(String stringProperty, int intProperty) {
+        return new BeanWithProperties().withStringProperty(stringProperty).withIntProperty(intProperty);
+    }
+
+    private static void assertBackendsAgree(String navigation, BeanWithProperties binding, Object expected) {
+        // When
+        Object streamResult = evaluate(NavigationBackend.STREAM, navigation, binding);
+        Object loopResult = evaluate(NavigationBackend.LOOP, navigation, binding);
+
+        // Then
+        assertThat(streamResult, equalTo(expected));
+        assertThat(loopResult, equalTo(expected));
+        if (expected instanceof List) {
+            assertThat(loopResult, instanceOf(List.class));
+        } else if (expected instanceof Set) {
+            assertThat(loopResult, instanceOf(Set.class));
+        }
+    }
+
+    private static Object evaluate(NavigationBackend backend, String navigation, BeanWithProperties binding) {
+        return compiler(CompiledUnitCache.disabled(), backend).compile(navigation, BeanWithProperties.class).getScript().evaluate(binding);
+    }
+
+    private static UniversalCompiler compiler(CompiledUnitCache compiledUnitCache, NavigationBackend backend) {
+        return new UniversalCompiler(compiledUnitCache,
+                                     PersistentCompiledUnitStore.disabled(),
+                                     CompilerOptions.defaultOptions().withNavigationBackend(backend));
+    }
+
+    private static List<String> methodsCalledBy(CompiledUnit<?> compiledUnit) {
+        List<String> methodsCalled = new ArrayList<>();
+        compiledUnit.getCompiledClassResources().forEach(compiledClass -> {
+            ClassNode classNode = new ClassNode();
+            new ClassReader(compiledClass.getValue().readFullyAsBytes()).accept(classNode, 0);
+            for (MethodNode method : classNode.methods) {
+                for (AbstractInsnNode insn : method.instructions.toArray()) {
+                    if ( insn instanceof MethodInsnNode ) {
+                        methodsCalled.add(((MethodInsnNode)insn).owner + "." + ((MethodInsnNode)insn).name);
+                    }
+                }
+            }
+        });
+        return methodsCalled;
+    }
+}
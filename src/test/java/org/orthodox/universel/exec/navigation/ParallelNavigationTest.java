@@ -0,0 +1,209 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.exec.navigation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.orthodox.universel.BeanWithProperties;
+import org.orthodox.universel.compiler.CompiledUnit;
+import org.orthodox.universel.compiler.CompiledUnitCache;
+import org.orthodox.universel.compiler.CompilerOptions;
+import org.orthodox.universel.compiler.PersistentCompiledUnitStore;
+import org.orthodox.universel.compiler.UniversalCompiler;
+import org.orthodox.universel.exec.CompiledScript;
+import org.orthodox.universel.symanticanalysis.navigation.NavigationParallelism;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.orthodox.universel.symanticanalysis.navigation.NavigationParallelism.PARALLEL_PROPERTY;
+import static org.orthodox.universel.symanticanalysis.navigation.NavigationParallelism.PARALLEL_THRESHOLD_PROPERTY;
+
+class ParallelNavigationTest {
+    private static final int SIZE = 2_000;
+    private static final String PARALLEL_STREAM_METHOD = "org/orthodox/universel/exec/navigation/NavigationStreamFunctions.stream";
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty(PARALLEL_PROPERTY);
+        System.clearProperty(PARALLEL_THRESHOLD_PROPERTY);
+    }
+
+    @Test
+    void defaultParallelism_isSequentialUnlessConfigured() {
+        assertThat(NavigationParallelism.defaultParallelism(), sameInstance(NavigationParallelism.SEQUENTIAL));
+
+        System.setProperty(PARALLEL_PROPERTY, "true");
+        assertThat(NavigationParallelism.defaultParallelism().isParallel(), is(true));
+        assertThat(NavigationParallelism.defaultParallelism().getThreshold(), equalTo(NavigationParallelism.DEFAULT_PARALLEL_THRESHOLD));
+
+        System.setProperty(PARALLEL_THRESHOLD_PROPERTY, "100");
+        assertThat(NavigationParallelism.defaultParallelism().getThreshold(), equalTo(100));
+        assertThat(CompilerOptions.defaultOptions().getNavigationParallelism(), equalTo(NavigationParallelism.parallel(100)));
+    }
+
+    @Test
+    void stream_isParallelFromTheThreshold() {
+        // Given
+        List<Integer> list = asList(1, 2, 3);
+        Integer[] array = {1, 2, 3};
+
+        // Then
+        assertThat(NavigationStreamFunctions.stream(list, 4).isParallel(), is(false));
+        assertThat(NavigationStreamFunctions.stream(list, 3).isParallel(), is(true));
+        assertThat(NavigationStreamFunctions.stream(array, 4).isParallel(), is(false));
+        assertThat(NavigationStreamFunctions.stream(array, 3).isParallel(), is(true));
+        assertThat(NavigationStreamFunctions.stream((List<Integer>)null, 0), nullValue());
+        assertThat(NavigationStreamFunctions.stream((Integer[])null, 0), nullValue());
+    }
+
+    @Test
+    void listReduction_preservesEncounterOrder() {
+        // Given
+        BeanWithProperties binding = new BeanWithProperties().withReferenceListProperty(beans());
+
+        // When
+        Object result = compileParallel("referenceListProperty.stringProperty.[]").evaluate(binding);
+
+        // Then
+        assertThat(result, equalTo(names(0)));
+    }
+
+    @Test
+    void arrayReduction_preservesEncounterOrder() {
+        // Given
+        BeanWithProperties binding = new BeanWithProperties().withReferenceArrayProperty(beans().toArray(new BeanWithProperties[0]));
+
+        // When
+        Object result = compileParallel("referenceArrayProperty.stringProperty.[[]]").evaluate(binding);
+
+        // Then
+        assertThat(result, equalTo(names(0).toArray(new String[0])));
+    }
+
+    @Test
+    void filterMapReduce_preservesEncounterOrder() {
+        // Given
+        BeanWithProperties binding = new BeanWithProperties().withReferenceListProperty(beans());
+
+        // When
+        Object result = compileParallel("referenceListProperty[intProperty >= 1000].stringProperty.[]").evaluate(binding);
+
+        // Then
+        assertThat(result, equalTo(names(1000)));
+    }
+
+    @Test
+    void evaluate_onSuppliedPool() {
+        // Given
+        BeanWithProperties binding = new BeanWithProperties().withReferenceListProperty(beans());
+        CompiledScript<BeanWithProperties, Object> script = compileParallel("referenceListProperty.stringProperty.[]");
+        ForkJoinPool pool = new ForkJoinPool(2);
+
+        try {
+            // When
+            Object result = script.evaluate(binding, pool);
+
+            // Then
+            assertThat(result, equalTo(names(0)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void cachedUnits_areNotSharedBetweenParallelisms() {
+        // Given
+        CompiledUnitCache compiledUnitCache = new CompiledUnitCache(10);
+        UniversalCompiler sequentialCompiler = compiler(compiledUnitCache, NavigationParallelism.SEQUENTIAL);
+        UniversalCompiler parallelCompiler = compiler(compiledUnitCache, NavigationParallelism.parallel(1));
+        UniversalCompiler otherThresholdCompiler = compiler(compiledUnitCache, NavigationParallelism.parallel(100));
+        String navigation = "referenceListProperty.stringProperty.[]";
+
+        // When
+        CompiledUnit<BeanWithProperties> sequentialUnit = sequentialCompiler.compile(navigation, BeanWithProperties.class);
+        CompiledUnit<BeanWithProperties> parallelUnit = parallelCompiler.compile(navigation, BeanWithProperties.class);
+        CompiledUnit<BeanWithProperties> otherThresholdUnit = otherThresholdCompiler.compile(navigation, BeanWithProperties.class);
+
+        // Then
+        assertThat(parallelUnit, not(sameInstance(sequentialUnit)));
+        assertThat(otherThresholdUnit, not(sameInstance(parallelUnit)));
+        assertThat(compiledUnitCache.size(), equalTo(3));
+        assertThat(methodsCalledBy(sequentialUnit), not(hasItem(PARALLEL_STREAM_METHOD)));
+        assertThat(methodsCalledBy(parallelUnit), hasItem(PARALLEL_STREAM_METHOD));
+        assertThat(sequentialCompiler.compile(navigation, BeanWithProperties.class), sameInstance(sequentialUnit));
+        assertThat(parallelCompiler.compile(navigation, BeanWithProperties.class), sameInstance(parallelUnit));
+    }
+
+    private static CompiledScript<BeanWithProperties, Object> compileParallel(String navigation) {
+        return compiler(CompiledUnitCache.disabled(), NavigationParallelism.parallel(1)).compile(navigation, BeanWithProperties.class).getScript();
+    }
+
+    private static UniversalCompiler compiler(CompiledUnitCache compiledUnitCache, NavigationParallelism parallelism) {
+        return new UniversalCompiler(compiledUnitCache,
+                                     PersistentCompiledUnitStore.disabled(),
+                                     CompilerOptions.defaultOptions().withNavigationParallelism(parallelism));
+    }
+
+    private static List<String> methodsCalledBy(CompiledUnit<?> compiledUnit) {
+        List<String> methodsCalled = new ArrayList<>();
+        compiledUnit.getCompiledClassResources().forEach(compiledClass -> {
+            ClassNode classNode = new ClassNode();
+            new ClassReader(compiledClass.getValue().readFullyAsBytes()).accept(classNode, 0);
+            for (MethodNode method : classNode.methods) {
+                for (AbstractInsnNode insn : method.instructions.toArray()) {
+                    if ( insn instanceof MethodInsnNode ) {
+                        methodsCalled.add(((MethodInsnNode)insn).owner + "." + ((MethodInsnNode)insn).name);
+                    }
+                }
+            }
+        });
+        return methodsCalled;
+    }
+
+    private static List<BeanWithProperties> beans() {
+        return IntStream.range(0, SIZE)
+                        .mapToObj(n -> new BeanWithProperties().withStringProperty("Bean " + n).withIntProperty(n))
+                        .collect(Collectors.toList());
+    }
+
+    private static List<String> names(int from) {
+        return IntStream.range(from, SIZE).mapToObj(n -> "Bean " + n).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.exec.navigation;
+
+import org.beanplanet.core.beans.JavaBean;
+import org.junit.jupiter.api.Test;
+import org.orthodox.universel.BeanWithProperties;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.orthodox.universel.Universal.execute;
+
+class PrimitiveStreamNavigationTest {
+    @Test
+    void primitiveProperties_reduceToPrimitiveArrays() {
+        // Given
+        final BeanWithProperties binding = new BeanWithProperties().withReferenceListProperty(asList(
+            new BeanWithProperties().withIntProperty(1).withLongProperty(10L).withDoubleProperty(100d),
+            new BeanWithProperties().withIntProperty(2).withLongProperty(20L).withDoubleProperty(200d),
+            new BeanWithProperties().withIntProperty(3).withLongProperty(30L).withDoubleProperty(300d)
+        ));
+
+        // Then
+        assertThat(execute("referenceListProperty\\intProperty\\[[]]", binding), equalTo(new int[] {1, 2, 3}));
+        assertThat(execute("referenceListProperty\\longProperty\\[[]]", binding), equalTo(new long[] {10L, 20L, 30L}));
+        assertThat(execute("referenceListProperty\\doubleProperty\\[[]]", binding), equalTo(new double[] {100d, 200d, 300d}));
+    }
+
+    @Test
+    void filteredPrimitiveProperties_reduceToPrimitiveArrays() {
+        // Given
+        final BeanWithProperties binding = new BeanWithProperties().withReferenceListProperty(asList(
+            new BeanWithProperties().withIntProperty(1),
+            new BeanWithProperties().withIntProperty(2),
+            new BeanWithProperties().withIntProperty(3)
+        ));
+
+        // Then
+        assertThat(execute("referenceListProperty[intProperty > 1]\\intProperty\\[[]]", binding), equalTo(new int[] {2, 3}));
+        assertThat(execute("referenceListProperty\\intProperty[true]\\[[]]", binding), equalTo(new int[] {1, 2, 3}));
+        assertThat(execute("referenceListProperty\\intProperty[false]\\[[]]", binding), equalTo(new int[] {}));
+    }
+
+    @Test
+    void primitiveArrayProperty_reducesToPrimitiveArray() {
+        // Given
+        final int[] value = {1, 2, 3};
+        final BeanWithProperties binding = new JavaBean<>(new BeanWithProperties()).with("intArrayProperty", value).getBean();
+
+        // Then
+        assertThat(execute("intArrayProperty\\[[]]", binding), equalTo(value));
+    }
+
+    @Test
+    void nestedPrimitiveArrays_areFlattenedToPrimitiveArrays() {
+        // Given
+        final BeanWithProperties binding = new BeanWithProperties().withReferenceListProperty(asList(
+            new JavaBean<>(new BeanWithProperties()).with("intArrayProperty", new int[] {1, 2})
+                                                     .with("longArrayProperty", new long[] {10L})
+                                                     .with("doubleArrayProperty", new double[] {100d}).getBean(),
+            new JavaBean<>(new BeanWithProperties()).with("intArrayProperty", new int[] {})
+                                                     .with("longArrayProperty", new long[] {20L, 30L})
+                                                     .with("doubleArrayProperty", new double[] {}).getBean(),
+            new JavaBean<>(new BeanWithProperties()).with("intArrayProperty", new int[] {3})
+                                                     .with("longArrayProperty", new long[] {})
+                                                     .with("doubleArrayProperty", new double[] {200d, 300d}).getBean()
+        ));
+
+        // Then
+        assertThat(execute("referenceListProperty\\intArrayProperty\\[[]]", binding), equalTo(new int[] {1, 2, 3}));
+        assertThat(execute("referenceListProperty\\longArrayProperty\\[[]]", binding), equalTo(new long[] {10L, 20L, 30L}));
+        assertThat(execute("referenceListProperty\\doubleArrayProperty\\[[]]", binding), equalTo(new double[] {100d, 200d, 300d}));
+    }
+}
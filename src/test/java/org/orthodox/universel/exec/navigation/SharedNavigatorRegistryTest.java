@@ -0,0 +1,74 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.exec.navigation;
+
+import org.junit.jupiter.api.Test;
+import org.orthodox.universel.compiler.UniversalCompiler;
+
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SharedNavigatorRegistryTest {
+    @Test
+    void registry_isLoadedOnce_acrossCompilerConstruction() {
+        // Given
+        NavigatorRegistry registry = SharedNavigatorRegistry.getInstance();
+
+        // When
+        new UniversalCompiler();
+        new UniversalCompiler();
+
+        // Then
+        assertThat(SharedNavigatorRegistry.getInstance(), sameInstance(registry));
+        assertThat(registry.size(), greaterThan(0));
+    }
+
+    @Test
+    void reload_publishesNewSnapshot() {
+        // Given
+        NavigatorRegistry registry = SharedNavigatorRegistry.getInstance();
+
+        // When
+        NavigatorRegistry reloaded = SharedNavigatorRegistry.reload();
+
+        // Then
+        assertThat(reloaded, not(sameInstance(registry)));
+        assertThat(SharedNavigatorRegistry.getInstance(), sameInstance(reloaded));
+        assertThat(reloaded.size(), equalTo(registry.size()));
+    }
+
+    @Test
+    void snapshot_isUnmodifiable() {
+        NavigatorRegistry registry = SharedNavigatorRegistry.getInstance();
+
+        assertThrows(UnsupportedOperationException.class, registry::clear);
+        assertThrows(UnsupportedOperationException.class, () -> registry.addMappingNavigator(Object.class, singletonList("default"), singletonList("*"), null));
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.exec.navigation.impl.map;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class BeanMetadataTest {
+    public static class Person {
+        private String name;
+        private final int age = 42;
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public int getAge() { return age; }
+
+        public String greet() { return "Hello"; }
+        public String greet(String greeting) { return greeting; }
+        public String greet(Person other) { return other.getName(); }
+        public String greet(String greeting, Person other) { return greeting + other.getName(); }
+    }
+
+    @Test
+    void metadata_isSharedPerType() {
+        assertThat(BeanMetadata.forType(Person.class), sameInstance(BeanMetadata.forType(Person.class)));
+        assertThat(BeanMetadata.forType(Person.class), not(sameInstance(BeanMetadata.forType(Object.class))));
+    }
+
+    @Test
+    void readableProperties() throws NoSuchMethodException {
+        // Given
+        BeanMetadata metadata = BeanMetadata.forType(Person.class);
+
+        // When
+        Optional<BeanMetadata.PropertyMethods> name = metadata.getReadableProperty("name");
+        Optional<BeanMetadata.PropertyMethods> age = metadata.getReadableProperty("age");
+        Optional<BeanMetadata.PropertyMethods> missing = metadata.getReadableProperty("doesNotExist");
+
+        // Then
+        assertThat(name.isPresent(), is(true));
+        assertThat(name.get().getReadMethod(), equalTo(Person.class.getMethod("getName")));
+        assertThat(name.get().getWriteMethod(), equalTo(Person.class.getMethod("setName", String.class)));
+        assertThat(age.isPresent(), is(true));
+        assertThat(age.get().getWriteMethod(), nullValue());
+        assertThat(missing.isPresent(), is(false));
+        assertThat(metadata.getReadableProperty("name"), sameInstance(name));
+    }
+
+    @Test
+    void methodOverloads_areGroupedByNameAndArity() throws NoSuchMethodException {
+        // Given
+        BeanMetadata metadata = BeanMetadata.forType(Person.class);
+
+        // When
+        List<Method> noArgs = metadata.getMethodOverloads("greet", 0);
+        List<Method> oneArg = metadata.getMethodOverloads("greet", 1);
+        List<Method> threeArgs = metadata.getMethodOverloads("greet", 3);
+
+        // Then
+        assertThat(noArgs, contains(Person.class.getMethod("greet")));
+        assertThat(oneArg, containsInAnyOrder(Person.class.getMethod("greet", String.class), Person.class.getMethod("greet", Person.class)));
+        assertThat(threeArgs, empty());
+        assertThat(metadata.getMethodOverloads("greet", 1), sameInstance(oneArg));
+        assertThat(metadata.getMethodOverloads("doesNotExist", 0), empty());
+    }
+}
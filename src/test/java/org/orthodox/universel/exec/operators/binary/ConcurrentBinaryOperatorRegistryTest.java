@@ -0,0 +1,163 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.orthodox.universel.exec.operators.binary;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.orthodox.universel.ReferenceTestUtil.defineClassInNewClassLoader;
+import static org.orthodox.universel.ReferenceTestUtil.isStronglyReachable;
+import static org.orthodox.universel.ast.Operator.MINUS;
+import static org.orthodox.universel.ast.Operator.PLUS;
+
+class ConcurrentBinaryOperatorRegistryTest {
+    private ConcurrentBinaryOperatorRegistry registry;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        registry = new ConcurrentBinaryOperatorRegistry();
+        registry.addOperatorMethod(method("objectObject", Object.class, Object.class));
+        registry.addOperatorMethod(method("numberObject", Number.class, Object.class));
+        registry.addOperatorMethod(method("objectCharSequence", Object.class, CharSequence.class));
+        registry.addOperatorMethod(method("integerInteger", Integer.class, Integer.class));
+    }
+
+    @Test
+    void exactMatch_isFound() throws Exception {
+        assertThat(registry.lookup(PLUS, Integer.class, Integer.class), equalTo(Optional.of(method("integerInteger", Integer.class, Integer.class))));
+    }
+
+    @Test
+    void mostSpecificMatch_isFound() throws Exception {
+        assertThat(registry.lookup(PLUS, Long.class, Long.class), equalTo(Optional.of(method("numberObject", Number.class, Object.class))));
+        assertThat(registry.lookup(PLUS, Thread.class, String.class), equalTo(Optional.of(method("objectCharSequence", Object.class, CharSequence.class))));
+        assertThat(registry.getAmbiguousResolutionCount(), equalTo(0L));
+    }
+
+    @Test
+    void ambiguousMatch_isResolvedInFavourOfTheNearestSupertypes() throws Exception {
+        // When
+        Optional<Method> found = registry.lookup(PLUS, Integer.class, String.class);
+
+        // Then
+        assertThat(found, equalTo(Optional.of(method("numberObject", Number.class, Object.class))));
+        assertThat(registry.getAmbiguousResolutionCount(), equalTo(1L));
+    }
+
+    @Test
+    void lookups_areMemoised_includingLookupsFindingNothing() {
+        // When
+        registry.lookup(PLUS, Long.class, Long.class);
+        registry.lookup(PLUS, Long.class, Long.class);
+        registry.lookup(MINUS, Long.class, Long.class);
+        Optional<Method> found = registry.lookup(MINUS, Long.class, Long.class);
+
+        // Then
+        assertThat(found, equalTo(Optional.empty()));
+        assertThat(registry.getLookupCount(), equalTo(4L));
+        assertThat(registry.getResolutionCount(), equalTo(2L));
+    }
+
+    @Test
+    void memoisedLookups_areDiscarded_whenAnOperatorMethodIsAdded() throws Exception {
+        // Given
+        registry.lookup(PLUS, Long.class, Long.class);
+
+        // When
+        registry.addOperatorMethod(method("longLong", Long.class, Long.class));
+
+        // Then
+        assertThat(registry.lookup(PLUS, Long.class, Long.class), equalTo(Optional.of(method("longLong", Long.class, Long.class))));
+    }
+
+    @Test
+    void memoisedLookups_holdNoStrongReferenceToOperandTypes() throws Exception {
+        // Given
+        Class<?> operandType = defineClassInNewClassLoader("org.orthodox.universel.test.OperandType");
+
+        // When
+        Optional<Method> lhsLookup = registry.lookup(PLUS, operandType, Thread.class);
+        Optional<Method> rhsLookup = registry.lookup(PLUS, Thread.class, operandType);
+        long resolutionCount = registry.getResolutionCount();
+
+        // Then
+        assertThat(lhsLookup, equalTo(Optional.of(method("objectObject", Object.class, Object.class))));
+        assertThat(rhsLookup, equalTo(Optional.of(method("objectObject", Object.class, Object.class))));
+        assertThat(registry.lookup(PLUS, operandType, Thread.class), equalTo(lhsLookup));
+        assertThat(registry.lookup(PLUS, Thread.class, operandType), equalTo(rhsLookup));
+        assertThat(registry.getResolutionCount(), equalTo(resolutionCount));
+        assertThat(isStronglyReachable(registry, operandType), is(false));
+        assertThat(isStronglyReachable(registry, operandType.getClassLoader()), is(false));
+    }
+
+    @Test
+    void supertypeDistance() {
+        assertThat(ConcurrentBinaryOperatorRegistry.supertypeDistance(Integer.class, Integer.class), equalTo(0));
+        assertThat(ConcurrentBinaryOperatorRegistry.supertypeDistance(Integer.class, Number.class), equalTo(1));
+        assertThat(ConcurrentBinaryOperatorRegistry.supertypeDistance(Integer.class, Object.class), equalTo(2));
+        assertThat(ConcurrentBinaryOperatorRegistry.supertypeDistance(String.class, CharSequence.class), equalTo(1));
+    }
+
+    private static Method method(final String name, final Class<?> ... parameterTypes) throws NoSuchMethodException {
+        return OperatorFunctions.class.getMethod(name, parameterTypes);
+    }
+
+    public static class OperatorFunctions {
+        @BinaryOperator(PLUS)
+        public static String objectObject(Object lhs, Object rhs) {
+            return "objectObject";
+        }
+
+        @BinaryOperator(PLUS)
+        public static String numberObject(Number lhs, Object rhs) {
+            return "numberObject";
+        }
+
+        @BinaryOperator(PLUS)
+        public static String objectCharSequence(Object lhs, CharSequence rhs) {
+            return "objectCharSequence";
+        }
+
+        @BinaryOperator(PLUS)
+        public static String integerInteger(Integer lhs, Integer rhs) {
+            return "integerInteger";
+        }
+
+        @BinaryOperator(PLUS)
+        public static String longLong(Long lhs, Long rhs) {
+            return "longLong";
+        }
+    }
+}
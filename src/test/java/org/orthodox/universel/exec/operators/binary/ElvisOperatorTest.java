@@ -49,4 +49,9 @@ public class ElvisOperatorTest {
     void returnsRhsBoxed_whenLhs_null() {
         assertThat(execute("null ?: 1"), equalTo(1));
     }
+
+    @Test
+    void rhsIsNotEvaluated_whenLhs_notNull() {
+        assertThat(execute("'not null' ?: 1 / 0"), equalTo("not null"));
+    }
 }
@@ -0,0 +1,97 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.exec.operators.binary;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.orthodox.universel.Universal.execute;
+
+public class ShortCircuitLogicalOperatorTest {
+    @Test
+    void logicalAnd_doesNotEvaluateRhs_whenLhsFalse() {
+        assertThat(execute("false && 1 / 0 == 1"), equalTo(false));
+        assertThat(execute("false and 1 / 0 == 1"), equalTo(false));
+        assertThat(execute("0 && 1 / 0"), equalTo(false));
+        assertThat(execute("0L && 1L / 0L"), equalTo(false));
+    }
+
+    @Test
+    void logicalOr_doesNotEvaluateRhs_whenLhsTrue() {
+        assertThat(execute("true || 1 / 0 == 1"), equalTo(true));
+        assertThat(execute("true or 1 / 0 == 1"), equalTo(true));
+        assertThat(execute("1 || 1 / 0"), equalTo(true));
+        assertThat(execute("1L || 1L / 0L"), equalTo(true));
+    }
+
+    @Test
+    void logicalAnd_evaluatesRhs_whenLhsTrue() {
+        assertThat(execute("true && true"), equalTo(true));
+        assertThat(execute("true && false"), equalTo(false));
+        assertThat(execute("1 && 2"), equalTo(true));
+        assertThat(execute("1 && 0"), equalTo(false));
+        assertThat(execute("1.5d && 0d"), equalTo(false));
+    }
+
+    @Test
+    void logicalOr_evaluatesRhs_whenLhsFalse() {
+        assertThat(execute("false || true"), equalTo(true));
+        assertThat(execute("false || false"), equalTo(false));
+        assertThat(execute("0 || 2"), equalTo(true));
+        assertThat(execute("0 || 0"), equalTo(false));
+        assertThat(execute("0d || 0.5d"), equalTo(true));
+    }
+
+    @Test
+    void truthValues_followOperatorMethods_forReferenceOperands() {
+        assertThat(execute("a && b", new BigDecimals(BigDecimal.ONE, BigDecimal.ZERO)), equalTo(false));
+        assertThat(execute("a || b", new BigDecimals(BigDecimal.ZERO, BigDecimal.TEN)), equalTo(true));
+        assertThat(execute("a || b", new BigDecimals(null, null)), equalTo(false));
+    }
+
+    public static class BigDecimals {
+        private final BigDecimal a;
+        private final BigDecimal b;
+
+        public BigDecimals(final BigDecimal a, final BigDecimal b) {
+            this.a = a;
+            this.b = b;
+        }
+
+        public BigDecimal getA() {
+            return a;
+        }
+
+        public BigDecimal getB() {
+            return b;
+        }
+    }
+}
@@ -31,8 +31,16 @@ package org.orthodox.universel.exec.operators.range;
 import org.junit.jupiter.api.Test;
 import org.orthodox.universel.ast.Operator;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
 
 class IntegerRangeTest {
     @Test
@@ -43,5 +51,57 @@ class IntegerRangeTest {
         // Then
         assertThat(range.size(), equalTo(5));
     }
+    @Test
+    void intIterator_ascendingAndDescending() {
+        // Given
+        IntegerRange ascending = new IntegerRange(Operator.RANGE_INCLUSIVE, 1, 4);
+        IntegerRange descending = new IntegerRange(Operator.RANGE_INCLUSIVE, 4, 1);
+
+        // When
+        List<Integer> ascendingValues = new ArrayList<>();
+        for (PrimitiveIterator.OfInt iterator = ascending.intIterator(); iterator.hasNext(); ) {
+            ascendingValues.add(iterator.nextInt());
+        }
+
+        // Then
+        assertThat(ascendingValues, equalTo(asList(1, 2, 3, 4)));
+        assertThat(descending, contains(4, 3, 2, 1));
+        assertThat(descending.get(2), equalTo(2));
+    }
+
+    @Test
+    void exclusiveBounds() {
+        // Given
+        IntegerRange range = new IntegerRange(1, Operator.GREATER_THAN, 5, Operator.LESS_THAN);
+
+        // Then
+        assertThat(range, contains(2, 3, 4));
+        assertThat(range.containsInt(1), is(false));
+        assertThat(range.containsInt(4), is(true));
+        assertThat(range.contains(5), is(false));
+    }
 
-}
\ No newline at end of file
+    @Test
+    void invertedRange_wrapsAroundTheIntegerLimits() {
+        // Given
+        IntegerRange range = new IntegerRange(Integer.MAX_VALUE - 1, Operator.GREATER_THAN_EQUAL, Integer.MIN_VALUE + 1, Operator.LESS_THAN_EQUAL);
+
+        // Then
+        assertThat(range, contains(Integer.MAX_VALUE - 1, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE + 1));
+        assertThat(range.containsInt(Integer.MIN_VALUE), is(true));
+        assertThat(range.containsInt(0), is(false));
+    }
+
+    @Test
+    void intStream_parallel() {
+        // Given
+        IntegerRange range = new IntegerRange(Operator.RANGE_INCLUSIVE, 1, 10_000_000);
+
+        // When
+        long sum = range.intStream().parallel().asLongStream().sum();
+
+        // Then
+        assertThat(sum, equalTo(50_000_005_000_000L));
+        assertThat(range.stream().parallel().limit(3).collect(Collectors.toList()), equalTo(asList(1, 2, 3)));
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.orthodox.universel.exec.operators.range;
+
+import org.junit.jupiter.api.Test;
+import org.orthodox.universel.ast.Operator;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+
+import static java.math.BigInteger.ONE;
+import static java.math.BigInteger.TEN;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NumericRangeTest {
+    private static final BigInteger GOOGOL = TEN.pow(100);
+
+    @Test
+    void wideBigIntegerRange_sizeAndGet_withoutIteration() {
+        // Given
+        BigIntegerRange range = new BigIntegerRange(Operator.RANGE_INCLUSIVE, ONE, GOOGOL);
+
+        // Then
+        assertThat(range.getRangeSize(), equalTo(GOOGOL));
+        assertThat(range.size(), equalTo(Integer.MAX_VALUE));
+        assertThat(range.get(0), equalTo(ONE));
+        assertThat(range.get(1_000_000), equalTo(BigInteger.valueOf(1_000_001)));
+    }
+
+    @Test
+    void wideBigIntegerRange_subListAndStep_areLazyViews() {
+        // Given
+        BigIntegerRange range = new BigIntegerRange(Operator.RANGE_INCLUSIVE, GOOGOL, ONE);
+
+        // When
+        List<BigInteger> subList = range.subList(1, 4);
+        List<BigInteger> nestedSubList = range.subList(0, 10).subList(5, 10);
+
+        // Then
+        assertThat(subList, contains(GOOGOL.subtract(ONE), GOOGOL.subtract(BigInteger.valueOf(2)), GOOGOL.subtract(BigInteger.valueOf(3))));
+        assertThat(nestedSubList.size(), equalTo(5));
+        assertThat(nestedSubList.get(0), equalTo(GOOGOL.subtract(BigInteger.valueOf(5))));
+        assertThat(range.step(1_000_000_000).subList(0, 2), contains(GOOGOL, GOOGOL.subtract(BigInteger.valueOf(1_000_000_000))));
+    }
+
+    @Test
+    void step() {
+        // Given
+        IntegerRange range = new IntegerRange(Operator.RANGE_INCLUSIVE, 1, 10);
+
+        // Then
+        assertThat(range.step(3), contains(1, 4, 7, 10));
+        assertThat(range.step(4), contains(1, 5, 9));
+        assertThat(range.subList(2, 8).subList(1, 4), contains(4, 5, 6));
+        assertThrows(IllegalArgumentException.class, () -> range.step(0));
+    }
+
+    @Test
+    void decimalRanges_sizeAndGet() {
+        // Given
+        DoubleRange doubles = new DoubleRange(Operator.RANGE_INCLUSIVE, 1.0, 3.5);
+        BigDecimalRange decimals = new BigDecimalRange(Operator.RANGE_INCLUSIVE, new BigDecimal("1.5"), new BigDecimal("4.0"));
+
+        // Then
+        assertThat(doubles, contains(1.0, 2.0, 3.0));
+        assertThat(doubles.get(2), equalTo(3.0));
+        assertThat(decimals, contains(new BigDecimal("1.5"), new BigDecimal("2.5"), new BigDecimal("3.5")));
+        assertThat(decimals.get(2), equalTo(new BigDecimal("3.5")));
+    }
+
+    @Test
+    void wideDoubleRange_sizeDoesNotOverflow() {
+        // Given
+        DoubleRange doubles = new DoubleRange(Operator.RANGE_INCLUSIVE, 1D, 1e19D);
+        FloatRange floats = new FloatRange(Operator.RANGE_INCLUSIVE, 1F, 1e19F);
+        DoubleRange widest = new DoubleRange(Operator.RANGE_INCLUSIVE, -Double.MAX_VALUE, Double.MAX_VALUE);
+
+        // Then
+        assertThat(doubles.getRangeSize(), equalTo(TEN.pow(19)));
+        assertThat(doubles.size(), equalTo(Integer.MAX_VALUE));
+        assertThat(doubles.get(1_000_000), equalTo(1_000_001D));
+        assertThat(floats.getRangeSize(), equalTo(new BigDecimal(1e19F).toBigInteger()));
+        assertThat(floats.size(), equalTo(Integer.MAX_VALUE));
+        assertThat(widest.getRangeSize(), equalTo(new BigDecimal(Double.MAX_VALUE).toBigInteger().shiftLeft(1).add(ONE)));
+        assertThat(new DoubleRange(Operator.RANGE_INCLUSIVE, 1D, 0x1p62).getRangeSize(), equalTo((long)0x1p62));
+    }
+
+    @Test
+    void invertedDoubleRange_sizeSpansBothLimitsOfTheType() {
+        // Given
+        DoubleRange ascending = new DoubleRange(2D, Operator.GREATER_THAN_EQUAL, 1D, Operator.LESS_THAN_EQUAL);
+        DoubleRange descending = new DoubleRange(1D, Operator.LESS_THAN_EQUAL, 2D, Operator.GREATER_THAN_EQUAL);
+        BigInteger max = new BigDecimal(Double.MAX_VALUE).toBigInteger();
+        // From 2 up to the maximum, then from the minimum up to 1
+        BigInteger expectedSize = max.subtract(BigInteger.valueOf(2)).add(ONE).add(max.add(ONE).add(ONE));
+
+        // Then
+        assertThat(ascending.getRangeSize(), equalTo(expectedSize));
+        assertThat(descending.getRangeSize(), equalTo(expectedSize));
+        assertThat(ascending.size(), equalTo(Integer.MAX_VALUE));
+        assertThat(ascending.subList(0, 3), contains(2D, 3D, 4D));
+        assertThat(descending.subList(0, 3), contains(1D, 0D, -1D));
+    }
+
+    @Test
+    void longRange_fullWidthInvertedRange_hasExactSize() {
+        // Given
+        LongRange range = new LongRange(0L, Operator.LESS_THAN_EQUAL, 1L, Operator.GREATER_THAN_EQUAL);
+
+        // Then
+        assertThat(range.getRangeSize(), equalTo(ONE.shiftLeft(64)));
+        assertThat(range.size(), equalTo(Integer.MAX_VALUE));
+        assertThat(range.subList(0, 3), contains(0L, -1L, -2L));
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.orthodox.universel.semanticanalysis;
+
+import org.junit.jupiter.api.Test;
+import org.orthodox.universel.ast.Node;
+import org.orthodox.universel.ast.TokenImage;
+import org.orthodox.universel.ast.literals.StringLiteralExpr;
+import org.orthodox.universel.symanticanalysis.CompositeSemanticAnalyser;
+import org.orthodox.universel.symanticanalysis.SemanticAnalyser;
+import org.orthodox.universel.symanticanalysis.SemanticAnalysisContext;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Collections.emptyList;
+import static org.beanplanet.messages.domain.MessagesImpl.messages;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class CompositeSemanticAnalyserTest {
+    private static final SemanticAnalysisContext CONTEXT = new SemanticAnalysisContext(emptyList(), null, messages(), null);
+
+    @Test
+    void analysersNotInterestedInChanges_areOnlyRerunOnceTheTreeSettles() {
+        // Given
+        AtomicInteger uninterestedRuns = new AtomicInteger();
+        SemanticAnalyser uninterested = new SemanticAnalyser() {
+            @Override
+            public Node performAnalysis(SemanticAnalysisContext context, Node from) {
+                uninterestedRuns.incrementAndGet();
+                return from;
+            }
+
+            @Override
+            public boolean isInterestedIn(Class<? extends Node> nodeType) {
+                return false;
+            }
+        };
+        SemanticAnalyser rewritesTwice = (context, from) -> {
+            String image = from.getTokenImage().getImage();
+            return image.length() < 3 ? new StringLiteralExpr(new TokenImage(image + "a")) : from;
+        };
+        CompositeSemanticAnalyser analyser = new CompositeSemanticAnalyser(uninterested, rewritesTwice);
+
+        // When
+        Node result = analyser.performAnalysis(CONTEXT, new StringLiteralExpr(new TokenImage("a")));
+
+        // Then
+        assertThat(result.getTokenImage().getImage(), equalTo("aaa"));
+        assertThat(analyser.getChangeIterations(), equalTo(2));
+        assertThat(uninterestedRuns.get(), equalTo(2));
+        assertThat(analyser.getStatistics().get(0).getRunCount(), equalTo(2));
+        assertThat(analyser.getStatistics().get(0).getSkipCount(), equalTo(2));
+        assertThat(analyser.getStatistics().get(1).getRunCount(), equalTo(3));
+        assertThat(analyser.getStatistics().get(1).getChangeCount(), equalTo(2));
+    }
+
+    @Test
+    void unchangedTree_isRunOnceByEachAnalyser() {
+        // Given
+        SemanticAnalyser identity = (context, from) -> from;
+        CompositeSemanticAnalyser analyser = new CompositeSemanticAnalyser(identity, identity, identity);
+        Node from = new StringLiteralExpr(new TokenImage("a"));
+
+        // When
+        Node result = analyser.performAnalysis(CONTEXT, from);
+
+        // Then
+        assertThat(result, sameInstance(from));
+        assertThat(analyser.getChangeIterations(), equalTo(0));
+        analyser.getStatistics().forEach(statistics -> assertThat(statistics.getRunCount(), equalTo(1)));
+    }
+}
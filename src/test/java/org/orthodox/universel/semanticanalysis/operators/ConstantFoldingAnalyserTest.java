@@ -0,0 +1,93 @@
+/*
+ *  MIT Licence:
+ *
+ *  Copyright (c) 2020 Orthodox Engineering Ltd
+ *
+ *  Permission is hereby granted, free of charge, to any person
+ *  obtaining a copy of this software and associated documentation
+ *  files (the "Software"), to deal in the Software without restriction
+ *  including without limitation the rights to use, copy, modify, merge,
+ *  publish, distribute, sublicense, and/or sell copies of the Software,
+ *  and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be
+ *  included in all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ *  KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ *  PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ *  CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ *  DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.orthodox.universel.semanticanalysis.operators;
+
+import org.junit.jupiter.api.Test;
+import org.orthodox.universel.BeanWithProperties;
+import org.orthodox.universel.compiler.CompiledUnitCache;
+import org.orthodox.universel.compiler.UniversalCompiler;
+import org.orthodox.universel.exec.navigation.SharedNavigatorRegistry;
+import org.orthodox.universel.symanticanalysis.AnalyserStatistics;
+import org.orthodox.universel.symanticanalysis.CompositeSemanticAnalyser;
+import org.orthodox.universel.symanticanalysis.SemanticAnalysisContext;
+import org.orthodox.universel.symanticanalysis.operators.ConstantFoldingAnalyser;
+
+import static java.util.Collections.emptyList;
+import static org.beanplanet.messages.domain.MessagesImpl.messages;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.orthodox.universel.Universal.execute;
+
+class ConstantFoldingAnalyserTest {
+    @Test
+    void arithmeticOnLiterals_isFolded() {
+        assertThat(foldedNodeCountOf("60 * 60 * 24", null), equalTo(2));
+        assertThat(execute("60 * 60 * 24"), equalTo(86400));
+    }
+
+    @Test
+    void nonLiteralIntermediateValues_areFolded_whenTheResultIsALiteral() {
+        assertThat(foldedNodeCountOf("'a'..'z' contains 'q'", null), equalTo(2));
+        assertThat(execute("'a'..'z' contains 'q'"), is(true));
+    }
+
+    @Test
+    void interpolatedStringWithConstantParts_isFolded() {
+        assertThat(foldedNodeCountOf("\"Hello ${'World'}, ${1 + 2}!\"", null), equalTo(2));
+        assertThat(execute("\"Hello ${'World'}, ${1 + 2}!\""), equalTo("Hello World, 3!"));
+    }
+
+    @Test
+    void constantSubExpressions_ofNonConstantExpressions_areFolded() {
+        assertThat(foldedNodeCountOf("intProperty * (60 * 60)", BeanWithProperties.class), equalTo(1));
+        assertThat(execute("intProperty * (60 * 60)", new BeanWithProperties(2)), equalTo(7200));
+    }
+
+    @Test
+    void expressionsWhoseEvaluationFails_areNotFolded() {
+        assertThat(foldedNodeCountOf("1 / 0", null), equalTo(0));
+    }
+
+    private static int foldedNodeCountOf(final String script, final Class<?> bindingType) {
+        UniversalCompiler compiler = new UniversalCompiler(CompiledUnitCache.disabled());
+        CompositeSemanticAnalyser analyser = (CompositeSemanticAnalyser)compiler.getSemanticAnalyser();
+        analyser.performAnalysis(new SemanticAnalysisContext(emptyList(), bindingType, messages(), SharedNavigatorRegistry.getInstance()),
+                                 compiler.parse(script));
+
+        return analyser.getStatistics()
+                       .stream()
+                       .map(AnalyserStatistics::getAnalyser)
+                       .filter(ConstantFoldingAnalyser.class::isInstance)
+                       .map(ConstantFoldingAnalyser.class::cast)
+                       .findFirst()
+                       .map(ConstantFoldingAnalyser::getFoldedNodeCount)
+                       .orElse(-1);
+    }
+}